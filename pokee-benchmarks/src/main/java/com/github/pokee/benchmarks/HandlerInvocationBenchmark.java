@@ -0,0 +1,90 @@
+package com.github.pokee.benchmarks;
+
+import com.github.pokee.pswf.annotation.data.Param;
+import com.github.pokee.pswf.annotation.data.Query;
+import com.github.pokee.pswf.annotation.method.GET;
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.router.Context;
+import com.github.pokee.pswf.router.PathParameters;
+import com.github.pokee.pswf.util.router.MethodTransformer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares calling an annotated handler method through {@link MethodTransformer} with the reflective path it
+ * replaced: collecting the arguments into a list while reading the parameter annotations on every call, and
+ * invoking the method with {@link java.lang.reflect.Method#invoke(Object, Object...)}.
+ * <p>
+ * Run with: {@code mvn -pl pokee-benchmarks -am package && java -jar pokee-benchmarks/target/benchmarks.jar HandlerInvocationBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerInvocationBenchmark {
+
+    private PokemonRoutes routes;
+    private java.lang.reflect.Method method;
+    private MethodTransformer transformer;
+    private Context context;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        this.routes = new PokemonRoutes();
+        this.method = PokemonRoutes.class.getMethod("getById", int.class, String.class);
+        this.transformer = MethodTransformer.fromMethod(this.method);
+
+        final String path = "/pokemon/25";
+        final Request request = new Request(Method.GET, path, "lang=de", Version.VERSION_1_1,
+                new Headers(), RequestBody.empty());
+        this.context = new Context(request, List.of(),
+                new PathParameters(path, new String[]{"id"}, new int[]{9, 11}));
+        this.context.query("lang"); // parse the query once, it is cached by the context
+    }
+
+    @Benchmark
+    public Object reflectiveInvoke() throws Exception {
+        final List<Object> parameters = new ArrayList<>();
+        for (final Parameter parameter : this.method.getParameters()) {
+            if (parameter.isAnnotationPresent(Param.class)) {
+                parameters.add(this.context.paramInt(parameter.getAnnotation(Param.class).value(), 0));
+            } else {
+                final Query query = parameter.getAnnotation(Query.class);
+                parameters.add(this.context.query(query.value(), query.fallback()));
+            }
+        }
+        return this.method.invoke(this.routes, parameters.toArray());
+    }
+
+    @Benchmark
+    public Object methodHandleInvoke() throws Throwable {
+        return this.transformer.invoker().invoke(this.routes, this.context);
+    }
+
+    @Benchmark
+    public Response methodHandleRun() throws Exception {
+        return this.transformer.run(this.routes, this.context);
+    }
+
+    public static class PokemonRoutes {
+
+        @GET("/pokemon/:id")
+        public String getById(@Param("id") final int id,
+                              @Query(value = "lang", fallback = "en") final String language) {
+            return language.length() == 2 ? "pokemon" : "unknown";
+        }
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.github.pokee.benchmarks;
+
+import com.github.pokee.pswf.headers.Headers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures header lookups on a set of headers as a browser would send them, and building such a set.
+ * <p>
+ * Run with: {@code mvn -pl pokee-benchmarks -am package && java -jar pokee-benchmarks/target/benchmarks.jar HeadersBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeadersBenchmark {
+
+    private static final String[][] REQUEST_HEADERS = {
+            {"Host", "localhost:8080"},
+            {"User-Agent", "Mozilla/5.0 (X11; Linux x86_64; rv:125.0) Gecko/20100101 Firefox/125.0"},
+            {"Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"},
+            {"Accept-Language", "en-US,en;q=0.5"},
+            {"Accept-Encoding", "gzip, deflate, br"},
+            {"Connection", "keep-alive"},
+            {"Cookie", "session=4f2a9c"},
+            {"Upgrade-Insecure-Requests", "1"},
+            {"Sec-Fetch-Dest", "document"},
+            {"Sec-Fetch-Mode", "navigate"},
+            {"If-None-Match", "\"dejG_3pR3Gjb00ePDQD27Q\""},
+            {"Cache-Control", "max-age=0"}
+    };
+
+    private Headers headers;
+
+    @Setup
+    public void setup() {
+        this.headers = HeadersBenchmark.build();
+    }
+
+    private static Headers build() {
+        final Headers headers = new Headers();
+        for (final String[] header : REQUEST_HEADERS) {
+            headers.add(header[0], header[1]);
+        }
+        return headers;
+    }
+
+    @Benchmark
+    public void lookup(final Blackhole blackhole) {
+        blackhole.consume(this.headers.get("Accept-Encoding"));
+        blackhole.consume(this.headers.get("connection"));
+        blackhole.consume(this.headers.get("If-None-Match"));
+        blackhole.consume(this.headers.has("Transfer-Encoding"));
+    }
+
+    @Benchmark
+    public void lookupUnknown(final Blackhole blackhole) {
+        blackhole.consume(this.headers.get("Sec-Fetch-Mode"));
+    }
+
+    @Benchmark
+    public Headers buildHeaders() {
+        return HeadersBenchmark.build();
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.github.pokee.benchmarks;
+
+import com.github.pokee.pson.exception.TokenTypeExpectedException;
+import com.github.pokee.pson.parser.JsonParser;
+import com.github.pokee.pson.parser.JsonReader;
+import com.github.pokee.pson.parser.JsonToken;
+import com.github.pokee.pson.parser.JsonTokenType;
+import com.github.pokee.pson.parser.JsonTokenizer;
+import com.github.pokee.pson.value.JsonElement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures tokenizing and parsing {@code pokemon.json}, the data set the bootstrap application loads on startup.
+ * The file is read from the working directory, or from the path in the {@code pokee.benchmarks.json} property.
+ * <p>
+ * Run with: {@code mvn -pl pokee-benchmarks -am package && java -jar pokee-benchmarks/target/benchmarks.jar JsonParserBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonParserBenchmark {
+
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        this.json = Files.readString(Path.of(System.getProperty("pokee.benchmarks.json", "pokemon.json")));
+    }
+
+    @Benchmark
+    public void tokenize(final Blackhole blackhole) {
+        final JsonTokenizer tokenizer = new JsonTokenizer(this.json);
+        JsonToken token;
+        while ((token = tokenizer.nextToken()).type() != JsonTokenType.END_DOCUMENT) {
+            blackhole.consume(token);
+        }
+    }
+
+    @Benchmark
+    public JsonElement parse() throws TokenTypeExpectedException {
+        return new JsonParser(this.json, false).parse();
+    }
+
+    @Benchmark
+    public void stream() throws TokenTypeExpectedException, IOException {
+        final JsonReader reader = new JsonReader(this.json);
+        reader.skipValue();
+        reader.endDocument();
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.github.pokee.benchmarks;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.router.Context;
+import com.github.pokee.pswf.router.ParameterizableRouter;
+import com.github.pokee.pswf.router.handler.Handler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the {@link ParameterizableRouter} takes to match a request against a few hundred routes.
+ * <p>
+ * Run with: {@code mvn -pl pokee-benchmarks -am package && java -jar pokee-benchmarks/target/benchmarks.jar RouterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterBenchmark {
+
+    private static final String[] RESOURCES = {
+            "pokemon", "moves", "abilities", "items", "types", "regions", "trainers", "gyms", "berries", "natures"
+    };
+
+    private static final Handler HANDLER = context -> {
+    };
+
+    private ParameterizableRouter router;
+
+    private Request staticRequest;
+    private Request parameterRequest;
+    private Request nestedRequest;
+    private Request wildcardRequest;
+
+    @Setup
+    public void setup() {
+        this.router = new ParameterizableRouter();
+        // 10 resources * 32 routes = 320 routes
+        for (final String resource : RESOURCES) {
+            for (int version = 0; version < 4; version++) {
+                final String prefix = "/api/v" + version + "/" + resource;
+                this.router.registerRoute(Method.GET, prefix, HANDLER);
+                this.router.registerRoute(Method.POST, prefix, HANDLER);
+                this.router.registerRoute(Method.GET, prefix + "/count", HANDLER);
+                this.router.registerRoute(Method.GET, prefix + "/search", HANDLER);
+                this.router.registerRoute(Method.GET, prefix + "/:id", HANDLER);
+                this.router.registerRoute(Method.GET, prefix + "/:id/details", HANDLER);
+                this.router.registerRoute(Method.GET, prefix + "/:id/related/:relation", HANDLER);
+                this.router.registerRoute(Method.GET, prefix + "/:id/files/*file", HANDLER);
+            }
+        }
+
+        this.staticRequest = RouterBenchmark.request("/api/v3/natures/search");
+        this.parameterRequest = RouterBenchmark.request("/api/v3/natures/25");
+        this.nestedRequest = RouterBenchmark.request("/api/v3/natures/25/related/evolutions");
+        this.wildcardRequest = RouterBenchmark.request("/api/v3/natures/25/files/sprites/front/default.png");
+    }
+
+    private static Request request(final String path) {
+        return new Request(Method.GET, path, "", Version.VERSION_1_1, new Headers(), RequestBody.empty());
+    }
+
+    @Benchmark
+    public Context matchStatic() {
+        return this.router.createContext(this.staticRequest);
+    }
+
+    @Benchmark
+    public Context matchParameter() {
+        return this.router.createContext(this.parameterRequest);
+    }
+
+    @Benchmark
+    public void matchNestedParameters(final Blackhole blackhole) {
+        final Context context = this.router.createContext(this.nestedRequest);
+        blackhole.consume(context.param("id"));
+        blackhole.consume(context.param("relation"));
+    }
+
+    @Benchmark
+    public void matchWildcard(final Blackhole blackhole) {
+        final Context context = this.router.createContext(this.wildcardRequest);
+        blackhole.consume(context.param("file"));
+    }
+
+}
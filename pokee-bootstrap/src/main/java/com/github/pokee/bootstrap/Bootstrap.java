@@ -9,6 +9,8 @@ import com.github.pokee.common.Pokemon;
 import com.github.pokee.pson.Pson;
 import com.github.pokee.pson.value.JsonElement;
 import com.github.pokee.pson.value.JsonObject;
+import com.github.pokee.pswf.accesslog.AccessLog;
+import com.github.pokee.pswf.accesslog.AccessLogFormat;
 import com.github.pokee.pswf.connection.WebServer;
 import com.github.pokee.pswf.connection.WebServerBuilder;
 import com.github.pokee.pswf.exception.request.RequestException;
@@ -43,6 +45,15 @@ public class Bootstrap {
         final WebServer server = new WebServerBuilder(8080)
                 .parameterized()
                 .errorHandler(new JsonErrorHandler())
+                .metrics()
+                .accessLog(AccessLog.create().format(AccessLogFormat.COMBINED).build())
+                // middleware example: report how long the handlers of all /pokemon routes took
+                .use("/pokemon", (context, next) -> {
+                    final long started = System.nanoTime();
+                    next.proceed();
+                    context.response = context.response.withHeader("Server-Timing",
+                            "app;dur=" + (System.nanoTime() - started) / 1_000_000.0);
+                })
                 // single route middleware example
                 .register(Method.GET, "/hello/:name", context -> {
                     if (context.queryInt("age", 0) < 18) {
@@ -5,7 +5,6 @@ import com.github.pokee.common.LocalizedString;
 import com.github.pokee.common.Pokemon;
 import com.github.pokee.common.fielder.Fielder;
 import com.github.pokee.pson.Pson;
-import com.github.pokee.pson.PsonBuilder;
 import com.github.pokee.psql.Lexer;
 import com.github.pokee.psql.Parser;
 import com.github.pokee.psql.domain.tree.nodes.grammar.impl.ProgramContext;
@@ -17,6 +16,7 @@ import com.github.pokee.psql.visitor.impl.SemanticAnalyzerVisitor;
 import com.github.pokee.pswf.annotation.RoutePrefix;
 import com.github.pokee.pswf.annotation.data.Param;
 import com.github.pokee.pswf.annotation.data.Query;
+import com.github.pokee.pswf.annotation.generator.Cached;
 import com.github.pokee.pswf.annotation.generator.ContentType;
 import com.github.pokee.pswf.annotation.method.GET;
 import com.github.pokee.pswf.response.Response;
@@ -25,13 +25,21 @@ import com.github.pokee.pswf.response.StatusCode;
 import com.github.pokee.pswf.util.ContentTypes;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @RoutePrefix("/pokemon")
 public class PokemonHandler {
 
+    // the language is taken from the query, so only this many Pson instances are cached
+    private static final int MAX_CACHED_LANGUAGES = 32;
+
     private final PokemonRepository pokemonRepository;
     private final Map<String, NamespaceValues> namespaceValues;
 
+    // each Pson caches the bindings of the written classes, so it is reused for all requests of the same language
+    private final Map<String, Pson> localizedPsons = new ConcurrentHashMap<>();
+
     public PokemonHandler(final PokemonRepository pokemonRepository) {
         this.pokemonRepository = pokemonRepository;
 
@@ -43,29 +51,42 @@ public class PokemonHandler {
         this.namespaceValues.put("Pokemon", pokemonValues);
     }
 
-    private PsonBuilder createLocalizedPson(final String language) {
-        return Pson.create().registerValueWriterMapper(
-                LocalizedString.class,
-                (writer, bob, field, value) -> writer.writeString(bob, ((LocalizedString) value).get(language))
-        );
+    private Pson getLocalizedPson(final String language) {
+        final Pson pson = this.localizedPsons.get(language);
+        if (pson != null) {
+            return pson;
+        }
+        if (this.localizedPsons.size() >= MAX_CACHED_LANGUAGES) {
+            return this.createLocalizedPson(language);
+        }
+        return this.localizedPsons.computeIfAbsent(language, this::createLocalizedPson);
     }
 
-    @GET("/")
-    @ContentType(ContentTypes.JSON)
-    public String handleListAll(@Query(value = "lang", fallback = "en") final String language) {
-        final Pson pson = this.createLocalizedPson(language)
+    private Pson createLocalizedPson(final String language) {
+        return Pson.create()
+                .registerValueWriterMapper(
+                        LocalizedString.class,
+                        (writer, bob, field, value) -> writer.writeString(bob, ((LocalizedString) value).get(language))
+                )
                 .prettyPrint()
                 .build();
-        return pson.marshal(this.pokemonRepository.findAll());
+    }
+
+    @GET("/")
+    @Cached(ttl = 5, unit = TimeUnit.MINUTES, varyBy = "lang")
+    public Response handleListAll(@Query(value = "lang", fallback = "en") final String language) {
+        final Pson pson = this.getLocalizedPson(language);
+        return new ResponseBuilder()
+                .jsonStream(pson, this.pokemonRepository.findAll())
+                .build();
     }
 
     @GET("/:id")
     @ContentType(ContentTypes.JSON)
+    @Cached(ttl = 5, unit = TimeUnit.MINUTES, varyBy = "lang", maxEntries = 1024)
     public Response handleGetById(@Param("id") final int id,
                                   @Query(value = "lang", fallback = "en") final String language) {
-        final Pson pson = this.createLocalizedPson(language)
-                .prettyPrint()
-                .build();
+        final Pson pson = this.getLocalizedPson(language);
 
         final Optional<Pokemon> pokemon = this.pokemonRepository.findById(id);
         if (pokemon.isEmpty()) {
@@ -83,9 +104,7 @@ public class PokemonHandler {
     @GET("/query")
     public Response handleQuery(@Query("query") final String query,
                                 @Query(value = "lang", fallback = "en") final String language) {
-        final Pson pson = this.createLocalizedPson(language)
-                .prettyPrint()
-                .build();
+        final Pson pson = this.getLocalizedPson(language);
 
         final Lexer lexer = new Lexer(query);
         final Parser parser = new Parser(lexer);
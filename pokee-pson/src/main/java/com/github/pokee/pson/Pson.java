@@ -3,16 +3,27 @@ package com.github.pokee.pson;
 import com.github.pokee.pson.exception.TokenTypeExpectedException;
 import com.github.pokee.pson.mapper.*;
 import com.github.pokee.pson.mapper.annotations.PsonSource;
+import com.github.pokee.pson.output.JsonOutput;
 import com.github.pokee.pson.parser.JsonFunctionRunner;
 import com.github.pokee.pson.parser.JsonParser;
+import com.github.pokee.pson.parser.JsonReader;
 import com.github.pokee.pson.value.JsonArray;
 import com.github.pokee.pson.value.JsonElement;
 import com.github.pokee.pson.value.JsonObject;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -73,6 +84,11 @@ public class Pson {
         return new JsonParser(json, this.expandFunctions, this.jsonFunctionRunner);
     }
 
+    private JsonReader createReader(final Reader reader) {
+        final JsonReader jsonReader = new JsonReader(reader);
+        return this.expandFunctions ? jsonReader.withFunctions(this.jsonFunctionRunner) : jsonReader;
+    }
+
     /**
      * Marshal an object to a JSON string
      *
@@ -81,7 +97,7 @@ public class Pson {
      */
     public String marshal(final Object object) {
         final StringBuilder bob = new StringBuilder();
-        this.jsonWriterMapper.write(bob, null, object, 0);
+        this.marshal(bob, object);
         return bob.toString();
     }
 
@@ -92,7 +108,65 @@ public class Pson {
      * @param object the object to marshal
      */
     public void marshal(final StringBuilder bob, final Object object) {
-        this.jsonWriterMapper.write(bob, null, object, 0);
+        this.marshal(JsonOutput.of(bob), object);
+    }
+
+    /**
+     * Marshal an object to an output. Buffered outputs are not flushed, so more values can be written to them.
+     *
+     * @param output the output to write to
+     * @param object the object to marshal
+     * @throws UncheckedIOException if writing to the output fails
+     */
+    public void marshal(final JsonOutput output, final Object object) {
+        this.jsonWriterMapper.write(output, null, object, 0);
+    }
+
+    /**
+     * Marshal an object to UTF-8 encoded JSON, without creating a JSON string first
+     *
+     * @param object the object to marshal
+     * @return the UTF-8 encoded JSON
+     */
+    public byte[] marshalToBytes(final Object object) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final JsonOutput output = JsonOutput.of(outputStream);
+        this.marshal(output, object);
+        output.flush();
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Marshal an object to a stream as UTF-8 encoded JSON.
+     * The JSON is encoded while it is written, so it is never held in memory as a whole.
+     * The stream is neither flushed nor closed.
+     *
+     * @param object       the object to marshal
+     * @param outputStream the stream to write to
+     * @throws IOException if writing to the stream fails
+     */
+    public void marshal(final Object object, final OutputStream outputStream) throws IOException {
+        this.marshalAndFlush(JsonOutput.of(outputStream), object);
+    }
+
+    /**
+     * Marshal an object to a channel as UTF-8 encoded JSON, see {@link #marshal(Object, OutputStream)}
+     *
+     * @param object  the object to marshal
+     * @param channel the channel to write to
+     * @throws IOException if writing to the channel fails
+     */
+    public void marshal(final Object object, final WritableByteChannel channel) throws IOException {
+        this.marshalAndFlush(JsonOutput.of(channel), object);
+    }
+
+    private void marshalAndFlush(final JsonOutput output, final Object object) throws IOException {
+        try {
+            this.marshal(output, object);
+            output.flush();
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     /**
@@ -150,7 +224,9 @@ public class Pson {
      * @throws IOException           if the file could not be read
      */
     public <T> T unmarshalObjectFromFile(final Path path, final Class<T> clazz) throws IOException {
-        return this.unmarshalObject(String.join("\n", Files.readAllLines(path)), clazz);
+        try (final Reader reader = Files.newBufferedReader(path)) {
+            return this.unmarshalObject(reader, clazz);
+        }
     }
 
 
@@ -172,6 +248,41 @@ public class Pson {
         }
     }
 
+    /**
+     * Unmarshal a JSON document to an object while reading it, without building a JsonElement tree
+     *
+     * @param reader the reader of the JSON document, not closed by this method
+     * @param clazz  the class of the object
+     * @param <T>    the type of the object
+     * @return the object
+     * @throws IllegalStateException if the object could not be unmarshalled
+     * @throws IOException           if the document could not be read
+     */
+    public <T> T unmarshalObject(final Reader reader, final Class<T> clazz) throws IOException {
+        final JsonReader jsonReader = this.createReader(reader);
+        try {
+            final T object = this.jsonReaderMapper.readObject(jsonReader, clazz);
+            jsonReader.endDocument();
+            return object;
+        } catch (TokenTypeExpectedException | ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to unmarshal object", e);
+        }
+    }
+
+    /**
+     * Unmarshal a UTF-8 encoded JSON document to an object while reading it, without building a JsonElement tree
+     *
+     * @param inputStream the stream of the JSON document, not closed by this method
+     * @param clazz       the class of the object
+     * @param <T>         the type of the object
+     * @return the object
+     * @throws IllegalStateException if the object could not be unmarshalled
+     * @throws IOException           if the document could not be read
+     */
+    public <T> T unmarshalObject(final InputStream inputStream, final Class<T> clazz) throws IOException {
+        return this.unmarshalObject(new InputStreamReader(inputStream, StandardCharsets.UTF_8), clazz);
+    }
+
     /**
      * Unmarshal a JSON string to an object
      *
@@ -221,8 +332,30 @@ public class Pson {
      * @throws IllegalStateException if the JSON could not be unmarshalled
      */
     public <T> T[] unmarshalArrayFromFile(final File file, final Class<T> clazz) throws IOException {
-        final String json = new String(Files.readAllBytes(file.toPath()));
-        return this.unmarshalArray(json, clazz);
+        try (final Reader reader = Files.newBufferedReader(file.toPath())) {
+            return this.unmarshalArray(reader, clazz);
+        }
+    }
+
+    /**
+     * Unmarshal a JSON document to an array while reading it, without building a JsonElement tree
+     *
+     * @param reader the reader of the JSON document, not closed by this method
+     * @param clazz  the class of the array elements
+     * @param <T>    the type of the array elements
+     * @return the array of objects of type T
+     * @throws IllegalStateException if the array could not be unmarshalled
+     * @throws IOException           if the document could not be read
+     */
+    public <T> T[] unmarshalArray(final Reader reader, final Class<T> clazz) throws IOException {
+        final JsonReader jsonReader = this.createReader(reader);
+        try {
+            final T[] array = this.jsonReaderMapper.readArray(jsonReader, clazz);
+            jsonReader.endDocument();
+            return array;
+        } catch (TokenTypeExpectedException | ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to unmarshal array", e);
+        }
     }
 
     /**
@@ -277,8 +410,37 @@ public class Pson {
      * @throws IllegalStateException if the JSON could not be unmarshalled
      */
     public <T> List<T> unmarshalListFromFile(final File file, final Class<T> clazz) throws IOException {
-        final String json = new String(Files.readAllBytes(file.toPath()));
-        return this.unmarshalList(json, clazz);
+        try (final Reader reader = Files.newBufferedReader(file.toPath())) {
+            return this.unmarshalList(reader, clazz);
+        }
+    }
+
+    /**
+     * Unmarshal a JSON document to a list while reading it, without building a JsonElement tree
+     *
+     * @param reader the reader of the JSON document, not closed by this method
+     * @param clazz  the class of the list elements
+     * @param <T>    the type of the list elements
+     * @return the list of objects of type T
+     * @throws IllegalStateException if the list could not be unmarshalled
+     * @throws IOException           if the document could not be read
+     */
+    public <T> List<T> unmarshalList(final Reader reader, final Class<T> clazz) throws IOException {
+        return Arrays.asList(this.unmarshalArray(reader, clazz));
+    }
+
+    /**
+     * Unmarshal a UTF-8 encoded JSON document to a list while reading it, without building a JsonElement tree
+     *
+     * @param inputStream the stream of the JSON document, not closed by this method
+     * @param clazz       the class of the list elements
+     * @param <T>         the type of the list elements
+     * @return the list of objects of type T
+     * @throws IllegalStateException if the list could not be unmarshalled
+     * @throws IOException           if the document could not be read
+     */
+    public <T> List<T> unmarshalList(final InputStream inputStream, final Class<T> clazz) throws IOException {
+        return this.unmarshalList(new InputStreamReader(inputStream, StandardCharsets.UTF_8), clazz);
     }
 
     /**
@@ -2,6 +2,7 @@ package com.github.pokee.pson;
 
 import com.github.pokee.pson.functions.FunctionCallback;
 import com.github.pokee.pson.mapper.*;
+import com.github.pokee.pson.mapper.mappers.PrimitiveReaderMapper;
 import com.github.pokee.pson.parser.JsonFunctionRunner;
 
 import java.lang.annotation.Annotation;
@@ -18,27 +19,27 @@ public class PsonBuilder {
     public static final String DEFAULT_PRETTY_PRINT_INDENT = "  ";
 
     public static final Map<Class<?>, List<FieldMapper<ValueReaderMapper>>> DEFAULT_VALUE_READER_MAPPERS = Map.of(
-            String.class, List.of(FieldMapper.wrap((element, field) -> element.asPrimitive().asString())),
-            Integer.class, List.of(FieldMapper.wrap((element, field) -> element.asPrimitive().asInteger())),
-            int.class, List.of(FieldMapper.wrap((element, field) -> element.asPrimitive().asInteger())),
-            Double.class, List.of(FieldMapper.wrap((element, field) -> element.asPrimitive().asDouble())),
-            double.class, List.of(FieldMapper.wrap((element, field) -> element.asPrimitive().asDouble())),
-            Float.class, List.of(FieldMapper.wrap((element, field) -> (float) element.asPrimitive().asDouble())),
-            float.class, List.of(FieldMapper.wrap((element, field) -> (float) element.asPrimitive().asDouble())),
-            Boolean.class, List.of(FieldMapper.wrap((element, field) -> element.asPrimitive().asBoolean())),
-            boolean.class, List.of(FieldMapper.wrap((element, field) -> element.asPrimitive().asBoolean()))
+            String.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.STRING)),
+            Integer.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.INTEGER)),
+            int.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.INTEGER)),
+            Double.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.DOUBLE)),
+            double.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.DOUBLE)),
+            Float.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.FLOAT)),
+            float.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.FLOAT)),
+            Boolean.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.BOOLEAN)),
+            boolean.class, List.of(FieldMapper.wrap(PrimitiveReaderMapper.BOOLEAN))
     );
 
     public static final Map<Class<?>, List<FieldMapper<ValueWriterMapper>>> DEFAULT_VALUE_WRITER_MAPPERS = Map.of(
-            String.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append('"').append(JsonWriterMapper.escapeString((String) value)).append('"'))),
-            Integer.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append(value))),
-            int.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append(value))),
-            Double.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append(value))),
-            double.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append(value))),
-            Float.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append(value))),
-            float.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append(value))),
-            Boolean.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append(value))),
-            boolean.class, List.of(FieldMapper.wrap((writer, bob, field, value) -> bob.append(value))
+            String.class, List.of(FieldMapper.wrap((writer, output, field, value) -> writer.writeString(output, (String) value))),
+            Integer.class, List.of(FieldMapper.wrap((writer, output, field, value) -> output.append(value.toString()))),
+            int.class, List.of(FieldMapper.wrap((writer, output, field, value) -> output.append(value.toString()))),
+            Double.class, List.of(FieldMapper.wrap((writer, output, field, value) -> output.append(value.toString()))),
+            double.class, List.of(FieldMapper.wrap((writer, output, field, value) -> output.append(value.toString()))),
+            Float.class, List.of(FieldMapper.wrap((writer, output, field, value) -> output.append(value.toString()))),
+            float.class, List.of(FieldMapper.wrap((writer, output, field, value) -> output.append(value.toString()))),
+            Boolean.class, List.of(FieldMapper.wrap((writer, output, field, value) -> output.append(value.toString()))),
+            boolean.class, List.of(FieldMapper.wrap((writer, output, field, value) -> output.append(value.toString()))
             ));
 
     /// Writing
@@ -4,17 +4,20 @@ import com.github.pokee.pson.exception.TokenTypeExpectedException;
 import com.github.pokee.pson.mapper.annotations.JsonIgnore;
 import com.github.pokee.pson.mapper.annotations.JsonMappper;
 import com.github.pokee.pson.mapper.annotations.JsonOptional;
-import com.github.pokee.pson.mapper.annotations.JsonProperty;
+import com.github.pokee.pson.parser.JsonReader;
+import com.github.pokee.pson.parser.JsonTokenType;
 import com.github.pokee.pson.value.JsonArray;
 import com.github.pokee.pson.value.JsonElement;
 import com.github.pokee.pson.value.JsonObject;
 import com.github.pokee.pson.value.JsonPrimitive;
 import sun.misc.Unsafe;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JsonReaderMapper {
 
@@ -22,13 +25,29 @@ public class JsonReaderMapper {
 
     private final Map<Class<? extends ValueReaderMapper>, ValueReaderMapper> instantiatedValueReaderMapperMap;
 
+    // the value mappers depend on the registered mappers, so the bindings are cached per mapper
+    private final Map<Class<?>, ObjectBinding<ValueReaderMapper>> bindings = new ConcurrentHashMap<>();
+
     private Unsafe unsafe;
 
     public JsonReaderMapper(
             final Map<Class<?>, List<FieldMapper<ValueReaderMapper>>> valueReaderMapperMap
     ) {
         this.valueReaderMapperMap = valueReaderMapperMap;
-        this.instantiatedValueReaderMapperMap = new HashMap<>();
+        this.instantiatedValueReaderMapperMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the binding of the fields of a class, which is created once per class
+     *
+     * @param clazz the class
+     * @return the binding
+     */
+    public ObjectBinding<ValueReaderMapper> getBinding(final Class<?> clazz) {
+        return this.bindings.computeIfAbsent(
+                clazz,
+                type -> ObjectBinding.create(type, field -> this.getValueReaderMapper(field, field.getType()))
+        );
     }
 
     /**
@@ -40,6 +59,11 @@ public class JsonReaderMapper {
      * @throws NumberFormatException    if the input string contains an invalid unicode escape sequence
      */
     public static String unescapeString(final String escapedInput) {
+        // nothing to unescape
+        if (escapedInput.indexOf('\\') == -1) {
+            return escapedInput;
+        }
+
         final StringBuilder bob = new StringBuilder();
 
         loop:
@@ -141,11 +165,29 @@ public class JsonReaderMapper {
      * @param field   the field
      * @return the value
      */
-    @SuppressWarnings("unchecked")
     public Object getValueForField(
             final JsonElement element,
             final String key,
             final Field field
+    ) throws TokenTypeExpectedException, ReflectiveOperationException {
+        return this.getValueForField(element, key, field, this.getValueReaderMapper(field, field.getType()));
+    }
+
+    /**
+     * Get the value for a field whose value reader mapper was already resolved
+     *
+     * @param element the JSON element
+     * @param key     the key of the field
+     * @param field   the field
+     * @param mapper  the value reader mapper of the field, or null
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    private Object getValueForField(
+            final JsonElement element,
+            final String key,
+            final Field field,
+            final ValueReaderMapper mapper
     ) throws TokenTypeExpectedException, ReflectiveOperationException {
         final Class<?> fieldType = field.getType();
 
@@ -169,7 +211,6 @@ public class JsonReaderMapper {
             return this.readArrayAsList(element.asArray(), (Class<?>) genericType.getActualTypeArguments()[0]);
         }
 
-        final ValueReaderMapper mapper = this.getValueReaderMapper(field, fieldType);
         if (mapper != null) {
             return mapper.mapValue(element, field);
         }
@@ -221,50 +262,25 @@ public class JsonReaderMapper {
         //noinspection unchecked (this should be safe since we specify the type of the object)
         final T object = (T) unsafe.allocateInstance(clazz);
 
-        // collect all fields from the object and its superclasses
-        final Map<String, Field> fields = JsonMapperUtil.getDeclaredFieldsInClassAndSuperClasses(clazz);
-
         // now it's time to populate the fields
-        for (final Field field : fields.values()) {
-            final String key = field.isAnnotationPresent(JsonProperty.class) ?
-                    field.getAnnotation(JsonProperty.class).value() :
-                    field.getName();
+        for (final ObjectBinding.Property<ValueReaderMapper> property : this.getBinding(clazz).properties()) {
+            final String key = property.name();
 
             // if the JSON object does not contain the field, throw an exception if the field is not optional
             if (!jsonObject.has(key)) {
-                if (!field.isAnnotationPresent(JsonOptional.class)) {
+                if (!property.optional()) {
                     throw new IllegalStateException("Missing required field: " + key);
                 }
                 continue;
             }
 
             final JsonElement element = jsonObject.get(key);
-            final Object value = this.getValueForField(element, key, field);
+            final Object value = this.getValueForField(element, key, property.field(), property.mapper());
             if (value == null) {
                 continue;
             }
 
-            final long offset = unsafe.objectFieldOffset(field);
-
-            if (Integer.class.equals(value.getClass())) {
-                unsafe.putInt(object, offset, (int) value);
-            } else if (Long.class.equals(value.getClass())) {
-                unsafe.putLong(object, offset, (long) value);
-            } else if (Short.class.equals(value.getClass())) {
-                unsafe.putShort(object, offset, (short) value);
-            } else if (Double.class.equals(value.getClass())) {
-                unsafe.putDouble(object, offset, (double) value);
-            } else if (Float.class.equals(value.getClass())) {
-                unsafe.putFloat(object, offset, (float) value);
-            } else if (Byte.class.equals(value.getClass())) {
-                unsafe.putByte(object, offset, (byte) value);
-            } else if (Character.class.equals(value.getClass())) {
-                unsafe.putChar(object, offset, (char) value);
-            } else if (Boolean.class.equals(value.getClass())) {
-                unsafe.putBoolean(object, offset, (boolean) value);
-            } else {
-                unsafe.putObject(object, offset, value);
-            }
+            this.putValue(unsafe, object, property.offset(), value);
         }
 
         return object;
@@ -336,4 +352,242 @@ public class JsonReaderMapper {
         return Arrays.asList(this.readArray(jsonArray, clazz));
     }
 
+    /**
+     * Set the value of a field using Unsafe, so final fields can be set as well
+     *
+     * @param unsafe the unsafe instance
+     * @param object the object
+     * @param offset the offset of the field
+     * @param value  the value, unboxed for primitive fields
+     */
+    private void putValue(final Unsafe unsafe, final Object object, final long offset, final Object value) {
+        if (Integer.class.equals(value.getClass())) {
+            unsafe.putInt(object, offset, (int) value);
+        } else if (Long.class.equals(value.getClass())) {
+            unsafe.putLong(object, offset, (long) value);
+        } else if (Short.class.equals(value.getClass())) {
+            unsafe.putShort(object, offset, (short) value);
+        } else if (Double.class.equals(value.getClass())) {
+            unsafe.putDouble(object, offset, (double) value);
+        } else if (Float.class.equals(value.getClass())) {
+            unsafe.putFloat(object, offset, (float) value);
+        } else if (Byte.class.equals(value.getClass())) {
+            unsafe.putByte(object, offset, (byte) value);
+        } else if (Character.class.equals(value.getClass())) {
+            unsafe.putChar(object, offset, (char) value);
+        } else if (Boolean.class.equals(value.getClass())) {
+            unsafe.putBoolean(object, offset, (boolean) value);
+        } else {
+            unsafe.putObject(object, offset, value);
+        }
+    }
+
+    /**
+     * Read the value for a field from a streaming reader, without building a JSON element.
+     * Values of mappers which only map JSON elements and the results of functions are read into a JSON element.
+     *
+     * @param reader the reader, positioned before the value
+     * @param key    the key of the field
+     * @param field  the field
+     * @return the value
+     */
+    public Object getValueForField(
+            final JsonReader reader,
+            final String key,
+            final Field field
+    ) throws TokenTypeExpectedException, ReflectiveOperationException, IOException {
+        return this.getValueForField(reader, key, field, this.getValueReaderMapper(field, field.getType()));
+    }
+
+    /**
+     * Read the value for a field whose value reader mapper was already resolved from a streaming reader
+     *
+     * @param reader the reader, positioned before the value
+     * @param key    the key of the field
+     * @param field  the field
+     * @param mapper the value reader mapper of the field, or null
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    private Object getValueForField(
+            final JsonReader reader,
+            final String key,
+            final Field field,
+            final ValueReaderMapper mapper
+    ) throws TokenTypeExpectedException, ReflectiveOperationException, IOException {
+        final Class<?> fieldType = field.getType();
+
+        final JsonTokenType type = reader.peek();
+        if (type == JsonTokenType.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (type == JsonTokenType.BEGIN_FUNCTION) {
+            return this.getValueForField(reader.readElement(), key, field, mapper);
+        }
+
+        if (fieldType.isArray()) {
+            if (type != JsonTokenType.BEGIN_ARRAY) {
+                throw new IllegalStateException("Expected array for array-field: " + key);
+            }
+            return this.readArray(reader, fieldType.getComponentType());
+        }
+
+        if (Collection.class.isAssignableFrom(fieldType)) {
+            if (type != JsonTokenType.BEGIN_ARRAY) {
+                throw new IllegalStateException("Expected array for list-field: " + key);
+            }
+            final ParameterizedType genericType = (ParameterizedType) field.getGenericType();
+            return this.readArrayAsList(reader, (Class<?>) genericType.getActualTypeArguments()[0]);
+        }
+
+        if (mapper != null) {
+            return mapper.readValue(reader, field);
+        }
+
+        if (fieldType.isEnum()) {
+            if (type != JsonTokenType.STRING) {
+                throw new IllegalStateException("Expected string for enum-field: " + key);
+            }
+            //noinspection rawtypes
+            return Enum.valueOf((Class<Enum>) fieldType, reader.nextString());
+        }
+
+        if (type == JsonTokenType.BEGIN_OBJECT) {
+            return this.readObject(reader, fieldType);
+        }
+
+        throw new UnsupportedOperationException("Cannot parse object of type: " + fieldType.getName() + " from JSON");
+    }
+
+    /**
+     * Read the next object of a streaming reader directly into a new instance of the given class,
+     * see {@link #readObject(JsonObject, Class)}. Keys without a matching field are skipped.
+     *
+     * @param reader the reader, positioned before the object
+     * @param clazz  the class of the object to read
+     * @param <T>    the type of the object to read
+     * @return the object
+     * @throws TokenTypeExpectedException if the next value is not an object
+     * @throws IllegalStateException      if a required field is missing
+     * @throws IOException                if the object could not be read
+     */
+    public <T> T readObject(
+            final JsonReader reader,
+            final Class<T> clazz
+    ) throws TokenTypeExpectedException, ReflectiveOperationException, IOException {
+        final Unsafe unsafe = this.getUnsafeIllegally();
+        //noinspection unchecked (this should be safe since we specify the type of the object)
+        final T object = (T) unsafe.allocateInstance(clazz);
+
+        // the members are read in document order, so remember which properties were present
+        final ObjectBinding<ValueReaderMapper> binding = this.getBinding(clazz);
+        final boolean[] read = new boolean[binding.properties().size()];
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            final ObjectBinding.Property<ValueReaderMapper> property = binding.property(key);
+            if (property == null) {
+                reader.skipValue();
+                continue;
+            }
+            read[property.index()] = true;
+
+            final Object value = this.getValueForField(reader, key, property.field(), property.mapper());
+            if (value != null) {
+                this.putValue(unsafe, object, property.offset(), value);
+            }
+        }
+        reader.endObject();
+
+        // if the JSON object did not contain a field, throw an exception if the field is not optional
+        for (final ObjectBinding.Property<ValueReaderMapper> property : binding.properties()) {
+            if (!read[property.index()] && !property.optional()) {
+                throw new IllegalStateException("Missing required field: " + property.name());
+            }
+        }
+
+        return object;
+    }
+
+    /**
+     * Read the next value of a streaming reader, see {@link #readJsonElement(JsonElement, Class)}
+     *
+     * @param reader the reader, positioned before the value
+     * @param clazz  the class of the object to read
+     * @return the object
+     */
+    public Object readJsonElement(
+            final JsonReader reader,
+            final Class<?> clazz
+    ) throws TokenTypeExpectedException, ReflectiveOperationException, IOException {
+        switch (reader.peek()) {
+            case BEGIN_ARRAY -> {
+                return this.readArray(reader, clazz);
+            }
+            case BEGIN_OBJECT -> {
+                return this.readObject(reader, clazz);
+            }
+            case NULL -> {
+                reader.nextNull();
+                return null;
+            }
+            case BOOLEAN -> {
+                return reader.nextBoolean();
+            }
+            case STRING -> {
+                return reader.nextString();
+            }
+            case NUMBER, BEGIN_FUNCTION -> {
+                return this.readJsonElement(reader.readElement(), clazz);
+            }
+            default -> throw new UnsupportedOperationException(
+                    "Cannot parse object of type: " + clazz.getName() + " from JSON");
+        }
+    }
+
+    /**
+     * Read the next array of a streaming reader
+     *
+     * @param reader the reader, positioned before the array
+     * @param clazz  the class of the elements to read
+     * @param <T>    the type of the elements to read
+     * @return the array
+     */
+    public <T> T[] readArray(
+            final JsonReader reader,
+            final Class<T> clazz
+    ) throws TokenTypeExpectedException, ReflectiveOperationException, IOException {
+        final List<Object> elements = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            elements.add(this.readJsonElement(reader, clazz));
+        }
+        reader.endArray();
+
+        final Object array = Array.newInstance(clazz, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Array.set(array, i, elements.get(i));
+        }
+        // we can be sure that the array is of type T[] since we created it using reflection
+        //noinspection unchecked
+        return (T[]) array;
+    }
+
+    /**
+     * Read the next array of a streaming reader as a list
+     *
+     * @param reader the reader, positioned before the array
+     * @param clazz  the class of the elements to read
+     * @param <T>    the type of the elements to read
+     * @return the list
+     */
+    public <T> List<T> readArrayAsList(
+            final JsonReader reader,
+            final Class<T> clazz
+    ) throws TokenTypeExpectedException, ReflectiveOperationException, IOException {
+        return Arrays.asList(this.readArray(reader, clazz));
+    }
+
 }
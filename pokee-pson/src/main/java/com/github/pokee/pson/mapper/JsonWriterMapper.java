@@ -1,12 +1,13 @@
 package com.github.pokee.pson.mapper;
 
 import com.github.pokee.pson.mapper.annotations.JsonMappper;
-import com.github.pokee.pson.mapper.annotations.JsonProperty;
+import com.github.pokee.pson.output.JsonOutput;
 import com.github.pokee.pson.value.JsonPrimitive;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JsonWriterMapper {
 
@@ -15,6 +16,9 @@ public class JsonWriterMapper {
     private final Map<Class<?>, List<FieldMapper<ValueWriterMapper>>> valueWriterMapperMap;
     private final Map<Class<? extends ValueWriterMapper>, ValueWriterMapper> instantiatedValueWriterMapperMap;
 
+    // the value mappers depend on the registered mappers, so the bindings are cached per mapper
+    private final Map<Class<?>, ObjectBinding<ValueWriterMapper>> bindings = new ConcurrentHashMap<>();
+
     public JsonWriterMapper(
             final boolean serializeNulls,
             final String prettyPrintIndent,
@@ -24,7 +28,7 @@ public class JsonWriterMapper {
         this.prettyPrintIndent = prettyPrintIndent;
 
         this.valueWriterMapperMap = valueWriterMapperMap;
-        this.instantiatedValueWriterMapperMap = new HashMap<>();
+        this.instantiatedValueWriterMapperMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -45,15 +49,8 @@ public class JsonWriterMapper {
      * @return the escaped string
      */
     public static String escapeString(final String input) {
-        final StringBuilder bob = new StringBuilder();
-        for (final char character : input.toCharArray()) {
-            final String escape = JsonMapperUtil.ESCAPE_MAP.get(character);
-            if (escape != null) {
-                bob.append(escape);
-            } else {
-                bob.append(character);
-            }
-        }
+        final StringBuilder bob = new StringBuilder(input.length());
+        JsonOutput.of(bob).appendEscaped(input);
         return bob.toString();
     }
 
@@ -61,26 +58,28 @@ public class JsonWriterMapper {
      * Pretty print a new line.
      * If pretty print is not enabled, this method does nothing
      *
-     * @param bob   the string builder
-     * @param depth the depth
+     * @param output the output
+     * @param depth  the depth
      */
-    private void prettyPrintNewLine(final StringBuilder bob, final int depth) {
+    private void prettyPrintNewLine(final JsonOutput output, final int depth) {
         if (this.prettyPrintIndent == null) {
             return;
         }
-        bob.append('\n');
-        bob.append(this.prettyPrintIndent.repeat(depth));
+        output.append('\n');
+        for (int i = 0; i < depth; i++) {
+            output.append(this.prettyPrintIndent);
+        }
     }
 
     /**
-     * Write an array to a string builder
+     * Write an array to an output
      *
-     * @param bob      the string builder
+     * @param output   the output
      * @param depth    the depth
      * @param iterator the iterator of the array
      */
-    public void writeArray(final StringBuilder bob, final int depth, final Iterator<Object> iterator) {
-        bob.append('[');
+    public void writeArray(final JsonOutput output, final int depth, final Iterator<Object> iterator) {
+        output.append('[');
         int i = 0;
         while (iterator.hasNext()) {
             final Object next = iterator.next();
@@ -89,96 +88,103 @@ public class JsonWriterMapper {
                 continue;
             }
             if (i++ != 0) {
-                bob.append(',');
+                output.append(',');
             }
-            this.prettyPrintNewLine(bob, depth + 1);
-            this.write(bob, null, next, depth + 1);
+            this.prettyPrintNewLine(output, depth + 1);
+            this.write(output, null, next, depth + 1);
         }
 
-        this.prettyPrintNewLine(bob, depth);
-        bob.append(']');
+        this.prettyPrintNewLine(output, depth);
+        output.append(']');
     }
 
     /**
-     * Write a string to a string builder
+     * Write a string to an output
      *
-     * @param bob   the string builder
-     * @param value the string
+     * @param output the output
+     * @param value  the string
      */
-    public void writeString(final StringBuilder bob, final String value) {
-        bob.append('"');
-        bob.append(JsonWriterMapper.escapeString(value));
-        bob.append('"');
+    public void writeString(final JsonOutput output, final String value) {
+        output.append('"');
+        output.appendEscaped(value);
+        output.append('"');
     }
 
     /**
-     * Write an enum to a string builder
+     * Write an enum to an output
      *
-     * @param bob   the string builder
-     * @param value the enum
+     * @param output the output
+     * @param value  the enum
      */
-    public void writeEnum(final StringBuilder bob, final Enum<?> value) {
-        this.writeString(bob, value.name());
+    public void writeEnum(final JsonOutput output, final Enum<?> value) {
+        this.writeString(output, value.name());
     }
 
     /**
-     * Write an object start to a string builder
+     * Write an object start to an output
      *
-     * @param bob the string builder
+     * @param output the output
      */
-    public void writeObjectStart(final StringBuilder bob) {
-        bob.append('{');
+    public void writeObjectStart(final JsonOutput output) {
+        output.append('{');
     }
 
     /**
-     * Write an object end to a string builder
+     * Write an object end to an output
      *
-     * @param bob the string builder
+     * @param output the output
      */
-    public void writeObjectEnd(final StringBuilder bob) {
-        bob.append('}');
+    public void writeObjectEnd(final JsonOutput output) {
+        output.append('}');
     }
 
     /**
-     * Write an object entry to a string builder
+     * Write an object entry to an output
      *
-     * @param bob   the string builder
-     * @param key   the key
-     * @param value the value
-     * @param field the field
-     * @param depth the depth
+     * @param output the output
+     * @param key    the key
+     * @param value  the value
+     * @param field  the field
+     * @param depth  the depth
      */
-    public void writeObjectEntry(final StringBuilder bob,
+    public void writeObjectEntry(final JsonOutput output,
                                  final String key,
                                  final Object value,
                                  final Field field,
                                  final int depth) {
-        this.prettyPrintNewLine(bob, depth + 1);
-        this.writeString(bob, key);
-        bob.append(": ");
-        this.write(bob, field, value, depth + 1);
+        this.writeObjectEntry(output, key, value, field, depth, null);
+    }
+
+    private void writeObjectEntry(final JsonOutput output,
+                                  final String key,
+                                  final Object value,
+                                  final Field field,
+                                  final int depth,
+                                  final ObjectBinding.Property<ValueWriterMapper> property) {
+        this.prettyPrintNewLine(output, depth + 1);
+        this.writeString(output, key);
+        output.append(": ");
+        this.write(output, field, value, depth + 1, property);
     }
 
     /**
-     * Write an object to a string builder
+     * Write an object to an output
      *
-     * @param bob    the string builder
+     * @param output the output
      * @param object the object
      * @param depth  the depth
      */
-    public void writeObject(final StringBuilder bob, final Object object, final int depth) {
-        this.writeObjectStart(bob);
+    public void writeObject(final JsonOutput output, final Object object, final int depth) {
+        this.writeObjectStart(output);
 
         int i = 0;
-        final Map<String, Field> fields = JsonMapperUtil.getDeclaredFieldsInClassAndSuperClasses(object.getClass());
-        for (final Field field : fields.values()) {
-            field.setAccessible(true);
-
+        final ObjectBinding<ValueWriterMapper> binding = this.getBinding(object.getClass());
+        for (final ObjectBinding.Property<ValueWriterMapper> property : binding.properties()) {
             final Object value;
             try {
-                value = field.get(object);
+                value = property.field().get(object);
             } catch (IllegalAccessException e) {
-                throw new IllegalStateException("Failed to access field: " + field, e);
+                throw new IllegalStateException("Failed to access field: " + property.field(), e);
             }
 
             // if serialize nulls is not enabled, skip null values
@@ -187,41 +193,54 @@ public class JsonWriterMapper {
             }
 
             if (i++ != 0) {
-                bob.append(',');
+                output.append(',');
             }
 
-            final String propertyName = field.isAnnotationPresent(JsonProperty.class)
-                    ? field.getAnnotation(JsonProperty.class).value()
-                    : field.getName();
-
-            this.writeObjectEntry(bob, propertyName, value, field, depth);
+            this.writeObjectEntry(output, property.name(), value, property.field(), depth, property);
         }
 
-        this.prettyPrintNewLine(bob, depth);
-        this.writeObjectEnd(bob);
+        this.prettyPrintNewLine(output, depth);
+        this.writeObjectEnd(output);
     }
 
     /**
-     * Write a map to a string builder
+     * Write a map to an output
      *
-     * @param bob   the string builder
-     * @param map   the map
-     * @param depth the depth
+     * @param output the output
+     * @param map    the map
+     * @param depth  the depth
      */
-    public void writeMap(final StringBuilder bob, final Map<?, ?> map, final int depth) {
-        this.writeObjectStart(bob);
+    public void writeMap(final JsonOutput output, final Map<?, ?> map, final int depth) {
+        this.writeObjectStart(output);
 
         int i = 0;
         for (final Map.Entry<?, ?> entry : map.entrySet()) {
             if (i++ != 0) {
-                bob.append(',');
+                output.append(',');
             }
 
-            this.writeObjectEntry(bob, Objects.toString(entry.getKey()), entry.getValue(), null, depth);
+            this.writeObjectEntry(output, Objects.toString(entry.getKey()), entry.getValue(), null, depth);
         }
 
-        this.prettyPrintNewLine(bob, depth);
-        this.writeObjectEnd(bob);
+        this.prettyPrintNewLine(output, depth);
+        this.writeObjectEnd(output);
+    }
+
+    /**
+     * Get the binding of the fields of a class, which is created once per class
+     *
+     * @param clazz the class
+     * @return the binding
+     */
+    public ObjectBinding<ValueWriterMapper> getBinding(final Class<?> clazz) {
+        return this.bindings.computeIfAbsent(
+                clazz,
+                // values of primitive fields are boxed when they are written
+                type -> ObjectBinding.create(
+                        type,
+                        field -> this.getValueWriterMapper(field, ObjectBinding.box(field.getType()))
+                )
+        );
     }
 
     /**
@@ -255,13 +274,32 @@ public class JsonWriterMapper {
     /**
      * Serialize an object to JSON
      *
-     * @param bob    the string builder to write to
+     * @param output the output to write to
      * @param object the object to serialize
      * @param depth  the depth of the object
      */
-    public void write(final StringBuilder bob, final Field field, final Object object, final int depth) {
+    public void write(final JsonOutput output, final Field field, final Object object, final int depth) {
+        this.write(output, field, object, depth, null);
+    }
+
+    /**
+     * Serialize an object to JSON
+     *
+     * @param output   the output to write to
+     * @param field    the field the object was read from, or null
+     * @param object   the object to serialize
+     * @param depth    the depth of the object
+     * @param property the property of the field, whose value writer mapper is used for values of the field's type
+     */
+    private void write(
+            final JsonOutput output,
+            final Field field,
+            final Object object,
+            final int depth,
+            final ObjectBinding.Property<ValueWriterMapper> property
+    ) {
         if (object == null) {
-            bob.append(JsonPrimitive.NULL);
+            output.append(JsonPrimitive.NULL);
             return;
         }
 
@@ -274,44 +312,46 @@ public class JsonWriterMapper {
             for (int i = 0; i < length; i++) {
                 values.add(Array.get(object, i));
             }
-            this.writeArray(bob, depth, values.iterator());
+            this.writeArray(output, depth, values.iterator());
             return;
         }
 
         // list-likes should be JsonArrays
         if (Collection.class.isAssignableFrom(clazz)) {
             final Collection<Object> values = new ArrayList<>(((Collection<?>) object));
-            this.writeArray(bob, depth, values.iterator());
+            this.writeArray(output, depth, values.iterator());
             return;
         }
 
         if (field != null) {
-            final ValueWriterMapper valueWriterMapper = this.getValueWriterMapper(field, clazz);
+            final ValueWriterMapper valueWriterMapper = property != null && property.valueType() == clazz
+                    ? property.mapper()
+                    : this.getValueWriterMapper(field, clazz);
             if (valueWriterMapper != null) {
-                valueWriterMapper.writeValue(this, bob, field, object);
+                valueWriterMapper.writeValue(this, output, field, object);
                 return;
             }
         }
 
         // enums should be identified by name
         if (clazz.isEnum()) {
-            this.writeEnum(bob, (Enum<?>) object);
+            this.writeEnum(output, (Enum<?>) object);
             return;
         }
 
         // check if primitive type
         if (String.class.equals(clazz) || JsonMapperUtil.WRAPPER_TYPES.contains(clazz)) {
-            this.writeString(bob, JsonWriterMapper.escapeString(Objects.toString(object)));
+            this.writeString(output, JsonWriterMapper.escapeString(Objects.toString(object)));
             return;
         }
 
         // write map
         if (Map.class.isAssignableFrom(clazz)) {
-            this.writeMap(bob, (Map<?, ?>) object, depth);
+            this.writeMap(output, (Map<?, ?>) object, depth);
             return;
         }
 
-        this.writeObject(bob, object, depth);
+        this.writeObject(output, object, depth);
     }
 
 }
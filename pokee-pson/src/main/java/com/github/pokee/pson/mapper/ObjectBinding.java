@@ -0,0 +1,192 @@
+package com.github.pokee.pson.mapper;
+
+import com.github.pokee.pson.mapper.annotations.JsonOptional;
+import com.github.pokee.pson.mapper.annotations.JsonProperty;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Describes how the fields of a class are bound to the properties of a JSON object.
+ * <p>
+ * The class hierarchy, the annotations and the offsets of the fields do not depend on a mapper, so they are looked up
+ * once per class and shared by all mappers. Each mapper (see {@link JsonReaderMapper} and {@link JsonWriterMapper})
+ * only resolves its value mappers for that layout once per class, instead of for every object that is read or written.
+ *
+ * @param properties the properties in the order they are written
+ * @param byName     the properties by their names
+ * @param <M>        the type of the value mappers
+ */
+public record ObjectBinding<M extends Mapper>(List<Property<M>> properties, Map<String, Property<M>> byName) {
+
+    private static final Unsafe UNSAFE = ObjectBinding.findUnsafe();
+
+    // the bindings without value mappers, see layout(Class)
+    private static final ClassValue<ObjectBinding<Mapper>> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected ObjectBinding<Mapper> computeValue(final Class<?> type) {
+            return ObjectBinding.layout(type);
+        }
+    };
+
+    /**
+     * A field bound to a property of a JSON object
+     *
+     * @param index     the index of the property in {@link ObjectBinding#properties()}
+     * @param name      the name of the property, see {@link JsonProperty}
+     * @param field     the field, accessible if access could be granted
+     * @param offset    the offset of the field for {@link Unsafe}, or -1 if Unsafe is not available
+     * @param valueType the type of the field, boxed if it is a primitive type
+     * @param mapper    the value mapper for the field, or null if the value is not mapped by a value mapper
+     * @param optional  whether the property may be missing, see {@link JsonOptional}
+     * @param <M>       the type of the value mapper
+     */
+    public record Property<M extends Mapper>(
+            int index,
+            String name,
+            Field field,
+            long offset,
+            Class<?> valueType,
+            M mapper,
+            boolean optional
+    ) {
+    }
+
+    /**
+     * Get a property by its name
+     *
+     * @param name the name of the property
+     * @return the property, or null if the class has no such property
+     */
+    public Property<M> property(final String name) {
+        return this.byName.get(name);
+    }
+
+    /**
+     * Create the binding for a class. The fields are taken from the shared layout of the class, so only the value
+     * mappers are resolved.
+     *
+     * @param clazz          the class
+     * @param mapperResolver resolves the value mapper of a field, may return null
+     * @param <M>            the type of the value mappers
+     * @return the binding
+     */
+    public static <M extends Mapper> ObjectBinding<M> create(
+            final Class<?> clazz,
+            final Function<Field, M> mapperResolver
+    ) {
+        final List<Property<Mapper>> layout = LAYOUTS.get(clazz).properties();
+        final List<Property<M>> properties = new ArrayList<>(layout.size());
+        final Map<String, Property<M>> byName = new HashMap<>();
+
+        for (final Property<Mapper> field : layout) {
+            final Property<M> property = new Property<>(
+                    field.index(),
+                    field.name(),
+                    field.field(),
+                    field.offset(),
+                    field.valueType(),
+                    mapperResolver.apply(field.field()),
+                    field.optional()
+            );
+            properties.add(property);
+            byName.put(property.name(), property);
+        }
+
+        return new ObjectBinding<>(
+                Collections.unmodifiableList(properties),
+                Collections.unmodifiableMap(byName)
+        );
+    }
+
+    /**
+     * Look up the fields of a class without resolving any value mappers
+     *
+     * @param clazz the class
+     * @return the binding, the mapper of each property is null
+     */
+    private static ObjectBinding<Mapper> layout(final Class<?> clazz) {
+        final List<Property<Mapper>> properties = new ArrayList<>();
+        final Map<String, Property<Mapper>> byName = new HashMap<>();
+
+        for (final Field field : JsonMapperUtil.getDeclaredFieldsInClassAndSuperClasses(clazz).values()) {
+            final String name = field.isAnnotationPresent(JsonProperty.class)
+                    ? field.getAnnotation(JsonProperty.class).value()
+                    : field.getName();
+            // if access cannot be granted, writing objects of the class fails when the field is read
+            field.trySetAccessible();
+
+            final Property<Mapper> property = new Property<>(
+                    properties.size(),
+                    name,
+                    field,
+                    UNSAFE != null ? UNSAFE.objectFieldOffset(field) : -1,
+                    ObjectBinding.box(field.getType()),
+                    null,
+                    field.isAnnotationPresent(JsonOptional.class)
+            );
+            properties.add(property);
+            byName.put(name, property);
+        }
+
+        return new ObjectBinding<>(
+                Collections.unmodifiableList(properties),
+                Collections.unmodifiableMap(byName)
+        );
+    }
+
+    /**
+     * Get the unsafe instance, which is needed to resolve the offsets of the fields
+     *
+     * @return the unsafe instance, or null if it cannot be accessed
+     */
+    private static Unsafe findUnsafe() {
+        try {
+            final Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (Unsafe) field.get(null);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the wrapper type of a primitive type
+     *
+     * @param type the type
+     * @return the wrapper type if the type is primitive, otherwise the type itself
+     */
+    static Class<?> box(final Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+
+}
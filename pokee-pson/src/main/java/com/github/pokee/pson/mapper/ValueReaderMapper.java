@@ -1,7 +1,10 @@
 package com.github.pokee.pson.mapper;
 
+import com.github.pokee.pson.exception.TokenTypeExpectedException;
+import com.github.pokee.pson.parser.JsonReader;
 import com.github.pokee.pson.value.JsonElement;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
 
 /**
@@ -18,4 +21,22 @@ public interface ValueReaderMapper extends Mapper {
      */
     Object mapValue(final JsonElement element, final Field field);
 
+    /**
+     * Map the next value of a streaming reader to an object.
+     * By default, only this value is read into a {@link JsonElement} and passed to
+     * {@link #mapValue(JsonElement, Field)}; mappers of primitive values can override this to read the value directly.
+     *
+     * @param reader the reader
+     * @param field  the field to map to
+     * @return the mapped object
+     * @throws TokenTypeExpectedException if the next value is not of the expected type
+     * @throws IOException                if the value could not be read
+     */
+    default Object readValue(
+            final JsonReader reader,
+            final Field field
+    ) throws TokenTypeExpectedException, IOException {
+        return this.mapValue(reader.readElement(), field);
+    }
+
 }
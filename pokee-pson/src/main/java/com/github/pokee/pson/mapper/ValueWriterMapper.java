@@ -1,5 +1,7 @@
 package com.github.pokee.pson.mapper;
 
+import com.github.pokee.pson.output.JsonOutput;
+
 import java.lang.reflect.Field;
 
 /**
@@ -8,13 +10,13 @@ import java.lang.reflect.Field;
 public interface ValueWriterMapper extends Mapper {
 
     /**
-     * Write a value to a string
+     * Write a value to an output
      *
      * @param writer the writer to write to
-     * @param bob    the string builder to write to
+     * @param output the output to write to
      * @param field  the field to write
      * @param value  the value to write
      */
-    void writeValue(final JsonWriterMapper writer, final StringBuilder bob, final Field field, final Object value);
+    void writeValue(final JsonWriterMapper writer, final JsonOutput output, final Field field, final Object value);
 
 }
@@ -0,0 +1,65 @@
+package com.github.pokee.pson.mapper.mappers;
+
+import com.github.pokee.pson.exception.TokenTypeExpectedException;
+import com.github.pokee.pson.mapper.ValueReaderMapper;
+import com.github.pokee.pson.parser.JsonReader;
+import com.github.pokee.pson.value.JsonElement;
+import com.github.pokee.pson.value.JsonPrimitive;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.function.Function;
+
+/**
+ * Reader mappers for strings, numbers and booleans, which read values from a {@link JsonReader} directly
+ * instead of building a {@link JsonPrimitive} first.
+ */
+public class PrimitiveReaderMapper implements ValueReaderMapper {
+
+    public static final PrimitiveReaderMapper STRING = new PrimitiveReaderMapper(
+            JsonPrimitive::asString,
+            JsonReader::nextString
+    );
+    public static final PrimitiveReaderMapper INTEGER = new PrimitiveReaderMapper(
+            JsonPrimitive::asInteger,
+            JsonReader::nextInt
+    );
+    public static final PrimitiveReaderMapper DOUBLE = new PrimitiveReaderMapper(
+            JsonPrimitive::asDouble,
+            JsonReader::nextDouble
+    );
+    public static final PrimitiveReaderMapper FLOAT = new PrimitiveReaderMapper(
+            primitive -> (float) primitive.asDouble(),
+            reader -> (float) reader.nextDouble()
+    );
+    public static final PrimitiveReaderMapper BOOLEAN = new PrimitiveReaderMapper(
+            JsonPrimitive::asBoolean,
+            JsonReader::nextBoolean
+    );
+
+    private final Function<JsonPrimitive, Object> treeReader;
+    private final StreamReader streamReader;
+
+    private PrimitiveReaderMapper(final Function<JsonPrimitive, Object> treeReader, final StreamReader streamReader) {
+        this.treeReader = treeReader;
+        this.streamReader = streamReader;
+    }
+
+    @Override
+    public Object mapValue(final JsonElement element, final Field field) {
+        return this.treeReader.apply(element.asPrimitive());
+    }
+
+    @Override
+    public Object readValue(final JsonReader reader, final Field field) throws TokenTypeExpectedException, IOException {
+        return this.streamReader.read(reader);
+    }
+
+    @FunctionalInterface
+    private interface StreamReader {
+
+        Object read(final JsonReader reader) throws TokenTypeExpectedException, IOException;
+
+    }
+
+}
@@ -2,6 +2,7 @@ package com.github.pokee.pson.mapper.mappers;
 
 import com.github.pokee.pson.mapper.JsonWriterMapper;
 import com.github.pokee.pson.mapper.ValueReaderWriterMapper;
+import com.github.pokee.pson.output.JsonOutput;
 import com.github.pokee.pson.value.JsonElement;
 
 import java.lang.reflect.Field;
@@ -17,8 +18,8 @@ public class UUIDMapper implements ValueReaderWriterMapper {
     }
 
     @Override
-    public void writeValue(JsonWriterMapper writer, StringBuilder bob, Field field, Object value) {
-        writer.writeString(bob, value.toString());
+    public void writeValue(JsonWriterMapper writer, JsonOutput output, Field field, Object value) {
+        writer.writeString(output, value.toString());
     }
 
 }
@@ -0,0 +1,42 @@
+package com.github.pokee.pson.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * An output which appends to an {@link Appendable}, see {@link JsonOutput#of(Appendable)}
+ */
+public class AppendableJsonOutput extends JsonOutput {
+
+    private final Appendable appendable;
+
+    public AppendableJsonOutput(final Appendable appendable) {
+        this.appendable = appendable;
+    }
+
+    @Override
+    public JsonOutput append(final char c) {
+        try {
+            this.appendable.append(c);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonOutput append(final CharSequence value, final int start, final int end) {
+        try {
+            this.appendable.append(value, start, end);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        // nothing is buffered
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.github.pokee.pson.output;
+
+import com.github.pokee.pson.mapper.JsonMapperUtil;
+
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+
+/**
+ * The target {@link com.github.pokee.pson.mapper.JsonWriterMapper} writes JSON to.
+ * <p>
+ * Outputs either append to an {@link Appendable} (e.g. a {@link StringBuilder}) or encode the JSON as UTF-8 into a
+ * byte buffer which is written to an {@link OutputStream} or a {@link WritableByteChannel} whenever it is full, so
+ * the JSON never has to be held as a string in memory.
+ * <p>
+ * Since value writer mappers cannot throw checked exceptions, write errors are thrown as {@link UncheckedIOException}.
+ */
+public abstract class JsonOutput {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    // the escape sequences of ASCII characters, null if the character is not escaped
+    private static final String[] ESCAPES = new String[128];
+
+    static {
+        for (final Map.Entry<Character, String> entry : JsonMapperUtil.ESCAPE_MAP.entrySet()) {
+            ESCAPES[entry.getKey()] = entry.getValue();
+        }
+    }
+
+    /**
+     * Append a character
+     *
+     * @param c the character
+     * @return this
+     * @throws UncheckedIOException if writing fails
+     */
+    public abstract JsonOutput append(final char c);
+
+    /**
+     * Append a part of a character sequence
+     *
+     * @param value the character sequence
+     * @param start the index of the first character to append
+     * @param end   the index after the last character to append
+     * @return this
+     * @throws UncheckedIOException if writing fails
+     */
+    public abstract JsonOutput append(final CharSequence value, final int start, final int end);
+
+    /**
+     * Append a character sequence
+     *
+     * @param value the character sequence
+     * @return this
+     * @throws UncheckedIOException if writing fails
+     */
+    public JsonOutput append(final CharSequence value) {
+        return this.append(value, 0, value.length());
+    }
+
+    /**
+     * Append a character sequence with the characters escaped, which must be escaped in JSON strings, see
+     * {@link com.github.pokee.pson.mapper.JsonWriterMapper#escapeString(String)}
+     *
+     * @param value the unescaped character sequence
+     * @return this
+     * @throws UncheckedIOException if writing fails
+     */
+    public JsonOutput appendEscaped(final CharSequence value) {
+        final int length = value.length();
+        // append the characters between the escaped characters at once
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < ESCAPES.length && ESCAPES[c] != null) {
+                this.append(value, start, i);
+                this.append(ESCAPES[c]);
+                start = i + 1;
+            }
+        }
+        return this.append(value, start, length);
+    }
+
+    /**
+     * Write all buffered output to the underlying target
+     *
+     * @throws UncheckedIOException if writing fails
+     */
+    public abstract void flush();
+
+    /**
+     * Create an output which appends to an {@link Appendable}, e.g. a {@link StringBuilder}
+     *
+     * @param appendable the appendable
+     * @return the output
+     */
+    public static JsonOutput of(final Appendable appendable) {
+        return new AppendableJsonOutput(appendable);
+    }
+
+    /**
+     * Create an output which writes UTF-8 to an {@link OutputStream}.
+     * The output is buffered, so {@link #flush()} must be called after writing.
+     *
+     * @param outputStream the stream
+     * @return the output
+     */
+    public static JsonOutput of(final OutputStream outputStream) {
+        return JsonOutput.of(outputStream, ByteBuffer.allocate(DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * Create an output which writes UTF-8 to an {@link OutputStream} using the given buffer, e.g. a pooled one.
+     * The output is buffered, so {@link #flush()} must be called after writing.
+     *
+     * @param outputStream the stream
+     * @param buffer       the buffer, which is cleared before it is used
+     * @return the output
+     */
+    public static JsonOutput of(final OutputStream outputStream, final ByteBuffer buffer) {
+        if (!buffer.hasArray()) {
+            return JsonOutput.of(Channels.newChannel(outputStream), buffer);
+        }
+        return new Utf8JsonOutput(buffer, bytes -> {
+            outputStream.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            bytes.position(bytes.limit());
+        });
+    }
+
+    /**
+     * Create an output which writes UTF-8 to a {@link WritableByteChannel}.
+     * The output is buffered, so {@link #flush()} must be called after writing.
+     *
+     * @param channel the channel
+     * @return the output
+     */
+    public static JsonOutput of(final WritableByteChannel channel) {
+        return JsonOutput.of(channel, ByteBuffer.allocate(DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * Create an output which writes UTF-8 to a {@link WritableByteChannel} using the given buffer,
+     * e.g. a pooled or a direct one.
+     * The output is buffered, so {@link #flush()} must be called after writing.
+     *
+     * @param channel the channel
+     * @param buffer  the buffer, which is cleared before it is used
+     * @return the output
+     */
+    public static JsonOutput of(final WritableByteChannel channel, final ByteBuffer buffer) {
+        return new Utf8JsonOutput(buffer, bytes -> {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        });
+    }
+
+}
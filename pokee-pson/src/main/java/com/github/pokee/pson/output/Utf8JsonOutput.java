@@ -0,0 +1,148 @@
+package com.github.pokee.pson.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * An output which encodes the JSON as UTF-8 straight into a byte buffer. Whenever the buffer is full, and when the
+ * output is flushed, the buffer is passed to a {@link Sink}.
+ * <p>
+ * Like {@link String#getBytes(java.nio.charset.Charset)}, unpaired surrogates are encoded as {@code ?}.
+ */
+public class Utf8JsonOutput extends JsonOutput {
+
+    /**
+     * Receives the encoded bytes
+     */
+    @FunctionalInterface
+    public interface Sink {
+
+        /**
+         * Write all remaining bytes of the buffer
+         *
+         * @param buffer the buffer in read mode
+         * @throws IOException if writing fails
+         */
+        void write(final ByteBuffer buffer) throws IOException;
+
+    }
+
+    private final ByteBuffer buffer;
+    private final Sink sink;
+
+    // the high surrogate of a pair whose low surrogate was not appended yet, 0 if there is none
+    private char highSurrogate;
+
+    public Utf8JsonOutput(final ByteBuffer buffer, final Sink sink) {
+        if (buffer.capacity() < 4) {
+            throw new IllegalArgumentException("The buffer must hold at least one encoded character");
+        }
+        this.buffer = buffer.clear();
+        this.sink = sink;
+    }
+
+    @Override
+    public JsonOutput append(final char c) {
+        if (c < 0x80 && this.highSurrogate == 0 && this.buffer.hasRemaining()) {
+            this.buffer.put((byte) c);
+        } else {
+            this.encode(c);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonOutput append(final CharSequence value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80 && this.highSurrogate == 0 && this.buffer.hasRemaining()) {
+                this.buffer.put((byte) c);
+            } else {
+                this.encode(c);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Encode a character which is not ASCII or does not fit into the buffer anymore
+     *
+     * @param c the character
+     */
+    private void encode(final char c) {
+        if (this.highSurrogate != 0) {
+            final char high = this.highSurrogate;
+            this.highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                this.ensureRemaining(4);
+                this.buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                this.buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                this.buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                this.buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                return;
+            }
+            this.encode('?');
+        }
+
+        if (c < 0x80) {
+            this.ensureRemaining(1);
+            this.buffer.put((byte) c);
+        } else if (c < 0x800) {
+            this.ensureRemaining(2);
+            this.buffer.put((byte) (0xC0 | (c >> 6)));
+            this.buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            this.encode('?');
+        } else {
+            this.ensureRemaining(3);
+            this.buffer.put((byte) (0xE0 | (c >> 12)));
+            this.buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            this.buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    /**
+     * Drain the buffer if it has less than the given number of bytes left
+     *
+     * @param count the number of bytes
+     */
+    private void ensureRemaining(final int count) {
+        if (this.buffer.remaining() < count) {
+            this.drain();
+        }
+    }
+
+    /**
+     * Pass the buffered bytes to the sink and clear the buffer
+     */
+    private void drain() {
+        this.buffer.flip();
+        try {
+            this.sink.write(this.buffer);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.buffer.clear();
+        }
+    }
+
+    /**
+     * Write all buffered bytes to the sink. A pending high surrogate is encoded as {@code ?}, so surrogate pairs
+     * must not be split between flushes.
+     */
+    @Override
+    public void flush() {
+        if (this.highSurrogate != 0) {
+            this.highSurrogate = 0;
+            this.encode('?');
+        }
+        if (this.buffer.position() > 0) {
+            this.drain();
+        }
+    }
+
+}
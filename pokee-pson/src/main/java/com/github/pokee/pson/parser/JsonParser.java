@@ -84,20 +84,29 @@ public class JsonParser {
         switch (peekedToken.type()) {
             case BEGIN_OBJECT -> element = this.readObject();
             case BEGIN_ARRAY -> element = this.readArray();
-            case STRING, NUMBER, BOOLEAN, NULL -> {
-                peekedToken.apply(this.tokenizer);
-                element = new JsonPrimitive(peekedToken.value().strip());
+            case STRING -> {
+                this.tokenizer.nextToken();
+                element = JsonPrimitive.fromEscapedString(peekedToken.content());
+            }
+            case NUMBER -> {
+                this.tokenizer.nextToken();
+                element = JsonPrimitive.parseNumber(
+                        peekedToken.source(),
+                        peekedToken.valueStart(),
+                        peekedToken.valueEnd()
+                );
+            }
+            case BOOLEAN -> {
+                this.tokenizer.nextToken();
+                element = JsonPrimitive.fromBool(peekedToken.source().charAt(peekedToken.valueStart()) == 't');
+            }
+            case NULL -> {
+                this.tokenizer.nextToken();
+                element = JsonPrimitive.fromNull();
             }
             case BEGIN_FUNCTION -> {
                 final JsonFunction function = this.readFunction();
-                if (this.expandFunctions) {
-                    if (this.functionRunner == null) {
-                        throw new NullPointerException("Cannot expand functions because function runner is null");
-                    }
-                    element = this.functionRunner.runFunction(this, function);
-                } else {
-                    element = function;
-                }
+                element = this.expandFunctions ? this.expandFunction(function) : function;
             }
             default -> throw new TokenTypeExpectedException(new JsonTokenType[]{
                     JsonTokenType.BEGIN_OBJECT,
@@ -135,6 +144,21 @@ public class JsonParser {
         return this.parse(true);
     }
 
+    /**
+     * Runs a function using the function runner of this parser
+     *
+     * @param function the function
+     * @return the result of the function
+     * @throws TokenTypeExpectedException if the function parses JSON which is not valid
+     * @throws NullPointerException       if the parser has no function runner
+     */
+    public JsonElement expandFunction(final JsonFunction function) throws TokenTypeExpectedException {
+        if (this.functionRunner == null) {
+            throw new NullPointerException("Cannot expand functions because function runner is null");
+        }
+        return this.functionRunner.runFunction(this, function);
+    }
+
     /**
      * Expects the next token to be of the given type.
      * If the next token is not of the given type, a {@link TokenTypeExpectedException} is thrown
@@ -233,8 +257,7 @@ public class JsonParser {
         final JsonToken peekNextToken = this.tokenizer.peekNextToken();
         if (peekNextToken.type() != JsonTokenType.END_OBJECT) {
             while (true) {
-                final JsonToken keyToken = this.expect(JsonTokenType.STRING);
-                final String key = keyToken.value().substring(1, keyToken.value().length() - 1);
+                final String key = this.expect(JsonTokenType.STRING).content();
                 this.expect(JsonTokenType.NAME_SEPARATOR);
 
                 object.put(key, this.parse(false));
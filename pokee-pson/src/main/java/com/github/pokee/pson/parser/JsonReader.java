@@ -0,0 +1,793 @@
+package com.github.pokee.pson.parser;
+
+import com.github.pokee.pson.exception.TokenTypeExpectedException;
+import com.github.pokee.pson.value.JsonArray;
+import com.github.pokee.pson.value.JsonElement;
+import com.github.pokee.pson.value.JsonFunction;
+import com.github.pokee.pson.value.JsonObject;
+import com.github.pokee.pson.value.JsonPrimitive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A streaming pull-parser which reads a JSON document token by token, without building a {@link JsonElement} tree.
+ * <p>
+ * The document is read through a small buffer, so even large documents only take as much memory as the values the
+ * caller keeps. Values are consumed in document order:
+ * <pre>
+ *     reader.beginArray();
+ *     while (reader.hasNext()) {
+ *         reader.beginObject();
+ *         while (reader.hasNext()) {
+ *             switch (reader.nextName()) {
+ *                 case "id" -> id = reader.nextInt();
+ *                 case "name" -> name = reader.nextString();
+ *                 default -> reader.skipValue();
+ *             }
+ *         }
+ *         reader.endObject();
+ *     }
+ *     reader.endArray();
+ * </pre>
+ * Consuming a value of another type than the next one throws a {@link TokenTypeExpectedException},
+ * malformed documents throw an {@link IllegalStateException}.
+ * <p>
+ * Comments ({@code // ...}) are skipped. Functions ({@code @name(...)}) are reported as
+ * {@link JsonTokenType#BEGIN_FUNCTION} and can only be read with {@link #readElement()}, which expands them if the
+ * reader was configured with {@link #withFunctions(JsonFunctionRunner)}.
+ */
+public class JsonReader implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // the token types a value can begin with
+    private static final JsonTokenType[] VALUE_TYPES = {
+            JsonTokenType.BEGIN_OBJECT,
+            JsonTokenType.BEGIN_ARRAY,
+            JsonTokenType.STRING,
+            JsonTokenType.NUMBER,
+            JsonTokenType.BOOLEAN,
+            JsonTokenType.NULL,
+            JsonTokenType.BEGIN_FUNCTION
+    };
+
+    // scopes on the stack
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+    private static final int EMPTY_FUNCTION = 7;
+    private static final int NONEMPTY_FUNCTION = 8;
+
+    private final Reader in;
+    private char[] buffer;
+    private int position = 0;
+    private int limit;
+    // the offset of the first character of the buffer in the document, used for error messages
+    private long bufferOffset = 0;
+
+    private int[] stack = new int[32];
+    private int stackSize = 0;
+
+    // the type of the next token if it was already peeked, null otherwise
+    private JsonTokenType peeked = null;
+    private boolean peekedBoolean;
+
+    // functions
+    private JsonParser functionParser = null;
+
+    /**
+     * Creates a new reader reading characters from the given reader
+     *
+     * @param in the reader, closed by {@link #close()}
+     */
+    public JsonReader(final Reader in) {
+        this(in, new char[DEFAULT_BUFFER_SIZE], 0);
+    }
+
+    /**
+     * Creates a new reader reading UTF-8 encoded bytes from the given stream
+     *
+     * @param in the stream, closed by {@link #close()}
+     */
+    public JsonReader(final InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a new reader reading the remaining UTF-8 encoded bytes of the given buffer
+     *
+     * @param buffer the buffer, its position is advanced while reading
+     */
+    public JsonReader(final ByteBuffer buffer) {
+        this(new ByteBufferInputStream(buffer));
+    }
+
+    /**
+     * Creates a new reader reading the given JSON string
+     *
+     * @param json the JSON string
+     */
+    public JsonReader(final String json) {
+        this(null, json.toCharArray(), json.length());
+    }
+
+    private JsonReader(final Reader in, final char[] buffer, final int limit) {
+        this.in = in;
+        this.buffer = buffer;
+        this.limit = limit;
+        this.stack[this.stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Expand functions read with {@link #readElement()} using the given function runner
+     *
+     * @param functionRunner the function runner
+     * @return this
+     */
+    public JsonReader withFunctions(final JsonFunctionRunner functionRunner) {
+        this.functionParser = new JsonParser("", true, functionRunner);
+        return this;
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     * The name of an object member is reported as {@link JsonTokenType#NAME}.
+     *
+     * @return the type of the next token
+     * @throws IOException if the document could not be read
+     */
+    public JsonTokenType peek() throws IOException {
+        if (this.peeked == null) {
+            this.peeked = this.doPeek();
+        }
+        return this.peeked;
+    }
+
+    /**
+     * Checks if the current array, object or function has another element
+     *
+     * @return true if there is another element, false if the end of the current scope is reached
+     * @throws IOException if the document could not be read
+     */
+    public boolean hasNext() throws IOException {
+        final JsonTokenType type = this.peek();
+        return type != JsonTokenType.END_OBJECT
+                && type != JsonTokenType.END_ARRAY
+                && type != JsonTokenType.RPAREN
+                && type != JsonTokenType.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the beginning of an object
+     *
+     * @throws TokenTypeExpectedException if the next token is not the beginning of an object
+     * @throws IOException                if the document could not be read
+     */
+    public void beginObject() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.BEGIN_OBJECT);
+        this.push(EMPTY_OBJECT);
+    }
+
+    /**
+     * Consumes the end of an object
+     *
+     * @throws TokenTypeExpectedException if the next token is not the end of an object
+     * @throws IOException                if the document could not be read
+     */
+    public void endObject() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.END_OBJECT);
+        this.stackSize--;
+    }
+
+    /**
+     * Consumes the beginning of an array
+     *
+     * @throws TokenTypeExpectedException if the next token is not the beginning of an array
+     * @throws IOException                if the document could not be read
+     */
+    public void beginArray() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.BEGIN_ARRAY);
+        this.push(EMPTY_ARRAY);
+    }
+
+    /**
+     * Consumes the end of an array
+     *
+     * @throws TokenTypeExpectedException if the next token is not the end of an array
+     * @throws IOException                if the document could not be read
+     */
+    public void endArray() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.END_ARRAY);
+        this.stackSize--;
+    }
+
+    /**
+     * Expects the end of the document, i.e. that nothing but whitespace and comments follows the top-level value
+     *
+     * @throws TokenTypeExpectedException if the document continues
+     * @throws IOException                if the document could not be read
+     */
+    public void endDocument() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.END_DOCUMENT);
+    }
+
+    /**
+     * Consumes the name of an object member
+     *
+     * @return the unescaped name
+     * @throws TokenTypeExpectedException if the next token is not a name
+     * @throws IOException                if the document could not be read
+     */
+    public String nextName() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.NAME);
+        return this.readString();
+    }
+
+    /**
+     * Consumes a string
+     *
+     * @return the unescaped string
+     * @throws TokenTypeExpectedException if the next token is not a string
+     * @throws IOException                if the document could not be read
+     */
+    public String nextString() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.STRING);
+        return this.readString();
+    }
+
+    /**
+     * Consumes a boolean
+     *
+     * @return the boolean
+     * @throws TokenTypeExpectedException if the next token is not a boolean
+     * @throws IOException                if the document could not be read
+     */
+    public boolean nextBoolean() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.BOOLEAN);
+        return this.peekedBoolean;
+    }
+
+    /**
+     * Consumes a null
+     *
+     * @throws TokenTypeExpectedException if the next token is not null
+     * @throws IOException                if the document could not be read
+     */
+    public void nextNull() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.NULL);
+    }
+
+    /**
+     * Consumes a number and returns its text as it appears in the document
+     *
+     * @return the number
+     * @throws TokenTypeExpectedException if the next token is not a number
+     * @throws IOException                if the document could not be read
+     */
+    public String nextNumber() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.NUMBER);
+        return this.readNumber();
+    }
+
+    /**
+     * Consumes a number which fits into an int
+     *
+     * @return the number
+     * @throws TokenTypeExpectedException if the next token is not a number
+     * @throws IllegalStateException      if the number is no int
+     * @throws IOException                if the document could not be read
+     */
+    public int nextInt() throws TokenTypeExpectedException, IOException {
+        final String number = this.nextNumber();
+        try {
+            return Integer.parseInt(number);
+        } catch (final NumberFormatException e) {
+            throw this.syntaxError("Expected an int but got " + number);
+        }
+    }
+
+    /**
+     * Consumes a number which fits into a long
+     *
+     * @return the number
+     * @throws TokenTypeExpectedException if the next token is not a number
+     * @throws IllegalStateException      if the number is no long
+     * @throws IOException                if the document could not be read
+     */
+    public long nextLong() throws TokenTypeExpectedException, IOException {
+        final String number = this.nextNumber();
+        try {
+            return Long.parseLong(number);
+        } catch (final NumberFormatException e) {
+            throw this.syntaxError("Expected a long but got " + number);
+        }
+    }
+
+    /**
+     * Consumes a number as a double
+     *
+     * @return the number
+     * @throws TokenTypeExpectedException if the next token is not a number
+     * @throws IllegalStateException      if the number is malformed
+     * @throws IOException                if the document could not be read
+     */
+    public double nextDouble() throws TokenTypeExpectedException, IOException {
+        final String number = this.nextNumber();
+        try {
+            return Double.parseDouble(number);
+        } catch (final NumberFormatException e) {
+            throw this.syntaxError("Expected a double but got " + number);
+        }
+    }
+
+    /**
+     * Skips the next value, including all nested values of an object or array
+     *
+     * @throws TokenTypeExpectedException if the next token is not a value
+     * @throws IOException                if the document could not be read
+     */
+    public void skipValue() throws TokenTypeExpectedException, IOException {
+        int depth = 0;
+        do {
+            final JsonTokenType type = this.peek();
+            if (depth == 0 && (type == JsonTokenType.END_OBJECT || type == JsonTokenType.END_ARRAY)) {
+                throw new TokenTypeExpectedException(VALUE_TYPES, type);
+            }
+            switch (type) {
+                case BEGIN_OBJECT -> {
+                    this.beginObject();
+                    depth++;
+                }
+                case BEGIN_ARRAY -> {
+                    this.beginArray();
+                    depth++;
+                }
+                case END_OBJECT -> {
+                    this.endObject();
+                    depth--;
+                }
+                case END_ARRAY -> {
+                    this.endArray();
+                    depth--;
+                }
+                case NAME -> this.nextName();
+                case STRING -> this.nextString();
+                case NUMBER -> this.nextNumber();
+                case BOOLEAN, NULL -> this.peeked = null;
+                case BEGIN_FUNCTION -> this.readFunction();
+                default -> throw new TokenTypeExpectedException(VALUE_TYPES, type);
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Reads the next value into a {@link JsonElement}, for values which need the tree,
+     * like values mapped by a {@link com.github.pokee.pson.mapper.ValueReaderMapper}.
+     * Functions are expanded if the reader was configured with {@link #withFunctions(JsonFunctionRunner)},
+     * otherwise they are returned as {@link JsonFunction}.
+     *
+     * @return the value
+     * @throws TokenTypeExpectedException if the next token is not a value
+     * @throws IOException                if the document could not be read
+     */
+    public JsonElement readElement() throws TokenTypeExpectedException, IOException {
+        switch (this.peek()) {
+            case BEGIN_OBJECT -> {
+                final JsonObject object = new JsonObject();
+                this.beginObject();
+                while (this.hasNext()) {
+                    final String key = this.nextName();
+                    object.put(key, this.readElement());
+                }
+                this.endObject();
+                return object;
+            }
+            case BEGIN_ARRAY -> {
+                final JsonArray array = new JsonArray();
+                this.beginArray();
+                while (this.hasNext()) {
+                    array.add(this.readElement());
+                }
+                this.endArray();
+                return array;
+            }
+            case STRING -> {
+                return JsonPrimitive.fromString(this.nextString());
+            }
+            case NUMBER -> {
+                final String number = this.nextNumber();
+                return JsonPrimitive.parseNumber(number, 0, number.length());
+            }
+            case BOOLEAN -> {
+                return JsonPrimitive.fromBool(this.nextBoolean());
+            }
+            case NULL -> {
+                this.nextNull();
+                return JsonPrimitive.fromNull();
+            }
+            case BEGIN_FUNCTION -> {
+                final JsonFunction function = this.readFunction();
+                if (this.functionParser == null) {
+                    return function;
+                }
+                return this.functionParser.expandFunction(function);
+            }
+            default -> throw new TokenTypeExpectedException(VALUE_TYPES, this.peek());
+        }
+    }
+
+    /**
+     * Reads a function call, {@code @name(parameter, ...)}, without expanding it
+     *
+     * @return the function
+     */
+    private JsonFunction readFunction() throws TokenTypeExpectedException, IOException {
+        this.expect(JsonTokenType.BEGIN_FUNCTION);
+        // skip the '@'
+        this.position++;
+
+        final StringBuilder name = new StringBuilder();
+        while (true) {
+            if (this.position == this.limit && !this.fillBuffer(1)) {
+                throw this.syntaxError("Unterminated function name");
+            }
+            final char c = this.buffer[this.position];
+            if (c == '(') {
+                this.position++;
+                break;
+            }
+            if (Character.isWhitespace(c)) {
+                throw this.syntaxError("Unexpected whitespace in function name");
+            }
+            name.append(c);
+            this.position++;
+        }
+
+        final List<JsonElement> parameters = new ArrayList<>();
+        this.push(EMPTY_FUNCTION);
+        while (this.hasNext()) {
+            parameters.add(this.readElement());
+        }
+        this.expect(JsonTokenType.RPAREN);
+        this.stackSize--;
+        return new JsonFunction(JsonFunctionRunner.transformFunctionName(name.toString()), parameters);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.peeked = null;
+        this.stack[0] = NONEMPTY_DOCUMENT;
+        this.stackSize = 1;
+        this.position = this.limit;
+        if (this.in != null) {
+            this.in.close();
+        }
+    }
+
+    /**
+     * Consumes the next token, which is expected to be of the given type
+     */
+    private void expect(final JsonTokenType type) throws TokenTypeExpectedException, IOException {
+        final JsonTokenType actual = this.peek();
+        if (actual != type) {
+            throw new TokenTypeExpectedException(type, actual);
+        }
+        this.peeked = null;
+    }
+
+    private void push(final int scope) {
+        if (this.stackSize == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.stackSize * 2);
+        }
+        this.stack[this.stackSize++] = scope;
+    }
+
+    /**
+     * Determines the type of the next token. Separators are consumed, as well as the opening quote of strings and
+     * names and whole booleans and nulls. Numbers and functions are not consumed.
+     */
+    private JsonTokenType doPeek() throws IOException {
+        final int scope = this.stack[this.stackSize - 1];
+        switch (scope) {
+            case EMPTY_ARRAY, NONEMPTY_ARRAY, EMPTY_FUNCTION, NONEMPTY_FUNCTION -> {
+                final boolean array = scope == EMPTY_ARRAY || scope == NONEMPTY_ARRAY;
+                final char end = array ? ']' : ')';
+                final int c = this.nextNonWhitespace();
+                if (c == end) {
+                    this.position++;
+                    return array ? JsonTokenType.END_ARRAY : JsonTokenType.RPAREN;
+                }
+                if (scope == NONEMPTY_ARRAY || scope == NONEMPTY_FUNCTION) {
+                    if (c != ',') {
+                        throw this.syntaxError("Expected ',' or '" + end + "'");
+                    }
+                    this.position++;
+                } else {
+                    this.stack[this.stackSize - 1] = array ? NONEMPTY_ARRAY : NONEMPTY_FUNCTION;
+                }
+            }
+            case EMPTY_OBJECT, NONEMPTY_OBJECT -> {
+                int c = this.nextNonWhitespace();
+                if (c == '}') {
+                    this.position++;
+                    return JsonTokenType.END_OBJECT;
+                }
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw this.syntaxError("Expected ',' or '}'");
+                    }
+                    this.position++;
+                    c = this.nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw this.syntaxError("Expected name");
+                }
+                this.position++;
+                this.stack[this.stackSize - 1] = DANGLING_NAME;
+                return JsonTokenType.NAME;
+            }
+            case DANGLING_NAME -> {
+                if (this.nextNonWhitespace() != ':') {
+                    throw this.syntaxError("Expected ':'");
+                }
+                this.position++;
+                this.stack[this.stackSize - 1] = NONEMPTY_OBJECT;
+            }
+            case EMPTY_DOCUMENT -> this.stack[this.stackSize - 1] = NONEMPTY_DOCUMENT;
+            default -> {
+                if (this.nextNonWhitespace() == -1) {
+                    return JsonTokenType.END_DOCUMENT;
+                }
+                throw this.syntaxError("Expected end of document");
+            }
+        }
+
+        final int c = this.nextNonWhitespace();
+        switch (c) {
+            case '{' -> {
+                this.position++;
+                return JsonTokenType.BEGIN_OBJECT;
+            }
+            case '[' -> {
+                this.position++;
+                return JsonTokenType.BEGIN_ARRAY;
+            }
+            case '"' -> {
+                this.position++;
+                return JsonTokenType.STRING;
+            }
+            case 't', 'f', 'n' -> {
+                return this.readLiteral();
+            }
+            case '.', '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> {
+                return JsonTokenType.NUMBER;
+            }
+            case '@' -> {
+                return JsonTokenType.BEGIN_FUNCTION;
+            }
+            case -1 -> throw this.syntaxError("Unexpected end of document");
+            default -> throw this.syntaxError("Unexpected character: " + (char) c);
+        }
+    }
+
+    /**
+     * Reads {@code true}, {@code false} or {@code null}
+     */
+    private JsonTokenType readLiteral() throws IOException {
+        final int start = this.offset();
+        final StringBuilder literal = new StringBuilder(5);
+        while ((this.position < this.limit || this.fillBuffer(1))
+                && Character.isLetter(this.buffer[this.position])
+                && literal.length() <= 5) {
+            literal.append(this.buffer[this.position++]);
+        }
+        switch (literal.toString()) {
+            case JsonPrimitive.TRUE -> {
+                this.peekedBoolean = true;
+                return JsonTokenType.BOOLEAN;
+            }
+            case JsonPrimitive.FALSE -> {
+                this.peekedBoolean = false;
+                return JsonTokenType.BOOLEAN;
+            }
+            case JsonPrimitive.NULL -> {
+                return JsonTokenType.NULL;
+            }
+            default -> throw new IllegalStateException("Unexpected literal '" + literal + "' at offset " + start);
+        }
+    }
+
+    /**
+     * Reads the rest of a string or name whose opening quote was consumed and unescapes it
+     */
+    private String readString() throws IOException {
+        StringBuilder bob = null;
+        while (true) {
+            int start = this.position;
+            while (this.position < this.limit) {
+                final char c = this.buffer[this.position++];
+                if (c == '"') {
+                    if (bob == null) {
+                        // fast path: the string did not contain escape sequences and did not cross buffers
+                        return new String(this.buffer, start, this.position - start - 1);
+                    }
+                    bob.append(this.buffer, start, this.position - start - 1);
+                    return bob.toString();
+                }
+                if (c == '\\') {
+                    if (bob == null) {
+                        bob = new StringBuilder(Math.max(16, (this.position - start) * 2));
+                    }
+                    bob.append(this.buffer, start, this.position - start - 1);
+                    bob.append(this.readEscapeCharacter());
+                    start = this.position;
+                }
+            }
+            if (bob == null) {
+                bob = new StringBuilder(Math.max(16, (this.position - start) * 2));
+            }
+            bob.append(this.buffer, start, this.position - start);
+            if (!this.fillBuffer(1)) {
+                throw this.syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    /**
+     * Reads the escape sequence following a backslash
+     */
+    private char readEscapeCharacter() throws IOException {
+        if (this.position == this.limit && !this.fillBuffer(1)) {
+            throw this.syntaxError("Invalid escape sequence");
+        }
+        final char escaped = this.buffer[this.position++];
+        return switch (escaped) {
+            case '"', '\\', '/' -> escaped;
+            case 'b' -> '\b';
+            case 'f' -> '\f';
+            case 'n' -> '\n';
+            case 'r' -> '\r';
+            case 't' -> '\t';
+            case 'u' -> {
+                if (this.limit - this.position < 4 && !this.fillBuffer(4)) {
+                    throw this.syntaxError("Invalid escape sequence \\u[...]");
+                }
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int digit = Character.digit(this.buffer[this.position++], 16);
+                    if (digit == -1) {
+                        throw this.syntaxError("Invalid escape sequence \\u[...]");
+                    }
+                    value = value << 4 | digit;
+                }
+                yield (char) value;
+            }
+            default -> throw this.syntaxError("Invalid escape sequence \\" + escaped);
+        };
+    }
+
+    /**
+     * Reads the characters of a number
+     */
+    private String readNumber() throws IOException {
+        StringBuilder bob = null;
+        int start = this.position;
+        while (true) {
+            while (this.position < this.limit) {
+                final char c = this.buffer[this.position];
+                if ((c < '0' || c > '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                    if (bob == null) {
+                        return new String(this.buffer, start, this.position - start);
+                    }
+                    return bob.append(this.buffer, start, this.position - start).toString();
+                }
+                this.position++;
+            }
+            if (bob == null) {
+                bob = new StringBuilder();
+            }
+            bob.append(this.buffer, start, this.position - start);
+            if (!this.fillBuffer(1)) {
+                return bob.toString();
+            }
+            start = this.position;
+        }
+    }
+
+    /**
+     * Skips whitespace and comments
+     *
+     * @return the next character without consuming it, or -1 if the document ended
+     */
+    private int nextNonWhitespace() throws IOException {
+        while (this.position < this.limit || this.fillBuffer(1)) {
+            final char c = this.buffer[this.position];
+            if (c == '/') {
+                // skip the comment until the end of the line
+                while ((this.position < this.limit || this.fillBuffer(1)) && this.buffer[this.position] != '\n') {
+                    this.position++;
+                }
+                continue;
+            }
+            if (!Character.isWhitespace(c)) {
+                return c;
+            }
+            this.position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Makes sure that at least the given number of characters is available after the current position,
+     * moving the remaining characters to the beginning of the buffer
+     *
+     * @param minimum the number of characters
+     * @return true if enough characters are available, false if the document ended before
+     */
+    private boolean fillBuffer(final int minimum) throws IOException {
+        if (this.in == null) {
+            return this.limit - this.position >= minimum;
+        }
+        this.bufferOffset += this.position;
+        this.limit -= this.position;
+        System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit);
+        this.position = 0;
+
+        int read;
+        while (this.limit < minimum
+                && (read = this.in.read(this.buffer, this.limit, this.buffer.length - this.limit)) != -1) {
+            this.limit += read;
+        }
+        return this.limit >= minimum;
+    }
+
+    private int offset() {
+        return (int) Math.min(Integer.MAX_VALUE, this.bufferOffset + this.position);
+    }
+
+    private IllegalStateException syntaxError(final String message) {
+        return new IllegalStateException(message + " at offset " + this.offset());
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+            return count;
+        }
+
+    }
+
+}
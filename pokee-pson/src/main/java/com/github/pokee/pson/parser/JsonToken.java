@@ -1,13 +1,45 @@
 package com.github.pokee.pson.parser;
 
 /**
- * Represents a token in a JSON document
- * @param type The type of the token
- * @param value The value of the token
- * @param startPosition The start position of the token
- * @param endPosition The end position of the token
+ * Represents a token in a JSON document. The value of the token is not copied out of the document until
+ * {@link #value()} is called.
+ *
+ * @param type          The type of the token
+ * @param source        The JSON document the token was read from
+ * @param valueStart    The position of the first character of the value of the token
+ * @param valueEnd      The position after the last character of the value of the token
+ * @param startPosition The start position of the token, including the whitespace before it
+ * @param endPosition   The end position of the token
  */
-public record JsonToken(JsonTokenType type, String value, int startPosition, int endPosition) {
+public record JsonToken(
+        JsonTokenType type,
+        String source,
+        int valueStart,
+        int valueEnd,
+        int startPosition,
+        int endPosition
+) {
+
+    /**
+     * Returns the value of the token as it appears in the document, e.g. including the quotes of strings
+     *
+     * @return the value, or null for the end of the document
+     */
+    public String value() {
+        if (this.type == JsonTokenType.END_DOCUMENT) {
+            return null;
+        }
+        return this.source.substring(this.valueStart, this.valueEnd);
+    }
+
+    /**
+     * Returns the value of a string token without its quotes, still escaped
+     *
+     * @return the content of the string
+     */
+    public String content() {
+        return this.source.substring(this.valueStart + 1, this.valueEnd - 1);
+    }
 
     /**
      * Resets the tokenizer to the start position of this token
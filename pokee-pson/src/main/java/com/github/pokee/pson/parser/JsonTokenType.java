@@ -14,6 +14,8 @@ public enum JsonTokenType {
     END_ARRAY,
 
     // values
+    // the name of an object member, only reported by JsonReader (JsonTokenizer reports names as STRING)
+    NAME,
     NAME_SEPARATOR,
     VALUE_SEPARATOR,
 
@@ -1,11 +1,21 @@
 package com.github.pokee.pson.parser;
 
+/**
+ * Splits a JSON document into tokens.
+ * <p>
+ * Every token is lexed exactly once: {@link #peekNextToken()} keeps the token it lexed as lookahead, which
+ * {@link #nextToken()} then consumes. Tokens only hold the positions of their values in the document, so strings and
+ * numbers are not copied until their value is needed.
+ */
 public class JsonTokenizer {
 
     private final String json;
 
     private int index = 0;
 
+    // the next token if it was already lexed, valid as long as it starts at the current index
+    private JsonToken lookahead = null;
+
     public JsonTokenizer(String json) {
         this.json = json;
     }
@@ -20,15 +30,16 @@ public class JsonTokenizer {
     }
 
     /**
-     * Peek at the next token without advancing the index
+     * Peek at the next token without advancing the index.
+     * The token is kept, so peeking again or consuming it with {@link #nextToken()} does not lex it again.
      *
      * @return the next token
      */
     public JsonToken peekNextToken() {
-        final JsonToken token = this.nextToken();
-        // reset the index
-        this.index = token.startPosition();
-        return token;
+        if (this.lookahead == null || this.lookahead.startPosition() != this.index) {
+            this.lookahead = this.lex(this.index);
+        }
+        return this.lookahead;
     }
 
     /**
@@ -37,91 +48,116 @@ public class JsonTokenizer {
      * @return the next token
      */
     public JsonToken nextToken() {
-        final int startIndex = this.index;
+        final JsonToken token = this.peekNextToken();
+        this.lookahead = null;
+        this.index = token.endPosition();
+        return token;
+    }
 
-        // skip whitespace
-        while (this.index < this.json.length() && Character.isWhitespace(this.json.charAt(this.index))) {
-            this.index++;
+    /**
+     * Lex the token at the given position
+     *
+     * @param startIndex the position, possibly before whitespace and comments
+     * @return the token
+     */
+    private JsonToken lex(final int startIndex) {
+        final int length = this.json.length();
+        int position = startIndex;
+
+        // skip whitespace and comments
+        while (position < length) {
+            final char c = this.json.charAt(position);
+            if (c == '/') {
+                // read until end of line
+                while (position < length && this.json.charAt(position) != '\n') {
+                    position++;
+                }
+            } else if (Character.isWhitespace(c)) {
+                position++;
+            } else {
+                break;
+            }
         }
 
         // check if we reached the end of the document
-        if (this.index >= this.json.length()) {
-            return new JsonToken(JsonTokenType.END_DOCUMENT, null, startIndex, -1);
+        if (position >= length) {
+            return new JsonToken(JsonTokenType.END_DOCUMENT, this.json, position, position, startIndex, position);
         }
 
-        char c = this.json.charAt(this.index);
-        switch (c) {
-            case '{' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.BEGIN_OBJECT, "{", startIndex, this.index);
-            }
-            case '}' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.END_OBJECT, "}", startIndex, this.index);
-            }
-            case '[' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.BEGIN_ARRAY, "[", startIndex, this.index);
-            }
-            case ']' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.END_ARRAY, "]", startIndex, this.index);
-            }
-            case ':' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.NAME_SEPARATOR, ":", startIndex, this.index);
-            }
-            case ',' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.VALUE_SEPARATOR, ",", startIndex, this.index);
-            }
-            case '"' -> {
-                final String read = this.readString();
-                return new JsonToken(JsonTokenType.STRING, read, startIndex, this.index);
-            }
-            case 't', 'f' -> {
-                final String read = this.readPrimitive();
-                if (!read.strip().equals("true") && !read.strip().equals("false")) {
-                    throw new IllegalStateException("Unexpected character: " + c);
-                }
-                return new JsonToken(JsonTokenType.BOOLEAN, read, startIndex, this.index);
-            }
-            case 'n' -> {
-                final String read = this.readPrimitive();
-                if (!read.strip().equals("null")) {
+        final char c = this.json.charAt(position);
+        final JsonTokenType type = switch (c) {
+            case '{' -> JsonTokenType.BEGIN_OBJECT;
+            case '}' -> JsonTokenType.END_OBJECT;
+            case '[' -> JsonTokenType.BEGIN_ARRAY;
+            case ']' -> JsonTokenType.END_ARRAY;
+            case ':' -> JsonTokenType.NAME_SEPARATOR;
+            case ',' -> JsonTokenType.VALUE_SEPARATOR;
+            case '@' -> JsonTokenType.BEGIN_FUNCTION;
+            case '(' -> JsonTokenType.LPAREN;
+            case ')' -> JsonTokenType.RPAREN;
+            case '"' -> JsonTokenType.STRING;
+            case 't', 'f' -> JsonTokenType.BOOLEAN;
+            case 'n' -> JsonTokenType.NULL;
+            case '.', '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> JsonTokenType.NUMBER;
+            default -> throw new IllegalStateException("Unexpected character: " + c);
+        };
+
+        final int end = switch (type) {
+            case STRING -> this.scanString(position);
+            case BOOLEAN, NULL -> {
+                final String expected = c == 't' ? "true" : c == 'f' ? "false" : "null";
+                final int primitiveEnd = this.scanPrimitive(position);
+                if (primitiveEnd - position != expected.length() || !this.json.startsWith(expected, position)) {
+                    // skip the invalid primitive, so the tokenizer can continue after it
+                    this.index = primitiveEnd;
                     throw new IllegalStateException("Unexpected character: " + c);
                 }
-                return new JsonToken(JsonTokenType.NULL, read, startIndex, this.index);
-            }
-            case '.', '-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' -> {
-                final String read = this.readPrimitive();
-                return new JsonToken(JsonTokenType.NUMBER, read, startIndex, this.index);
+                yield primitiveEnd;
             }
-            case '@' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.BEGIN_FUNCTION, "@", startIndex, this.index);
-            }
-            case '(' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.LPAREN, "(", startIndex, this.index);
-            }
-            case ')' -> {
-                this.index++;
-                return new JsonToken(JsonTokenType.RPAREN, ")", startIndex, this.index);
+            case NUMBER -> this.scanPrimitive(position);
+            default -> position + 1;
+        };
+        return new JsonToken(type, this.json, position, end, startIndex, end);
+    }
+
+    /**
+     * Find the end of the string starting at the given position
+     *
+     * @param start the position of the opening quote
+     * @return the position after the closing quote
+     */
+    private int scanString(final int start) {
+        final int length = this.json.length();
+        for (int position = start + 1; position < length; position++) {
+            final char c = this.json.charAt(position);
+            if (c == '\\') {
+                // skip the escaped character
+                position++;
+            } else if (c == '"') {
+                return position + 1;
             }
-            case '/' -> {
-                // strip comment prefix
-                while (this.index < this.json.length() && this.json.charAt(this.index) == '/') {
-                    this.index++;
-                }
-                // read until end of line
-                while (this.index < this.json.length() && this.json.charAt(this.index) != '\n') {
-                    this.index++;
-                }
-                return this.nextToken();
+        }
+        // document ended without closing quote
+        throw new IllegalStateException("Unterminated string");
+    }
+
+    /**
+     * Find the end of a number, boolean or null starting at the given position
+     *
+     * @param start the position of the first character
+     * @return the position after the last character
+     */
+    private int scanPrimitive(final int start) {
+        final int length = this.json.length();
+        int position = start;
+        while (position < length) {
+            final char c = this.json.charAt(position);
+            if (c == ',' || c == '}' || c == ']' || c == ')' || c == '/' || Character.isWhitespace(c)) {
+                break;
             }
-            default -> throw new IllegalStateException("Unexpected character: " + c);
+            position++;
         }
+        return position;
     }
 
     /**
@@ -130,16 +166,15 @@ public class JsonTokenizer {
      * @return the function name read from the tokenizer
      */
     public String readFunctionName() {
-        final StringBuilder bob = new StringBuilder();
+        final int start = this.index;
         while (this.index < this.json.length()) {
             final char currentChar = this.json.charAt(this.index);
             if (currentChar == '(') {
-                return bob.toString();
+                return this.json.substring(start, this.index);
             }
             if (currentChar == ' ') {
                 throw new IllegalStateException("Unexpected whitespace in function name");
             }
-            bob.append(currentChar);
             this.index++;
         }
         throw new IllegalStateException("Unterminated function name");
@@ -148,30 +183,12 @@ public class JsonTokenizer {
     /**
      * Read a string from the tokenizer
      *
-     * @return the string read from the tokenizer
+     * @return the string read from the tokenizer, including the quotes
      */
     public String readString() {
-        final StringBuilder bob = new StringBuilder("\"");
-        this.index++;
-
-        while (this.index < this.json.length()) {
-            final char currentChar = this.json.charAt(this.index);
-
-            // append the character
-            bob.append(currentChar);
-
-            // check if closing quote and NOT escaped
-            if (currentChar == '"' && this.json.charAt(this.index - 1) != '\\') {
-                // skip the closing quote
-                this.index++;
-                return bob.toString();
-            }
-
-            this.index++;
-        }
-
-        // document ended without closing quote
-        throw new IllegalStateException("Unterminated string");
+        final int start = this.index;
+        this.index = this.scanString(start);
+        return this.json.substring(start, this.index);
     }
 
     /**
@@ -180,18 +197,9 @@ public class JsonTokenizer {
      * @return the primitive read from the tokenizer
      */
     public String readPrimitive() {
-        final StringBuilder bob = new StringBuilder();
-
-        while (this.index < this.json.length()) {
-            final char currentChar = this.json.charAt(this.index);
-            if (currentChar == ',' || currentChar == '}' || currentChar == ']' || currentChar == ')') {
-                break;
-            }
-            bob.append(currentChar);
-            this.index++;
-        }
-
-        return bob.toString();
+        final int start = this.index;
+        this.index = this.scanPrimitive(start);
+        return this.json.substring(start, this.index);
     }
 
     /**
@@ -1,9 +1,15 @@
 package com.github.pokee.pson.value;
 
 import com.github.pokee.pson.mapper.JsonReaderMapper;
+import com.github.pokee.pson.mapper.JsonWriterMapper;
+
+import java.math.BigDecimal;
 
 /**
  * Represents a JSON primitive value.
+ * <p>
+ * The type and the value of the primitive are determined once when it is created, so the type checks are simple
+ * comparisons. Strings read from a document are unescaped when {@link #asString()} is called for the first time.
  *
  * @noinspection unused
  */
@@ -13,162 +19,355 @@ public class JsonPrimitive implements JsonElement {
     public static final String TRUE = "true";
     public static final String FALSE = "false";
 
-    private final String rawValue;
+    private static final JsonPrimitive NULL_PRIMITIVE = new JsonPrimitive(JsonPrimitiveType.NULL, 0, 0, null, null);
+    private static final JsonPrimitive TRUE_PRIMITIVE = new JsonPrimitive(JsonPrimitiveType.BOOLEAN, 1, 1, null, null);
+    private static final JsonPrimitive FALSE_PRIMITIVE = new JsonPrimitive(JsonPrimitiveType.BOOLEAN, 0, 0, null, null);
+
+    private final JsonPrimitiveType type;
+
+    // LONG and BOOLEAN (1 or 0)
+    private final long longValue;
+    // all numbers
+    private final double doubleValue;
+    // BIG_DECIMAL
+    private final BigDecimal bigDecimalValue;
 
-    public JsonPrimitive(final String rawValue) {
-        this.rawValue = rawValue;
+    // STRING: the string as it appeared in the document (without quotes), null if it was created unescaped
+    private final String escapedValue;
+    // STRING: the unescaped string, decoded from the escaped value on first use
+    private String stringValue;
+
+    private JsonPrimitive(
+            final JsonPrimitiveType type,
+            final long longValue,
+            final double doubleValue,
+            final BigDecimal bigDecimalValue,
+            final String escapedValue
+    ) {
+        this.type = type;
+        this.longValue = longValue;
+        this.doubleValue = doubleValue;
+        this.bigDecimalValue = bigDecimalValue;
+        this.escapedValue = escapedValue;
+    }
+
+    /**
+     * Returns the type of the value
+     *
+     * @return the type of the value
+     */
+    public JsonPrimitiveType getType() {
+        return this.type;
     }
 
     /**
-     * Checks if the raw value is a string
+     * Checks if the value is a string
      *
-     * @return true if the raw value is a string, false otherwise
+     * @return true if the value is a string, false otherwise
      */
     public boolean isString() {
-        return this.rawValue.startsWith("\"") && this.rawValue.endsWith("\"");
+        return this.type == JsonPrimitiveType.STRING;
     }
 
     /**
-     * Returns the raw value as a string and removes the quotes
+     * Returns the unescaped string
      *
-     * @return the raw value as a string
+     * @return the string
      */
     public String asString() {
         if (!this.isString()) {
             throw new IllegalStateException("The raw value is not a string");
         }
-        return JsonReaderMapper.unescapeString(this.rawValue.substring(1, this.rawValue.length() - 1));
+        String value = this.stringValue;
+        if (value == null) {
+            // decoding twice in case of a race is harmless since it yields the same string
+            value = this.stringValue = JsonReaderMapper.unescapeString(this.escapedValue);
+        }
+        return value;
     }
 
     /**
-     * Checks if the raw value is a double
+     * Checks if the value is a number
      *
-     * @return true if the raw value is a double, false otherwise
+     * @return true if the value is a number, false otherwise
+     */
+    public boolean isNumber() {
+        return this.type == JsonPrimitiveType.LONG
+                || this.type == JsonPrimitiveType.DOUBLE
+                || this.type == JsonPrimitiveType.BIG_DECIMAL;
+    }
+
+    /**
+     * Checks if the value can be read as a double, which is true for all numbers
+     *
+     * @return true if the value is a number, false otherwise
      */
     public boolean isDouble() {
-        try {
-            Double.parseDouble(this.rawValue);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+        return this.isNumber();
     }
 
     /**
-     * Parses the raw value as a double
+     * Returns the number as a double
      *
-     * @return the raw value as a double
+     * @return the number as a double
      */
     public double asDouble() {
         if (!this.isDouble()) {
             throw new IllegalStateException("The raw value is not a double");
         }
-        return Double.parseDouble(this.rawValue);
+        return this.doubleValue;
     }
 
     /**
-     * Checks if the raw value is an integer
+     * Checks if the value is an integer which fits into a long
      *
-     * @return true if the raw value is an integer, false otherwise
+     * @return true if the value is a long, false otherwise
      */
-    public boolean isInteger() {
-        try {
-            Integer.parseInt(this.rawValue);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
+    public boolean isLong() {
+        return this.type == JsonPrimitiveType.LONG;
+    }
+
+    /**
+     * Returns the number as a long
+     *
+     * @return the number as a long
+     */
+    public long asLong() {
+        if (!this.isLong()) {
+            throw new IllegalStateException("The raw value is not a long");
         }
+        return this.longValue;
     }
 
     /**
-     * Parses the raw value as an integer
+     * Checks if the value is an integer which fits into an int
      *
-     * @return the raw value as an integer
+     * @return true if the value is an integer, false otherwise
+     */
+    public boolean isInteger() {
+        return this.type == JsonPrimitiveType.LONG
+                && this.longValue >= Integer.MIN_VALUE
+                && this.longValue <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the number as an integer
+     *
+     * @return the number as an integer
      */
     public int asInteger() {
         if (!this.isInteger()) {
             throw new IllegalStateException("The raw value is not an integer");
         }
-        return Integer.parseInt(this.rawValue);
+        return (int) this.longValue;
+    }
+
+    /**
+     * Returns the number as a BigDecimal, without losing precision for integers of any size
+     *
+     * @return the number as a BigDecimal
+     */
+    public BigDecimal asBigDecimal() {
+        return switch (this.type) {
+            case LONG -> BigDecimal.valueOf(this.longValue);
+            case DOUBLE -> BigDecimal.valueOf(this.doubleValue);
+            case BIG_DECIMAL -> this.bigDecimalValue;
+            default -> throw new IllegalStateException("The raw value is not a number");
+        };
     }
 
     /**
-     * Checks if the raw value is null
+     * Checks if the value is null
      *
-     * @return true if the raw value is null, false otherwise
+     * @return true if the value is null, false otherwise
      */
     public boolean isNull() {
-        return JsonPrimitive.NULL.equals(this.rawValue);
+        return this.type == JsonPrimitiveType.NULL;
     }
 
     /**
-     * Checks if the raw value is a boolean
+     * Checks if the value is a boolean
      *
-     * @return true if the raw value is a boolean, false otherwise
+     * @return true if the value is a boolean, false otherwise
      */
     public boolean isBoolean() {
-        return JsonPrimitive.TRUE.equals(this.rawValue) || JsonPrimitive.FALSE.equals(this.rawValue);
+        return this.type == JsonPrimitiveType.BOOLEAN;
     }
 
     /**
-     * Parses the raw value as a boolean
+     * Returns the boolean
      *
-     * @return the raw value as a boolean
+     * @return the boolean
      */
     public boolean asBoolean() {
         if (!this.isBoolean()) {
             throw new IllegalStateException("The raw value is not a boolean");
         }
-        return JsonPrimitive.TRUE.equals(this.rawValue);
+        return this.longValue != 0;
     }
 
     /**
-     * Returns the raw value
+     * Returns the value as it would appear in a JSON document, e.g. strings are escaped and quoted
      *
      * @return the raw value
      */
     public String getRawValue() {
-        return rawValue;
+        return switch (this.type) {
+            case NULL -> JsonPrimitive.NULL;
+            case BOOLEAN -> this.asBoolean() ? JsonPrimitive.TRUE : JsonPrimitive.FALSE;
+            case STRING -> "\"" + (this.escapedValue != null
+                    ? this.escapedValue
+                    : JsonWriterMapper.escapeString(this.stringValue)) + "\"";
+            case LONG -> Long.toString(this.longValue);
+            case DOUBLE -> Double.toString(this.doubleValue);
+            case BIG_DECIMAL -> this.bigDecimalValue.toString();
+        };
     }
 
     @Override
     public String toString() {
-        if (this.isString()) {
-            return "str(" + this.asString() + ")";
-        }
-        if (this.isDouble()) {
-            return "num(" + this.asDouble() + ")";
-        }
-        if (this.isInteger()) {
-            return "int(" + this.asInteger() + ")";
-        }
-        if (this.isNull()) {
-            return "null()";
-        }
-        if (this.isBoolean()) {
-            return "bool(" + this.asBoolean() + ")";
-        }
-        return "raw-primitive(" + this.rawValue + ")";
+        return switch (this.type) {
+            case NULL -> "null()";
+            case BOOLEAN -> "bool(" + this.asBoolean() + ")";
+            case STRING -> "str(" + this.asString() + ")";
+            case LONG -> "int(" + this.longValue + ")";
+            case DOUBLE -> "num(" + this.doubleValue + ")";
+            case BIG_DECIMAL -> "num(" + this.bigDecimalValue + ")";
+        };
     }
 
+    /**
+     * Creates a string primitive
+     *
+     * @param value the (unescaped) string
+     * @return the primitive
+     */
     public static JsonPrimitive fromString(final String value) {
-        return new JsonPrimitive("\"" + value + "\"");
+        final JsonPrimitive primitive = new JsonPrimitive(JsonPrimitiveType.STRING, 0, 0, null, null);
+        primitive.stringValue = value;
+        return primitive;
+    }
+
+    /**
+     * Creates a string primitive from a string as it appears in a JSON document, which is unescaped when it is
+     * read for the first time
+     *
+     * @param escapedValue the escaped string without quotes
+     * @return the primitive
+     */
+    public static JsonPrimitive fromEscapedString(final String escapedValue) {
+        return new JsonPrimitive(JsonPrimitiveType.STRING, 0, 0, null, escapedValue);
     }
 
     public static JsonPrimitive fromBool(final boolean value) {
-        return new JsonPrimitive(value ? JsonPrimitive.TRUE : JsonPrimitive.FALSE);
+        return value ? TRUE_PRIMITIVE : FALSE_PRIMITIVE;
     }
 
     public static JsonPrimitive fromNumber(final double value) {
-        return new JsonPrimitive(String.valueOf(value));
+        return new JsonPrimitive(JsonPrimitiveType.DOUBLE, 0, value, null, null);
+    }
+
+    public static JsonPrimitive fromNumber(final long value) {
+        return new JsonPrimitive(JsonPrimitiveType.LONG, value, value, null, null);
     }
 
     public static JsonPrimitive fromNumber(final int value) {
-        return new JsonPrimitive(String.valueOf(value));
+        return JsonPrimitive.fromNumber((long) value);
     }
 
     public static JsonPrimitive fromNull() {
-        return new JsonPrimitive(JsonPrimitive.NULL);
+        return NULL_PRIMITIVE;
+    }
+
+    /**
+     * Parses a number of a JSON document. Integers become {@link JsonPrimitiveType#LONG} or, if they are too large,
+     * {@link JsonPrimitiveType#BIG_DECIMAL}; numbers with a fraction or an exponent become
+     * {@link JsonPrimitiveType#DOUBLE}.
+     *
+     * @param text  the text containing the number
+     * @param start the position of the first character of the number
+     * @param end   the position after the last character of the number
+     * @return the primitive
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static JsonPrimitive parseNumber(final CharSequence text, final int start, final int end) {
+        int position = start;
+        final boolean negative = position < end && text.charAt(position) == '-';
+        if (negative) {
+            position++;
+        }
+
+        // integer part, accumulated as long as it fits into a long
+        final int integerStart = position;
+        long value = 0;
+        boolean overflow = false;
+        while (position < end && Character.isDigit(text.charAt(position))) {
+            final int digit = text.charAt(position) - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                overflow = true;
+            } else {
+                value = value * 10 + digit;
+            }
+            position++;
+        }
+        int digits = position - integerStart;
+
+        boolean decimal = false;
+        if (position < end && text.charAt(position) == '.') {
+            decimal = true;
+            final int fractionStart = ++position;
+            while (position < end && Character.isDigit(text.charAt(position))) {
+                position++;
+            }
+            digits += position - fractionStart;
+        }
+        if (position < end && (text.charAt(position) == 'e' || text.charAt(position) == 'E')) {
+            decimal = true;
+            position++;
+            if (position < end && (text.charAt(position) == '+' || text.charAt(position) == '-')) {
+                position++;
+            }
+            final int exponentStart = position;
+            while (position < end && Character.isDigit(text.charAt(position))) {
+                position++;
+            }
+            if (position == exponentStart) {
+                digits = 0;
+            }
+        }
+        if (position != end || digits == 0) {
+            throw new NumberFormatException("Invalid number: " + text.subSequence(start, end));
+        }
+
+        if (decimal) {
+            return JsonPrimitive.fromNumber(Double.parseDouble(text.subSequence(start, end).toString()));
+        }
+        if (overflow) {
+            final BigDecimal bigDecimal = new BigDecimal(text.subSequence(start, end).toString());
+            return new JsonPrimitive(JsonPrimitiveType.BIG_DECIMAL, 0, bigDecimal.doubleValue(), bigDecimal, null);
+        }
+        return JsonPrimitive.fromNumber(negative ? -value : value);
+    }
+
+    /**
+     * Creates a primitive from its JSON representation, e.g. {@code "string"}, {@code 10}, {@code true} or
+     * {@code null}
+     *
+     * @param rawValue the JSON representation
+     * @return the primitive
+     * @throws IllegalArgumentException if the value is no JSON primitive
+     */
+    public static JsonPrimitive fromRawValue(final String rawValue) {
+        final String value = rawValue.strip();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return JsonPrimitive.fromEscapedString(value.substring(1, value.length() - 1));
+        }
+        return switch (value) {
+            case JsonPrimitive.NULL -> JsonPrimitive.fromNull();
+            case JsonPrimitive.TRUE -> JsonPrimitive.fromBool(true);
+            case JsonPrimitive.FALSE -> JsonPrimitive.fromBool(false);
+            default -> JsonPrimitive.parseNumber(value, 0, value.length());
+        };
     }
 
 }
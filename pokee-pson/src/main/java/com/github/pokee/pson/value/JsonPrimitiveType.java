@@ -0,0 +1,20 @@
+package com.github.pokee.pson.value;
+
+/**
+ * The type of the value of a {@link JsonPrimitive}, determined once when the primitive is created
+ */
+public enum JsonPrimitiveType {
+
+    NULL,
+    BOOLEAN,
+    STRING,
+
+    // numbers
+    // an integer which fits into a long
+    LONG,
+    // a number with a fraction or an exponent
+    DOUBLE,
+    // an integer which does not fit into a long
+    BIG_DECIMAL,
+
+}
@@ -1,12 +1,25 @@
 package com.github.pokee.pson;
 
 
+import com.github.pokee.pson.mapper.JsonReaderMapper;
+import com.github.pokee.pson.mapper.JsonWriterMapper;
+import com.github.pokee.pson.mapper.ObjectBinding;
+import com.github.pokee.pson.mapper.ValueReaderMapper;
+import com.github.pokee.pson.mapper.annotations.JsonOptional;
+import com.github.pokee.pson.mapper.annotations.JsonProperty;
+import com.github.pokee.pson.mapper.mappers.PrimitiveReaderMapper;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class PsonTest {
 
@@ -63,4 +76,125 @@ public class PsonTest {
         assertEquals(input, output);
     }
 
-}
\ No newline at end of file
+    enum Type {
+        GRASS, FIRE
+    }
+
+    static class Stats {
+        private int hp;
+        private double weight;
+    }
+
+    static class Entry {
+        @JsonProperty("pokedexID")
+        private int id;
+        private String name;
+        private Type type;
+        private Stats stats;
+        private List<String> tags;
+        private Integer[] moves;
+        @JsonOptional
+        private String nickname;
+    }
+
+    private static final String ENTRIES = """
+            [
+              {
+                "pokedexID": 1,
+                "name": "Bulbasaur \\u00e9",
+                "type": "GRASS",
+                "stats": {"hp": 45, "weight": 6.9},
+                "tags": ["seed", "starter"],
+                "moves": [1, 2],
+                "unknown": {"skipped": [true, null]}
+              },
+              {
+                "pokedexID": 4,
+                "name": "Charmander",
+                "type": "FIRE",
+                "stats": {"hp": 39, "weight": 8.5},
+                "tags": [],
+                "moves": [],
+                "nickname": null
+              }
+            ]
+            """;
+
+    @Test
+    void testUnmarshalStream() throws IOException {
+        final List<Entry> tree = pson.unmarshalList(ENTRIES, Entry.class);
+        final List<Entry> stream = pson.unmarshalList(new StringReader(ENTRIES), Entry.class);
+        assertEquals(2, stream.size());
+        for (int i = 0; i < tree.size(); i++) {
+            assertEquals(tree.get(i).id, stream.get(i).id);
+            assertEquals(tree.get(i).name, stream.get(i).name);
+            assertEquals(tree.get(i).type, stream.get(i).type);
+            assertEquals(tree.get(i).stats.hp, stream.get(i).stats.hp);
+            assertEquals(tree.get(i).stats.weight, stream.get(i).stats.weight);
+            assertEquals(tree.get(i).tags, stream.get(i).tags);
+            assertArrayEquals(tree.get(i).moves, stream.get(i).moves);
+            assertNull(stream.get(i).nickname);
+        }
+        assertEquals("Bulbasaur \u00e9", stream.get(0).name);
+        assertEquals(Type.FIRE, stream.get(1).type);
+
+        final Stats stats = pson.unmarshalObject(
+                new ByteArrayInputStream("{\"hp\": 1, \"weight\": 2}".getBytes(StandardCharsets.UTF_8)),
+                Stats.class
+        );
+        assertEquals(1, stats.hp);
+        assertEquals(2.0, stats.weight);
+    }
+
+    @Test
+    void testUnmarshalStreamMissingField() {
+        assertThrows(IllegalStateException.class, () -> pson.unmarshalObject(
+                new StringReader("{\"hp\": 1}"),
+                Stats.class
+        ));
+    }
+
+    @Test
+    void testBinding() {
+        final JsonReaderMapper reader = new JsonReaderMapper(PsonBuilder.DEFAULT_VALUE_READER_MAPPERS);
+        final ObjectBinding<ValueReaderMapper> binding = reader.getBinding(Entry.class);
+        // the binding is created once per class
+        assertSame(binding, reader.getBinding(Entry.class));
+
+        assertNull(binding.property("id"));
+        final ObjectBinding.Property<ValueReaderMapper> id = binding.property("pokedexID");
+        assertEquals(Integer.class, id.valueType());
+        assertSame(PrimitiveReaderMapper.INTEGER, id.mapper());
+        assertFalse(id.optional());
+        assertTrue(binding.property("nickname").optional());
+        assertNull(binding.property("stats").mapper());
+        assertSame(id, binding.properties().get(id.index()));
+
+        final JsonWriterMapper writer = new JsonWriterMapper(false, null, PsonBuilder.DEFAULT_VALUE_WRITER_MAPPERS);
+        assertEquals(binding.byName().keySet(), writer.getBinding(Entry.class).byName().keySet());
+    }
+
+    @Test
+    void testMarshalRoundTrip() {
+        final Stats stats = pson.unmarshalObject("{\"hp\": 45, \"weight\": 6.9}", Stats.class);
+        // the same binding is used for both objects
+        final List<Stats> copies = pson.unmarshalList(pson.marshal(List.of(stats, stats)), Stats.class);
+        assertEquals(2, copies.size());
+        for (final Stats copy : copies) {
+            assertEquals(45, copy.hp);
+            assertEquals(6.9, copy.weight);
+        }
+    }
+
+    @Test
+    void testMarshalToStream() throws IOException {
+        final List<Entry> entries = pson.unmarshalList(ENTRIES, Entry.class);
+        final byte[] expected = pson.marshal(entries).getBytes(StandardCharsets.UTF_8);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        pson.marshal(entries, outputStream);
+        assertArrayEquals(expected, outputStream.toByteArray());
+        assertArrayEquals(expected, pson.marshalToBytes(entries));
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.pokee.pson.output;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonOutputTest {
+
+    private static final String TEXT = "Pokee \u00e9\u00e8 \u20ac \uD83D\uDE00 end";
+
+    @Test
+    void testUtf8() {
+        // a buffer of four bytes has to be drained for almost every character
+        for (final int size : new int[]{4, 5, 7, JsonOutput.DEFAULT_BUFFER_SIZE}) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final JsonOutput output = JsonOutput.of(outputStream, ByteBuffer.allocate(size));
+            output.append(TEXT);
+            output.append('\u00fc');
+            output.append(TEXT, 6, 8);
+            output.flush();
+            assertEquals(
+                    TEXT + "\u00fc" + TEXT.substring(6, 8),
+                    outputStream.toString(StandardCharsets.UTF_8),
+                    "buffer size " + size
+            );
+        }
+    }
+
+    @Test
+    void testChannel() {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final JsonOutput output = JsonOutput.of(Channels.newChannel(outputStream), ByteBuffer.allocateDirect(16));
+        output.append(TEXT.repeat(10));
+        output.flush();
+        assertArrayEquals(TEXT.repeat(10).getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+    }
+
+    @Test
+    void testUnpairedSurrogates() {
+        final String text = "a\uD83D b\uDE00c\uD83D";
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final JsonOutput output = JsonOutput.of(outputStream);
+        output.append(text);
+        output.flush();
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+    }
+
+    @Test
+    void testEscaped() {
+        final String text = "\"quoted\"\n\t\\ \u0001 \u00e9";
+        final StringBuilder bob = new StringBuilder();
+        JsonOutput.of(bob).appendEscaped(text);
+        assertEquals("\\\"quoted\\\"\\n\\t\\\\ \\u0001 \u00e9", bob.toString());
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final JsonOutput output = JsonOutput.of(outputStream);
+        output.appendEscaped(text);
+        output.flush();
+        assertEquals(bob.toString(), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteError() {
+        final JsonOutput output = JsonOutput.of(new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("closed");
+            }
+        });
+        output.append("value");
+        assertThrows(UncheckedIOException.class, output::flush);
+    }
+
+}
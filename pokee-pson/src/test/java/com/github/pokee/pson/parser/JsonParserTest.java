@@ -5,8 +5,11 @@ import com.github.pokee.pson.value.JsonArray;
 import com.github.pokee.pson.value.JsonElement;
 import com.github.pokee.pson.value.JsonObject;
 import com.github.pokee.pson.value.JsonPrimitive;
+import com.github.pokee.pson.value.JsonPrimitiveType;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class JsonParserTest {
@@ -220,4 +223,47 @@ public class JsonParserTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void testPrimitiveTypes() throws TokenTypeExpectedException {
+        final JsonArray array = new JsonParser(
+                "[\"a\\\"b\", 10, -2.5e1, 92233720368547758070, true, null, .5]"
+        ).parse().asArray();
+
+        final JsonPrimitive string = array.get(0).asPrimitive();
+        assertEquals(JsonPrimitiveType.STRING, string.getType());
+        assertEquals("a\"b", string.asString());
+        // the string is unescaped only once
+        assertSame(string.asString(), string.asString());
+        assertEquals("\"a\\\"b\"", string.getRawValue());
+
+        final JsonPrimitive integer = array.get(1).asPrimitive();
+        assertEquals(JsonPrimitiveType.LONG, integer.getType());
+        assertTrue(integer.isInteger());
+        assertEquals(10, integer.asInteger());
+        assertEquals(10.0, integer.asDouble());
+        assertThrows(IllegalStateException.class, integer::asString);
+
+        final JsonPrimitive decimal = array.get(2).asPrimitive();
+        assertEquals(JsonPrimitiveType.DOUBLE, decimal.getType());
+        assertFalse(decimal.isInteger());
+        assertEquals(-25.0, decimal.asDouble());
+
+        final JsonPrimitive big = array.get(3).asPrimitive();
+        assertEquals(JsonPrimitiveType.BIG_DECIMAL, big.getType());
+        assertFalse(big.isLong());
+        assertEquals(new BigDecimal("92233720368547758070"), big.asBigDecimal());
+
+        assertTrue(array.get(4).asPrimitive().asBoolean());
+        assertTrue(array.get(5).asPrimitive().isNull());
+        assertEquals(0.5, array.get(6).asPrimitive().asDouble());
+    }
+
+    @Test
+    void testInvalidNumbers() {
+        for (final String number : new String[]{"-", "1-", "1.2.3", "1e", "1x", "."}) {
+            assertThrows(NumberFormatException.class, () -> new JsonParser(number).parse(), number);
+        }
+        assertEquals(Long.MAX_VALUE, JsonPrimitive.fromRawValue(Long.toString(Long.MAX_VALUE)).asLong());
+    }
+
+}
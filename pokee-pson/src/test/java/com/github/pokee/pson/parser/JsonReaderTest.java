@@ -0,0 +1,193 @@
+package com.github.pokee.pson.parser;
+
+import com.github.pokee.pson.exception.TokenTypeExpectedException;
+import com.github.pokee.pson.value.JsonElement;
+import com.github.pokee.pson.value.JsonFunction;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonReaderTest {
+
+    public static final String JSON = """
+            {
+                // comments are skipped
+                "string": "value",
+                "escaped": "a\\"b\\\\c\\n\\u00e4\\/",
+                "int": -10,
+                "double": 1.5e2,
+                "boolean": true,
+                "null": null,
+                "array": [1, [], {}],
+                "object": {"nested": false}
+            }
+            """;
+
+    /**
+     * A reader which returns at most one character per read, so every token crosses buffer boundaries
+     */
+    private static Reader trickle(final String json) {
+        return new StringReader(json) {
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) throws IOException {
+                return super.read(buffer, offset, Math.min(1, length));
+            }
+        };
+    }
+
+    private void assertDocument(final JsonReader reader) throws TokenTypeExpectedException, IOException {
+        reader.beginObject();
+        assertEquals(JsonTokenType.NAME, reader.peek());
+        assertEquals("string", reader.nextName());
+        assertEquals("value", reader.nextString());
+        assertEquals("escaped", reader.nextName());
+        assertEquals("a\"b\\c\nä/", reader.nextString());
+        assertEquals("int", reader.nextName());
+        assertEquals(-10, reader.nextInt());
+        assertEquals("double", reader.nextName());
+        assertEquals(150.0, reader.nextDouble());
+        assertEquals("boolean", reader.nextName());
+        assertTrue(reader.nextBoolean());
+        assertEquals("null", reader.nextName());
+        assertEquals(JsonTokenType.NULL, reader.peek());
+        reader.nextNull();
+        assertEquals("array", reader.nextName());
+        reader.beginArray();
+        assertEquals(1L, reader.nextLong());
+        reader.beginArray();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        reader.beginObject();
+        reader.endObject();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("object", reader.nextName());
+        reader.beginObject();
+        assertEquals("nested", reader.nextName());
+        assertFalse(reader.nextBoolean());
+        reader.endObject();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endDocument();
+    }
+
+    @Test
+    void testReadString() throws TokenTypeExpectedException, IOException {
+        this.assertDocument(new JsonReader(JSON));
+    }
+
+    @Test
+    void testReadReader() throws TokenTypeExpectedException, IOException {
+        this.assertDocument(new JsonReader(new StringReader(JSON)));
+        this.assertDocument(new JsonReader(trickle(JSON)));
+    }
+
+    @Test
+    void testReadBytes() throws TokenTypeExpectedException, IOException {
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        this.assertDocument(new JsonReader(new ByteArrayInputStream(bytes)));
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        this.assertDocument(new JsonReader(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void testLongString() throws TokenTypeExpectedException, IOException {
+        // longer than the buffer of the reader
+        final String value = "pokee ".repeat(5000);
+        final JsonReader reader = new JsonReader(new StringReader("[\"" + value + "\", \"" + value + "\\t\"]"));
+        reader.beginArray();
+        assertEquals(value, reader.nextString());
+        assertEquals(value + "\t", reader.nextString());
+        reader.endArray();
+        reader.endDocument();
+    }
+
+    @Test
+    void testSkipValue() throws TokenTypeExpectedException, IOException {
+        final JsonReader reader = new JsonReader(trickle(JSON));
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("boolean")) {
+                assertTrue(reader.nextBoolean());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        reader.endDocument();
+    }
+
+    @Test
+    void testUnexpectedType() throws TokenTypeExpectedException, IOException {
+        final JsonReader reader = new JsonReader("{\"key\": 10}");
+        reader.beginObject();
+        reader.nextName();
+        final TokenTypeExpectedException exception = assertThrows(
+                TokenTypeExpectedException.class,
+                reader::nextString
+        );
+        assertEquals(JsonTokenType.NUMBER, exception.getActual());
+        // the value was not consumed
+        assertEquals(10, reader.nextInt());
+    }
+
+    @Test
+    void testMalformed() throws TokenTypeExpectedException, IOException {
+        final JsonReader missingSeparator = new JsonReader("[1 2]");
+        missingSeparator.beginArray();
+        missingSeparator.nextInt();
+        assertThrows(IllegalStateException.class, missingSeparator::peek);
+
+        final JsonReader invalidLiteral = new JsonReader("truee");
+        assertThrows(IllegalStateException.class, invalidLiteral::peek);
+
+        final JsonReader unterminated = new JsonReader(new StringReader("\"value"));
+        assertThrows(IllegalStateException.class, unterminated::nextString);
+
+        final JsonReader trailing = new JsonReader("{} {}");
+        trailing.beginObject();
+        trailing.endObject();
+        assertThrows(IllegalStateException.class, trailing::endDocument);
+    }
+
+    @Test
+    void testReadElement() throws TokenTypeExpectedException, IOException {
+        final JsonElement element = new JsonReader(JSON).readElement();
+        assertEquals("a\"b\\c\nä/", element.asObject().get("escaped").asPrimitive().asString());
+        assertEquals(-10, element.asObject().get("int").asPrimitive().asInteger());
+        assertEquals(3, element.asObject().get("array").asArray().size());
+    }
+
+    @Test
+    void testFunctions() throws TokenTypeExpectedException, IOException {
+        final String json = "{\"a\": @to-upper(\"pokee\"), \"b\": 1}";
+
+        final JsonReader unexpanded = new JsonReader(json);
+        unexpanded.beginObject();
+        unexpanded.nextName();
+        assertEquals(JsonTokenType.BEGIN_FUNCTION, unexpanded.peek());
+        final JsonElement function = unexpanded.readElement();
+        assertInstanceOf(JsonFunction.class, function);
+        assertEquals(1, ((JsonFunction) function).getParameterCount());
+        assertEquals("b", unexpanded.nextName());
+
+        final JsonReader expanded = new JsonReader(json).withFunctions(JsonFunctionRunner.defaultFunctionRunner());
+        expanded.beginObject();
+        expanded.nextName();
+        assertEquals("POKEE", expanded.readElement().asPrimitive().asString());
+        assertEquals("b", expanded.nextName());
+        assertEquals(1, expanded.nextInt());
+        expanded.endObject();
+        expanded.endDocument();
+    }
+
+}
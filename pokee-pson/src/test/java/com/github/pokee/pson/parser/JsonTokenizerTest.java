@@ -3,6 +3,7 @@ package com.github.pokee.pson.parser;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class JsonTokenizerTest {
@@ -176,4 +177,25 @@ public class JsonTokenizerTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    void testPeekIsLexedOnce() {
+        final JsonTokenizer tokenizer = new JsonTokenizer(JSON);
+        tokenizer.nextToken();
+        final JsonToken peeked = tokenizer.peekNextToken();
+        assertSame(peeked, tokenizer.peekNextToken());
+        assertSame(peeked, tokenizer.nextToken());
+        assertEquals("\"key\"", peeked.value());
+        assertEquals("key", peeked.content());
+    }
+
+    @Test
+    void testEscapedQuote() {
+        final JsonTokenizer tokenizer = new JsonTokenizer("[\"a\\\\\", \"b\\\"c\"] // comment");
+        this.assertTokenTypes(tokenizer, JsonTokenType.BEGIN_ARRAY);
+        assertEquals("\"a\\\\\"", tokenizer.nextToken().value());
+        this.assertTokenTypes(tokenizer, JsonTokenType.VALUE_SEPARATOR);
+        assertEquals("\"b\\\"c\"", tokenizer.nextToken().value());
+        this.assertTokenTypes(tokenizer, JsonTokenType.END_ARRAY, JsonTokenType.END_DOCUMENT);
+    }
+
+}
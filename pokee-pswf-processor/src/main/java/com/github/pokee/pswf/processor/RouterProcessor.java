@@ -0,0 +1,377 @@
+package com.github.pokee.pswf.processor;
+
+import com.github.pokee.pswf.annotation.RoutePrefix;
+import com.github.pokee.pswf.annotation.data.Body;
+import com.github.pokee.pswf.annotation.data.Param;
+import com.github.pokee.pswf.annotation.data.Query;
+import com.github.pokee.pswf.annotation.generator.Cached;
+import com.github.pokee.pswf.annotation.generator.ContentType;
+import com.github.pokee.pswf.annotation.method.GET;
+import com.github.pokee.pswf.annotation.method.POST;
+import com.github.pokee.pswf.util.router.RouteRegistrar;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a {@link RouteRegistrar} for every class with methods annotated with {@link GET} or {@link POST}.
+ * The generated registrar registers the same routes as {@link com.github.pokee.pswf.util.router.ClassRouter} would
+ * by reflection, but calls the handler methods directly, so no annotations are read at startup and each request is
+ * dispatched with a plain method call.
+ * <p>
+ * Supported are the parameter annotations {@link Param}, {@link Query} and {@link Body}, {@code Context} parameters,
+ * and the method annotations {@link ContentType} and {@link Cached}. Unsupported handler methods are reported as
+ * compile errors.
+ */
+@SupportedAnnotationTypes({
+        "com.github.pokee.pswf.annotation.method.GET",
+        "com.github.pokee.pswf.annotation.method.POST"
+})
+public class RouterProcessor extends AbstractProcessor {
+
+    private static final String CONTEXT = "com.github.pokee.pswf.router.Context";
+    private static final String REQUEST_BODY = "com.github.pokee.pswf.request.RequestBody";
+    private static final String RESPONSE_LIKE = "com.github.pokee.pswf.response.ResponseLike";
+    private static final String RESPONSE_BUILDER = "com.github.pokee.pswf.response.ResponseBuilder";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+        final Map<TypeElement, List<ExecutableElement>> routesByClass = new LinkedHashMap<>();
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.METHOD) {
+                    continue;
+                }
+                final ExecutableElement method = (ExecutableElement) element;
+                final List<ExecutableElement> methods = routesByClass.computeIfAbsent(
+                        (TypeElement) method.getEnclosingElement(),
+                        type -> new ArrayList<>()
+                );
+                if (!methods.contains(method)) {
+                    methods.add(method);
+                }
+            }
+        }
+
+        for (final Map.Entry<TypeElement, List<ExecutableElement>> entry : routesByClass.entrySet()) {
+            // keep the declaration order, annotations are processed one after another
+            entry.getValue().sort(Comparator.comparingInt(method -> entry.getKey().getEnclosedElements().indexOf(method)));
+            this.generateRegistrar(entry.getKey(), entry.getValue());
+        }
+        return false;
+    }
+
+    /**
+     * Generates the registrar of a handler class.
+     *
+     * @param handlerClass The handler class.
+     * @param methods      The annotated methods of the class.
+     */
+    private void generateRegistrar(final TypeElement handlerClass, final List<ExecutableElement> methods) {
+        if (handlerClass.getModifiers().contains(Modifier.PRIVATE)) {
+            this.error(handlerClass, "Handler classes must not be private");
+            return;
+        }
+
+        final String packageName = this.processingEnv.getElementUtils().getPackageOf(handlerClass)
+                .getQualifiedName().toString();
+        final String registrarName = RouterProcessor.registrarSimpleName(handlerClass);
+        final String handlerType = this.processingEnv.getTypeUtils().erasure(handlerClass.asType()).toString();
+
+        final RoutePrefix routePrefix = handlerClass.getAnnotation(RoutePrefix.class);
+        final String prefix = routePrefix != null ? routePrefix.value() : "";
+
+        final StringBuilder bob = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            bob.append("package ").append(packageName).append(";\n\n");
+        }
+        bob.append("@javax.annotation.processing.Generated(\"").append(RouterProcessor.class.getName()).append("\")\n");
+        bob.append("public final class ").append(registrarName)
+                .append(" implements ").append(RouteRegistrar.class.getName()).append(" {\n\n");
+        bob.append("    @Override\n");
+        bob.append("    @SuppressWarnings(\"unchecked\")\n");
+        bob.append("    public void registerRoutes(final com.github.pokee.pswf.router.Router router, final Object instance) {\n");
+        bob.append("        final ").append(handlerType).append(" handler = (").append(handlerType).append(") instance;\n");
+
+        boolean valid = true;
+        for (final ExecutableElement method : methods) {
+            final String route = this.generateRoute(handlerType, prefix, method);
+            if (route == null) {
+                valid = false;
+                continue;
+            }
+            bob.append('\n').append(route);
+        }
+        bob.append("    }\n\n}\n");
+        if (!valid) {
+            return;
+        }
+
+        final String qualifiedName = packageName.isEmpty() ? registrarName : packageName + "." + registrarName;
+        try {
+            final JavaFileObject file = this.processingEnv.getFiler().createSourceFile(qualifiedName, handlerClass);
+            try (final Writer writer = file.openWriter()) {
+                writer.write(bob.toString());
+            }
+        } catch (final IOException exception) {
+            this.error(handlerClass, "Cannot write " + qualifiedName + ": " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Generates the registration of a single route.
+     *
+     * @param handlerType The type of the handler class.
+     * @param prefix      The route prefix of the handler class.
+     * @param method      The handler method.
+     * @return The generated statement, or null if the method is not a valid handler.
+     */
+    private String generateRoute(final String handlerType, final String prefix, final ExecutableElement method) {
+        if (method.getModifiers().contains(Modifier.PRIVATE)) {
+            this.error(method, "Handler methods must not be private");
+            return null;
+        }
+
+        // same precedence as ClassRouter
+        final String requestMethod;
+        String path;
+        if (method.getAnnotation(GET.class) != null) {
+            requestMethod = "GET";
+            path = method.getAnnotation(GET.class).value();
+        } else {
+            requestMethod = "POST";
+            path = method.getAnnotation(POST.class).value();
+        }
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        path = prefix + path;
+
+        final List<String> arguments = new ArrayList<>();
+        for (final VariableElement parameter : method.getParameters()) {
+            final String argument = this.generateArgument(parameter);
+            if (argument == null) {
+                return null;
+            }
+            arguments.add(argument);
+        }
+
+        final String receiver = method.getModifiers().contains(Modifier.STATIC) ? handlerType : "handler";
+        final String call = receiver + "." + method.getSimpleName() + "(" + String.join(", ", arguments) + ")";
+        final String body = this.generateResponse(method, call);
+        if (body == null) {
+            return null;
+        }
+
+        final StringBuilder bob = new StringBuilder();
+        bob.append("        // ").append(method.getSimpleName()).append('\n');
+        bob.append("        router.registerRoute(com.github.pokee.pswf.request.Method.").append(requestMethod)
+                .append(", ").append(RouterProcessor.literal(path)).append(", ");
+
+        final Cached cached = method.getAnnotation(Cached.class);
+        if (cached != null) {
+            bob.append("new com.github.pokee.pswf.response.ResponseCache(")
+                    .append(cached.ttl()).append("L, java.util.concurrent.TimeUnit.").append(cached.unit().name())
+                    .append(", ").append(cached.maxEntries()).append(", new String[]{");
+            final String[] varyBy = cached.varyBy();
+            for (int i = 0; i < varyBy.length; i++) {
+                bob.append(i > 0 ? ", " : "").append(RouterProcessor.literal(varyBy[i]));
+            }
+            bob.append("}).wrap(");
+        }
+        bob.append("context -> {\n");
+        if (method.getThrownTypes().isEmpty()) {
+            bob.append("            ").append(body).append('\n');
+        } else {
+            // like ClassRouter, checked exceptions are passed on wrapped in a RuntimeException
+            bob.append("            try {\n");
+            bob.append("                ").append(body).append('\n');
+            bob.append("            } catch (final RuntimeException | Error exception) {\n");
+            bob.append("                throw exception;\n");
+            bob.append("            } catch (final Throwable throwable) {\n");
+            bob.append("                throw new RuntimeException(throwable);\n");
+            bob.append("            }\n");
+        }
+        bob.append("        }").append(cached != null ? ")" : "").append(");\n");
+        return bob.toString();
+    }
+
+    /**
+     * Generates the expression extracting an argument from the context, mirroring the parameter handling of
+     * {@code MethodTransformer}.
+     *
+     * @param parameter The parameter of the handler method.
+     * @return The expression, or null if the parameter is not supported.
+     */
+    private String generateArgument(final VariableElement parameter) {
+        final TypeMirror type = parameter.asType();
+        final boolean isString = this.isType(type, String.class.getName());
+        final boolean isInteger = type.getKind() == TypeKind.INT || this.isType(type, Integer.class.getName());
+
+        if (this.isType(type, CONTEXT)) {
+            return "context";
+        }
+
+        final Param param = parameter.getAnnotation(Param.class);
+        if (param != null) {
+            if (isString) {
+                return "context.param(" + RouterProcessor.literal(param.value()) + ")";
+            }
+            if (isInteger) {
+                return "context.paramInt(" + RouterProcessor.literal(param.value()) + ", 0)";
+            }
+            this.error(parameter, "Unsupported parameter type: " + type);
+            return null;
+        }
+
+        final Query query = parameter.getAnnotation(Query.class);
+        if (query != null) {
+            final String name = RouterProcessor.literal(query.value());
+            final boolean hasFallback = !query.fallback().isEmpty();
+            if (isString) {
+                return hasFallback
+                        ? "context.query(" + name + ", " + RouterProcessor.literal(query.fallback()) + ")"
+                        : "context.query(" + name + ")";
+            }
+            if (isInteger) {
+                int fallback = 0;
+                if (hasFallback) {
+                    try {
+                        fallback = Integer.parseInt(query.fallback());
+                    } catch (final NumberFormatException exception) {
+                        this.error(parameter, "Fallback is not an integer: " + query.fallback());
+                        return null;
+                    }
+                }
+                return "context.queryInt(" + name + ", " + fallback + ")";
+            }
+            this.error(parameter, "Unsupported query type: " + type);
+            return null;
+        }
+
+        if (parameter.getAnnotation(Body.class) != null) {
+            if (this.isType(type, REQUEST_BODY)) {
+                return "context.body()";
+            }
+            if (this.isType(type, "java.io.InputStream")) {
+                return "context.body().stream()";
+            }
+            if (isString) {
+                return "context.body().text()";
+            }
+            if (type.getKind() == TypeKind.ARRAY && type.toString().equals("byte[]")) {
+                return "context.body().bytes()";
+            }
+            if (type.getKind().isPrimitive()) {
+                this.error(parameter, "Unsupported body type: " + type);
+                return null;
+            }
+            final TypeMirror erasure = this.processingEnv.getTypeUtils().erasure(type);
+            return "(" + type + ") context.body(" + erasure + ".class)";
+        }
+
+        this.error(parameter, "Unsupported parameter type: " + type);
+        return null;
+    }
+
+    /**
+     * Generates the statement setting the response of the context, mirroring the return value handling of
+     * {@code MethodTransformer}.
+     *
+     * @param method The handler method.
+     * @param call   The expression calling the handler method.
+     * @return The statement, or null if the return type is not supported.
+     */
+    private String generateResponse(final ExecutableElement method, final String call) {
+        final TypeMirror returnType = method.getReturnType();
+        if (returnType.getKind() == TypeKind.VOID) {
+            this.error(method, "Handler methods must return a value");
+            return null;
+        }
+
+        final TypeMirror responseLike = this.processingEnv.getElementUtils().getTypeElement(RESPONSE_LIKE).asType();
+        if (this.processingEnv.getTypeUtils().isAssignable(returnType, responseLike)) {
+            return "context.response = " + call + ".extractResponse();";
+        }
+
+        final StringBuilder steps = new StringBuilder();
+        final ContentType contentType = method.getAnnotation(ContentType.class);
+        if (contentType != null) {
+            steps.append(".contentType(").append(RouterProcessor.literal(contentType.value())).append(")");
+        }
+        steps.append(".build()");
+
+        if (this.isType(returnType, String.class.getName())) {
+            return "context.response = new " + RESPONSE_BUILDER + "().text(" + call + ")" + steps + ";";
+        }
+        if (returnType.getKind() == TypeKind.ARRAY && returnType.toString().equals("byte[]")) {
+            return "context.response = new " + RESPONSE_BUILDER + "().body(" + call + ")" + steps + ";";
+        }
+        return "final Object value = " + call + ";\n"
+                + "            context.response = value instanceof " + RESPONSE_LIKE + " responseLike\n"
+                + "                    ? responseLike.extractResponse()\n"
+                + "                    : new " + RESPONSE_BUILDER + "().json(value)" + steps + ";";
+    }
+
+    private boolean isType(final TypeMirror type, final String qualifiedName) {
+        final TypeElement element = this.processingEnv.getElementUtils().getTypeElement(qualifiedName);
+        return element != null && this.processingEnv.getTypeUtils().isSameType(type, element.asType());
+    }
+
+    private void error(final Element element, final String message) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Builds the simple name of the registrar, see {@link RouteRegistrar}.
+     */
+    private static String registrarSimpleName(final TypeElement handlerClass) {
+        final Deque<String> names = new ArrayDeque<>();
+        Element current = handlerClass;
+        while (current instanceof TypeElement) {
+            names.addFirst(current.getSimpleName().toString());
+            current = current.getEnclosingElement();
+        }
+        return String.join("_", names) + RouteRegistrar.SUFFIX;
+    }
+
+    /**
+     * Quotes and escapes a string as a Java string literal.
+     */
+    private static String literal(final String value) {
+        final StringBuilder bob = new StringBuilder("\"");
+        for (final char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> bob.append("\\\"");
+                case '\\' -> bob.append("\\\\");
+                case '\n' -> bob.append("\\n");
+                case '\r' -> bob.append("\\r");
+                case '\t' -> bob.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        bob.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        bob.append(c);
+                    }
+                }
+            }
+        }
+        return bob.append('"').toString();
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.github.pokee.pswf.processor;
+
+import com.github.pokee.pswf.connection.handler.BasicRouterClientHandler;
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.response.Compression;
+import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.router.Context;
+import com.github.pokee.pswf.router.ErrorHandler;
+import com.github.pokee.pswf.router.ParameterizableRouter;
+import com.github.pokee.pswf.router.Router;
+import com.github.pokee.pswf.router.handler.Handler;
+import com.github.pokee.pswf.util.router.ClassRouter;
+import com.github.pokee.pswf.util.router.RouteRegistrar;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouterProcessorTest {
+
+    private static final String HANDLER_NAME = "test.handlers.PokemonHandler";
+
+    private static final String HANDLER_SOURCE = """
+            package test.handlers;
+
+            import com.github.pokee.pswf.annotation.RoutePrefix;
+            import com.github.pokee.pswf.annotation.data.Body;
+            import com.github.pokee.pswf.annotation.data.Param;
+            import com.github.pokee.pswf.annotation.data.Query;
+            import com.github.pokee.pswf.annotation.generator.Cached;
+            import com.github.pokee.pswf.annotation.generator.ContentType;
+            import com.github.pokee.pswf.annotation.method.GET;
+            import com.github.pokee.pswf.annotation.method.POST;
+            import com.github.pokee.pswf.response.Response;
+            import com.github.pokee.pswf.response.ResponseBuilder;
+            import com.github.pokee.pswf.router.Context;
+
+            @RoutePrefix("/api")
+            public class PokemonHandler {
+
+                private int calls = 0;
+
+                @GET("/pokemon/:name")
+                public String pokemon(final @Param("name") String name,
+                                      final @Query(value = "level", fallback = "5") int level) {
+                    return name + " at level " + level;
+                }
+
+                @GET("stats/:id")
+                @ContentType("text/csv")
+                public byte[] stats(final @Param("id") int id) {
+                    return ("id," + id).getBytes();
+                }
+
+                @POST("/pokemon")
+                public Response create(final @Body String body, final Context context) {
+                    return new ResponseBuilder()
+                            .status(201)
+                            .text("Created " + body + " via " + context.getRequest().method())
+                            .build();
+                }
+
+                @GET("/ranking")
+                @Cached(varyBy = "region")
+                public String ranking(final @Query("region") String region) {
+                    return (++this.calls) + ": " + "Pikachu ".repeat(200) + region;
+                }
+
+                @GET("/failing")
+                public String failing() throws Exception {
+                    throw new Exception("Missingno");
+                }
+
+            }
+            """;
+
+    /**
+     * Records the registered routes and registers them with a real router.
+     */
+    private static final class RecordingRouter implements Router {
+
+        private final ParameterizableRouter router = new ParameterizableRouter();
+        private final Set<String> routes = new TreeSet<>();
+
+        @Override
+        public void registerRoute(final Method method, final String route, final Handler handler) {
+            this.routes.add(method + " " + route);
+            this.router.registerRoute(method, route, handler);
+        }
+
+        @Override
+        public Context createContext(final Request request) {
+            return this.router.createContext(request);
+        }
+
+    }
+
+    /**
+     * Compiles the handler source, with or without the processor.
+     *
+     * @return a class loader for the compiled classes
+     */
+    private static ClassLoader compile(final Path directory, final boolean processed) throws IOException {
+        final Path sources = Files.createDirectories(directory.resolve("src/test/handlers"));
+        final Path classes = Files.createDirectories(directory.resolve("classes"));
+        final Path source = Files.writeString(sources.resolve("PokemonHandler.java"), HANDLER_SOURCE);
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            final List<String> options = new ArrayList<>(List.of(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classes.toString(),
+                    "-s", classes.toString()
+            ));
+            if (!processed) {
+                options.add("-proc:none");
+            }
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options,
+                    null, fileManager.getJavaFileObjects(source));
+            task.setProcessors(processed ? List.of(new RouterProcessor()) : List.of());
+            assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+        }
+        return new URLClassLoader(new URL[]{classes.toUri().toURL()}, RouterProcessorTest.class.getClassLoader());
+    }
+
+    private static Request request(final Method method, final String path, final String query, final String body) {
+        final Headers headers = new Headers();
+        headers.set(Compression.ACCEPT_ENCODING_HEADER, "gzip");
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        final RequestBody requestBody = bytes.length == 0
+                ? RequestBody.empty()
+                : new RequestBody(new ByteArrayInputStream(bytes), bytes.length, false);
+        return new Request(method, path, query, Version.VERSION_1_1, headers, requestBody);
+    }
+
+    private static List<Request> requests() {
+        return List.of(
+                request(Method.GET, "/api/pokemon/Pikachu", null, ""),
+                request(Method.GET, "/api/pokemon/Eevee", "level=12", ""),
+                request(Method.GET, "/api/stats/25", null, ""),
+                request(Method.POST, "/api/pokemon", null, "Mew"),
+                request(Method.GET, "/api/ranking", "region=kanto", ""),
+                request(Method.GET, "/api/ranking", "region=johto", ""),
+                request(Method.GET, "/api/ranking", "region=kanto", ""),
+                request(Method.GET, "/api/failing", null, "")
+        );
+    }
+
+    /**
+     * Summarizes the parts of a response which both registration paths must agree on.
+     */
+    private static String describe(final Response response) {
+        final StringBuilder bob = new StringBuilder().append(response.statusCode());
+        for (final String header : List.of("Content-Type", "Content-Encoding", "ETag")) {
+            bob.append('\n').append(header).append(": ").append(response.headers().get(header));
+        }
+        return bob.append('\n').append(Base64.getEncoder().encodeToString(response.body())).toString();
+    }
+
+    @Test
+    void testGeneratedRegistrarMatchesReflection(@TempDir final Path directory) throws Exception {
+        final ClassLoader generated = compile(directory.resolve("processed"), true);
+        final ClassLoader reflective = compile(directory.resolve("plain"), false);
+        assertTrue(RouteRegistrar.class.isAssignableFrom(generated.loadClass(HANDLER_NAME + RouteRegistrar.SUFFIX)));
+        assertThrows(ClassNotFoundException.class, () -> reflective.loadClass(HANDLER_NAME + RouteRegistrar.SUFFIX));
+
+        final RecordingRouter generatedRouter = new RecordingRouter();
+        ClassRouter.registerRoutes(generatedRouter, generated.loadClass(HANDLER_NAME).getConstructor().newInstance());
+        final RecordingRouter reflectiveRouter = new RecordingRouter();
+        ClassRouter.registerRoutes(reflectiveRouter, reflective.loadClass(HANDLER_NAME).getConstructor().newInstance());
+        assertEquals(Set.of("GET /api/pokemon/:name", "GET /api/stats/:id", "POST /api/pokemon", "GET /api/ranking",
+                "GET /api/failing"), reflectiveRouter.routes);
+        assertEquals(reflectiveRouter.routes, generatedRouter.routes);
+
+        final ErrorHandler errorHandler = (request, throwable) -> new Response(500,
+                "Internal Server Error", new Headers(), String.valueOf(throwable).getBytes(StandardCharsets.UTF_8));
+        final BasicRouterClientHandler generatedHandler = new BasicRouterClientHandler(generatedRouter, errorHandler);
+        final BasicRouterClientHandler reflectiveHandler = new BasicRouterClientHandler(reflectiveRouter, errorHandler);
+        final Iterator<Request> reflectiveRequests = requests().iterator();
+        for (final Request request : requests()) {
+            final String expected = describe(reflectiveHandler.respond(reflectiveRequests.next()));
+            final String actual = describe(generatedHandler.respond(request));
+            assertEquals(expected, actual, request.method() + " " + request.path());
+        }
+
+        // the cached route is compressed with the server's settings, and still served from the cache
+        final Response ranking = generatedHandler.respond(request(Method.GET, "/api/ranking", "region=kanto", ""));
+        assertEquals("gzip", ranking.headers().get(Compression.CONTENT_ENCODING_HEADER));
+        assertEquals(describe(reflectiveHandler.respond(request(Method.GET, "/api/ranking", "region=kanto", ""))),
+                describe(ranking));
+    }
+
+}
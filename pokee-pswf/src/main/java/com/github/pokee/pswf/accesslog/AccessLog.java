@@ -0,0 +1,217 @@
+package com.github.pokee.pswf.accesslog;
+
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.response.Response;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An asynchronous access log. Threads handling requests only capture an {@link AccessLogEntry} and put it into a
+ * lock-free ring buffer; a background thread takes the entries, formats them and writes them to a file or the
+ * console. So logging never waits for I/O or a lock. If the buffer is full because the log can't keep up,
+ * entries are dropped and counted, see {@link #getDropped()}.
+ * <p>
+ * Create an access log with {@link #create()}, or use {@link #DISABLED} to not log requests at all.
+ */
+public class AccessLog implements Closeable {
+
+    /**
+     * An access log which discards all entries without capturing them.
+     */
+    public static final AccessLog DISABLED = new AccessLog();
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final AccessLogRing ring;
+    private final AccessLogFormat format;
+    private final OutputStream out;
+    private final boolean closeOut;
+    private final double sampleRate;
+    private final LongAdder dropped = new LongAdder();
+
+    private final Thread writer;
+    private final Thread shutdownHook;
+    private volatile boolean closed = false;
+
+    private AccessLog() {
+        this.ring = null;
+        this.format = null;
+        this.out = null;
+        this.closeOut = false;
+        this.sampleRate = 0;
+        this.writer = null;
+        this.shutdownHook = null;
+    }
+
+    /**
+     * Creates an access log and starts its writer thread. Entries still buffered when the JVM exits are written
+     * by a shutdown hook.
+     *
+     * @param capacity   the number of entries which can be buffered
+     * @param format     the format of the lines
+     * @param out        the stream to write the lines to
+     * @param closeOut   whether to close the stream when the log is closed
+     * @param sampleRate the share of requests to log, between 0 and 1
+     */
+    AccessLog(final int capacity,
+              final AccessLogFormat format,
+              final OutputStream out,
+              final boolean closeOut,
+              final double sampleRate) {
+        this.ring = new AccessLogRing(capacity);
+        this.format = format;
+        this.out = out;
+        this.closeOut = closeOut;
+        this.sampleRate = sampleRate;
+
+        this.writer = new Thread(this::run, "pswf-access-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.shutdownHook = new Thread(this::close, "pswf-access-log-shutdown");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * Create a new AccessLogBuilder
+     *
+     * @return the builder
+     */
+    public static AccessLogBuilder create() {
+        return new AccessLogBuilder();
+    }
+
+    /**
+     * @return false if this log discards all entries, so there is no need to measure anything for it
+     */
+    public boolean isEnabled() {
+        return this.ring != null;
+    }
+
+    /**
+     * Logs a handled request. If a sample rate is configured, only a share of the requests is logged,
+     * but responses with a status of 500 or above are always logged.
+     *
+     * @param remoteAddress the address of the client, may be null
+     * @param request       the request
+     * @param response      the response sent for the request
+     * @param durationNanos how long handling the request and writing the response took
+     */
+    public void log(final InetAddress remoteAddress,
+                    final Request request,
+                    final Response response,
+                    final long durationNanos) {
+        if (this.ring == null || this.closed) {
+            return;
+        }
+        if (this.sampleRate < 1 && response.statusCode() < 500
+                && ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+            return;
+        }
+        final AccessLogEntry entry = new AccessLogEntry(
+                System.currentTimeMillis(),
+                remoteAddress,
+                request.method(),
+                request.path(),
+                request.query(),
+                request.version(),
+                request.headers(),
+                response.statusCode(),
+                response.isStreaming() ? -1 : response.body().length,
+                durationNanos
+        );
+        if (!this.ring.offer(entry)) {
+            this.dropped.increment();
+        }
+    }
+
+    /**
+     * @return the number of entries dropped because the buffer was full
+     */
+    public long getDropped() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Stops logging, writes the entries which are still buffered and closes the file.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.ring == null || this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+        LockSupport.unpark(this.writer);
+        try {
+            this.writer.join();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        if (Thread.currentThread() != this.shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+            } catch (final IllegalStateException ignored) {
+                // the JVM is already shutting down
+            }
+        }
+    }
+
+    /**
+     * Takes entries from the buffer and writes them until the log is closed. The output is flushed whenever
+     * the buffer was drained, so lines show up in the file shortly after the request.
+     */
+    private void run() {
+        final StringBuilder line = new StringBuilder(256);
+        boolean unflushed = false;
+        boolean failing = false;
+        while (true) {
+            final AccessLogEntry entry = this.ring.poll();
+            if (entry != null) {
+                line.setLength(0);
+                try {
+                    this.format.format(entry, line);
+                    line.append('\n');
+                    this.out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+                    unflushed = true;
+                    failing = false;
+                } catch (final IOException | RuntimeException exception) {
+                    if (!failing) {
+                        System.out.println("Error writing access log: " + exception.getMessage());
+                        failing = true;
+                    }
+                }
+                continue;
+            }
+            if (unflushed) {
+                try {
+                    this.out.flush();
+                } catch (final IOException exception) {
+                    System.out.println("Error flushing access log: " + exception.getMessage());
+                }
+                unflushed = false;
+            }
+            if (this.closed && this.ring.isEmpty()) {
+                break;
+            }
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+
+        if (this.closeOut) {
+            try {
+                this.out.close();
+            } catch (final IOException exception) {
+                System.out.println("Error closing access log: " + exception.getMessage());
+            }
+        }
+    }
+
+}
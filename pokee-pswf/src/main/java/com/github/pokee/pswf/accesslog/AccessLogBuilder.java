@@ -0,0 +1,135 @@
+package com.github.pokee.pswf.accesslog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Builder for an {@link AccessLog}. By default, lines are written to the console in the
+ * {@link AccessLogFormat#COMMON Common Log Format}, every request is logged and up to 8192 entries are buffered.
+ */
+public class AccessLogBuilder {
+
+    private static final long DEFAULT_MAX_BYTES = 10L * 1024 * 1024;
+    private static final int DEFAULT_MAX_FILES = 5;
+
+    private Path path = null;
+    private long maxBytes = 0;
+    private int maxFiles = 0;
+
+    private AccessLogFormat format = AccessLogFormat.COMMON;
+    private double sampleRate = 1;
+    private int capacity = 8192;
+
+    AccessLogBuilder() {
+    }
+
+    /**
+     * Writes the log to a file, which is rotated at 10 MiB, keeping 5 rotated files.
+     *
+     * @param path the file to append to
+     * @return this builder instance for chaining
+     */
+    public AccessLogBuilder file(final Path path) {
+        return this.file(path, DEFAULT_MAX_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * Writes the log to a file. Once the file would exceed {@code maxBytes}, it is renamed to {@code <name>.1},
+     * older files are renamed to {@code <name>.2} and so on, and the oldest one beyond {@code maxFiles} is deleted.
+     *
+     * @param path     the file to append to
+     * @param maxBytes the size at which the file is rotated, 0 to never rotate
+     * @param maxFiles the number of rotated files to keep
+     * @return this builder instance for chaining
+     */
+    public AccessLogBuilder file(final Path path, final long maxBytes, final int maxFiles) {
+        if (maxBytes < 0 || maxFiles < 0) {
+            throw new IllegalArgumentException("maxBytes and maxFiles must not be negative");
+        }
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        return this;
+    }
+
+    /**
+     * Writes the log to {@link System#out} (the default).
+     *
+     * @return this builder instance for chaining
+     */
+    public AccessLogBuilder console() {
+        this.path = null;
+        return this;
+    }
+
+    /**
+     * Sets the format of the lines, e.g. {@link AccessLogFormat#COMBINED} or {@link AccessLogFormat#JSON}.
+     *
+     * @param format the format
+     * @return this builder instance for chaining
+     */
+    public AccessLogBuilder format(final AccessLogFormat format) {
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Sets the format of the lines from a pattern, see {@link AccessLogFormat#pattern(String)}.
+     *
+     * @param pattern the pattern, e.g. {@code %h %t "%r" %s %D}
+     * @return this builder instance for chaining
+     */
+    public AccessLogBuilder pattern(final String pattern) {
+        return this.format(AccessLogFormat.pattern(pattern));
+    }
+
+    /**
+     * Only logs a random share of the requests. Responses with a status of 500 or above are always logged.
+     *
+     * @param sampleRate the share of requests to log, between 0 and 1
+     * @return this builder instance for chaining
+     */
+    public AccessLogBuilder sampleRate(final double sampleRate) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    /**
+     * Sets how many entries can be buffered before entries are dropped.
+     *
+     * @param capacity the capacity, rounded up to a power of two
+     * @return this builder instance for chaining
+     */
+    public AccessLogBuilder capacity(final int capacity) {
+        if (capacity < 1 || capacity > 1 << 24) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^24");
+        }
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * Opens the file (if any) and starts the access log.
+     *
+     * @return the access log
+     * @throws UncheckedIOException if the file can't be opened
+     */
+    public AccessLog build() {
+        if (this.path == null) {
+            return new AccessLog(this.capacity, this.format, System.out, false, this.sampleRate);
+        }
+        final OutputStream out;
+        try {
+            out = new RotatingFileOutputStream(this.path, this.maxBytes, this.maxFiles);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Could not open access log " + this.path, exception);
+        }
+        return new AccessLog(this.capacity, this.format, out, true, this.sampleRate);
+    }
+
+}
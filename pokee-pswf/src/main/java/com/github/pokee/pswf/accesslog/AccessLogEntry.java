@@ -0,0 +1,34 @@
+package com.github.pokee.pswf.accesslog;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Version;
+
+import java.net.InetAddress;
+
+/**
+ * A handled request as captured for the access log. Capturing only copies references, all formatting happens
+ * later on the thread writing the log.
+ *
+ * @param timeMillis    when the response was written, see {@link System#currentTimeMillis()}
+ * @param remoteAddress the address of the client, may be null
+ * @param method        the method of the request
+ * @param path          the path of the request
+ * @param query         the raw query of the request without the leading "?", may be null
+ * @param version       the HTTP version of the request
+ * @param headers       the headers of the request
+ * @param status        the status code of the response
+ * @param bytes         the length of the response body, or -1 if it was streamed
+ * @param durationNanos how long handling the request and writing the response took
+ */
+public record AccessLogEntry(long timeMillis,
+                             InetAddress remoteAddress,
+                             Method method,
+                             String path,
+                             String query,
+                             Version version,
+                             Headers headers,
+                             int status,
+                             long bytes,
+                             long durationNanos) {
+}
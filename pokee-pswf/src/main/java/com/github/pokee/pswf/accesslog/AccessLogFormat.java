@@ -0,0 +1,77 @@
+package com.github.pokee.pswf.accesslog;
+
+import java.time.Instant;
+
+/**
+ * Formats an {@link AccessLogEntry} as a single line of the access log. Formats are only called by the thread
+ * writing the log, never by the threads handling requests.
+ */
+@FunctionalInterface
+public interface AccessLogFormat {
+
+    /**
+     * The Common Log Format, e.g. {@code 127.0.0.1 - - [10/Oct/2024:13:55:36 +0200] "GET /hello HTTP/1.1" 200 11}
+     */
+    AccessLogFormat COMMON = AccessLogFormat.pattern("%h - - %t \"%r\" %s %b");
+
+    /**
+     * The Combined Log Format: the Common Log Format followed by the {@code Referer} and {@code User-Agent} headers.
+     */
+    AccessLogFormat COMBINED = AccessLogFormat.pattern("%h - - %t \"%r\" %s %b \"%{Referer}i\" \"%{User-Agent}i\"");
+
+    /**
+     * One JSON object per line with the time in ISO-8601, the client, the request, the status, the body length
+     * ({@code -1} if streamed), the duration in microseconds and the user agent.
+     */
+    AccessLogFormat JSON = (entry, builder) -> {
+        builder.append("{\"time\":\"").append(Instant.ofEpochMilli(entry.timeMillis())).append('"');
+        builder.append(",\"remote\":");
+        AccessLogPattern.appendJsonString(builder,
+                entry.remoteAddress() != null ? entry.remoteAddress().getHostAddress() : null);
+        builder.append(",\"method\":\"").append(entry.method().name()).append('"');
+        builder.append(",\"path\":");
+        AccessLogPattern.appendJsonString(builder, entry.path());
+        builder.append(",\"query\":");
+        AccessLogPattern.appendJsonString(builder,
+                entry.query() != null && !entry.query().isEmpty() ? entry.query() : null);
+        builder.append(",\"version\":\"").append(entry.version()).append('"');
+        builder.append(",\"status\":").append(entry.status());
+        builder.append(",\"bytes\":").append(entry.bytes());
+        builder.append(",\"duration_us\":").append(entry.durationNanos() / 1_000);
+        builder.append(",\"user_agent\":");
+        AccessLogPattern.appendJsonString(builder, entry.headers().get("User-Agent"));
+        builder.append('}');
+    };
+
+    /**
+     * Appends the line for an entry, without line separator.
+     *
+     * @param entry   the entry to format
+     * @param builder the builder to append the line to
+     */
+    void format(AccessLogEntry entry, StringBuilder builder);
+
+    /**
+     * Creates a format from a pattern like those of Apache's {@code mod_log_config}. Supported are:
+     * <ul>
+     *     <li>{@code %h} the address of the client</li>
+     *     <li>{@code %t} the time in the Common Log Format, e.g. {@code [10/Oct/2024:13:55:36 +0200]}</li>
+     *     <li>{@code %r} the request line, e.g. {@code GET /hello?name=world HTTP/1.1}</li>
+     *     <li>{@code %m} the method, {@code %U} the path, {@code %q} the query with a leading "?" (if any),
+     *     {@code %H} the protocol</li>
+     *     <li>{@code %s} the status code</li>
+     *     <li>{@code %b} the length of the body, "-" if it was empty or streamed; {@code %B} the same with 0</li>
+     *     <li>{@code %D} the duration in microseconds, {@code %T} in seconds</li>
+     *     <li>{@code %{Name}i} the value of a request header, "-" if it is missing</li>
+     *     <li>{@code %%} a percent sign</li>
+     * </ul>
+     *
+     * @param pattern the pattern
+     * @return the format
+     * @throws IllegalArgumentException if the pattern contains an unknown directive
+     */
+    static AccessLogFormat pattern(final String pattern) {
+        return AccessLogPattern.compile(pattern);
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.github.pokee.pswf.accesslog;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A format compiled from a pattern, see {@link AccessLogFormat#pattern(String)}.
+ * The pattern is split into parts once, so formatting an entry only appends the parts one after another.
+ * Values sent by the client are escaped, so they can't forge additional lines or fields.
+ */
+final class AccessLogPattern implements AccessLogFormat {
+
+    private static final DateTimeFormatter CLF_TIME = DateTimeFormatter
+            .ofPattern("'['dd/MMM/yyyy:HH:mm:ss Z']'", Locale.ENGLISH)
+            .withZone(ZoneId.systemDefault());
+
+    private final AccessLogFormat[] parts;
+
+    private AccessLogPattern(final AccessLogFormat[] parts) {
+        this.parts = parts;
+    }
+
+    static AccessLogPattern compile(final String pattern) {
+        final List<AccessLogFormat> parts = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (++i >= pattern.length()) {
+                throw new IllegalArgumentException("Incomplete directive at the end of the pattern: " + pattern);
+            }
+            final char directive = pattern.charAt(i);
+            if (directive == '%') {
+                literal.append('%');
+                continue;
+            }
+            if (!literal.isEmpty()) {
+                final String text = literal.toString();
+                parts.add((entry, builder) -> builder.append(text));
+                literal.setLength(0);
+            }
+            if (directive == '{') {
+                final int end = pattern.indexOf('}', i);
+                if (end == -1 || end + 1 >= pattern.length() || pattern.charAt(end + 1) != 'i') {
+                    throw new IllegalArgumentException("Expected %{Name}i at position " + (i - 1) + ": " + pattern);
+                }
+                final String header = pattern.substring(i + 1, end);
+                parts.add((entry, builder) -> AccessLogPattern.appendEscaped(builder, entry.headers().get(header)));
+                i = end + 1;
+                continue;
+            }
+            parts.add(AccessLogPattern.directive(directive, pattern));
+        }
+        if (!literal.isEmpty()) {
+            final String text = literal.toString();
+            parts.add((entry, builder) -> builder.append(text));
+        }
+        return new AccessLogPattern(parts.toArray(new AccessLogFormat[0]));
+    }
+
+    private static AccessLogFormat directive(final char directive, final String pattern) {
+        return switch (directive) {
+            case 'h' -> (entry, builder) -> builder.append(
+                    entry.remoteAddress() != null ? entry.remoteAddress().getHostAddress() : "-");
+            case 't' -> (entry, builder) -> CLF_TIME.formatTo(Instant.ofEpochMilli(entry.timeMillis()), builder);
+            case 'r' -> (entry, builder) -> {
+                builder.append(entry.method().name()).append(' ');
+                AccessLogPattern.appendEscaped(builder, entry.path());
+                if (entry.query() != null && !entry.query().isEmpty()) {
+                    builder.append('?');
+                    AccessLogPattern.appendEscaped(builder, entry.query());
+                }
+                builder.append(' ').append(entry.version());
+            };
+            case 'm' -> (entry, builder) -> builder.append(entry.method().name());
+            case 'U' -> (entry, builder) -> AccessLogPattern.appendEscaped(builder, entry.path());
+            case 'q' -> (entry, builder) -> {
+                if (entry.query() != null && !entry.query().isEmpty()) {
+                    builder.append('?');
+                    AccessLogPattern.appendEscaped(builder, entry.query());
+                }
+            };
+            case 'H' -> (entry, builder) -> builder.append(entry.version());
+            case 's' -> (entry, builder) -> builder.append(entry.status());
+            case 'b' -> (entry, builder) -> {
+                if (entry.bytes() > 0) {
+                    builder.append(entry.bytes());
+                } else {
+                    builder.append('-');
+                }
+            };
+            case 'B' -> (entry, builder) -> builder.append(Math.max(0, entry.bytes()));
+            case 'D' -> (entry, builder) -> builder.append(entry.durationNanos() / 1_000);
+            case 'T' -> (entry, builder) -> builder.append(entry.durationNanos() / 1_000_000_000);
+            default -> throw new IllegalArgumentException("Unknown directive %" + directive + ": " + pattern);
+        };
+    }
+
+    @Override
+    public void format(final AccessLogEntry entry, final StringBuilder builder) {
+        for (final AccessLogFormat part : this.parts) {
+            part.format(entry, builder);
+        }
+    }
+
+    /**
+     * Appends a value sent by the client, escaping quotes, backslashes and control characters like Apache does.
+     *
+     * @param builder the builder to append to
+     * @param value   the value, "-" is appended if it is null
+     */
+    static void appendEscaped(final StringBuilder builder, final String value) {
+        if (value == null) {
+            builder.append('-');
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20 || c == 0x7F) {
+                builder.append("\\x").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+
+    /**
+     * Appends a JSON string, or {@code null}.
+     *
+     * @param builder the builder to append to
+     * @param value   the value, may be null
+     */
+    static void appendJsonString(final StringBuilder builder, final String value) {
+        if (value == null) {
+            builder.append("null");
+            return;
+        }
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+}
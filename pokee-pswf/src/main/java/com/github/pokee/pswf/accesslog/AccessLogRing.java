@@ -0,0 +1,74 @@
+package com.github.pokee.pswf.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free ring buffer with many producers (the connection threads) and a single consumer
+ * (the thread writing the log). Producers claim a sequence number with a compare-and-set on the tail and
+ * publish their entry into the slot of that sequence; the consumer takes entries in sequence order and
+ * clears their slots before moving on. A full buffer rejects new entries instead of blocking the producer.
+ */
+final class AccessLogRing {
+
+    private final AtomicReferenceArray<AccessLogEntry> slots;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();  // the next sequence to claim
+    private volatile long head = 0;  // the next sequence to take, only written by the consumer
+
+    /**
+     * @param capacity the maximum number of buffered entries, rounded up to a power of two
+     */
+    AccessLogRing(final int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an entry, may be called from any thread.
+     *
+     * @param entry the entry
+     * @return false if the buffer is full
+     */
+    boolean offer(final AccessLogEntry entry) {
+        long claimed;
+        do {
+            claimed = this.tail.get();
+            if (claimed - this.head >= this.slots.length()) {
+                return false;
+            }
+        } while (!this.tail.compareAndSet(claimed, claimed + 1));
+        this.slots.lazySet((int) claimed & this.mask, entry);
+        return true;
+    }
+
+    /**
+     * Takes the next entry, must only be called by the consumer.
+     *
+     * @return the entry, or null if there is none (or the next one is claimed but not published yet)
+     */
+    AccessLogEntry poll() {
+        final long head = this.head;
+        final int index = (int) head & this.mask;
+        final AccessLogEntry entry = this.slots.get(index);
+        if (entry == null) {
+            return null;
+        }
+        this.slots.lazySet(index, null);
+        this.head = head + 1;
+        return entry;
+    }
+
+    /**
+     * @return true if no entry was claimed which was not taken yet
+     */
+    boolean isEmpty() {
+        return this.tail.get() == this.head;
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.github.pokee.pswf.accesslog;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends to a file and rotates it once it would exceed a size: {@code access.log} is renamed to
+ * {@code access.log.1}, which in turn was renamed to {@code access.log.2} and so on, up to the number of files
+ * to keep. Files are only rotated between two writes, so a line written at once is never split.
+ */
+final class RotatingFileOutputStream extends OutputStream {
+
+    private final Path path;
+    private final long maxBytes;
+    private final int maxFiles;
+
+    private OutputStream out;
+    private long size;
+
+    /**
+     * @param path     the file to write to, appended to if it exists
+     * @param maxBytes the size at which the file is rotated, 0 to never rotate
+     * @param maxFiles the number of rotated files to keep
+     * @throws IOException if the file can't be opened
+     */
+    RotatingFileOutputStream(final Path path, final long maxBytes, final int maxFiles) throws IOException {
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.open();
+    }
+
+    private void open() throws IOException {
+        this.out = new BufferedOutputStream(Files.newOutputStream(this.path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE));
+        this.size = Files.size(this.path);
+    }
+
+    private void rotate() throws IOException {
+        this.out.close();
+        Files.deleteIfExists(this.rotated(this.maxFiles));
+        for (int i = this.maxFiles - 1; i >= 1; i--) {
+            final Path source = this.rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, this.rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (this.maxFiles > 0) {
+            Files.move(this.path, this.rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(this.path);
+        }
+        this.open();
+    }
+
+    private Path rotated(final int index) {
+        return this.path.resolveSibling(this.path.getFileName() + "." + index);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (this.maxBytes > 0 && this.size > 0 && this.size + length > this.maxBytes) {
+            this.rotate();
+        }
+        this.out.write(bytes, offset, length);
+        this.size += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.github.pokee.pswf.annotation.data;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds the request body to a parameter. Parameters of type {@code RequestBody}, {@code InputStream},
+ * {@code String} and {@code byte[]} receive the body as is, any other type is bound from JSON using pson.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Body {
+}
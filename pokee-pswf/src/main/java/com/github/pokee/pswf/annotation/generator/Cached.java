@@ -0,0 +1,34 @@
+package com.github.pokee.pswf.annotation.generator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the responses of a GET route in a {@link com.github.pokee.pswf.response.ResponseCache}.
+ * Responses are cached per path, so the values of path parameters are always part of the cache key.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached {
+
+    /**
+     * @return how long a cached response is served, in {@link #unit()}
+     */
+    long ttl() default 60;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * @return the query parameters which are part of the cache key
+     */
+    String[] varyBy() default {};
+
+    /**
+     * @return the maximum number of cached responses
+     */
+    int maxEntries() default 256;
+
+}
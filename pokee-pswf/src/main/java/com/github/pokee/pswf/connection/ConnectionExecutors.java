@@ -0,0 +1,118 @@
+package com.github.pokee.pswf.connection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory methods for the executors a {@link WebServer} can use to run its client connections.
+ * Executors which cannot accept a connection must throw a {@link RejectedExecutionException},
+ * in which case the client receives a {@code 503 Service Unavailable} response.
+ */
+public final class ConnectionExecutors {
+
+    private ConnectionExecutors() {
+    }
+
+    /**
+     * Creates an unbounded pool of platform threads. Idle threads are reused for new connections,
+     * but there is no upper bound on the number of threads.
+     *
+     * @return the executor
+     */
+    public static ExecutorService platform() {
+        return Executors.newCachedThreadPool(ConnectionExecutors.daemonThreadFactory("pswf-connection-"));
+    }
+
+    /**
+     * Creates a fixed size pool of platform threads. Connections which arrive while all threads are busy
+     * wait in a queue of the given depth; if the queue is full, the connection is rejected.
+     *
+     * @param threads    the number of threads handling connections
+     * @param queueDepth the maximum number of connections waiting for a thread
+     * @return the executor
+     */
+    public static ExecutorService bounded(final int threads, final int queueDepth) {
+        if (threads < 1 || queueDepth < 0) {
+            throw new IllegalArgumentException("Invalid pool size: " + threads + " threads, " + queueDepth + " queued");
+        }
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                queueDepth == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueDepth),
+                ConnectionExecutors.daemonThreadFactory("pswf-connection-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Creates the executor a {@link WebServer} answers rejected connections on, so the accepting thread does not
+     * block on slow clients. It uses a single thread, and rejected connections which do not fit into its small
+     * queue are closed without a response.
+     *
+     * @return the executor
+     */
+    public static ExecutorService rejections() {
+        return new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(64),
+                ConnectionExecutors.daemonThreadFactory("pswf-reject-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread for each connection.
+     * Virtual threads are cheap enough to have one per connection even with blocking handlers,
+     * but they require Java 21 or newer at runtime.
+     *
+     * @return the executor
+     * @throws UnsupportedOperationException if the running JVM does not support virtual threads
+     */
+    public static ExecutorService virtualThreads() {
+        try {
+            final MethodHandle factory = MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class)
+            );
+            return (ExecutorService) factory.invoke();
+        } catch (final NoSuchMethodException | IllegalAccessException exception) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer", exception);
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException("Failed to create virtual thread executor", throwable);
+        }
+    }
+
+    /**
+     * Checks if the running JVM supports virtual threads.
+     *
+     * @return true if {@link #virtualThreads()} can be used, otherwise false
+     */
+    public static boolean supportsVirtualThreads() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Creates a thread factory for named daemon threads.
+     *
+     * @param prefix the prefix of the thread names
+     * @return the thread factory
+     */
+    private static ThreadFactory daemonThreadFactory(final String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
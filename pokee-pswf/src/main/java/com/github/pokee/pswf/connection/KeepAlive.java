@@ -0,0 +1,92 @@
+package com.github.pokee.pswf.connection;
+
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.response.Response;
+
+/**
+ * Describes how long persistent (keep-alive) connections are kept open and decides for each request
+ * whether the connection may be reused afterward.
+ *
+ * @param idleTimeoutMillis how long to wait for the next request on an idle connection, in milliseconds
+ * @param maxRequests       the maximum number of requests served over a single connection
+ */
+public record KeepAlive(int idleTimeoutMillis, int maxRequests) {
+
+    public static final String CONNECTION_HEADER = "Connection";
+
+    /**
+     * Keep connections open for 5 seconds of inactivity and up to 100 requests.
+     */
+    public static final KeepAlive DEFAULT = new KeepAlive(5_000, 100);
+
+    /**
+     * Close every connection after the first response.
+     */
+    public static final KeepAlive DISABLED = new KeepAlive(0, 1);
+
+    public KeepAlive {
+        if (idleTimeoutMillis < 0 || maxRequests < 1) {
+            throw new IllegalArgumentException("Invalid keep-alive settings: " + idleTimeoutMillis + "ms, " + maxRequests + " requests");
+        }
+    }
+
+    /**
+     * Decides whether the connection may be kept open after responding to a request.
+     * HTTP/1.1 connections are persistent unless either side sends {@code Connection: close};
+     * HTTP/1.0 connections are only kept open if the client asks for it with {@code Connection: keep-alive}.
+     *
+     * @param request         the request which was just handled
+     * @param response        the response to the request
+     * @param handledRequests the number of requests handled over this connection so far, including this one
+     * @return true if the connection should be kept open, otherwise false
+     */
+    public boolean shouldKeepAlive(final Request request, final Response response, final int handledRequests) {
+        if (handledRequests >= this.maxRequests) {
+            return false;
+        }
+        if (KeepAlive.hasToken(response.headers().get(CONNECTION_HEADER), "close")) {
+            return false;
+        }
+        // without chunked encoding, the end of a streaming body of unknown length is marked by closing the connection
+        if (!response.hasKnownLength() && request.version() != Version.VERSION_1_1) {
+            return false;
+        }
+        final String connection = request.headers().get(CONNECTION_HEADER);
+        if (request.version() == Version.VERSION_1_1) {
+            return !KeepAlive.hasToken(connection, "close");
+        }
+        return KeepAlive.hasToken(connection, "keep-alive");
+    }
+
+    /**
+     * Adds the {@code Connection} header matching the keep-alive decision to a response.
+     *
+     * @param response  the response
+     * @param keepAlive whether the connection is kept open
+     * @return the response with the {@code Connection} header set
+     */
+    public static Response apply(final Response response, final boolean keepAlive) {
+        return response.withHeader(CONNECTION_HEADER, keepAlive ? "keep-alive" : "close");
+    }
+
+    /**
+     * Checks if a comma separated header value contains a token, ignoring case.
+     *
+     * @param value the header value, may be null
+     * @param token the token to look for
+     * @return true if the token is present, otherwise false
+     */
+    private static boolean hasToken(final String value, final String token) {
+        if (value == null) {
+            return false;
+        }
+        for (final String part : value.split(",")) {
+            if (part.trim().equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.github.pokee.pswf.connection;
+
+/**
+ * Limits how long the phases of a request may take, so slow or malicious clients can't hold a connection
+ * (and, in thread-per-connection mode, a thread) forever. A value of 0 disables the respective timeout.
+ * <p>
+ * The header and body timeouts are absolute: a client sending one byte at a time is cut off once the whole head
+ * (or body) was not received in time. Requests whose head times out are answered with {@code 408 Request Timeout}.
+ * The write timeout applies to each write which makes no progress, so large responses to fast clients are not
+ * affected. The handler timeout is cooperative, see {@link com.github.pokee.pswf.router.Context#checkDeadline()}.
+ *
+ * @param headerMillis  how long receiving a request head may take once its first byte arrived, in milliseconds;
+ *                      also limits how long a new connection waits for its first byte
+ * @param bodyMillis    how long receiving a request body may take once its head was received, in milliseconds
+ * @param handlerMillis how long the handlers of a request may run, in milliseconds
+ * @param writeMillis   how long writing to a client may be stalled, in milliseconds
+ */
+public record Timeouts(int headerMillis, int bodyMillis, int handlerMillis, int writeMillis) {
+
+    /**
+     * 10 seconds for the request head, 30 seconds for the request body, the handlers and stalled writes.
+     */
+    public static final Timeouts DEFAULT = new Timeouts(10_000, 30_000, 30_000, 30_000);
+
+    /**
+     * No timeouts besides the idle timeout of {@link KeepAlive}.
+     */
+    public static final Timeouts DISABLED = new Timeouts(0, 0, 0, 0);
+
+    public Timeouts {
+        if (headerMillis < 0 || bodyMillis < 0 || handlerMillis < 0 || writeMillis < 0) {
+            throw new IllegalArgumentException("Timeouts must not be negative");
+        }
+    }
+
+    /**
+     * Returns how long a connection may wait for the first byte of a request. Waiting for the next request on a
+     * persistent connection is limited by the idle timeout. A new connection, or one without idle timeout, is
+     * limited by the header timeout as well, so a client which connects and sends nothing can't hold it forever.
+     *
+     * @param idleTimeoutMillis the idle timeout of the connection, 0 for no limit, see {@link KeepAlive}
+     * @param headerMillis      the header timeout, 0 for no limit
+     * @param firstRequest      whether no request was received over the connection yet
+     * @return the timeout in milliseconds, 0 for no limit
+     */
+    public static int requestWaitMillis(final int idleTimeoutMillis,
+                                        final int headerMillis,
+                                        final boolean firstRequest) {
+        if (headerMillis == 0 || idleTimeoutMillis != 0 && (!firstRequest || idleTimeoutMillis <= headerMillis)) {
+            return idleTimeoutMillis;
+        }
+        return headerMillis;
+    }
+
+    /**
+     * Returns the deadline for a phase starting now.
+     *
+     * @param timeoutMillis the timeout of the phase, or 0 for no timeout
+     * @return the deadline in terms of {@link System#nanoTime()}, or 0 if there is no timeout
+     */
+    public static long deadline(final int timeoutMillis) {
+        if (timeoutMillis == 0) {
+            return 0;
+        }
+        final long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        return deadline == 0 ? 1 : deadline;
+    }
+
+}
@@ -1,10 +1,26 @@
 package com.github.pokee.pswf.connection;
 
 import com.github.pokee.pswf.connection.handler.ClientHandler;
-import com.github.pokee.pswf.connection.handler.ThreadedClientHandler;
+import com.github.pokee.pswf.connection.handler.ClientHandlerTask;
+import com.github.pokee.pswf.exception.RequestHeaderFieldsTooLargeException;
+import com.github.pokee.pswf.exception.RequestParseException;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.response.ResponseBuilder;
+import com.github.pokee.pswf.response.StatusCode;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a simple HTTP web server. This class is responsible for opening a server socket
@@ -13,37 +29,244 @@ import java.net.ServerSocket;
  */
 public class WebServer {
 
+    /**
+     * How long a client whose request is not read may take to receive the response and finish sending its request,
+     * see {@link #shutdownAndDrain(Socket)}.
+     */
+    public static final int LINGER_MILLIS = 1000;
+    /**
+     * The maximum number of bytes read and discarded from such a client before the connection is closed anyway.
+     */
+    public static final int LINGER_DRAIN_LIMIT = 64 * 1024;
+
     private final int port;
 
     private final ClientHandler clientHandler;
+    private final ExecutorService executor;
+    private final Semaphore admission; // null = unlimited connections
+    private final ExecutorService rejector = ConnectionExecutors.rejections();
     private ServerSocket serverSocket;
 
     /**
-     * Constructs a new WebServer instance.
+     * Constructs a new WebServer instance which handles each connection on a pooled platform thread
+     * without limiting the number of concurrent connections.
      *
      * @param port          The port number on which the server will listen for incoming connections.
      * @param clientHandler The handler that will process client connections.
      */
     public WebServer(final int port, final ClientHandler clientHandler) {
+        this(port, clientHandler, ConnectionExecutors.platform(), 0);
+    }
+
+    /**
+     * Constructs a new WebServer instance.
+     *
+     * @param port           The port number on which the server will listen for incoming connections.
+     * @param clientHandler  The handler that will process client connections.
+     * @param executor       The executor running the client handler for each connection, see {@link ConnectionExecutors}.
+     * @param maxConnections The maximum number of connections handled at the same time, or 0 for no limit.
+     */
+    public WebServer(final int port,
+                     final ClientHandler clientHandler,
+                     final ExecutorService executor,
+                     final int maxConnections) {
+        if (maxConnections < 0) {
+            throw new IllegalArgumentException("maxConnections must not be negative");
+        }
         this.port = port;
         this.clientHandler = clientHandler;
+        this.executor = executor;
+        this.admission = maxConnections > 0 ? new Semaphore(maxConnections) : null;
     }
 
     /**
      * Starts the server and begins listening for incoming connections. This method creates
      * a server socket on the specified port and continuously accepts new client connections.
-     * Each connection is handled in its own thread using {@link ThreadedClientHandler}.
+     * Each connection is handled by the configured executor using a {@link ClientHandlerTask}.
+     * If the maximum number of connections is reached, or the executor rejects the connection,
+     * the client receives a {@code 503 Service Unavailable} response.
+     * <p>
+     * The server socket is opened as a (blocking) channel, so accepted sockets have a
+     * {@link java.nio.channels.SocketChannel} which files can be transferred to without copying them.
      *
      * @throws IOException If an I/O error occurs when opening the server socket.
      */
     public void start() throws IOException {
-        this.serverSocket = new ServerSocket(this.port);
+        final ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(this.port));
+        this.serverSocket = serverChannel.socket();
 
         while (true) {
-            new ThreadedClientHandler(this.serverSocket.accept(), this.clientHandler).start();
+            final Socket socket = this.serverSocket.accept();
+            if (this.admission != null && !this.admission.tryAcquire()) {
+                this.reject(socket);
+                continue;
+            }
+            try {
+                this.executor.execute(new ClientHandlerTask(socket, this.clientHandler, this::release));
+            } catch (final RejectedExecutionException exception) {
+                this.release();
+                this.reject(socket);
+            }
+        }
+    }
+
+    /**
+     * Releases the admission permit of a finished connection.
+     */
+    private void release() {
+        if (this.admission != null) {
+            this.admission.release();
+        }
+    }
+
+    /**
+     * Responds with {@code 503 Service Unavailable} and closes the socket on the rejection executor, so the accept
+     * loop does not wait for the client. If that executor is saturated as well, the socket is closed right away.
+     *
+     * @param socket The socket of the rejected client.
+     */
+    private void reject(final Socket socket) {
+        try {
+            this.rejector.execute(() -> WebServer.respondAndClose(socket, WebServer.serviceUnavailable()));
+        } catch (final RejectedExecutionException exception) {
+            try {
+                socket.close();
+            } catch (final IOException ignored) {
+                // the client is dropped either way
+            }
+        }
+    }
+
+    /**
+     * Sends a response to a client whose request is not read and closes the socket.
+     * <p>
+     * Closing a socket with unread input makes the operating system reset the connection, which can discard the
+     * response before the client read it. So the output is shut down first and the request is drained for a short
+     * time, until the client closes the connection.
+     *
+     * @param socket   The socket of the client.
+     * @param response The response, which should contain {@code Connection: close}.
+     */
+    public static void respondAndClose(final Socket socket, final Response response) {
+        try (socket) {
+            final BufferedOutputStream outputStream = new BufferedOutputStream(socket.getOutputStream());
+            Version.VERSION_1_1.getWriter().write(response, outputStream);
+            outputStream.flush();
+            WebServer.shutdownAndDrain(socket);
+        } catch (final IOException exception) {
+            System.out.println("Error rejecting client: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Shuts down the output of a socket after the final response was flushed, then reads and discards its input
+     * until the client closes the connection, the linger time passed or the drain limit is reached.
+     * The socket can then be closed without the response being discarded by a reset.
+     *
+     * @param socket The socket.
+     * @throws IOException If shutting down the output or reading fails.
+     */
+    public static void shutdownAndDrain(final Socket socket) throws IOException {
+        socket.shutdownOutput();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MILLIS);
+        final InputStream inputStream = socket.getInputStream();
+        final byte[] buffer = new byte[4096];
+        int drained = 0;
+        try {
+            while (drained < LINGER_DRAIN_LIMIT) {
+                final long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return;
+                }
+                socket.setSoTimeout((int) remaining);
+                final int read = inputStream.read(buffer);
+                if (read == -1) {
+                    return;
+                }
+                drained += read;
+            }
+        } catch (final SocketTimeoutException exception) {
+            // the client did not close the connection in time
         }
     }
 
+    /**
+     * Creates the response sent to clients which cannot be served because the server is saturated.
+     *
+     * @return The response.
+     */
+    public static Response serviceUnavailable() {
+        return new ResponseBuilder()
+                .status(StatusCode.SERVICE_UNAVAILABLE)
+                .set("Connection", "close")
+                .text("Server is busy, please try again later")
+                .build();
+    }
+
+    /**
+     * Creates the response sent to clients whose request head could not be parsed, {@code 431 Request Header Fields
+     * Too Large} if the headers exceeded a limit of the parser, otherwise {@code 400 Bad Request}.
+     *
+     * @param exception The exception thrown while parsing the request.
+     * @return The response.
+     */
+    public static Response badRequest(final RequestParseException exception) {
+        return new ResponseBuilder()
+                .status(exception instanceof RequestHeaderFieldsTooLargeException
+                        ? StatusCode.REQUEST_HEADER_FIELDS_TOO_LARGE
+                        : StatusCode.BAD_REQUEST)
+                .set("Connection", "close")
+                .text(exception.getMessage())
+                .build();
+    }
+
+    /**
+     * Creates the response sent to clients whose request body exceeds the size a server is willing to buffer,
+     * see {@link WebServerBuilder.WebServerBuilderWithRouter#maxBodySize(int)}.
+     *
+     * @return The response.
+     */
+    public static Response payloadTooLarge() {
+        return new ResponseBuilder()
+                .status(StatusCode.PAYLOAD_TOO_LARGE)
+                .set("Connection", "close")
+                .text("Request body is too large")
+                .build();
+    }
+
+    /**
+     * Creates the response sent to clients which did not send a complete request in time,
+     * see {@link Timeouts}.
+     *
+     * @return The response.
+     */
+    public static Response requestTimeout() {
+        return new ResponseBuilder()
+                .status(StatusCode.REQUEST_TIMEOUT)
+                .set("Connection", "close")
+                .text("Request was not received in time")
+                .build();
+    }
+
+    /**
+     * Returns the executor running the client connections.
+     *
+     * @return The executor.
+     */
+    protected ExecutorService getExecutor() {
+        return this.executor;
+    }
+
+    /**
+     * Returns the port this server listens on.
+     *
+     * @return The port number.
+     */
+    public int getPort() {
+        return this.port;
+    }
+
     /**
      * Stops the server by closing the server socket. This method should be called to release
      * the resources associated with the server socket and to ensure that the server stops
@@ -53,6 +276,8 @@ public class WebServer {
      */
     public void stop() throws IOException {
         this.serverSocket.close();
+        this.executor.shutdown();
+        this.rejector.shutdownNow();
     }
 
 }
@@ -1,15 +1,30 @@
 package com.github.pokee.pswf.connection;
 
+import com.github.pokee.pswf.accesslog.AccessLog;
 import com.github.pokee.pswf.connection.handler.BasicRouterClientHandler;
 import com.github.pokee.pswf.connection.handler.ClientHandler;
+import com.github.pokee.pswf.connection.handler.ClientHandlerSettings;
+import com.github.pokee.pswf.connection.selector.SelectorWebServer;
+import com.github.pokee.pswf.exception.RequestBodyTooLargeException;
+import com.github.pokee.pswf.exception.RequestTimeoutException;
+import com.github.pokee.pswf.exception.request.HandlerTimeoutException;
+import com.github.pokee.pswf.files.StaticFiles;
+import com.github.pokee.pswf.metrics.Metrics;
+import com.github.pokee.pswf.metrics.PrometheusFormat;
 import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.response.Compression;
 import com.github.pokee.pswf.response.ResponseBuilder;
 import com.github.pokee.pswf.response.ResponseLike;
 import com.github.pokee.pswf.response.StatusCode;
 import com.github.pokee.pswf.router.*;
 import com.github.pokee.pswf.router.handler.Handler;
+import com.github.pokee.pswf.router.middleware.Middleware;
+import com.github.pokee.pswf.router.middleware.MiddlewareStack;
 import com.github.pokee.pswf.util.router.ClassRouter;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 
 /**
@@ -67,6 +82,24 @@ public class WebServerBuilder {
         private ClientHandler clientHandler = null;
         private ErrorHandler errorHandler = null;
 
+        private KeepAlive keepAlive = KeepAlive.DEFAULT;
+        private boolean computeETags = true;
+        private Compression compression = Compression.DEFAULT;
+        private Timeouts timeouts = Timeouts.DEFAULT;
+        private Metrics metrics = null;
+        private AccessLog accessLog = AccessLog.DISABLED;
+        private final MiddlewareStack middleware = new MiddlewareStack();
+
+        // thread-per-connection mode
+        private ExecutorService executor = null;
+        private int maxConnections = 0;
+
+        // selector mode, disabled if ioLoops is 0
+        private int ioLoops = 0;
+        private int workerThreads = 0;
+        private int maxQueuedRequests = 0;
+        private int maxBodySize = SelectorWebServer.DEFAULT_MAX_BODY_SIZE;
+
         private WebServerBuilderWithRouter(final Router router) {
             this.router = router;
         }
@@ -89,11 +122,35 @@ public class WebServerBuilder {
          */
         private ErrorHandler defaultErrorHandler() {
             return (req, throwable) -> new ResponseBuilder()
-                    .status(StatusCode.INTERNAL_SERVER_ERROR)
+                    .status(WebServerBuilderWithRouter.statusOf(throwable))
                     .text("Error: " + throwable.getMessage())
                     .build();
         }
 
+        /**
+         * Chooses the status of the default error response: {@code 503 Service Unavailable} if the handlers
+         * exceeded their deadline, {@code 408 Request Timeout} if the request body was not received in time,
+         * {@code 413 Payload Too Large} if the request body exceeded the maximum body size, otherwise
+         * {@code 500 Internal Server Error}.
+         *
+         * @param throwable The exception thrown while handling the request.
+         * @return The status code.
+         */
+        private static StatusCode statusOf(final Throwable throwable) {
+            if (throwable instanceof HandlerTimeoutException) {
+                return StatusCode.SERVICE_UNAVAILABLE;
+            }
+            for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+                if (cause instanceof RequestTimeoutException) {
+                    return StatusCode.REQUEST_TIMEOUT;
+                }
+                if (cause instanceof RequestBodyTooLargeException) {
+                    return StatusCode.PAYLOAD_TOO_LARGE;
+                }
+            }
+            return StatusCode.INTERNAL_SERVER_ERROR;
+        }
+
         /**
          * Sets the client handler for the web server.
          *
@@ -110,13 +167,266 @@ public class WebServerBuilder {
          *
          * @return The default client handler.
          */
-        private ClientHandler defaultClientHandler() {
+        private BasicRouterClientHandler defaultClientHandler() {
             final ErrorHandler serverErrorHandler = this.errorHandler != null
                     ? this.errorHandler
                     : this.defaultErrorHandler();
-            return new BasicRouterClientHandler(this.router, serverErrorHandler);
+            return new BasicRouterClientHandler(this.router, serverErrorHandler, new ClientHandlerSettings(
+                    this.keepAlive,
+                    this.computeETags,
+                    this.compression,
+                    this.timeouts,
+                    this.maxBodySize,
+                    this.metrics,
+                    this.accessLog,
+                    this.middleware
+            ));
+        }
+
+        /**
+         * Configures persistent (keep-alive) connections. By default, idle connections are closed after 5 seconds
+         * and after 100 requests.
+         *
+         * @param idleTimeoutMillis How long to wait for the next request on an idle connection, in milliseconds.
+         * @param maxRequests       The maximum number of requests served over a single connection.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter keepAlive(final int idleTimeoutMillis, final int maxRequests) {
+            this.keepAlive = new KeepAlive(idleTimeoutMillis, maxRequests);
+            return this;
+        }
+
+        /**
+         * Disables persistent connections, every connection is closed after the first response.
+         *
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter noKeepAlive() {
+            this.keepAlive = KeepAlive.DISABLED;
+            return this;
+        }
+
+        /**
+         * Configures whether successful GET responses with a fixed body are tagged with an {@code ETag} computed
+         * from their body. Enabled by default. Entity tags set by handlers are used either way, and requests with
+         * a matching {@code If-None-Match} header are answered with {@code 304 Not Modified}.
+         *
+         * @param computeETags Whether to compute entity tags.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter etags(final boolean computeETags) {
+            this.computeETags = computeETags;
+            return this;
+        }
+
+        /**
+         * Configures the compression of response bodies, negotiated with the {@code Accept-Encoding} header.
+         * Defaults to {@link Compression#DEFAULT}, use {@link Compression#DISABLED} to send all bodies uncompressed.
+         *
+         * @param compression The compression settings.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter compression(final Compression compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Configures how long receiving a request head and body, running the handlers and stalled writes may take.
+         * Defaults to {@link Timeouts#DEFAULT}, use {@link Timeouts#DISABLED} to only close idle connections.
+         *
+         * @param timeouts The timeouts.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter timeouts(final Timeouts timeouts) {
+            this.timeouts = timeouts;
+            return this;
         }
 
+        /**
+         * Records metrics of all requests and exposes them in the Prometheus text format at {@code GET /metrics}.
+         *
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         * @see #metrics(Metrics, String)
+         */
+        public WebServerBuilderWithRouter metrics() {
+            return this.metrics(new Metrics(), "/metrics");
+        }
+
+        /**
+         * Records request counts by route and status, handler, parse and write latencies, transferred bytes and
+         * connections in the given metrics. If a path is given, a GET route is registered which returns them in
+         * the Prometheus text format, see {@link PrometheusFormat}. Requests to that route are recorded as well.
+         * Note that the metrics are not recorded if a custom client handler is used.
+         *
+         * @param metrics The metrics to record requests in.
+         * @param path    The path to expose the metrics at, or null to not expose them.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter metrics(final Metrics metrics, final String path) {
+            this.metrics = metrics;
+            if (path != null) {
+                this.get(path, ctx -> new ResponseBuilder()
+                        .contentType(PrometheusFormat.CONTENT_TYPE)
+                        .set("Cache-Control", "no-store")
+                        .body(PrometheusFormat.format(metrics).getBytes(StandardCharsets.UTF_8)));
+            }
+            return this;
+        }
+
+        /**
+         * Logs every handled request to an access log,
+         * e.g. {@code AccessLog.create().file(Path.of("access.log")).build()}. Requests are not logged by default.
+         *
+         * @param accessLog The access log.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter accessLog(final AccessLog accessLog) {
+            this.accessLog = accessLog;
+            return this;
+        }
+
+        /**
+         * Sets the executor which runs the client handler for each accepted connection,
+         * e.g. {@link ConnectionExecutors#bounded(int, int)} or {@link ConnectionExecutors#virtualThreads()}.
+         * Connections rejected by the executor are answered with {@code 503 Service Unavailable}.
+         * Defaults to {@link ConnectionExecutors#platform()}.
+         *
+         * @param executor The executor for client connections.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter executor(final ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Limits the number of connections handled at the same time. Connections exceeding the limit
+         * are answered with {@code 503 Service Unavailable} right away.
+         *
+         * @param maxConnections The maximum number of concurrent connections, or 0 for no limit.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter maxConnections(final int maxConnections) {
+            if (maxConnections < 0) {
+                throw new IllegalArgumentException("maxConnections must not be negative");
+            }
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        /**
+         * Serves connections using non-blocking selector event loops instead of one thread per connection.
+         * Uses one event loop per available core, twice as many worker threads and up to 1024 queued requests.
+         *
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter selector() {
+            final int cores = Runtime.getRuntime().availableProcessors();
+            return this.selector(cores, cores * 2, 1024);
+        }
+
+        /**
+         * Serves connections using non-blocking selector event loops instead of one thread per connection.
+         * Complete requests are handled by a bounded worker pool; requests which don't fit into the pool's queue
+         * are rejected with {@code 503 Service Unavailable}.
+         * Note that custom client handlers cannot be used in this mode.
+         *
+         * @param ioLoops           The number of selector event loops.
+         * @param workerThreads     The number of threads running request handlers.
+         * @param maxQueuedRequests The maximum number of requests waiting for a worker thread.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         * @throws IllegalArgumentException If there are no I/O loops or worker threads, or the queue size is negative.
+         */
+        public WebServerBuilderWithRouter selector(final int ioLoops,
+                                                   final int workerThreads,
+                                                   final int maxQueuedRequests) {
+            if (ioLoops < 1) {
+                throw new IllegalArgumentException("At least one I/O loop is required");
+            }
+            if (workerThreads < 1) {
+                throw new IllegalArgumentException("At least one worker thread is required");
+            }
+            if (maxQueuedRequests < 0) {
+                throw new IllegalArgumentException("maxQueuedRequests must not be negative");
+            }
+            this.ioLoops = ioLoops;
+            this.workerThreads = workerThreads;
+            this.maxQueuedRequests = maxQueuedRequests;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of a request body. In selector mode, the event loops buffer each body in memory
+         * before the request is handed to a worker, so this limits the memory a single request can occupy. In
+         * thread-per-connection mode, bodies are streamed to the handlers, which fail once they read past the limit.
+         * Larger bodies are answered with {@code 413 Payload Too Large}, before they are read if their
+         * {@code Content-Length} exceeds the limit. For chunked bodies, the chunk framing counts as well.
+         *
+         * @param maxBodySize The maximum body size in bytes, 1 MiB by default.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter maxBodySize(final int maxBodySize) {
+            if (maxBodySize < 0) {
+                throw new IllegalArgumentException("maxBodySize must not be negative");
+            }
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
+        /**
+         * Adds a middleware which runs for every request matching a route, before its handlers.
+         * Middleware runs in the order it was added, see {@link Middleware}.
+         *
+         * @param middleware The middleware.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter use(final Middleware middleware) {
+            this.middleware.add(middleware);
+            return this;
+        }
+
+        /**
+         * Adds a middleware which runs for requests matching a route whose path starts with the prefix,
+         * e.g. {@code /api} for {@code /api} and {@code /api/pokemon}, but not {@code /apiary}.
+         *
+         * @param prefix     The path prefix.
+         * @param middleware The middleware.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter use(final String prefix, final Middleware middleware) {
+            this.middleware.add(prefix, middleware);
+            return this;
+        }
+
+        /**
+         * Serves the files of a directory below a path prefix, e.g. {@code files("/static", Path.of("public"))}
+         * serves {@code public/css/app.css} at {@code /static/css/app.css}. Uses the defaults of
+         * {@link StaticFiles#create(Path)}.
+         *
+         * @param prefix The path prefix, {@code /} to serve the directory at the root.
+         * @param root   The directory.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter files(final String prefix, final Path root) {
+            return this.files(prefix, StaticFiles.create(root).build());
+        }
+
+        /**
+         * Serves files below a path prefix by registering a GET route with a trailing wildcard.
+         * Requires a router supporting wildcards, e.g. {@link #parameterized()}.
+         *
+         * @param prefix The path prefix, {@code /} to serve the files at the root.
+         * @param files  The static files handler.
+         * @return This instance of WebServerBuilderWithRouter for method chaining.
+         */
+        public WebServerBuilderWithRouter files(final String prefix, final StaticFiles files) {
+            String normalized = prefix;
+            while (normalized.endsWith("/")) {
+                normalized = normalized.substring(0, normalized.length() - 1);
+            }
+            return this.register(Method.GET, normalized + "/*" + StaticFiles.PATH_PARAMETER, files);
+        }
 
         public WebServerBuilderWithRouter register(final Method method, final String path, final Handler handler) {
             this.router.registerRoute(method, path, handler);
@@ -165,11 +475,33 @@ public class WebServerBuilder {
          * @return The constructed WebServer.
          */
         public WebServer build() {
+            if (this.ioLoops > 0) {
+                if (this.clientHandler != null) {
+                    throw new IllegalStateException("Custom client handlers are not supported in selector mode");
+                }
+                if (this.executor != null || this.maxConnections > 0) {
+                    throw new IllegalStateException("Use selector(ioLoops, workerThreads, maxQueuedRequests) to size selector mode");
+                }
+                return new SelectorWebServer(
+                        WebServerBuilder.this.port,
+                        this.defaultClientHandler(),
+                        this.ioLoops,
+                        this.workerThreads,
+                        this.maxQueuedRequests,
+                        this.maxBodySize
+                );
+            }
+
             final ClientHandler serverClientHandler = this.clientHandler != null
                     ? this.clientHandler
                     : this.defaultClientHandler();
 
-            return new WebServer(WebServerBuilder.this.port, serverClientHandler);
+            return new WebServer(
+                    WebServerBuilder.this.port,
+                    serverClientHandler,
+                    this.executor != null ? this.executor : ConnectionExecutors.platform(),
+                    this.maxConnections
+            );
         }
     }
 
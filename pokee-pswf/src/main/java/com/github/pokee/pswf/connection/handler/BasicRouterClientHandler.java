@@ -1,21 +1,39 @@
 package com.github.pokee.pswf.connection.handler;
 
+import com.github.pokee.pswf.accesslog.AccessLog;
+import com.github.pokee.pswf.connection.KeepAlive;
+import com.github.pokee.pswf.connection.Timeouts;
+import com.github.pokee.pswf.connection.WebServer;
 import com.github.pokee.pswf.exception.NoHandlerForRouteException;
+import com.github.pokee.pswf.exception.RequestBodyTooLargeException;
+import com.github.pokee.pswf.exception.RequestParseException;
+import com.github.pokee.pswf.exception.RequestTimeoutException;
 import com.github.pokee.pswf.exception.request.NoContentException;
+import com.github.pokee.pswf.metrics.Metrics;
 import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestReader;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.response.Compression;
+import com.github.pokee.pswf.response.ETags;
+import com.github.pokee.pswf.response.FileBody;
 import com.github.pokee.pswf.response.Response;
 import com.github.pokee.pswf.response.writers.ResponseWriter;
 import com.github.pokee.pswf.router.Context;
 import com.github.pokee.pswf.router.ErrorHandler;
 import com.github.pokee.pswf.router.Router;
 import com.github.pokee.pswf.router.handler.Handler;
+import com.github.pokee.pswf.router.middleware.MiddlewareStack;
+import com.github.pokee.pswf.util.BufferPool;
 
 import java.io.BufferedOutputStream;
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.Socket;
-import java.util.List;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
 
 /**
  * Handles client requests by routing them through a defined router and managing response generation.
@@ -25,33 +43,101 @@ public class BasicRouterClientHandler implements ClientHandler {
 
     private final ErrorHandler errorHandler;  // Handles errors during request processing.
     private final Router router;  // Routes incoming requests to appropriate handlers.
+    private final KeepAlive keepAlive;  // Decides when persistent connections are closed.
+    private final boolean computeETags;  // Tags fixed GET responses with a hash of their body.
+    private final Compression compression;  // Compresses responses for clients accepting it.
+    private final Timeouts timeouts;  // Limits how long reading, handling and writing a request may take.
+    private final int maxBodySize;  // Limits the size of request bodies.
+    private final Metrics metrics;  // Records requests, latencies and traffic, null if disabled.
+    private final AccessLog accessLog;  // Logs every handled request, unless disabled.
+    private final MiddlewareStack middleware;  // Runs before and around the handlers of each route.
 
     /**
-     * Constructs a BasicRouterClientHandler with a specified router and error handler.
+     * Constructs a BasicRouterClientHandler with a specified router and error handler and the default settings.
      *
      * @param router       The router to use for determining the route for each request.
      * @param errorHandler The handler used for processing exceptions that occur during request handling.
      */
     public BasicRouterClientHandler(final Router router, final ErrorHandler errorHandler) {
+        this(router, errorHandler, ClientHandlerSettings.defaults());
+    }
+
+    /**
+     * Constructs a BasicRouterClientHandler with a specified router, error handler and settings.
+     *
+     * @param router       The router to use for determining the route for each request.
+     * @param errorHandler The handler used for processing exceptions that occur during request handling.
+     * @param settings     The keep-alive policy, timeouts, compression and the other settings of the handler.
+     */
+    public BasicRouterClientHandler(final Router router,
+                                    final ErrorHandler errorHandler,
+                                    final ClientHandlerSettings settings) {
         this.router = router;
         this.errorHandler = errorHandler;
+        this.keepAlive = settings.keepAlive();
+        this.computeETags = settings.computeETags();
+        this.compression = settings.compression();
+        this.timeouts = settings.timeouts();
+        this.maxBodySize = settings.maxBodySize();
+        this.metrics = settings.metrics();
+        this.accessLog = settings.accessLog();
+        this.middleware = settings.middleware();
+    }
+
+    /**
+     * Returns the keep-alive policy of this handler.
+     *
+     * @return The keep-alive policy.
+     */
+    public KeepAlive getKeepAlive() {
+        return this.keepAlive;
+    }
+
+    /**
+     * Returns the timeouts of this handler.
+     *
+     * @return The timeouts.
+     */
+    public Timeouts getTimeouts() {
+        return this.timeouts;
     }
 
     /**
-     * Processes a given context to generate a response by executing all applicable handlers.
-     * Throws exceptions if no handlers are available or if no response is generated.
+     * Returns the metrics requests are recorded in.
+     *
+     * @return The metrics, or null if no metrics are recorded.
+     */
+    public Metrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Returns the access log handled requests are logged to.
+     *
+     * @return The access log, {@link AccessLog#DISABLED} if requests are not logged.
+     */
+    public AccessLog getAccessLog() {
+        return this.accessLog;
+    }
+
+    /**
+     * Processes a given context to generate a response by executing the middleware and all applicable handlers.
+     * Throws exceptions if no handlers are available, if no response is generated, or if the handlers
+     * did not finish before the deadline of the context.
      *
      * @param context The context containing the request and the space to set the response.
      * @return The response generated by handling the request.
      * @throws NoContentException If no response is generated after processing.
      */
     private Response getResponseForContext(final Context context) throws NoContentException {
-        final List<Handler> handlers = context.getHandlers();
-        if (handlers.isEmpty()) {
+        if (context.getHandlers().isEmpty()) {
             throw new NoHandlerForRouteException();
         }
-        for (final Handler handler : handlers) {
-            handler.handle(context);
+        if (this.middleware.isEmpty()) {
+            BasicRouterClientHandler.runHandlers(context);
+        } else {
+            this.middleware.run(context, BasicRouterClientHandler::runHandlers);
+            context.checkDeadline();
         }
         final Response response = context.getResponse();
         if (response == null) {
@@ -60,32 +146,202 @@ public class BasicRouterClientHandler implements ClientHandler {
         return response;
     }
 
-    @Override
-    public void handle(final Socket socket) throws IOException {
-        try (socket;
-             final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-             final BufferedOutputStream writer = new BufferedOutputStream(socket.getOutputStream())) {
+    /**
+     * Runs the handlers of the route one after another, checking the deadline after each of them.
+     *
+     * @param context The context of the request.
+     */
+    private static void runHandlers(final Context context) {
+        for (final Handler handler : context.getHandlers()) {
+            handler.handle(context);
+            context.checkDeadline();
+        }
+    }
 
-            final Request request = Request.readRequest(reader);
-            System.out.println(request.prettyPrint());
+    /**
+     * Routes a single, already parsed request and produces the response for it.
+     * Any exception thrown while routing or handling is passed to the error handler.
+     * Conditional GET requests whose {@code If-None-Match} header matches the entity tag of the response
+     * are answered with {@code 304 Not Modified}, see {@link ETags#apply(Request, Response, boolean, Compression)}.
+     * Entity tags are computed from the uncompressed body and suffixed with the content coding of the response,
+     * and conditional requests are answered before the body is compressed.
+     * If metrics are enabled, the status and the time it took are recorded for the route which matched.
+     *
+     * @param request The request to respond to.
+     * @return The response generated by the matching handlers or by the error handler.
+     */
+    public Response respond(final Request request) {
+        final long started = this.metrics != null ? System.nanoTime() : 0;
+        String route = null;
+        Response response;
+        try {
+            final Context context = this.router.createContext(request);
+            route = context.getRoute();
+            context.setDeadline(Timeouts.deadline(this.timeouts.handlerMillis()));
+            context.setCompression(this.compression);
+            response = ETags.apply(request, this.getResponseForContext(context), this.computeETags, this.compression);
+        } catch (final Throwable throwable) {
+            response = this.errorHandler.handle(request, throwable);
+        }
+        if (this.metrics != null) {
+            this.metrics.route(request.method(), route).record(response.statusCode(), System.nanoTime() - started);
+        }
+        return response;
+    }
 
-            final ResponseWriter responseWriter = request.version().getWriter();
-            if (responseWriter == null) {
-                throw new UnsupportedOperationException("Unsupported version for writing: " + request.version());
+    /**
+     * Writes a response whose body is a file. The head is flushed first, then the file is transferred to the channel
+     * of the socket with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, so the
+     * kernel sends it without copying it through the output streams. Write timeouts still apply.
+     *
+     * @param responseWriter The writer for the HTTP version of the request.
+     * @param response       The response.
+     * @param body           The body of the response.
+     * @param writer         The buffered stream of the connection.
+     * @param socketOutput   The unbuffered stream of the connection.
+     * @param channel        The channel of the socket.
+     * @return The number of body bytes transferred past the streams.
+     * @throws IOException If the file can't be read or writing fails.
+     */
+    private static long writeFile(final ResponseWriter responseWriter,
+                                  final Response response,
+                                  final FileBody body,
+                                  final BufferedOutputStream writer,
+                                  final OutputStream socketOutput,
+                                  final SocketChannel channel) throws IOException {
+        try (final FileChannel file = body.open()) {
+            final ByteBuffer head = responseWriter.encodeHead(response, BufferPool.DEFAULT);
+            try {
+                writer.write(head.array(), head.arrayOffset() + head.position(), head.remaining());
+            } finally {
+                BufferPool.DEFAULT.release(head);
             }
+            writer.flush();
 
-            Response response;
-            try {
-                final Context context = this.router.createContext(request);
-                response = this.getResponseForContext(context);
-            } catch (final Throwable throwable) {
-                response = this.errorHandler.handle(request, throwable);
+            long offset = 0;
+            while (offset < body.length()) {
+                offset += socketOutput instanceof WriteTimeoutOutputStream timeout
+                        ? timeout.transfer(body, file, offset)
+                        : body.transferTo(file, offset, body.length() - offset, channel);
             }
+            return offset;
+        }
+    }
 
-            responseWriter.write(response, writer);
-            writer.flush();
+    /**
+     * Handles all requests sent over a connection. As long as the keep-alive policy allows it, the connection
+     * is kept open after each response and the next request is read from the same socket. Pipelined requests
+     * are answered strictly in the order they were received, and the output is only flushed once no further
+     * pipelined request is buffered, so a batch of pipelined requests results in a single write.
+     * Unread parts of a request body are skipped by the {@link RequestReader} before the next request is read.
+     * Clients which don't send a request head or body within the {@link Timeouts} are disconnected, if the head
+     * timed out after a {@code 408 Request Timeout} response. Malformed request heads are answered with
+     * {@code 400 Bad Request}, or {@code 431 Request Header Fields Too Large} if they exceed a limit, before the
+     * connection is closed, see {@link WebServer#badRequest(RequestParseException)}. Requests whose body exceeds the
+     * maximum body size are answered with {@code 413 Payload Too Large} and end the connection as well.
+     * Each request is passed to the {@link AccessLog} once its response was written.
+     * {@link FileBody File bodies} of a known length are transferred straight to the socket's channel.
+     *
+     * @param socket The socket connection to the client that needs handling.
+     * @throws IOException If an I/O error occurs during the handling of the request.
+     */
+    @Override
+    public void handle(final Socket socket) throws IOException {
+        final OutputStream socketOutput = this.timeouts.writeMillis() > 0
+                ? new WriteTimeoutOutputStream(socket, this.timeouts.writeMillis())
+                : socket.getOutputStream();
+        final CountingOutputStream counter = this.metrics != null ? new CountingOutputStream(socketOutput) : null;
+        final OutputStream output = counter != null ? counter : socketOutput;
+        if (this.metrics != null) {
+            this.metrics.connectionOpened();
+        }
+
+        RequestReader reader = null;
+        long bytesReceived = 0;  // bytes read by the reader which were already added to the metrics
+        try (socket; final BufferedOutputStream writer = new BufferedOutputStream(output)) {
+            reader = new RequestReader(socket.getInputStream());
+            reader.setTimeouts(socket::setSoTimeout,
+                    this.keepAlive.idleTimeoutMillis(),
+                    this.timeouts.headerMillis(),
+                    this.timeouts.bodyMillis());
+            reader.setMaxBodySize(this.maxBodySize);
+
+            int handledRequests = 0;
+            boolean keepAlive = true;
+            while (keepAlive) {
+                final Request request;
+                try {
+                    request = reader.read();
+                } catch (final EOFException | SocketTimeoutException exception) {
+                    break; // client closed the connection or was idle for too long
+                } catch (final RequestTimeoutException exception) {
+                    Version.VERSION_1_1.getWriter().write(WebServer.requestTimeout(), writer);
+                    writer.flush();
+                    break;
+                } catch (final RequestBodyTooLargeException exception) {
+                    Version.VERSION_1_1.getWriter().write(WebServer.payloadTooLarge(), writer);
+                    writer.flush();
+                    WebServer.shutdownAndDrain(socket);
+                    break;
+                } catch (final RequestParseException exception) {
+                    // the rest of the malformed request can't be skipped, so the connection is closed
+                    Version.VERSION_1_1.getWriter().write(WebServer.badRequest(exception), writer);
+                    writer.flush();
+                    WebServer.shutdownAndDrain(socket);
+                    break;
+                }
+                final long started = this.accessLog.isEnabled() ? System.nanoTime() : 0;
+                if (this.metrics != null) {
+                    this.metrics.recordParse(reader.getHeadNanos());
+                }
+
+                final ResponseWriter responseWriter = request.version().getWriter();
+                if (responseWriter == null) {
+                    throw new UnsupportedOperationException("Unsupported version for writing: " + request.version());
+                }
+
+                final Response response = this.respond(request);
+                // a request whose body timed out or was too large may still be arriving, so it can't be followed by
+                // another request
+                keepAlive = !reader.isAborted()
+                        && this.keepAlive.shouldKeepAlive(request, response, ++handledRequests);
+
+                final long writeStarted = this.metrics != null ? System.nanoTime() : 0;
+                final Response sent = KeepAlive.apply(response, keepAlive);
+                if (sent.bodyWriter() instanceof FileBody body && sent.hasKnownLength()
+                        && socket.getChannel() != null) {
+                    final long transferred = BasicRouterClientHandler.writeFile(responseWriter, sent, body, writer,
+                            socketOutput, socket.getChannel());
+                    if (this.metrics != null) {
+                        this.metrics.addBytesSent(transferred);
+                    }
+                } else {
+                    responseWriter.write(sent, writer);
+                }
+                if (!keepAlive || !reader.hasAvailableData()) {
+                    writer.flush();
+                }
+                if (reader.isAborted()) {
+                    WebServer.shutdownAndDrain(socket);
+                }
+                if (this.accessLog.isEnabled()) {
+                    this.accessLog.log(socket.getInetAddress(), request, response, System.nanoTime() - started);
+                }
+                if (this.metrics != null) {
+                    this.metrics.recordWrite(System.nanoTime() - writeStarted);
+                    this.metrics.addBytesReceived(reader.getBytesRead() - bytesReceived);
+                    this.metrics.addBytesSent(counter.drain());
+                    bytesReceived = reader.getBytesRead();
+                }
+            }
         } finally {
-            System.out.println("Bye " + socket.getInetAddress());
+            if (this.metrics != null) {
+                if (reader != null) {
+                    this.metrics.addBytesReceived(reader.getBytesRead() - bytesReceived);
+                }
+                this.metrics.addBytesSent(counter.drain());
+                this.metrics.connectionClosed();
+            }
         }
     }
 
@@ -0,0 +1,53 @@
+package com.github.pokee.pswf.connection.handler;
+
+import com.github.pokee.pswf.accesslog.AccessLog;
+import com.github.pokee.pswf.connection.KeepAlive;
+import com.github.pokee.pswf.connection.Timeouts;
+import com.github.pokee.pswf.connection.selector.SelectorWebServer;
+import com.github.pokee.pswf.metrics.Metrics;
+import com.github.pokee.pswf.response.Compression;
+import com.github.pokee.pswf.router.middleware.MiddlewareStack;
+
+/**
+ * The settings of a {@link BasicRouterClientHandler}, usually assembled by the
+ * {@link com.github.pokee.pswf.connection.WebServerBuilder}.
+ *
+ * @param keepAlive    the policy deciding how long connections are kept open
+ * @param computeETags whether successful GET responses without entity tag are tagged with a hash of their body
+ * @param compression  the compression of response bodies
+ * @param timeouts     the timeouts for reading, handling and writing requests
+ * @param maxBodySize  the maximum size of a request body in bytes, larger bodies are rejected
+ * @param metrics      the metrics to record requests in, or null to not record any
+ * @param accessLog    the access log to log handled requests to, see {@link AccessLog#DISABLED}
+ * @param middleware   the middleware to run for each request which matched a route
+ */
+public record ClientHandlerSettings(KeepAlive keepAlive,
+                                    boolean computeETags,
+                                    Compression compression,
+                                    Timeouts timeouts,
+                                    int maxBodySize,
+                                    Metrics metrics,
+                                    AccessLog accessLog,
+                                    MiddlewareStack middleware) {
+
+    /**
+     * Creates the default settings: the default keep-alive policy, compression, timeouts and body size limit,
+     * computed entity tags, no metrics, no access log and no middleware. A new middleware stack is created for each
+     * call, as it is mutable.
+     *
+     * @return the default settings
+     */
+    public static ClientHandlerSettings defaults() {
+        return new ClientHandlerSettings(
+                KeepAlive.DEFAULT,
+                true,
+                Compression.DEFAULT,
+                Timeouts.DEFAULT,
+                SelectorWebServer.DEFAULT_MAX_BODY_SIZE,
+                null,
+                AccessLog.DISABLED,
+                new MiddlewareStack()
+        );
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.github.pokee.pswf.connection.handler;
+
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * A task that handles an individual client connection. It is responsible for managing the lifecycle of a
+ * client connection from acceptance to closure, delegating the processing of the client's requests to a
+ * specified {@link ClientHandler}. Unlike {@link ThreadedClientHandler}, the task does not own a thread and
+ * can be submitted to any executor.
+ */
+public class ClientHandlerTask implements Runnable {
+
+    private final Socket clientSocket;  // The client socket this task is responsible for.
+    private final ClientHandler clientHandler;  // The handler that processes the client's requests.
+    private final Runnable onComplete;  // Called after the socket was closed.
+
+    /**
+     * Constructs a new ClientHandlerTask for handling a specific client socket.
+     *
+     * @param clientSocket  The socket of the client to handle.
+     * @param clientHandler The handler that will process the requests from the client.
+     * @param onComplete    A callback run after the connection was closed, may be null.
+     */
+    public ClientHandlerTask(final Socket clientSocket, final ClientHandler clientHandler, final Runnable onComplete) {
+        this.clientSocket = clientSocket;
+        this.clientHandler = clientHandler;
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * Delegates to the clientHandler to process the client's requests and closes the socket afterward.
+     * If an IOException occurs during processing, it logs an error message to the standard output.
+     */
+    @Override
+    public void run() {
+        try {
+            this.clientHandler.handle(this.clientSocket);
+        } catch (final IOException exception) {
+            System.out.println("Error communicating with the client: " + exception.getMessage());
+        } finally {
+            try {
+                this.clientSocket.close();
+            } catch (IOException e) {
+                System.out.println("Error closing client socket: " + e.getMessage());
+            }
+            if (this.onComplete != null) {
+                this.onComplete.run();
+            }
+        }
+    }
+
+}
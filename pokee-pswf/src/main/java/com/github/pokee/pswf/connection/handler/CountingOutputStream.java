@@ -0,0 +1,40 @@
+package com.github.pokee.pswf.connection.handler;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Counts the bytes written to the underlying stream. Used by a single connection thread, so the count is a
+ * plain field which is added to the shared metrics after each response.
+ */
+class CountingOutputStream extends FilterOutputStream {
+
+    private long count = 0;
+
+    CountingOutputStream(final OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.out.write(b);
+        this.count++;
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        this.out.write(bytes, offset, length);
+        this.count += length;
+    }
+
+    /**
+     * @return the number of bytes written since the last call
+     */
+    long drain() {
+        final long count = this.count;
+        this.count = 0;
+        return count;
+    }
+
+}
@@ -1,12 +1,14 @@
 package com.github.pokee.pswf.connection.handler;
 
-import java.io.IOException;
 import java.net.Socket;
 
 /**
  * A thread that handles an individual client connection. This class extends {@link Thread}
  * and is responsible for managing the lifecycle of a client connection from acceptance to closure,
  * delegating the processing of the client's requests to a specified {@link ClientHandler}.
+ * <p>
+ * {@link com.github.pokee.pswf.connection.WebServer} no longer starts a thread per connection but submits a
+ * {@link ClientHandlerTask} to its executor instead; this class is kept for custom servers.
  */
 public class ThreadedClientHandler extends Thread {
 
@@ -31,17 +33,7 @@ public class ThreadedClientHandler extends Thread {
      */
     @Override
     public void run() {
-        try {
-            this.clientHandler.handle(this.clientSocket);
-        } catch (final IOException exception) {
-            System.out.println("Error communicating with the client: " + exception.getMessage());
-        } finally {
-            try {
-                clientSocket.close();
-            } catch (IOException e) {
-                System.out.println("Error closing client socket: " + e.getMessage());
-            }
-        }
+        new ClientHandlerTask(this.clientSocket, this.clientHandler, null).run();
     }
 
 }
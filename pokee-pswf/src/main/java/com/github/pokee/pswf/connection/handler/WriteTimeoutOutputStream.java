@@ -0,0 +1,158 @@
+package com.github.pokee.pswf.connection.handler;
+
+import com.github.pokee.pswf.response.FileBody;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.channels.FileChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The output stream of a socket which closes the socket if a single write blocks for longer than the write
+ * timeout, e.g. because the client stopped reading. Blocking socket writes have no timeout of their own, so a
+ * single daemon thread shared by all streams checks for stalled writes every {@link #CHECK_INTERVAL_MILLIS}
+ * milliseconds. The blocked write then fails with an {@link IOException}.
+ */
+final class WriteTimeoutOutputStream extends FilterOutputStream {
+
+    private static final long CHECK_INTERVAL_MILLIS = 100;
+
+    // files are transferred in parts of this size, each of which has to be sent within the timeout
+    private static final long TRANSFER_CHUNK_SIZE = 256 * 1024;
+
+    private static final Set<WriteTimeoutOutputStream> ACTIVE = ConcurrentHashMap.newKeySet();
+
+    private final Socket socket;
+    private final long timeoutNanos;
+
+    // the time the current write started, in terms of System#nanoTime(), 0 while no write is in progress
+    private volatile long writeStarted = 0;
+
+    /**
+     * Constructs a new WriteTimeoutOutputStream.
+     *
+     * @param socket        The socket to write to, which is closed if a write stalls.
+     * @param timeoutMillis How long a single write may block, in milliseconds.
+     * @throws IOException If the output stream of the socket can't be obtained.
+     */
+    WriteTimeoutOutputStream(final Socket socket, final int timeoutMillis) throws IOException {
+        super(socket.getOutputStream());
+        this.socket = socket;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Watchdog.start();
+        ACTIVE.add(this);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.begin();
+        try {
+            this.out.write(b);
+        } finally {
+            this.writeStarted = 0;
+        }
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        this.begin();
+        try {
+            this.out.write(bytes, offset, length);
+        } finally {
+            this.writeStarted = 0;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.begin();
+        try {
+            this.out.flush();
+        } finally {
+            this.writeStarted = 0;
+        }
+    }
+
+    /**
+     * Transfers the next part of a file body straight to the channel of the socket, bypassing this stream.
+     * The transfer may block for as long as a single write.
+     *
+     * @param body   The file body.
+     * @param file   The opened file, see {@link FileBody#open()}.
+     * @param offset The offset within the body to continue at.
+     * @return The number of bytes transferred.
+     * @throws IOException If the transfer fails, or the socket was closed because the transfer stalled.
+     */
+    long transfer(final FileBody body, final FileChannel file, final long offset) throws IOException {
+        this.begin();
+        try {
+            return body.transferTo(file, offset, TRANSFER_CHUNK_SIZE, this.socket.getChannel());
+        } finally {
+            this.writeStarted = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        ACTIVE.remove(this);
+        super.close();
+    }
+
+    private void begin() {
+        final long now = System.nanoTime();
+        this.writeStarted = now == 0 ? 1 : now;
+    }
+
+    /**
+     * Closes the socket if the current write has been blocked for longer than the timeout.
+     *
+     * @param now The current time, see {@link System#nanoTime()}.
+     */
+    private void closeIfStalled(final long now) {
+        final long started = this.writeStarted;
+        if (started == 0 || now - started <= this.timeoutNanos) {
+            return;
+        }
+        ACTIVE.remove(this);
+        System.out.println("Closing connection to " + this.socket.getInetAddress() + ", write timed out");
+        try {
+            this.socket.setSoLinger(true, 0); // reset the connection instead of sending the rest of the buffer
+            this.socket.close();
+        } catch (final IOException exception) {
+            System.out.println("Error closing client socket: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * The thread checking all streams for stalled writes, started with the first stream.
+     */
+    private static final class Watchdog {
+
+        static {
+            final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "pswf-write-timeouts");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(() -> {
+                final long now = System.nanoTime();
+                for (final WriteTimeoutOutputStream stream : ACTIVE) {
+                    stream.closeIfStalled(now);
+                }
+            }, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Starts the watchdog if it is not running yet, which happens when this class is initialized.
+         */
+        static void start() {
+        }
+
+    }
+
+}
@@ -0,0 +1,670 @@
+package com.github.pokee.pswf.connection.selector;
+
+import com.github.pokee.pswf.accesslog.AccessLog;
+import com.github.pokee.pswf.connection.KeepAlive;
+import com.github.pokee.pswf.connection.Timeouts;
+import com.github.pokee.pswf.connection.WebServer;
+import com.github.pokee.pswf.connection.handler.BasicRouterClientHandler;
+import com.github.pokee.pswf.exception.RequestHeaderFieldsTooLargeException;
+import com.github.pokee.pswf.exception.RequestParseException;
+import com.github.pokee.pswf.metrics.Metrics;
+import com.github.pokee.pswf.request.ChunkedBodyScanner;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.RequestHead;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.request.parsers.RequestHeadParser;
+import com.github.pokee.pswf.response.FileBody;
+import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.response.writers.ResponseWriter;
+import com.github.pokee.pswf.util.BufferPool;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The state of a single client connection served by a {@link SelectorEventLoop}. Incoming bytes are collected
+ * in a {@link ByteBuffer} which is scanned incrementally by a {@link RequestHeadParser}. Once the head and, if
+ * announced, the body (with {@code Content-Length} or chunked) are complete, the request is handed to the worker
+ * pool. While a request is being handled, the connection does not read any further. Malformed requests are
+ * answered with {@link WebServer#badRequest(com.github.pokee.pswf.exception.RequestParseException)} and the
+ * connection is closed afterward.
+ * <p>
+ * As handlers run on the worker pool, the whole body of a request is buffered in memory before it is handled.
+ * Bodies larger than the maximum body size of the event loop (measured as sent, i.e. including the chunk framing
+ * of chunked bodies) are answered with {@code 413 Payload Too Large}. After such error responses, the output is
+ * shut down and the rest of the request is read and discarded for a short time, so the client receives the
+ * response instead of a connection reset.
+ * Depending on the {@link KeepAlive} policy, the connection is reused for further requests afterward.
+ * <p>
+ * Responses are written from a queue of buffers. Fixed responses are queued at once; streaming responses are
+ * generated on the worker thread by a {@link SelectorOutputStream}, which queues one buffer at a time and blocks
+ * the worker if the client does not read fast enough. {@link FileBody File bodies} of a known length are queued as
+ * a file region instead, which is transferred to the channel with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} without copying it.
+ * <p>
+ * All methods except {@link #process(RequestHead, byte[], int)} must be called on the event loop thread.
+ */
+final class SelectorConnection {
+
+    static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final SelectorEventLoop eventLoop;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final RequestHeadParser headParser = new RequestHeadParser();
+    private final ChunkedBodyScanner chunkedScanner = new ChunkedBodyScanner();
+    private final int maxBodySize;
+    private final int maxBufferSize;
+    private final Metrics metrics;  // null if disabled
+    private final AccessLog accessLog;
+    private final InetAddress remoteAddress;
+
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private final Deque<PendingWrite> writeQueue = new ArrayDeque<>();  // buffers of the current response
+    private boolean responseComplete = false;  // all buffers of the current response are queued
+    private RequestHead pendingHead = null;  // head of a request whose body is still being received
+
+    private boolean busy = false;  // a request is being handled or its response is being written
+    private boolean closeAfterWrite = false;
+    private boolean drainAfterWrite = false;  // the rest of the request is discarded before the connection is closed
+    private int handledRequests = 0;
+    private long lastActivity = System.nanoTime();
+
+    // in terms of System#nanoTime(), 0 if the respective phase is not in progress
+    private long headStarted = 0;  // the first bytes of the next request head were received
+    private long bodyStarted = 0;  // the head of the pending request was received, its body not yet
+    private long lastWrite = 0;  // the write queue became non-empty or made progress
+    private long writeStarted = 0;  // the first buffer of the current response was queued
+    private long drainStarted = 0;  // the output was shut down and the input is being discarded
+    private int drained = 0;
+
+    // the request whose response is being written and when it was received, set by the worker for the access log
+    private Request loggedRequest = null;
+    private Response loggedResponse = null;
+    private long requestStarted = 0;
+
+    SelectorConnection(final SelectorEventLoop eventLoop, final SocketChannel channel, final SelectionKey key) {
+        this.eventLoop = eventLoop;
+        this.channel = channel;
+        this.key = key;
+        this.metrics = eventLoop.getRequestHandler().getMetrics();
+        this.accessLog = eventLoop.getRequestHandler().getAccessLog();
+        this.remoteAddress = channel.socket().getInetAddress();
+        this.maxBodySize = eventLoop.getMaxBodySize();
+        // the buffer holds either a request head or the body of a request, whose head was already consumed
+        this.maxBufferSize = Math.max(this.maxBodySize, this.headParser.getMaxHeadSize() + 1);
+        if (this.metrics != null) {
+            this.metrics.connectionOpened();
+        }
+    }
+
+    /**
+     * Reads all available bytes from the channel and dispatches the next request once it is complete.
+     *
+     * @throws IOException If reading from the channel fails.
+     */
+    void onReadable() throws IOException {
+        if (this.drainStarted != 0) {
+            this.drain();
+            return;
+        }
+        if (!this.readBuffer.hasRemaining()) {
+            if (this.readBuffer.capacity() >= this.maxBufferSize) {
+                // only a chunked body can fill the buffer, longer heads and announced bodies are rejected before
+                this.reject(this.pendingHead != null
+                        ? WebServer.payloadTooLarge()
+                        : WebServer.badRequest(new RequestHeaderFieldsTooLargeException("Request head too large")));
+                return;
+            }
+            final ByteBuffer grown = ByteBuffer.allocate(Math.min(this.readBuffer.capacity() * 2, this.maxBufferSize));
+            this.readBuffer.flip();
+            grown.put(this.readBuffer);
+            this.readBuffer = grown;
+        }
+
+        final int read = this.channel.read(this.readBuffer);
+        if (read == -1) {
+            this.close();
+            return;
+        }
+        if (this.metrics != null) {
+            this.metrics.addBytesReceived(read);
+        }
+        this.lastActivity = System.nanoTime();
+        this.dispatchNext();
+    }
+
+    /**
+     * Hands the next complete request in the read buffer to the worker pool, unless a request is still being
+     * handled. Pipelined requests therefore stay in the buffer until the previous response was written,
+     * which keeps responses in request order.
+     */
+    private void dispatchNext() {
+        if (this.busy) {
+            return;
+        }
+        final byte[] body;
+        this.readBuffer.flip();
+        try {
+            if (this.pendingHead == null) {
+                final long parseStarted = this.metrics != null && this.headStarted == 0 ? System.nanoTime() : 0;
+                this.pendingHead = this.headParser.parse(this.readBuffer);
+                if (this.pendingHead == null) {
+                    if (this.headStarted == 0 && (this.readBuffer.hasRemaining() || this.headParser.isPartial())) {
+                        this.headStarted = System.nanoTime();
+                    }
+                    this.readBuffer.compact();
+                    return; // wait for more data
+                }
+                if (this.metrics != null) {
+                    final long started = this.headStarted != 0 ? this.headStarted : parseStarted;
+                    this.metrics.recordParse(System.nanoTime() - started);
+                }
+            }
+            final long contentLength = this.pendingHead.isChunked()
+                    ? this.chunkedScanner.scan(this.readBuffer)
+                    : this.pendingHead.contentLength();
+            if (contentLength > this.maxBodySize) {
+                this.reject(WebServer.payloadTooLarge());
+                return;
+            }
+            if (contentLength == -1 && this.pendingHead.isChunked() || contentLength > this.readBuffer.remaining()) {
+                if (this.bodyStarted == 0) {
+                    this.bodyStarted = System.nanoTime();
+                }
+                this.readBuffer.compact();
+                return; // body not fully received yet
+            }
+            if (contentLength > 0) {
+                body = new byte[(int) contentLength];
+                this.readBuffer.get(body);
+            } else {
+                body = EMPTY_BODY;
+            }
+        } catch (final RequestParseException exception) {
+            this.reject(WebServer.badRequest(exception));
+            return;
+        }
+        this.readBuffer.compact();
+
+        final RequestHead head = this.pendingHead;
+        this.pendingHead = null;
+        this.headStarted = 0;
+        this.bodyStarted = 0;
+
+        // don't read any further until the response for this request was written
+        this.busy = true;
+        this.key.interestOps(0);
+
+        if (this.accessLog.isEnabled()) {
+            this.requestStarted = System.nanoTime();
+        }
+        final int handledRequests = ++this.handledRequests;
+        try {
+            this.eventLoop.getWorkers().execute(() -> this.process(head, body, handledRequests));
+        } catch (final RejectedExecutionException exception) {
+            this.send(SelectorConnection.encodeServiceUnavailable(), false);
+        }
+    }
+
+    /**
+     * Writes as much of the queued response as the channel accepts. Once the response is written completely,
+     * the connection is either closed or starts reading the next request. If the queue is drained but a
+     * streaming response is not complete yet, the connection waits for the worker to queue more data.
+     *
+     * @throws IOException If writing to the channel fails.
+     */
+    void onWritable() throws IOException {
+        while (!this.writeQueue.isEmpty()) {
+            final long written = this.writeQueued();
+            while (!this.writeQueue.isEmpty() && !this.writeQueue.peek().hasRemaining()) {
+                this.writeQueue.poll().written();
+            }
+            this.lastActivity = System.nanoTime();
+            if (written == 0) {
+                break; // the socket buffer is full
+            }
+            this.lastWrite = this.lastActivity;
+            if (this.metrics != null) {
+                this.metrics.addBytesSent(written);
+            }
+        }
+        if (!this.writeQueue.isEmpty()) {
+            this.key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+        if (!this.responseComplete) {
+            this.key.interestOps(0);
+            return;
+        }
+
+        this.responseComplete = false;
+        if (this.metrics != null) {
+            this.metrics.recordWrite(System.nanoTime() - this.writeStarted);
+        }
+        this.writeStarted = 0;
+        if (this.loggedRequest != null) {
+            this.accessLog.log(this.remoteAddress, this.loggedRequest, this.loggedResponse,
+                    System.nanoTime() - this.requestStarted);
+            this.loggedRequest = null;
+            this.loggedResponse = null;
+        }
+        if (this.closeAfterWrite) {
+            if (this.drainAfterWrite) {
+                this.channel.shutdownOutput();
+                this.drainStarted = System.nanoTime();
+                this.key.interestOps(SelectionKey.OP_READ);
+            } else {
+                this.close();
+            }
+            return;
+        }
+        this.busy = false;
+        this.key.interestOps(SelectionKey.OP_READ);
+        this.dispatchNext(); // a pipelined request may already be buffered
+    }
+
+    /**
+     * Answers a request which is not handled, e.g. because it is malformed or its body is too large, and closes the
+     * connection once the response was written and the rest of the request was drained.
+     * Must only be called while no request is being handled.
+     *
+     * @param response The response, see {@link WebServer#badRequest(RequestParseException)}.
+     */
+    private void reject(final Response response) {
+        this.busy = true;
+        this.pendingHead = null;
+        this.headStarted = 0;
+        this.bodyStarted = 0;
+        this.headParser.reset();
+        this.chunkedScanner.reset();
+        this.readBuffer.clear();
+        this.drainAfterWrite = true;
+        this.send(SelectorConnection.encode(Version.VERSION_1_1.getWriter(), response), false);
+    }
+
+    /**
+     * Reads and discards the rest of a rejected request after the response was written. The connection is closed
+     * once the client closed it as well or too much was drained, see {@link WebServer#shutdownAndDrain}.
+     *
+     * @throws IOException If reading from the channel fails.
+     */
+    private void drain() throws IOException {
+        this.readBuffer.clear();
+        final int read = this.channel.read(this.readBuffer);
+        this.readBuffer.clear();
+        if (read == -1 || (this.drained += read) >= WebServer.LINGER_DRAIN_LIMIT) {
+            this.close();
+        }
+    }
+
+    /**
+     * Writes the head of the write queue: a file region, or all buffers up to the next file region with a single
+     * gathering write.
+     *
+     * @return The number of bytes written.
+     * @throws IOException If writing to the channel or reading the file fails.
+     */
+    private long writeQueued() throws IOException {
+        final PendingWrite first = this.writeQueue.peek();
+        if (first.file() != null) {
+            return first.file().transferTo(this.channel);
+        }
+        final ByteBuffer[] buffers = new ByteBuffer[this.writeQueue.size()];
+        int count = 0;
+        for (final PendingWrite write : this.writeQueue) {
+            if (write.file() != null) {
+                break;
+            }
+            buffers[count++] = write.buffer();
+        }
+        return this.channel.write(buffers, 0, count);
+    }
+
+    /**
+     * Parses and handles a complete request. This method runs on a worker thread and posts the encoded
+     * response back to the event loop.
+     *
+     * @param head            The parsed head of the request.
+     * @param body            The raw (possibly chunked) bytes of the request body.
+     * @param handledRequests The number of requests handled over this connection, including this one.
+     */
+    private void process(final RequestHead head, final byte[] body, final int handledRequests) {
+        final ByteBuffer[] responseBuffers;
+        final boolean keepAlive;
+        try {
+            final RequestBody requestBody = RequestBody.forHead(head, new ByteArrayInputStream(body));
+            final Request request;
+            try {
+                request = Request.readRequest(head, requestBody);
+            } catch (final RequestParseException exception) {
+                final ByteBuffer[] badRequest = SelectorConnection.encode(Version.VERSION_1_1.getWriter(),
+                        WebServer.badRequest(exception));
+                this.eventLoop.execute(() -> this.send(badRequest, false));
+                return;
+            }
+
+            final ResponseWriter responseWriter = request.version().getWriter();
+            if (responseWriter == null) {
+                throw new UnsupportedOperationException("Unsupported version for writing: " + request.version());
+            }
+
+            final BasicRouterClientHandler requestHandler = this.eventLoop.getRequestHandler();
+            final Response response = requestHandler.respond(request);
+            keepAlive = requestHandler.getKeepAlive().shouldKeepAlive(request, response, handledRequests);
+            if (this.accessLog.isEnabled()) {
+                // read by the event loop once the response was written, the task queue publishes the fields
+                this.loggedRequest = request;
+                this.loggedResponse = response;
+            }
+            if (response.bodyWriter() instanceof FileBody file && response.hasKnownLength()) {
+                this.sendFile(responseWriter, KeepAlive.apply(response, keepAlive), file, keepAlive);
+                return;
+            }
+            if (response.isStreaming()) {
+                this.stream(responseWriter, KeepAlive.apply(response, keepAlive), keepAlive);
+                return;
+            }
+            responseBuffers = SelectorConnection.encode(responseWriter, KeepAlive.apply(response, keepAlive));
+        } catch (final IOException | RuntimeException exception) {
+            System.out.println("Error handling request: " + exception.getMessage());
+            this.eventLoop.execute(this::close);
+            return;
+        }
+        this.eventLoop.execute(() -> this.send(responseBuffers, keepAlive));
+    }
+
+    /**
+     * Generates a streaming response on the worker thread. The head is queued first, the body follows in
+     * buffers of the {@link SelectorOutputStream}.
+     *
+     * @param responseWriter The writer for the HTTP version of the request.
+     * @param response       The streaming response.
+     * @param keepAlive      Whether the connection is kept open after the response was written.
+     * @throws IOException If generating the body fails or the connection was closed.
+     */
+    private void stream(final ResponseWriter responseWriter,
+                        final Response response,
+                        final boolean keepAlive) throws IOException {
+        final ByteBuffer head = responseWriter.encodeHead(response, BufferPool.DEFAULT);
+        this.eventLoop.execute(() -> this.queue(head, () -> BufferPool.DEFAULT.release(head)));
+
+        final SelectorOutputStream outputStream = new SelectorOutputStream(this, BufferPool.DEFAULT);
+        responseWriter.writeBody(response, outputStream);
+        outputStream.close();
+        this.eventLoop.execute(() -> this.complete(keepAlive));
+    }
+
+    /**
+     * Opens the file of a response on the worker thread and queues the head and the file region, which the event
+     * loop transfers to the channel as the client reads it.
+     *
+     * @param responseWriter The writer for the HTTP version of the request.
+     * @param response       The response whose body is the file.
+     * @param body           The body of the response.
+     * @param keepAlive      Whether the connection is kept open after the response was written.
+     * @throws IOException If the file can't be opened.
+     */
+    private void sendFile(final ResponseWriter responseWriter,
+                          final Response response,
+                          final FileBody body,
+                          final boolean keepAlive) throws IOException {
+        final FileRegion region = new FileRegion(body, body.open());
+        final ByteBuffer head = responseWriter.encodeHead(response, BufferPool.DEFAULT);
+        this.eventLoop.execute(() -> {
+            this.queue(new PendingWrite(head, null, () -> BufferPool.DEFAULT.release(head)));
+            this.queue(new PendingWrite(null, region, region::close));
+            this.complete(keepAlive);
+        });
+    }
+
+    /**
+     * Starts writing a fixed response to the client.
+     *
+     * @param buffers   The encoded response, see {@link #encode(ResponseWriter, Response)}.
+     * @param keepAlive Whether the connection is kept open after the response was written.
+     */
+    private void send(final ByteBuffer[] buffers, final boolean keepAlive) {
+        this.queue(buffers[0], () -> BufferPool.DEFAULT.release(buffers[0]));
+        for (int i = 1; i < buffers.length; i++) {
+            this.queue(buffers[i], null);
+        }
+        this.complete(keepAlive);
+    }
+
+    /**
+     * Queues a buffer of the current response and starts writing it.
+     *
+     * @param buffer    The buffer to write.
+     * @param onWritten Called once the buffer was written or the connection was closed, may be null.
+     */
+    void queue(final ByteBuffer buffer, final Runnable onWritten) {
+        this.queue(new PendingWrite(buffer, null, onWritten));
+    }
+
+    /**
+     * Queues a part of the current response and starts writing it.
+     *
+     * @param write The buffer or file region to write.
+     */
+    private void queue(final PendingWrite write) {
+        if (!this.channel.isOpen()) {
+            write.written();
+            return;
+        }
+        if (this.writeQueue.isEmpty()) {
+            this.lastWrite = System.nanoTime();
+        }
+        if (this.writeStarted == 0) {
+            this.writeStarted = this.lastWrite;
+        }
+        this.writeQueue.add(write);
+        this.flushQueue();
+    }
+
+    /**
+     * Marks the current response as complete after its last buffer was queued.
+     *
+     * @param keepAlive Whether the connection is kept open after the response was written.
+     */
+    private void complete(final boolean keepAlive) {
+        if (!this.channel.isOpen()) {
+            return;
+        }
+        this.responseComplete = true;
+        this.closeAfterWrite = !keepAlive;
+        this.flushQueue();
+    }
+
+    private void flushQueue() {
+        try {
+            this.onWritable();
+        } catch (final IOException | CancelledKeyException exception) {
+            this.close();
+        }
+    }
+
+    /**
+     * @return true if the channel of this connection is still open (may be called from any thread)
+     */
+    boolean isOpen() {
+        return this.channel.isOpen();
+    }
+
+    /**
+     * Submits a task to the event loop of this connection (may be called from any thread).
+     *
+     * @param task The task to run on the event loop.
+     */
+    void execute(final Runnable task) {
+        this.eventLoop.execute(task);
+    }
+
+    /**
+     * Checks if the connection neither handles nor receives a request and received no data for longer than it may
+     * wait for a request, see {@link Timeouts#requestWaitMillis(int, int, boolean)}. A partially received request is
+     * limited by {@link #checkTimeouts(long, Timeouts)} instead.
+     *
+     * @param now               The current time, see {@link System#nanoTime()}.
+     * @param idleTimeoutMillis The idle timeout in milliseconds, 0 for no limit.
+     * @param headerMillis      The header timeout in milliseconds, 0 for no limit.
+     * @return true if the connection is idle for longer than the timeout, otherwise false.
+     */
+    boolean isIdle(final long now, final int idleTimeoutMillis, final int headerMillis) {
+        final int waitMillis = Timeouts.requestWaitMillis(idleTimeoutMillis, headerMillis, this.handledRequests == 0);
+        return !this.busy && this.headStarted == 0 && this.bodyStarted == 0
+                && SelectorConnection.hasExpired(now, this.lastActivity, waitMillis);
+    }
+
+    /**
+     * Enforces the {@link Timeouts} of the phases this connection is in. A request whose head or body was not
+     * received in time is answered with {@code 408 Request Timeout}, a connection whose client stopped reading
+     * the response is closed. A rejected request is drained for at most {@link WebServer#LINGER_MILLIS}.
+     *
+     * @param now      The current time, see {@link System#nanoTime()}.
+     * @param timeouts The timeouts.
+     */
+    void checkTimeouts(final long now, final Timeouts timeouts) {
+        if (SelectorConnection.hasExpired(now, this.drainStarted, WebServer.LINGER_MILLIS)) {
+            this.close();
+        } else if (!this.busy) {
+            if (SelectorConnection.hasExpired(now, this.headStarted, timeouts.headerMillis())
+                    || SelectorConnection.hasExpired(now, this.bodyStarted, timeouts.bodyMillis())) {
+                this.reject(WebServer.requestTimeout());
+            }
+        } else if (!this.writeQueue.isEmpty() && SelectorConnection.hasExpired(now, this.lastWrite, timeouts.writeMillis())) {
+            System.out.println("Closing connection, write timed out");
+            try {
+                // reset the connection instead of sending the rest of the buffer
+                this.channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+            } catch (final IOException ignored) {
+            }
+            this.close();
+        }
+    }
+
+    private static boolean hasExpired(final long now, final long started, final int timeoutMillis) {
+        return started != 0 && timeoutMillis > 0 && now - started > TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Closes the connection and cancels its key.
+     */
+    void close() {
+        if (this.metrics != null && this.channel.isOpen()) {
+            this.metrics.connectionClosed();
+        }
+        this.key.cancel();
+        SelectorConnection.closeQuietly(this.channel);
+        PendingWrite write;
+        while ((write = this.writeQueue.poll()) != null) {
+            write.written();
+        }
+    }
+
+    /**
+     * Closes a channel, ignoring any errors.
+     *
+     * @param channel The channel to close.
+     */
+    static void closeQuietly(final SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (final IOException ignored) {
+        }
+    }
+
+    /**
+     * Encodes a response using the given writer. Only the head is encoded (into a pooled buffer),
+     * the body is wrapped as is, so both can be written to the channel with a single gathering write.
+     *
+     * @param responseWriter The writer for the HTTP version of the request.
+     * @param response       The response to encode.
+     * @return The head and the body, ready to be written to the channel.
+     */
+    private static ByteBuffer[] encode(final ResponseWriter responseWriter, final Response response) {
+        return new ByteBuffer[]{
+                responseWriter.encodeHead(response, BufferPool.DEFAULT),
+                ByteBuffer.wrap(response.body())
+        };
+    }
+
+    /**
+     * A buffer or a file region waiting to be written.
+     *
+     * @param buffer    The buffer, null if a file region is written.
+     * @param file      The file region, null if a buffer is written.
+     * @param onWritten Called once the buffer or region was written or discarded, may be null.
+     */
+    private record PendingWrite(ByteBuffer buffer, FileRegion file, Runnable onWritten) {
+
+        boolean hasRemaining() {
+            return this.buffer != null ? this.buffer.hasRemaining() : this.file.hasRemaining();
+        }
+
+        void written() {
+            if (this.onWritten != null) {
+                this.onWritten.run();
+            }
+        }
+
+    }
+
+    /**
+     * The part of a file body which was not transferred yet. Only used by the event loop.
+     */
+    private static final class FileRegion {
+
+        private final FileBody body;
+        private final FileChannel file;
+        private long offset = 0;
+
+        private FileRegion(final FileBody body, final FileChannel file) {
+            this.body = body;
+            this.file = file;
+        }
+
+        long transferTo(final SocketChannel channel) throws IOException {
+            final long transferred = this.body.transferTo(this.file, this.offset, this.body.length() - this.offset,
+                    channel);
+            this.offset += transferred;
+            return transferred;
+        }
+
+        boolean hasRemaining() {
+            return this.offset < this.body.length();
+        }
+
+        void close() {
+            try {
+                this.file.close();
+            } catch (final IOException ignored) {
+            }
+        }
+
+    }
+
+    /**
+     * Encodes the response sent when the worker pool cannot accept any more requests.
+     *
+     * @return The encoded response.
+     */
+    private static ByteBuffer[] encodeServiceUnavailable() {
+        return SelectorConnection.encode(Version.VERSION_1_1.getWriter(), WebServer.serviceUnavailable());
+    }
+
+}
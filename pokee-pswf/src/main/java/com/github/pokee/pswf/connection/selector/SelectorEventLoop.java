@@ -0,0 +1,209 @@
+package com.github.pokee.pswf.connection.selector;
+
+import com.github.pokee.pswf.connection.Timeouts;
+import com.github.pokee.pswf.connection.WebServer;
+import com.github.pokee.pswf.connection.handler.BasicRouterClientHandler;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single I/O thread owning one {@link Selector}. All reads and writes of the connections registered to this
+ * loop happen on its thread; other threads (the acceptor and the workers) communicate with it by submitting
+ * tasks through {@link #execute(Runnable)}.
+ */
+final class SelectorEventLoop implements Runnable {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    private final BasicRouterClientHandler requestHandler;
+    private final Executor workers;
+    private final int maxBodySize;
+
+    private volatile boolean running = true;
+
+    /**
+     * Constructs a new event loop with its own selector.
+     *
+     * @param requestHandler The handler used to route complete requests to a response.
+     * @param workers        The executor handlers are run on.
+     * @param maxBodySize    The maximum size of a request body buffered by a connection, in bytes.
+     * @throws IOException If the selector could not be opened.
+     */
+    SelectorEventLoop(final BasicRouterClientHandler requestHandler,
+                      final Executor workers,
+                      final int maxBodySize) throws IOException {
+        this.selector = Selector.open();
+        this.requestHandler = requestHandler;
+        this.workers = workers;
+        this.maxBodySize = maxBodySize;
+    }
+
+    BasicRouterClientHandler getRequestHandler() {
+        return this.requestHandler;
+    }
+
+    Executor getWorkers() {
+        return this.workers;
+    }
+
+    int getMaxBodySize() {
+        return this.maxBodySize;
+    }
+
+    /**
+     * Hands a freshly accepted channel over to this loop. The channel is registered on the loop thread.
+     *
+     * @param channel The accepted client channel.
+     */
+    void register(final SocketChannel channel) {
+        this.execute(() -> {
+            try {
+                channel.configureBlocking(false);
+                final SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+                key.attach(new SelectorConnection(this, channel, key));
+            } catch (final IOException exception) {
+                System.out.println("Error registering client channel: " + exception.getMessage());
+                SelectorConnection.closeQuietly(channel);
+            }
+        });
+    }
+
+    /**
+     * Runs the given task on the loop thread as soon as possible.
+     *
+     * @param task The task to run.
+     */
+    void execute(final Runnable task) {
+        this.tasks.add(task);
+        this.selector.wakeup();
+    }
+
+    /**
+     * Stops the loop and closes all of its connections.
+     */
+    void shutdown() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            // connections draining a rejected request are closed by the sweep, even if all timeouts are disabled
+            final int idleTimeoutMillis = this.requestHandler.getKeepAlive().idleTimeoutMillis();
+            final Timeouts timeouts = this.requestHandler.getTimeouts();
+            long sweepInterval = Math.min(SWEEP_INTERVAL_MILLIS, WebServer.LINGER_MILLIS);
+            for (final int timeoutMillis : new int[]{idleTimeoutMillis, timeouts.headerMillis(),
+                    timeouts.bodyMillis(), timeouts.writeMillis()}) {
+                if (timeoutMillis > 0) {
+                    sweepInterval = Math.min(sweepInterval, timeoutMillis);
+                }
+            }
+
+            long lastSweep = System.nanoTime();
+            while (this.running) {
+                this.selector.select(sweepInterval);
+                this.runTasks();
+
+                final long now = System.nanoTime();
+                if (sweepInterval > 0 && now - lastSweep >= TimeUnit.MILLISECONDS.toNanos(sweepInterval)) {
+                    this.sweep(now, idleTimeoutMillis, timeouts);
+                    lastSweep = now;
+                }
+
+                final Iterator<SelectionKey> iterator = this.selector.selectedKeys().iterator();
+                while (iterator.hasNext()) {
+                    final SelectionKey key = iterator.next();
+                    iterator.remove();
+                    this.process(key);
+                }
+            }
+        } catch (final IOException | ClosedSelectorException exception) {
+            System.out.println("Event loop terminated: " + exception.getMessage());
+        } finally {
+            this.closeAll();
+        }
+    }
+
+    /**
+     * Runs all tasks which were submitted since the last iteration.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * Closes all connections which have been waiting for a request for too long and enforces the request timeouts
+     * of all other connections.
+     *
+     * @param now               The current time, see {@link System#nanoTime()}.
+     * @param idleTimeoutMillis The idle timeout in milliseconds, 0 for no limit.
+     * @param timeouts          The request timeouts.
+     */
+    private void sweep(final long now, final int idleTimeoutMillis, final Timeouts timeouts) {
+        for (final SelectionKey key : this.selector.keys()) {
+            if (!(key.attachment() instanceof final SelectorConnection connection)) {
+                continue;
+            }
+            if (connection.isIdle(now, idleTimeoutMillis, timeouts.headerMillis())) {
+                connection.close();
+            } else {
+                connection.checkTimeouts(now, timeouts);
+            }
+        }
+    }
+
+    /**
+     * Dispatches a ready key to its connection.
+     *
+     * @param key The selected key.
+     */
+    private void process(final SelectionKey key) {
+        final SelectorConnection connection = (SelectorConnection) key.attachment();
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (key.isReadable()) {
+                connection.onReadable();
+            } else if (key.isWritable()) {
+                connection.onWritable();
+            }
+        } catch (final IOException | CancelledKeyException exception) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Closes every channel still registered with this loop as well as the selector itself.
+     */
+    private void closeAll() {
+        try {
+            for (final SelectionKey key : this.selector.keys()) {
+                if (key.attachment() instanceof final SelectorConnection connection) {
+                    connection.close();
+                }
+            }
+            this.selector.close();
+        } catch (final IOException | ClosedSelectorException exception) {
+            System.out.println("Error closing selector: " + exception.getMessage());
+        }
+    }
+
+}
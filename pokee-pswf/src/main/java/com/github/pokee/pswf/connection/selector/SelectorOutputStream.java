@@ -0,0 +1,109 @@
+package com.github.pokee.pswf.connection.selector;
+
+import com.github.pokee.pswf.util.BufferPool;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stream a worker thread writes a streaming response body to. Data is collected in pooled buffers, each full
+ * buffer is handed to the event loop of the connection. At most {@link #MAX_QUEUED_BUFFERS} buffers may be waiting
+ * to be written; if the client reads slower than the body is generated, the worker blocks until a buffer was
+ * written. This keeps the memory used by a streaming response constant.
+ */
+final class SelectorOutputStream extends OutputStream {
+
+    static final int MAX_QUEUED_BUFFERS = 4;
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final SelectorConnection connection;
+    private final BufferPool pool;
+    private final Semaphore queuedBuffers = new Semaphore(MAX_QUEUED_BUFFERS);
+
+    private ByteBuffer buffer;
+
+    /**
+     * Constructs a new SelectorOutputStream.
+     *
+     * @param connection The connection the body is written to.
+     * @param pool       The pool to take the buffers from.
+     */
+    SelectorOutputStream(final SelectorConnection connection, final BufferPool pool) {
+        this.connection = connection;
+        this.pool = pool;
+        this.buffer = pool.acquire();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (!this.buffer.hasRemaining()) {
+            this.queueBuffer();
+        }
+        this.buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!this.buffer.hasRemaining()) {
+                this.queueBuffer();
+            }
+            final int copied = Math.min(length, this.buffer.remaining());
+            this.buffer.put(bytes, offset, copied);
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    /**
+     * Hands the buffered data to the event loop, so it is sent without waiting for the buffer to fill up.
+     *
+     * @throws IOException If the connection was closed.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.buffer.position() > 0) {
+            this.queueBuffer();
+        }
+    }
+
+    /**
+     * Hands the remaining data to the event loop. The connection itself stays open.
+     *
+     * @throws IOException If the connection was closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.flush();
+        this.pool.release(this.buffer);
+    }
+
+    /**
+     * Queues the current buffer on the connection and takes a new one, waiting while too many buffers are queued.
+     */
+    private void queueBuffer() throws IOException {
+        try {
+            while (!this.queuedBuffers.tryAcquire(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!this.connection.isOpen()) {
+                    throw new IOException("Connection closed while streaming the response");
+                }
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while streaming the response");
+        }
+
+        final ByteBuffer full = this.buffer.flip();
+        this.connection.execute(() -> this.connection.queue(full, () -> {
+            this.pool.release(full);
+            this.queuedBuffers.release();
+        }));
+        this.buffer = this.pool.acquire();
+    }
+
+}
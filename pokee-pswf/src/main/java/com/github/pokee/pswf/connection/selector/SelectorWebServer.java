@@ -0,0 +1,159 @@
+package com.github.pokee.pswf.connection.selector;
+
+import com.github.pokee.pswf.connection.ConnectionExecutors;
+import com.github.pokee.pswf.connection.WebServer;
+import com.github.pokee.pswf.connection.handler.BasicRouterClientHandler;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * A web server that multiplexes all client connections over a small, fixed number of {@link Selector} based
+ * event loops instead of spawning one thread per connection. Requests are read and buffered by the event loops
+ * and, once complete, handed to a bounded worker pool which runs the router. If the worker pool is saturated,
+ * the client receives a {@code 503 Service Unavailable} response instead of queueing up indefinitely.
+ * <p>
+ * Unlike in thread-per-connection mode, request bodies are not streamed to the handlers: each body is buffered in
+ * memory until it is complete, so its size is limited (1 MiB by default). Larger bodies are rejected with
+ * {@code 413 Payload Too Large}.
+ */
+public class SelectorWebServer extends WebServer {
+
+    public static final int DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+
+    private final BasicRouterClientHandler requestHandler;
+
+    private final int ioLoopCount;
+    private final int maxBodySize;
+
+    private volatile boolean running;
+
+    private ServerSocketChannel serverChannel;
+    private Selector acceptSelector;
+    private SelectorEventLoop[] eventLoops;
+
+    /**
+     * Constructs a new SelectorWebServer instance.
+     *
+     * @param port              The port number on which the server will listen for incoming connections.
+     * @param requestHandler    The handler used to route complete requests to a response.
+     * @param ioLoopCount       The number of selector event loops (usually one per core).
+     * @param workerThreads     The number of threads executing request handlers.
+     * @param maxQueuedRequests The number of complete requests that may wait for a worker before new requests
+     *                          are rejected with {@code 503 Service Unavailable}.
+     */
+    public SelectorWebServer(final int port,
+                             final BasicRouterClientHandler requestHandler,
+                             final int ioLoopCount,
+                             final int workerThreads,
+                             final int maxQueuedRequests) {
+        this(port, requestHandler, ioLoopCount, workerThreads, maxQueuedRequests, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * Constructs a new SelectorWebServer instance.
+     *
+     * @param port              The port number on which the server will listen for incoming connections.
+     * @param requestHandler    The handler used to route complete requests to a response.
+     * @param ioLoopCount       The number of selector event loops (usually one per core).
+     * @param workerThreads     The number of threads executing request handlers.
+     * @param maxQueuedRequests The number of complete requests that may wait for a worker before new requests
+     *                          are rejected with {@code 503 Service Unavailable}.
+     * @param maxBodySize       The maximum size of a request body in bytes, as each body is buffered in memory.
+     */
+    public SelectorWebServer(final int port,
+                             final BasicRouterClientHandler requestHandler,
+                             final int ioLoopCount,
+                             final int workerThreads,
+                             final int maxQueuedRequests,
+                             final int maxBodySize) {
+        super(port, requestHandler, ConnectionExecutors.bounded(workerThreads, maxQueuedRequests), 0);
+        if (ioLoopCount < 1) {
+            throw new IllegalArgumentException("At least one I/O loop is required");
+        }
+        if (maxBodySize < 0) {
+            throw new IllegalArgumentException("maxBodySize must not be negative");
+        }
+        this.requestHandler = requestHandler;
+        this.ioLoopCount = ioLoopCount;
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Starts the server and begins accepting connections. The calling thread runs the accept loop and
+     * distributes accepted connections round-robin over the event loops, so like {@link WebServer#start()}
+     * this method only returns once the server is stopped.
+     *
+     * @throws IOException If an I/O error occurs when opening the server channel.
+     */
+    @Override
+    public void start() throws IOException {
+        this.eventLoops = new SelectorEventLoop[this.ioLoopCount];
+        for (int i = 0; i < this.ioLoopCount; i++) {
+            this.eventLoops[i] = new SelectorEventLoop(this.requestHandler, this.getExecutor(), this.maxBodySize);
+            final Thread thread = new Thread(this.eventLoops[i], "pswf-io-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(this.getPort()));
+        this.serverChannel.configureBlocking(false);
+
+        this.acceptSelector = Selector.open();
+        this.serverChannel.register(this.acceptSelector, SelectionKey.OP_ACCEPT);
+
+        this.running = true;
+        int next = 0;
+        while (this.running) {
+            final Iterator<SelectionKey> iterator;
+            try {
+                this.acceptSelector.select();
+                iterator = this.acceptSelector.selectedKeys().iterator();
+            } catch (final ClosedSelectorException exception) {
+                break; // the server was stopped
+            }
+            while (iterator.hasNext()) {
+                final SelectionKey key = iterator.next();
+                iterator.remove();
+                if (!key.isValid() || !key.isAcceptable()) {
+                    continue;
+                }
+                SocketChannel channel;
+                while ((channel = this.serverChannel.accept()) != null) {
+                    this.eventLoops[next].register(channel);
+                    next = (next + 1) % this.eventLoops.length;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the server by closing the server channel, all event loops and the worker pool.
+     *
+     * @throws IOException If an I/O error occurs when closing the server channel.
+     */
+    @Override
+    public void stop() throws IOException {
+        this.running = false;
+        if (this.acceptSelector != null) {
+            this.acceptSelector.close();
+        }
+        if (this.eventLoops != null) {
+            for (final SelectorEventLoop eventLoop : this.eventLoops) {
+                eventLoop.shutdown();
+            }
+        }
+        this.getExecutor().shutdownNow();
+        if (this.serverChannel != null) {
+            this.serverChannel.close();
+        }
+    }
+
+}
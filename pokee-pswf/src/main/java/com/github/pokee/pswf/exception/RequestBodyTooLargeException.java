@@ -0,0 +1,21 @@
+package com.github.pokee.pswf.exception;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when the body of a request exceeds the configured maximum size,
+ * see {@link com.github.pokee.pswf.connection.WebServerBuilder.WebServerBuilderWithRouter#maxBodySize(int)}.
+ * The connection can't be used for further requests afterward.
+ */
+public class RequestBodyTooLargeException extends IOException {
+
+    /**
+     * Constructs a new RequestBodyTooLargeException with the specified detail message.
+     *
+     * @param message The detail message.
+     */
+    public RequestBodyTooLargeException(final String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.github.pokee.pswf.exception;
+
+/**
+ * Exception thrown when the headers of a request exceed the limits of the
+ * {@link com.github.pokee.pswf.request.parsers.RequestHeadParser}, i.e. a header line is too long, there are too many
+ * headers or the head as a whole is too large. Such requests are answered with
+ * {@code 431 Request Header Fields Too Large} instead of {@code 400 Bad Request}.
+ */
+public class RequestHeaderFieldsTooLargeException extends RequestParseException {
+
+    /**
+     * Constructs a new RequestHeaderFieldsTooLargeException with the specified detail message.
+     *
+     * @param message The detail message explaining which limit was exceeded.
+     */
+    public RequestHeaderFieldsTooLargeException(final String message) {
+        super(message);
+    }
+
+}
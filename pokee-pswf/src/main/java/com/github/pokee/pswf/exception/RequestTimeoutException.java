@@ -0,0 +1,21 @@
+package com.github.pokee.pswf.exception;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when a client does not send the head or the body of a request within the configured time,
+ * see {@link com.github.pokee.pswf.connection.Timeouts}. The connection can't be used for further requests
+ * afterward.
+ */
+public class RequestTimeoutException extends IOException {
+
+    /**
+     * Constructs a new RequestTimeoutException with the specified detail message.
+     *
+     * @param message The detail message explaining which part of the request timed out.
+     */
+    public RequestTimeoutException(final String message) {
+        super(message);
+    }
+
+}
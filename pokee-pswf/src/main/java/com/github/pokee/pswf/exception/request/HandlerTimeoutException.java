@@ -0,0 +1,13 @@
+package com.github.pokee.pswf.exception.request;
+
+/**
+ * Thrown when the handlers of a request run longer than the handler timeout,
+ * see {@link com.github.pokee.pswf.router.Context#checkDeadline()}.
+ */
+public class HandlerTimeoutException extends RequestException {
+
+    public HandlerTimeoutException() {
+        super("Handling the request took too long");
+    }
+
+}
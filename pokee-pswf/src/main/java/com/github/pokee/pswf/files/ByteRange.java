@@ -0,0 +1,89 @@
+package com.github.pokee.pswf.files;
+
+import java.util.Locale;
+
+/**
+ * A single range of bytes requested with a {@code Range} header, already resolved against the size of the file.
+ *
+ * @param start  the position of the first byte
+ * @param length the number of bytes
+ */
+record ByteRange(long start, long length) {
+
+    /**
+     * The result for ranges which lie completely outside the file, answered with
+     * {@code 416 Range Not Satisfiable}.
+     */
+    static final ByteRange NOT_SATISFIABLE = new ByteRange(-1, 0);
+
+    /**
+     * @return the position of the last byte (inclusive)
+     */
+    long end() {
+        return this.start + this.length - 1;
+    }
+
+    /**
+     * Parses a {@code Range} header like {@code bytes=0-499}, {@code bytes=500-} or {@code bytes=-500}.
+     * Headers with more than one range are ignored, so the whole file is sent instead, which is allowed.
+     *
+     * @param header the value of the header
+     * @param size   the size of the file
+     * @return the range, {@link #NOT_SATISFIABLE} if it lies outside the file, or null if the header is malformed
+     * or should be ignored
+     */
+    static ByteRange parse(final String header, final long size) {
+        final int equals = header.indexOf('=');
+        if (equals == -1 || !header.substring(0, equals).trim().toLowerCase(Locale.ROOT).equals("bytes")) {
+            return null;
+        }
+        final String spec = header.substring(equals + 1).trim();
+        final int dash = spec.indexOf('-');
+        if (dash == -1 || spec.indexOf(',') != -1) {
+            return null;
+        }
+        final long first = ByteRange.parseNumber(spec, 0, dash);
+        final long last = ByteRange.parseNumber(spec, dash + 1, spec.length());
+
+        if (first == -1) {
+            // suffix range, the last n bytes
+            if (last == -1) {
+                return null;
+            }
+            if (last == 0 || size == 0) {
+                return NOT_SATISFIABLE;
+            }
+            final long start = Math.max(0, size - last);
+            return new ByteRange(start, size - start);
+        }
+        if (last != -1 && last < first) {
+            return null;
+        }
+        if (first >= size) {
+            return NOT_SATISFIABLE;
+        }
+        final long end = last == -1 ? size - 1 : Math.min(last, size - 1);
+        return new ByteRange(first, end - first + 1);
+    }
+
+    /**
+     * Parses a non-negative decimal number.
+     *
+     * @return the number, or -1 if the part is empty, no number or too large
+     */
+    private static long parseNumber(final String value, final int start, final int end) {
+        if (start == end || end - start > 18) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+}
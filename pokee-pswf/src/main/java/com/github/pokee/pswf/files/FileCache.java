@@ -0,0 +1,99 @@
+package com.github.pokee.pswf.files;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the contents of small, frequently requested files in memory, so they are served without touching the file
+ * system except for checking whether they changed. Entries are invalidated when the size or the modification time
+ * of the file changed. The cache holds at most {@code maxBytes} and evicts the least recently used files when it is
+ * full.
+ */
+final class FileCache {
+
+    private final long maxBytes;
+    private final long maxFileSize;
+
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size = 0;
+
+    /**
+     * Constructs a new FileCache.
+     *
+     * @param maxBytes    the maximum number of bytes held by the cache
+     * @param maxFileSize the size of the largest file which is cached
+     */
+    FileCache(final long maxBytes, final long maxFileSize) {
+        this.maxBytes = maxBytes;
+        this.maxFileSize = Math.min(maxFileSize, maxBytes);
+    }
+
+    /**
+     * @param size the size of a file
+     * @return true if a file of this size is cached
+     */
+    boolean accepts(final long size) {
+        return size <= this.maxFileSize;
+    }
+
+    /**
+     * Returns the contents of a cached file, unless it changed since it was cached.
+     *
+     * @param file         the file
+     * @param size         the current size of the file
+     * @param lastModified the current modification time of the file, in milliseconds
+     * @return the contents, or null if the file is not cached or changed
+     */
+    byte[] get(final Path file, final long size, final long lastModified) {
+        synchronized (this.entries) {
+            final Entry entry = this.entries.get(file);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.content().length != size || entry.lastModified() != lastModified) {
+                this.entries.remove(file);
+                this.size -= entry.content().length;
+                return null;
+            }
+            return entry.content();
+        }
+    }
+
+    /**
+     * Caches the contents of a file, evicting the least recently used files if the cache is full.
+     *
+     * @param file         the file
+     * @param lastModified the modification time of the file when it was read, in milliseconds
+     * @param content      the contents of the file, see {@link #accepts(long)}
+     */
+    void put(final Path file, final long lastModified, final byte[] content) {
+        synchronized (this.entries) {
+            final Entry previous = this.entries.put(file, new Entry(content, lastModified));
+            if (previous != null) {
+                this.size -= previous.content().length;
+            }
+            this.size += content.length;
+
+            final Iterator<Map.Entry<Path, Entry>> iterator = this.entries.entrySet().iterator();
+            while (this.size > this.maxBytes && iterator.hasNext()) {
+                this.size -= iterator.next().getValue().content().length;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes held by the cache
+     */
+    long size() {
+        synchronized (this.entries) {
+            return this.size;
+        }
+    }
+
+    private record Entry(byte[] content, long lastModified) {
+    }
+
+}
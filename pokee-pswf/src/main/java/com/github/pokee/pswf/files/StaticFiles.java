@@ -0,0 +1,282 @@
+package com.github.pokee.pswf.files;
+
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.response.Compression;
+import com.github.pokee.pswf.response.ETags;
+import com.github.pokee.pswf.response.FileBody;
+import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.response.ResponseBuilder;
+import com.github.pokee.pswf.response.StatusCode;
+import com.github.pokee.pswf.router.Context;
+import com.github.pokee.pswf.router.handler.Handler;
+import com.github.pokee.pswf.util.ContentTypes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Serves the files of a directory. Mount it with
+ * {@link com.github.pokee.pswf.connection.WebServerBuilder.WebServerBuilderWithRouter#files(String, StaticFiles)},
+ * which registers it for all paths below a prefix; the rest of the path is read from the {@value #PATH_PARAMETER}
+ * wildcard parameter.
+ * <ul>
+ *     <li>The content type is detected by the extension of the file, see {@link ContentTypes#forFileName(String)}.</li>
+ *     <li>Responses carry {@code Last-Modified} and an {@code ETag} derived from the modification time and size, so
+ *     conditional requests ({@code If-None-Match}, {@code If-Modified-Since}) are answered with
+ *     {@code 304 Not Modified}, also for the tags of compressed variants.</li>
+ *     <li>A single {@code Range} is answered with {@code 206 Partial Content}, honoring {@code If-Range}.</li>
+ *     <li>Small files are kept in an in-memory cache. Larger files are sent as a {@link FileBody}, which the
+ *     connections transfer to the socket without copying them through the JVM. Only cached files are compressed,
+ *     see {@link Compression}.</li>
+ * </ul>
+ * Paths leaving the directory, also through symbolic links, are answered with {@code 404 Not Found}.
+ */
+public final class StaticFiles implements Handler {
+
+    /**
+     * The name of the wildcard parameter holding the path of the file, relative to the directory.
+     */
+    public static final String PATH_PARAMETER = "file";
+
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter
+            .ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH)
+            .withZone(ZoneOffset.UTC);
+
+    private final Path root;
+    private final String indexFile;
+    private final String cacheControl;
+    private final FileCache cache;
+
+    /**
+     * Constructs a new StaticFiles handler, see {@link StaticFilesBuilder}.
+     *
+     * @param root         the real path of the directory
+     * @param indexFile    the file served for directories, or null to answer them with {@code 404}
+     * @param cacheControl the value of the {@code Cache-Control} header, or null to not send it
+     * @param cache        the cache of small files, or null to not cache files
+     */
+    StaticFiles(final Path root, final String indexFile, final String cacheControl, final FileCache cache) {
+        this.root = root;
+        this.indexFile = indexFile;
+        this.cacheControl = cacheControl;
+        this.cache = cache;
+    }
+
+    /**
+     * Create a new StaticFilesBuilder
+     *
+     * @param root the directory to serve
+     * @return the builder
+     */
+    public static StaticFilesBuilder create(final Path root) {
+        return new StaticFilesBuilder(root);
+    }
+
+    /**
+     * @return the number of bytes held by the in-memory cache
+     */
+    public long getCachedBytes() {
+        return this.cache != null ? this.cache.size() : 0;
+    }
+
+    @Override
+    public void handle(final Context context) {
+        context.response = this.respond(context.getRequest(), context.param(PATH_PARAMETER, ""));
+    }
+
+    /**
+     * Responds to a request for a file.
+     *
+     * @param request the request
+     * @param path    the path of the file relative to the directory, already percent-decoded like
+     *                {@link Request#path()}
+     * @return the response
+     */
+    public Response respond(final Request request, final String path) {
+        Path file = this.resolve(path);
+        BasicFileAttributes attributes = file != null ? StaticFiles.attributes(file) : null;
+        if (attributes != null && attributes.isDirectory() && this.indexFile != null) {
+            file = file.resolve(this.indexFile);
+            attributes = StaticFiles.attributes(file);
+        }
+        if (attributes == null || !attributes.isRegularFile()) {
+            return StaticFiles.notFound();
+        }
+
+        final long size = attributes.size();
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        byte[] content = this.cache != null ? this.cache.get(file, size, lastModified) : null;
+        if (content == null) {
+            if (!this.isInsideRoot(file)) {
+                return StaticFiles.notFound();
+            }
+            if (this.cache != null && this.cache.accepts(size)) {
+                try {
+                    content = Files.readAllBytes(file);
+                } catch (final IOException exception) {
+                    return StaticFiles.notFound();
+                }
+                this.cache.put(file, lastModified, content);
+            }
+        }
+
+        // HTTP dates have a precision of seconds
+        final long lastModifiedSeconds = lastModified / 1000;
+        final String lastModifiedValue = HTTP_DATE.format(Instant.ofEpochSecond(lastModifiedSeconds));
+        final String etag = ETags.strong(Long.toHexString(lastModifiedSeconds) + "-" + Long.toHexString(size));
+        final ResponseBuilder builder = new ResponseBuilder()
+                .contentType(ContentTypes.forFileName(file.getFileName().toString()))
+                .set("Last-Modified", lastModifiedValue)
+                .set(ETags.ETAG_HEADER, etag)
+                .set("Accept-Ranges", "bytes");
+        if (this.cacheControl != null) {
+            builder.set("Cache-Control", this.cacheControl);
+        }
+
+        final String ifNoneMatch = request.headers().get(ETags.IF_NONE_MATCH_HEADER);
+        if (ifNoneMatch != null) {
+            final String matchingTag = StaticFiles.matchingTag(ifNoneMatch, etag);
+            if (matchingTag != null) {
+                if (!matchingTag.equals(etag)) {
+                    // the client revalidates a compressed variant, which keeps its own tag
+                    builder.set(ETags.ETAG_HEADER, matchingTag)
+                            .set(Compression.VARY_HEADER, Compression.ACCEPT_ENCODING_HEADER);
+                }
+                return ETags.notModified(builder.build());
+            }
+        } else if (StaticFiles.isNotModifiedSince(request, lastModifiedSeconds)) {
+            return ETags.notModified(builder.build());
+        }
+
+        final String rangeHeader = request.headers().get("Range");
+        ByteRange range = null;
+        if (rangeHeader != null && StaticFiles.isRangeApplicable(request, etag, lastModifiedValue)) {
+            range = ByteRange.parse(rangeHeader, size);
+        }
+        if (range == ByteRange.NOT_SATISFIABLE) {
+            return builder.status(StatusCode.RANGE_NOT_SATISFIABLE)
+                    .set("Content-Range", "bytes */" + size)
+                    .body(new byte[0])
+                    .build();
+        }
+        if (range != null) {
+            builder.status(StatusCode.PARTIAL_CONTENT)
+                    .set("Content-Range", "bytes " + range.start() + "-" + range.end() + "/" + size);
+        } else {
+            range = new ByteRange(0, size);
+        }
+
+        if (content != null) {
+            return builder.body(range.length() == content.length
+                    ? content
+                    : Arrays.copyOfRange(content, (int) range.start(), (int) (range.start() + range.length())))
+                    .build();
+        }
+        return builder.stream(new FileBody(file, range.start(), range.length()))
+                .set(ResponseBuilder.CONTENT_LENGTH_HEADER, String.valueOf(range.length()))
+                .build();
+    }
+
+    /**
+     * Resolves a requested path against the directory. The path is not decoded again, so a decoded '%' is part of
+     * the file name.
+     *
+     * @param path the decoded path
+     * @return the file, or null if the path is malformed or leaves the directory
+     */
+    private Path resolve(final String path) {
+        int start = 0;
+        while (start < path.length() && (path.charAt(start) == '/' || path.charAt(start) == '\\')) {
+            start++;
+        }
+        final Path file;
+        try {
+            // also rejects NUL characters
+            file = this.root.resolve(path.substring(start)).normalize();
+        } catch (final InvalidPathException exception) {
+            return null;
+        }
+        return file.startsWith(this.root) ? file : null;
+    }
+
+    /**
+     * Checks that a file does not leave the directory through a symbolic link. Only done for files which are not
+     * cached, as it resolves each segment of the path.
+     */
+    private boolean isInsideRoot(final Path file) {
+        try {
+            return file.toRealPath().startsWith(this.root);
+        } catch (final IOException exception) {
+            return false;
+        }
+    }
+
+    private static BasicFileAttributes attributes(final Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (final IOException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Evaluates {@code If-None-Match} against the entity tag of the file and the tags of its compressed variants,
+     * see {@link Compression#variantTag(String, Compression.Encoding)}.
+     *
+     * @return the matching tag, or null if the client's copy is outdated
+     */
+    private static String matchingTag(final String ifNoneMatch, final String etag) {
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return etag;
+        }
+        for (final Compression.Encoding encoding : Compression.Encoding.values()) {
+            final String variantTag = Compression.variantTag(etag, encoding);
+            if (ETags.matches(ifNoneMatch, variantTag)) {
+                return variantTag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Evaluates {@code If-Modified-Since}, which is only used if {@code If-None-Match} is missing.
+     */
+    private static boolean isNotModifiedSince(final Request request, final long lastModifiedSeconds) {
+        final String ifModifiedSince = request.headers().get("If-Modified-Since");
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        try {
+            final Instant since = Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(ifModifiedSince.trim()));
+            return lastModifiedSeconds <= since.getEpochSecond();
+        } catch (final DateTimeParseException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Evaluates {@code If-Range}: the range is only sent if the file still has the given entity tag or
+     * modification date, otherwise the whole file is sent.
+     */
+    private static boolean isRangeApplicable(final Request request, final String etag, final String lastModified) {
+        final String ifRange = request.headers().get("If-Range");
+        return ifRange == null || ifRange.trim().equals(etag) || ifRange.trim().equals(lastModified);
+    }
+
+    private static Response notFound() {
+        return new ResponseBuilder()
+                .status(StatusCode.NOT_FOUND)
+                .text("Not Found")
+                .build();
+    }
+
+}
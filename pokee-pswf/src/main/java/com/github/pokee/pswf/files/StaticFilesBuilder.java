@@ -0,0 +1,105 @@
+package com.github.pokee.pswf.files;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Builder for {@link StaticFiles}. By default, {@code index.html} is served for directories, no
+ * {@code Cache-Control} header is sent, and files of up to 64 KiB are cached in memory, up to 16 MiB in total.
+ */
+public class StaticFilesBuilder {
+
+    private static final long DEFAULT_CACHE_MAX_BYTES = 16L * 1024 * 1024;
+    private static final long DEFAULT_CACHE_MAX_FILE_SIZE = 64L * 1024;
+
+    private final Path root;
+
+    private String indexFile = "index.html";
+    private long maxAgeSeconds = -1;
+    private long cacheMaxBytes = DEFAULT_CACHE_MAX_BYTES;
+    private long cacheMaxFileSize = DEFAULT_CACHE_MAX_FILE_SIZE;
+
+    StaticFilesBuilder(final Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Sets the file served for requests to a directory.
+     *
+     * @param indexFile the name of the file, or null to answer requests to directories with {@code 404}
+     * @return this builder instance for chaining
+     */
+    public StaticFilesBuilder index(final String indexFile) {
+        this.indexFile = indexFile;
+        return this;
+    }
+
+    /**
+     * Allows clients and proxies to reuse files for some time without asking again,
+     * with {@code Cache-Control: public, max-age=<seconds>}.
+     *
+     * @param seconds how long files may be reused
+     * @return this builder instance for chaining
+     */
+    public StaticFilesBuilder maxAge(final long seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("maxAge must not be negative");
+        }
+        this.maxAgeSeconds = seconds;
+        return this;
+    }
+
+    /**
+     * Configures the in-memory cache of small files.
+     *
+     * @param maxBytes    the maximum number of bytes held by the cache, 0 to not cache files
+     * @param maxFileSize the size of the largest file which is cached
+     * @return this builder instance for chaining
+     */
+    public StaticFilesBuilder cache(final long maxBytes, final long maxFileSize) {
+        if (maxBytes < 0 || maxFileSize < 0 || maxFileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Invalid cache size: " + maxBytes + " bytes, " + maxFileSize + " per file");
+        }
+        this.cacheMaxBytes = maxBytes;
+        this.cacheMaxFileSize = maxFileSize;
+        return this;
+    }
+
+    /**
+     * Disables the in-memory cache, so every file is read from disk.
+     *
+     * @return this builder instance for chaining
+     */
+    public StaticFilesBuilder noCache() {
+        return this.cache(0, 0);
+    }
+
+    /**
+     * Builds the handler.
+     *
+     * @return the handler
+     * @throws IllegalArgumentException if the root is not a directory
+     * @throws UncheckedIOException     if the real path of the root can't be resolved
+     */
+    public StaticFiles build() {
+        if (!Files.isDirectory(this.root)) {
+            throw new IllegalArgumentException("Not a directory: " + this.root);
+        }
+        final Path realRoot;
+        try {
+            realRoot = this.root.toRealPath();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Could not resolve " + this.root, exception);
+        }
+        return new StaticFiles(
+                realRoot,
+                this.indexFile,
+                this.maxAgeSeconds >= 0 ? "public, max-age=" + this.maxAgeSeconds : null,
+                this.cacheMaxBytes > 0 ? new FileCache(this.cacheMaxBytes, this.cacheMaxFileSize) : null
+        );
+    }
+
+}
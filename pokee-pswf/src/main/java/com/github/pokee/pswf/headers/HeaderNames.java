@@ -0,0 +1,162 @@
+package com.github.pokee.pswf.headers;
+
+/**
+ * Normalizes header names to the lowercase keys used by {@link Headers}, and hashes and compares names ignoring
+ * case without lowercasing them first. Commonly used header names are kept in a static table: looking them up
+ * in any casing returns the same constant key without allocating, other names are lowercased (ASCII only, as
+ * header names are tokens).
+ */
+public final class HeaderNames {
+
+    private static final String[] WELL_KNOWN = {
+            "Accept", "Accept-Charset", "Accept-Encoding", "Accept-Language", "Accept-Ranges",
+            "Access-Control-Allow-Origin", "Age", "Allow", "Authorization", "Cache-Control", "Connection",
+            "Content-Disposition", "Content-Encoding", "Content-Language", "Content-Length", "Content-Location",
+            "Content-Range", "Content-Type", "Cookie", "Date", "DNT", "ETag", "Expect", "Expires", "Forwarded",
+            "From", "Host", "If-Match", "If-Modified-Since", "If-None-Match", "If-Range", "If-Unmodified-Since",
+            "Keep-Alive", "Last-Modified", "Link", "Location", "Origin", "Pragma", "Range", "Referer",
+            "Retry-After", "Server", "Set-Cookie", "TE", "Trailer", "Transfer-Encoding", "Upgrade",
+            "Upgrade-Insecure-Requests", "User-Agent", "Vary", "Via", "WWW-Authenticate", "X-Forwarded-For",
+            "X-Forwarded-Host", "X-Forwarded-Proto", "X-Requested-With"
+    };
+
+    // open-addressing table hashed by the lowercase name, the capacity is a power of two
+    private static final String[] NAMES;
+    private static final String[] KEYS;
+
+    static {
+        int capacity = 1;
+        while (capacity < WELL_KNOWN.length * 4) {
+            capacity <<= 1;
+        }
+        NAMES = new String[capacity];
+        KEYS = new String[capacity];
+        for (final String name : WELL_KNOWN) {
+            int index = HeaderNames.hash(name) & (capacity - 1);
+            while (NAMES[index] != null) {
+                index = (index + 1) & (capacity - 1);
+            }
+            NAMES[index] = name;
+            KEYS[index] = HeaderNames.toLowerAscii(name);
+        }
+    }
+
+    private HeaderNames() {
+    }
+
+    /**
+     * Returns the key a header name is stored under, which is the name in lowercase.
+     *
+     * @param name the header name in any casing
+     * @return the lowercase key; the same instance for every casing of a well-known name
+     */
+    public static String key(final String name) {
+        final int index = HeaderNames.indexOf(name);
+        if (index != -1) {
+            return KEYS[index];
+        }
+        return HeaderNames.toLowerAscii(name);
+    }
+
+    /**
+     * Returns the common spelling of a well-known header name if the given bytes spell it exactly.
+     * This is used to avoid decoding the names of request headers.
+     *
+     * @param bytes the bytes containing the name
+     * @param start the start of the name (inclusive)
+     * @param end   the end of the name (exclusive)
+     * @return the well-known name, or null if the bytes don't spell a well-known name in its common casing
+     */
+    public static String wellKnown(final byte[] bytes, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + HeaderNames.toLowerAscii((char) (bytes[i] & 0xFF));
+        }
+        final int mask = NAMES.length - 1;
+        for (int index = HeaderNames.spread(hash) & mask; NAMES[index] != null; index = (index + 1) & mask) {
+            final String candidate = NAMES[index];
+            if (candidate.length() == end - start && HeaderNames.equals(bytes, start, candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(final String name) {
+        final int mask = NAMES.length - 1;
+        for (int index = HeaderNames.hash(name) & mask; NAMES[index] != null; index = (index + 1) & mask) {
+            if (HeaderNames.matches(KEYS[index], name)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares a name with a lowercase key, ignoring the case of the name.
+     *
+     * @param key  the lowercase key
+     * @param name the name in any casing
+     * @return true if the lowercase name equals the key
+     */
+    static boolean matches(final String key, final String name) {
+        if (key == name) {
+            return true;
+        }
+        if (key.length() != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != HeaderNames.toLowerAscii(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equals(final byte[] bytes, final int start, final String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (bytes[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the hash of the lowercase name without creating it.
+     */
+    static int hash(final String name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + HeaderNames.toLowerAscii(name.charAt(i));
+        }
+        return HeaderNames.spread(hash);
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static char toLowerAscii(final char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Lowercases the ASCII letters of a name, returning the name itself if it is already lowercase.
+     */
+    static String toLowerAscii(final String name) {
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                final char[] chars = name.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    chars[j] = HeaderNames.toLowerAscii(chars[j]);
+                }
+                return new String(chars);
+            }
+        }
+        return name;
+    }
+
+}
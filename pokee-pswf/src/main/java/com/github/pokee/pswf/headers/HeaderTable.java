@@ -0,0 +1,170 @@
+package com.github.pokee.pswf.headers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The storage behind {@link Headers}: an open-addressing hash table of header fields, hashed by their lowercase
+ * name, and a list of the same fields in insertion order. Lookups hash and compare the given name case-insensitively
+ * in place, so they don't allocate.
+ */
+final class HeaderTable {
+
+    // the capacity is always a power of two and at least twice the number of fields
+    private Field[] slots = new Field[16];
+    private final List<Field> fields = new ArrayList<>();
+
+    /**
+     * @param name the header name in any casing
+     * @return the field, or null if there is no header with that name
+     */
+    Field get(final String name) {
+        final int index = this.indexOf(name);
+        return index == -1 ? null : this.slots[index];
+    }
+
+    /**
+     * Returns the field of a header, creating an empty one named {@code name} if it does not exist.
+     *
+     * @param name the header name in any casing
+     * @return the field
+     */
+    Field getOrCreate(final String name) {
+        final Field existing = this.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        final Field field = new Field(name, new ArrayList<>(1));
+        this.insert(field);
+        return field;
+    }
+
+    /**
+     * @param name the header name in any casing
+     * @return true if a header was removed
+     */
+    boolean remove(final String name) {
+        int index = this.indexOf(name);
+        if (index == -1) {
+            return false;
+        }
+        this.fields.remove(this.slots[index]);
+
+        // shift the following fields of the probe sequence back, so lookups don't stop at the gap
+        final int mask = this.slots.length - 1;
+        this.slots[index] = null;
+        for (int next = (index + 1) & mask; this.slots[next] != null; next = (next + 1) & mask) {
+            final int home = this.slots[next].hash & mask;
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                this.slots[index] = this.slots[next];
+                this.slots[next] = null;
+                index = next;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the fields in insertion order, not copied
+     */
+    List<Field> fields() {
+        return this.fields;
+    }
+
+    int size() {
+        return this.fields.size();
+    }
+
+    /**
+     * @return a deep copy of this table, sharing no value lists
+     */
+    HeaderTable copy() {
+        final HeaderTable copy = new HeaderTable();
+        for (final Field field : this.fields) {
+            copy.insert(new Field(field.name, field.key, field.hash, new ArrayList<>(field.values)));
+        }
+        return copy;
+    }
+
+    private int indexOf(final String name) {
+        final int hash = HeaderNames.hash(name);
+        final int mask = this.slots.length - 1;
+        for (int index = hash & mask; ; index = (index + 1) & mask) {
+            final Field field = this.slots[index];
+            if (field == null) {
+                return -1;
+            }
+            if (field.hash == hash && HeaderNames.matches(field.key, name)) {
+                return index;
+            }
+        }
+    }
+
+    private void insert(final Field field) {
+        if ((this.fields.size() + 1) * 2 > this.slots.length) {
+            final Field[] old = this.slots;
+            this.slots = new Field[old.length * 2];
+            for (final Field existing : old) {
+                if (existing != null) {
+                    this.place(existing);
+                }
+            }
+        }
+        this.place(field);
+        this.fields.add(field);
+    }
+
+    private void place(final Field field) {
+        final int mask = this.slots.length - 1;
+        int index = field.hash & mask;
+        while (this.slots[index] != null) {
+            index = (index + 1) & mask;
+        }
+        this.slots[index] = field;
+    }
+
+    /**
+     * A header with the name it was first added with, its lowercase key and all of its values.
+     */
+    static final class Field implements Map.Entry<String, List<String>> {
+
+        final String name;
+        final String key;
+        final int hash;
+        final List<String> values;
+
+        Field(final String name, final List<String> values) {
+            this(name, HeaderNames.key(name), HeaderNames.hash(name), values);
+        }
+
+        private Field(final String name, final String key, final int hash, final List<String> values) {
+            this.name = name;
+            this.key = key;
+            this.hash = hash;
+            this.values = values;
+        }
+
+        @Override
+        public String getKey() {
+            return this.name;
+        }
+
+        @Override
+        public List<String> getValue() {
+            return this.values;
+        }
+
+        @Override
+        public List<String> setValue(final List<String> value) {
+            throw new UnsupportedOperationException("Header fields can't be replaced");
+        }
+
+        @Override
+        public String toString() {
+            return this.name + "=" + this.values;
+        }
+
+    }
+
+}
@@ -5,55 +5,50 @@ import java.util.*;
 /**
  * Represents the collection of HTTP headers, allowing for modification and retrieval of header values.
  * This class provides methods to add, set, and query headers in a case-insensitive manner.
+ * <p>
+ * Headers are stored in a hash table keyed by their lowercase name (see {@link HeaderNames}), so a lookup takes
+ * constant time and does not allocate. The name a header was first added with is kept and used when the headers
+ * are written, in the order they were added.
  */
 public class Headers {
 
-    protected final Map<String, List<String>> headers;
+    final HeaderTable table;
 
     /**
      * Constructs a new Headers instance initialized with the provided headers.
+     * Names differing only in case are merged.
      *
      * @param headers a map containing initial header values.
      */
     public Headers(final Map<String, List<String>> headers) {
-        this.headers = headers;
+        this.table = new HeaderTable();
+        for (final Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            for (final String value : entry.getValue()) {
+                this.addValue(entry.getKey(), value);
+            }
+        }
     }
 
     /**
      * Constructs an empty Headers instance.
      */
     public Headers() {
-        this.headers = new HashMap<>();
+        this.table = new HeaderTable();
     }
 
     /**
-     * Retrieves a header key adjusted for case sensitivity.
+     * Constructs a Headers instance sharing the entries of another instance.
      *
-     * @param key the header key to find
-     * @return the actual key from the map if present, regardless of case; otherwise, null
+     * @param headers the headers whose entries are used, not copied
      */
-    protected String getKey(final String key) {
-        for (String k : this.headers.keySet()) {
-            if (k.equalsIgnoreCase(key)) {
-                return k;
-            }
-        }
-        return null;
+    protected Headers(final Headers headers) {
+        this.table = headers.table;
     }
 
-    /**
-     * Retrieves a header key adjusted for case sensitivity, or returns a default key if not found.
-     *
-     * @param key        the header key to find
-     * @param defaultKey the default key to return if no matching key is found
-     * @return the actual key from the map if present, regardless of case; otherwise, the default key
-     */
-    protected String getKey(final String key, final String defaultKey) {
-        final String mapKey = this.getKey(key);
-        return mapKey != null ? mapKey : defaultKey;
+    private Headers(final HeaderTable table) {
+        this.table = table;
     }
 
-
     /**
      * Creates a mutable list containing a single value.
      *
@@ -73,7 +68,32 @@ public class Headers {
      * @return true if the header is present, otherwise false
      */
     public boolean has(final String key) {
-        return this.getKey(key) != null;
+        return this.table.get(key) != null;
+    }
+
+    /**
+     * Retrieves the first value of a header.
+     *
+     * @param key the header key
+     * @return the first value of the header, or null if the header is not present
+     */
+    public String get(final String key) {
+        final HeaderTable.Field field = this.table.get(key);
+        if (field == null) {
+            return null;
+        }
+        return field.values.isEmpty() ? null : field.values.get(0);
+    }
+
+    /**
+     * Retrieves all values of a header.
+     *
+     * @param key the header key
+     * @return the values of the header in the order they were added, or an empty list if the header is not present
+     */
+    public List<String> getAll(final String key) {
+        final HeaderTable.Field field = this.table.get(key);
+        return field == null ? List.of() : Collections.unmodifiableList(field.values);
     }
 
     /**
@@ -83,18 +103,33 @@ public class Headers {
      * @param value the header value to add
      */
     public void add(final String key, final String value) {
-        headers.computeIfAbsent(this.getKey(key, key), k -> new ArrayList<>()).add(value);
+        this.addValue(key, value);
     }
 
-
     /**
      * Sets a header value, replacing any existing values for that header.
+     * The casing of the existing header name is kept.
      *
      * @param key   the header key
      * @param value the new value for the header
      */
     public void set(final String key, final String value) {
-        this.headers.put(this.getKey(key, key), this.mutableSingleton(value));
+        final HeaderTable.Field field = this.table.getOrCreate(key);
+        field.values.clear();
+        field.values.add(value);
+    }
+
+    /**
+     * Removes all values of a header.
+     *
+     * @param key the header key
+     */
+    public void remove(final String key) {
+        this.table.remove(key);
+    }
+
+    private void addValue(final String key, final String value) {
+        this.table.getOrCreate(key).values.add(value);
     }
 
     /**
@@ -104,7 +139,7 @@ public class Headers {
      */
     @Override
     public String toString() {
-        return headers.toString();
+        return this.table.fields().toString();
     }
 
     /**
@@ -114,21 +149,29 @@ public class Headers {
      */
     public String prettyPrint() {
         final StringBuilder bob = new StringBuilder();
-        for (final Map.Entry<String, List<String>> entry : headers.entrySet()) {
-            bob.append("\t+ ").append(entry.getKey()).append(": ");
-            if (entry.getValue().size() > 1) {
+        for (final HeaderTable.Field field : this.table.fields()) {
+            bob.append("\t+ ").append(field.name).append(": ");
+            if (field.values.size() > 1) {
                 bob.append("[").append("\n");
-                for (String value : entry.getValue()) {
+                for (String value : field.values) {
                     bob.append("\t\t").append(value).append("\n");
                 }
                 bob.append("\t]").append("\n");
             } else {
-                bob.append(entry.getValue().get(0)).append("\n");
+                bob.append(field.values.get(0)).append("\n");
             }
         }
         return bob.toString();
     }
 
+    /**
+     * Creates a mutable copy of these headers. Changes to the copy do not affect this instance.
+     *
+     * @return a copy of the headers
+     */
+    public Headers copy() {
+        return new Headers(this.table.copy());
+    }
 
     /**
      * Converts the headers to an immutable structure.
@@ -140,12 +183,24 @@ public class Headers {
     }
 
     /**
-     * Provides access to the header entries as a set.
+     * Provides access to the header entries as a set. The keys of the entries are the header names as they were
+     * first added.
      *
-     * @return a set of map entries representing the headers
+     * @return a read-only view of the entries representing the headers, in insertion order
      */
     public Set<Map.Entry<String, List<String>>> entries() {
-        return this.headers.entrySet();
+        final Collection<Map.Entry<String, List<String>>> values = Collections.unmodifiableCollection(this.table.fields());
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, List<String>>> iterator() {
+                return values.iterator();
+            }
+
+            @Override
+            public int size() {
+                return values.size();
+            }
+        };
     }
 
 }
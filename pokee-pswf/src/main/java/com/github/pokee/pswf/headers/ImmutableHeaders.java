@@ -1,9 +1,7 @@
 package com.github.pokee.pswf.headers;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Extends the {@link Headers} class to create an immutable version of headers.
@@ -13,12 +11,12 @@ import java.util.Set;
 public class ImmutableHeaders extends Headers {
 
     /**
-     * Constructs an ImmutableHeaders instance copying the headers from an existing Headers object.
+     * Constructs an ImmutableHeaders instance sharing the header entries of an existing Headers object.
      *
-     * @param headers The Headers object whose header entries are to be copied.
+     * @param headers The Headers object whose header entries are used.
      */
     public ImmutableHeaders(Headers headers) {
-        super(headers.headers);
+        super(headers);
     }
 
     /**
@@ -49,15 +47,27 @@ public class ImmutableHeaders extends Headers {
         throw new UnsupportedOperationException("ImmutableHeaders does not support add operation");
     }
 
+    /**
+     * Overrides the set method to prevent modifications by throwing an UnsupportedOperationException.
+     *
+     * @param key   the header key
+     * @param value the new value for the header
+     * @throws UnsupportedOperationException because ImmutableHeaders does not support set operation
+     */
+    @Override
+    public void set(String key, String value) {
+        throw new UnsupportedOperationException("ImmutableHeaders does not support set operation");
+    }
 
     /**
-     * Provides access to the header entries as a set, wrapped in a new HashSet to prevent modifications.
+     * Overrides the remove method to prevent modifications by throwing an UnsupportedOperationException.
      *
-     * @return a set of map entries representing the headers, enclosed in an unmodifiable set
+     * @param key the header key
+     * @throws UnsupportedOperationException because ImmutableHeaders does not support remove operation
      */
     @Override
-    public Set<Map.Entry<String, List<String>>> entries() {
-        return new HashSet<>(this.headers.entrySet());
+    public void remove(String key) {
+        throw new UnsupportedOperationException("ImmutableHeaders does not support remove operation");
     }
 
 }
@@ -0,0 +1,154 @@
+package com.github.pokee.pswf.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values (e.g. latencies in nanoseconds) with log-linear buckets,
+ * similar to an HDR histogram: values below 16 have a bucket each, every power of two above is split into
+ * 16 equally wide buckets. So any recorded value is known with a relative error of at most 1/16 (6.25%),
+ * while the whole range up to 2^40 (about 18 minutes in nanoseconds) fits into 592 buckets.
+ * Larger values are counted in the last bucket.
+ * <p>
+ * Recording a value is a single atomic increment of its bucket plus the addition to the sum,
+ * it neither locks nor allocates.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = 1L << MAX_EXPONENT;
+
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Records a value.
+     *
+     * @param value the value, negative values are recorded as 0
+     */
+    public void record(final long value) {
+        final long recorded = Math.max(0, value);
+        this.counts.getAndIncrement(Histogram.indexOf(recorded));
+        this.sum.add(recorded);
+    }
+
+    /**
+     * Takes a snapshot of the counts. Values recorded while the snapshot is taken may or may not be part of it.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        final long[] snapshot = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = this.counts.get(i);
+            count += snapshot[i];
+        }
+        return new Snapshot(snapshot, count, this.sum.sum());
+    }
+
+    /**
+     * @param value a non-negative value
+     * @return the index of the bucket counting the value
+     */
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        if (value >= MAX_VALUE) {
+            return BUCKETS - 1;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param index the index of a bucket
+     * @return the highest value counted in the bucket
+     */
+    static long highestValueOf(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * The counts of a histogram at one point in time.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+
+        private Snapshot(final long[] counts, final long count, final long sum) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+        }
+
+        /**
+         * @return the number of recorded values
+         */
+        public long count() {
+            return this.count;
+        }
+
+        /**
+         * @return the sum of all recorded values
+         */
+        public long sum() {
+            return this.sum;
+        }
+
+        /**
+         * Counts the recorded values up to a bound. As values are only known up to the precision of the
+         * histogram, values in the same bucket as the bound are counted even if they were slightly larger.
+         *
+         * @param bound the inclusive upper bound
+         * @return the number of values less than or equal to the bound
+         */
+        public long countAtOrBelow(final long bound) {
+            if (bound < 0) {
+                return 0;
+            }
+            final int last = Histogram.indexOf(bound);
+            long count = 0;
+            for (int i = 0; i <= last; i++) {
+                count += this.counts[i];
+            }
+            return count;
+        }
+
+        /**
+         * Returns the value below which the given percentage of the recorded values fall, e.g. the median for 50.
+         *
+         * @param percentile the percentile between 0 and 100
+         * @return the highest value of the bucket containing the percentile, or 0 if nothing was recorded
+         */
+        public long percentile(final double percentile) {
+            if (this.count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * this.count));
+            long seen = 0;
+            for (int i = 0; i < this.counts.length; i++) {
+                seen += this.counts[i];
+                if (seen >= rank) {
+                    return Histogram.highestValueOf(i);
+                }
+            }
+            return Histogram.highestValueOf(this.counts.length - 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.github.pokee.pswf.metrics;
+
+import com.github.pokee.pswf.request.Method;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a web server. Requests are counted per route, i.e. per method and route as it was registered
+ * (like {@code /hello/:name}), so the number of series does not grow with the number of distinct paths.
+ * Parsing and writing happen before a request is routed and after it was handled, their latencies are only
+ * recorded for the whole server, as are the transferred bytes and the connections.
+ * <p>
+ * All counters are {@link LongAdder}s and all latencies {@link Histogram}s, so recording never blocks the
+ * connection threads. The metrics can be exported with {@link PrometheusFormat}.
+ */
+public final class Metrics {
+
+    /**
+     * The route requests are recorded under if no route matched them.
+     */
+    public static final String UNMATCHED_ROUTE = "unmatched";
+
+    // filled for every method up front, so the map itself is never modified afterward
+    private final Map<Method, ConcurrentHashMap<String, RouteMetrics>> routes = new EnumMap<>(Method.class);
+
+    private final Histogram parseLatency = new Histogram();
+    private final Histogram writeLatency = new Histogram();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder activeConnections = new LongAdder();
+
+    public Metrics() {
+        for (final Method method : Method.values()) {
+            this.routes.put(method, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the metrics of a route, creating them on first use.
+     *
+     * @param method the method of the request
+     * @param route  the route as registered, or null if no route matched
+     * @return the metrics of the route
+     */
+    public RouteMetrics route(final Method method, final String route) {
+        final String key = route != null ? route : UNMATCHED_ROUTE;
+        final ConcurrentHashMap<String, RouteMetrics> byRoute = this.routes.get(method);
+        final RouteMetrics existing = byRoute.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        return byRoute.computeIfAbsent(key, k -> new RouteMetrics(method, k));
+    }
+
+    /**
+     * @return the metrics of all routes which received requests so far
+     */
+    public List<RouteMetrics> routes() {
+        final List<RouteMetrics> result = new ArrayList<>();
+        for (final ConcurrentHashMap<String, RouteMetrics> byRoute : this.routes.values()) {
+            result.addAll(byRoute.values());
+        }
+        return result;
+    }
+
+    /**
+     * @param nanos how long receiving and parsing a request head took, from its first byte on
+     */
+    public void recordParse(final long nanos) {
+        this.parseLatency.record(nanos);
+    }
+
+    /**
+     * @param nanos how long writing a response took
+     */
+    public void recordWrite(final long nanos) {
+        this.writeLatency.record(nanos);
+    }
+
+    /**
+     * @param bytes the number of bytes read from a connection
+     */
+    public void addBytesReceived(final long bytes) {
+        this.bytesReceived.add(bytes);
+    }
+
+    /**
+     * @param bytes the number of bytes written to a connection
+     */
+    public void addBytesSent(final long bytes) {
+        this.bytesSent.add(bytes);
+    }
+
+    /**
+     * Counts an accepted connection as active.
+     */
+    public void connectionOpened() {
+        this.connections.increment();
+        this.activeConnections.increment();
+    }
+
+    /**
+     * Counts a connection as no longer active, must be called once for every {@link #connectionOpened()}.
+     */
+    public void connectionClosed() {
+        this.activeConnections.decrement();
+    }
+
+    public Histogram getParseLatency() {
+        return this.parseLatency;
+    }
+
+    public Histogram getWriteLatency() {
+        return this.writeLatency;
+    }
+
+    public long getBytesReceived() {
+        return this.bytesReceived.sum();
+    }
+
+    public long getBytesSent() {
+        return this.bytesSent.sum();
+    }
+
+    /**
+     * @return the number of connections accepted so far
+     */
+    public long getConnections() {
+        return this.connections.sum();
+    }
+
+    /**
+     * @return the number of currently open connections
+     */
+    public long getActiveConnections() {
+        return this.activeConnections.sum();
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.github.pokee.pswf.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Formats {@link Metrics} in the Prometheus text exposition format (version 0.0.4).
+ * Latencies are exported as histograms in seconds. The bucket boundaries are fixed, the counts are taken from
+ * the finer {@link Histogram} buckets and thereby exact up to the precision of the histogram.
+ */
+public final class PrometheusFormat {
+
+    /**
+     * The content type of the text exposition format.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] BOUNDS_SECONDS = {
+            0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final String[] BOUND_LABELS = {
+            "0.0001", "0.00025", "0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025", "0.05", "0.1", "0.25",
+            "0.5", "1", "2.5", "5", "10"
+    };
+
+    private PrometheusFormat() {
+    }
+
+    /**
+     * Formats the current values of the metrics.
+     *
+     * @param metrics the metrics
+     * @return the metrics in the text exposition format
+     */
+    public static String format(final Metrics metrics) {
+        final StringBuilder builder = new StringBuilder(4096);
+        final List<RouteMetrics> routes = metrics.routes();
+        routes.sort(Comparator.comparing(RouteMetrics::getRoute)
+                .thenComparing(RouteMetrics::getMethod));
+
+        PrometheusFormat.header(builder, "pswf_requests_total", "counter",
+                "Requests handled, by method, route and status code.");
+        for (final RouteMetrics route : routes) {
+            final String labels = PrometheusFormat.routeLabels(route);
+            for (int status = RouteMetrics.MIN_STATUS; status <= RouteMetrics.MAX_STATUS; status++) {
+                final long count = route.count(status);
+                if (count > 0) {
+                    builder.append("pswf_requests_total{").append(labels)
+                            .append(",status=\"").append(status).append("\"} ").append(count).append('\n');
+                }
+            }
+        }
+
+        PrometheusFormat.header(builder, "pswf_handler_duration_seconds", "histogram",
+                "Time spent routing and handling requests, by method and route.");
+        for (final RouteMetrics route : routes) {
+            PrometheusFormat.histogram(builder, "pswf_handler_duration_seconds",
+                    PrometheusFormat.routeLabels(route), route.getHandlerLatency());
+        }
+
+        PrometheusFormat.header(builder, "pswf_parse_duration_seconds", "histogram",
+                "Time from the first byte of a request head until it was parsed.");
+        PrometheusFormat.histogram(builder, "pswf_parse_duration_seconds", "", metrics.getParseLatency());
+
+        PrometheusFormat.header(builder, "pswf_write_duration_seconds", "histogram",
+                "Time spent writing responses, including generating streamed bodies.");
+        PrometheusFormat.histogram(builder, "pswf_write_duration_seconds", "", metrics.getWriteLatency());
+
+        PrometheusFormat.header(builder, "pswf_received_bytes_total", "counter", "Bytes read from connections.");
+        builder.append("pswf_received_bytes_total ").append(metrics.getBytesReceived()).append('\n');
+        PrometheusFormat.header(builder, "pswf_sent_bytes_total", "counter", "Bytes written to connections.");
+        builder.append("pswf_sent_bytes_total ").append(metrics.getBytesSent()).append('\n');
+
+        PrometheusFormat.header(builder, "pswf_connections_total", "counter", "Connections accepted.");
+        builder.append("pswf_connections_total ").append(metrics.getConnections()).append('\n');
+        PrometheusFormat.header(builder, "pswf_active_connections", "gauge", "Connections currently open.");
+        builder.append("pswf_active_connections ").append(metrics.getActiveConnections()).append('\n');
+        return builder.toString();
+    }
+
+    private static void header(final StringBuilder builder, final String name, final String type, final String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void histogram(final StringBuilder builder,
+                                  final String name,
+                                  final String labels,
+                                  final Histogram histogram) {
+        final Histogram.Snapshot snapshot = histogram.snapshot();
+        final String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < BOUNDS_SECONDS.length; i++) {
+            final long boundNanos = (long) (BOUNDS_SECONDS[i] * 1_000_000_000L);
+            builder.append(name).append("_bucket{").append(prefix).append("le=\"").append(BOUND_LABELS[i])
+                    .append("\"} ").append(snapshot.countAtOrBelow(boundNanos)).append('\n');
+        }
+        builder.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ")
+                .append(snapshot.count()).append('\n');
+
+        final String suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+        builder.append(name).append("_sum").append(suffix).append(snapshot.sum() / 1e9).append('\n');
+        builder.append(name).append("_count").append(suffix).append(snapshot.count()).append('\n');
+    }
+
+    private static String routeLabels(final RouteMetrics route) {
+        return "method=\"" + route.getMethod().name()
+                + "\",route=\"" + PrometheusFormat.escape(route.getRoute()) + "\"";
+    }
+
+    /**
+     * Escapes a label value: backslashes, double quotes and line feeds are escaped with a backslash.
+     *
+     * @param value the label value
+     * @return the escaped value
+     */
+    static String escape(final String value) {
+        StringBuilder builder = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' || c == '"' || c == '\n') {
+                if (builder == null) {
+                    builder = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                builder.append('\\').append(c == '\n' ? 'n' : c);
+            } else if (builder != null) {
+                builder.append(c);
+            }
+        }
+        return builder == null ? value : builder.toString();
+    }
+
+}
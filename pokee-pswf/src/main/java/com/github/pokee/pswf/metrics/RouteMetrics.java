@@ -0,0 +1,79 @@
+package com.github.pokee.pswf.metrics;
+
+import com.github.pokee.pswf.request.Method;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single route: how many requests were answered with which status code,
+ * and how long handling them took.
+ */
+public final class RouteMetrics {
+
+    static final int MIN_STATUS = 100;
+    static final int MAX_STATUS = 599;
+
+    private final Method method;
+    private final String route;
+
+    // indexed by status code - MIN_STATUS, created on the first response with that status
+    private final AtomicReferenceArray<LongAdder> statusCounts =
+            new AtomicReferenceArray<>(MAX_STATUS - MIN_STATUS + 1);
+    private final Histogram handlerLatency = new Histogram();
+
+    RouteMetrics(final Method method, final String route) {
+        this.method = method;
+        this.route = route;
+    }
+
+    /**
+     * Records a handled request.
+     *
+     * @param statusCode   the status code of the response, codes outside 100-599 are only counted as latency
+     * @param handlerNanos how long routing and handling the request took, in nanoseconds
+     */
+    public void record(final int statusCode, final long handlerNanos) {
+        if (statusCode >= MIN_STATUS && statusCode <= MAX_STATUS) {
+            final int index = statusCode - MIN_STATUS;
+            LongAdder counter = this.statusCounts.get(index);
+            if (counter == null) {
+                this.statusCounts.compareAndSet(index, null, new LongAdder());
+                counter = this.statusCounts.get(index);
+            }
+            counter.increment();
+        }
+        this.handlerLatency.record(handlerNanos);
+    }
+
+    /**
+     * @param statusCode the status code
+     * @return the number of responses with that status code
+     */
+    public long count(final int statusCode) {
+        if (statusCode < MIN_STATUS || statusCode > MAX_STATUS) {
+            return 0;
+        }
+        final LongAdder counter = this.statusCounts.get(statusCode - MIN_STATUS);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public Method getMethod() {
+        return this.method;
+    }
+
+    /**
+     * @return the route as registered, e.g. {@code /hello/:name}, or {@link Metrics#UNMATCHED_ROUTE}
+     */
+    public String getRoute() {
+        return this.route;
+    }
+
+    /**
+     * @return the time spent routing and handling requests, in nanoseconds
+     */
+    public Histogram getHandlerLatency() {
+        return this.handlerLatency;
+    }
+
+}
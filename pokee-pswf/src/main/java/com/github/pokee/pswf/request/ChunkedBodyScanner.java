@@ -0,0 +1,104 @@
+package com.github.pokee.pswf.request;
+
+import com.github.pokee.pswf.exception.RequestParseException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Finds the end of a chunked body which is received into a buffer, without decoding it.
+ * This is used by connections which need to receive the whole body before handling a request.
+ * <p>
+ * Like the {@link com.github.pokee.pswf.request.parsers.RequestHeadParser}, the scanner continues where the previous
+ * call to {@link #scan(ByteBuffer)} stopped: chunks which were already skipped are not scanned again when more data
+ * arrives, so receiving a large body in many small reads takes linear time. The caller may read more data into the
+ * buffer (and {@link ByteBuffer#compact()} it) between calls, as long as the body stays at the buffer's position.
+ * Instances are not thread-safe, but can be reused for consecutive bodies.
+ */
+public class ChunkedBodyScanner {
+
+    // offset of the next chunk-size or trailer line, relative to the start of the body
+    private int scanned = 0;
+    private boolean trailers = false;
+    private int trailerLines = 0;
+
+    /**
+     * Continues scanning the chunked body starting at the buffer's position.
+     *
+     * @param buffer the buffer in read mode, the chunked body must start at its position
+     * @return the encoded length of the body including the trailer section, or -1 if the body is incomplete
+     * @throws RequestParseException if the body is malformed
+     */
+    public int scan(final ByteBuffer buffer) throws RequestParseException {
+        final int start = buffer.position();
+        final int limit = buffer.limit();
+
+        while (true) {
+            final int lineStart = start + this.scanned;
+            final int lineEnd = ChunkedBodyScanner.indexOfLineFeed(buffer, lineStart, limit);
+            if (lineEnd == -1) {
+                if (limit - lineStart > ChunkedInputStream.MAX_LINE_LENGTH) {
+                    throw new RequestParseException("Chunk line too long");
+                }
+                return -1;
+            }
+            final int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+
+            if (this.trailers) {
+                if (contentEnd == lineStart) {
+                    final int length = lineEnd + 1 - start;
+                    this.reset();
+                    return length;
+                }
+                if (++this.trailerLines > ChunkedInputStream.MAX_TRAILER_LINES) {
+                    throw new RequestParseException("Too many trailer fields");
+                }
+                this.scanned = lineEnd + 1 - start;
+                continue;
+            }
+
+            final byte[] line = new byte[contentEnd - lineStart];
+            buffer.get(lineStart, line);
+            final long size = ChunkedInputStream.parseChunkSize(new String(line, StandardCharsets.US_ASCII));
+            if (size == 0) {
+                this.trailers = true;
+                this.scanned = lineEnd + 1 - start;
+                continue;
+            }
+            // the size line is scanned again once the data and the line break after it were received
+            if (size >= limit - lineEnd - 1) {
+                return -1;
+            }
+            int index = lineEnd + 1 + (int) size;
+            if (buffer.get(index) == '\r') {
+                index++;
+            }
+            if (index >= limit) {
+                return -1;
+            }
+            if (buffer.get(index) != '\n') {
+                throw new RequestParseException("Missing line break after chunk data");
+            }
+            this.scanned = index + 1 - start;
+        }
+    }
+
+    /**
+     * Discards the state of a partially scanned body.
+     */
+    public void reset() {
+        this.scanned = 0;
+        this.trailers = false;
+        this.trailerLines = 0;
+    }
+
+    private static int indexOfLineFeed(final ByteBuffer buffer, final int start, final int limit) {
+        for (int i = start; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.github.pokee.pswf.request;
+
+import com.github.pokee.pswf.exception.RequestParseException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes a request body sent with {@code Transfer-Encoding: chunked}.
+ * <p>
+ * The stream never reads beyond the end of the chunked body (the last chunk and the trailer section) from the
+ * underlying stream, so a following request on the same connection stays intact. Chunk extensions and trailer
+ * fields are read and ignored.
+ */
+public class ChunkedInputStream extends InputStream {
+
+    public static final int MAX_LINE_LENGTH = 4 * 1024;
+    public static final int MAX_TRAILER_LINES = 100;
+
+    private final InputStream inputStream;
+
+    private long chunkRemaining = 0;  // bytes left in the current chunk
+    private boolean finished = false;
+
+    /**
+     * Constructs a new ChunkedInputStream.
+     *
+     * @param inputStream the stream positioned at the first chunk-size line
+     */
+    public ChunkedInputStream(final InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] single = new byte[1];
+        return this.read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (this.chunkRemaining == 0) {
+            if (this.finished) {
+                return -1;
+            }
+            this.nextChunk();
+            if (this.finished) {
+                return -1;
+            }
+        }
+
+        final int read = this.inputStream.read(bytes, offset, (int) Math.min(length, this.chunkRemaining));
+        if (read == -1) {
+            throw new EOFException("Connection closed in the middle of a chunk");
+        }
+        this.chunkRemaining -= read;
+        if (this.chunkRemaining == 0) {
+            this.expectLineEnd();
+        }
+        return read;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(this.chunkRemaining, this.inputStream.available());
+    }
+
+    /**
+     * Reads the next chunk-size line. For the last chunk, the trailer section is consumed as well.
+     */
+    private void nextChunk() throws IOException {
+        this.chunkRemaining = ChunkedInputStream.parseChunkSize(this.readLine());
+        if (this.chunkRemaining == 0) {
+            this.finished = true;
+            for (int i = 0; !this.readLine().isEmpty(); i++) {
+                if (i == MAX_TRAILER_LINES) {
+                    throw new RequestParseException("Too many trailer fields");
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a chunk-size line, ignoring chunk extensions.
+     *
+     * @param line the line without line terminator
+     * @return the size of the chunk
+     * @throws RequestParseException if the line does not start with a hexadecimal size
+     */
+    static long parseChunkSize(final String line) throws RequestParseException {
+        final int extension = line.indexOf(';');
+        final String size = (extension == -1 ? line : line.substring(0, extension)).trim();
+        if (size.isEmpty() || size.length() > 15) {
+            throw new RequestParseException("Invalid chunk size: " + line);
+        }
+        try {
+            final long value = Long.parseLong(size, 16);
+            if (value < 0) {
+                throw new RequestParseException("Invalid chunk size: " + line);
+            }
+            return value;
+        } catch (final NumberFormatException exception) {
+            throw new RequestParseException("Invalid chunk size: " + line);
+        }
+    }
+
+    /**
+     * Computes the length of a chunked body which is buffered completely, without decoding it.
+     * Connections receiving the body in several reads should keep a {@link ChunkedBodyScanner} instead, which
+     * doesn't scan the chunks received so far again.
+     *
+     * @param buffer the buffer in read mode, the chunked body must start at its position
+     * @return the encoded length of the body including the trailer section, or -1 if the body is incomplete
+     * @throws RequestParseException if the body is malformed
+     */
+    public static int encodedLength(final ByteBuffer buffer) throws RequestParseException {
+        return new ChunkedBodyScanner().scan(buffer);
+    }
+
+    /**
+     * Reads the CRLF which terminates the data of a chunk.
+     */
+    private void expectLineEnd() throws IOException {
+        if (!this.readLine().isEmpty()) {
+            throw new RequestParseException("Missing line break after chunk data");
+        }
+    }
+
+    /**
+     * Reads a single line byte by byte, so no data after the line is consumed.
+     */
+    private String readLine() throws IOException {
+        final StringBuilder bob = new StringBuilder();
+        int b;
+        while ((b = this.inputStream.read()) != '\n') {
+            if (b == -1) {
+                throw new EOFException("Connection closed in the middle of a chunked body");
+            }
+            if (b != '\r') {
+                if (bob.length() == MAX_LINE_LENGTH) {
+                    throw new RequestParseException("Chunk line too long");
+                }
+                bob.append((char) b);
+            }
+        }
+        return bob.toString();
+    }
+
+}
@@ -9,29 +9,35 @@ import java.io.IOException;
 
 public record Request(Method method,
                       String path,
-                      String query,
+                      String query, // The raw query without the leading "?", still escaped.
                       Version version,
                       Headers headers,
-                      BufferedReader reader) {
+                      RequestBody body) {
 
     /**
-     * Read a request from a buffered reader
+     * Create a request from a parsed request head, using the parser of the request's HTTP version.
+     * Use a {@link RequestReader} to read requests from a connection.
      *
-     * @param reader the reader
+     * @param head the parsed request line and headers
+     * @param body the body of the request
      * @return the request
-     * @throws IOException if an I/O error occurs
+     * @throws IOException if the request is not valid for its HTTP version
      */
-    public static Request readRequest(final BufferedReader reader) throws IOException {
-        // parse http method, path and version
-        final RequestHeader header = RequestHeader.parseLine(reader.readLine().trim());
-        if (!header.isValid()) {
-            throw new RequestParseException("Invalid request header");
-        }
-        final RequestParser parser = header.version().getParser();
+    public static Request readRequest(final RequestHead head, final RequestBody body) throws IOException {
+        final RequestParser parser = head.version().getParser();
         if (parser == null) {
-            throw new RequestParseException("Unsupported version: " + header.version());
+            throw new RequestParseException("Unsupported version: " + head.version());
         }
-        return parser.parse(header, reader);
+        return parser.parse(head, body);
+    }
+
+    /**
+     * Returns a reader which decodes the request body as UTF-8.
+     *
+     * @return the reader of the body
+     */
+    public BufferedReader reader() {
+        return this.body.reader();
     }
 
     /**
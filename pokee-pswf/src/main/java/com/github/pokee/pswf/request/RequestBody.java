@@ -0,0 +1,256 @@
+package com.github.pokee.pswf.request;
+
+import com.github.pokee.pson.Pson;
+import com.github.pokee.pswf.exception.request.RequestException;
+import com.github.pokee.pswf.response.ResponseBuilder;
+import com.github.pokee.pswf.util.BufferPool;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * The body of a request, sent either with a {@code Content-Length} or with {@code Transfer-Encoding: chunked}.
+ * <p>
+ * The body is read lazily from the connection: it can be consumed as a stream without buffering it, read into
+ * a pooled buffer for the duration of a callback, or read completely as bytes, text or a pson-bound object.
+ * Once the body was read completely via {@link #bytes()} (or one of the methods based on it), the bytes are kept,
+ * so the body can be read multiple times. The parts of a body which are never read are skipped by the connection
+ * before the next request is read.
+ * <p>
+ * Reading the body fails with an {@link UncheckedIOException} if the connection fails or the body is malformed.
+ */
+public class RequestBody {
+
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private final InputStream inputStream;
+    private final long length;
+    private final boolean chunked;
+
+    private byte[] bytes = null;
+    private BufferedReader reader = null;
+
+    /**
+     * Constructs a new RequestBody.
+     *
+     * @param inputStream the decoded body
+     * @param length      the length of the body, or -1 if the length is unknown (chunked)
+     * @param chunked     whether the body was sent chunked
+     */
+    public RequestBody(final InputStream inputStream, final long length, final boolean chunked) {
+        this.inputStream = inputStream;
+        this.length = length;
+        this.chunked = chunked;
+    }
+
+    /**
+     * Creates the body of a request without {@code Content-Length} and {@code Transfer-Encoding}.
+     *
+     * @return an empty body
+     */
+    public static RequestBody empty() {
+        return new RequestBody(new ByteArrayInputStream(NO_BYTES), 0, false);
+    }
+
+    /**
+     * Creates the body for a request head from the (raw) stream following the head.
+     *
+     * @param head        the head of the request
+     * @param inputStream the stream of the connection, positioned at the start of the body
+     *                    and not reading past its end if the body has a {@code Content-Length}
+     * @return the body
+     * @throws IOException if the request announces an invalid or unsupported body
+     */
+    public static RequestBody forHead(final RequestHead head, final InputStream inputStream) throws IOException {
+        if (head.isChunked()) {
+            return new RequestBody(new ChunkedInputStream(inputStream), -1, true);
+        }
+        final long contentLength = head.contentLength();
+        if (contentLength <= 0) {
+            return RequestBody.empty();
+        }
+        return new RequestBody(inputStream, contentLength, false);
+    }
+
+    /**
+     * @return the announced length of the body, or -1 if the body is chunked
+     */
+    public long length() {
+        return this.length;
+    }
+
+    /**
+     * @return true if the body was sent with {@code Transfer-Encoding: chunked}
+     */
+    public boolean isChunked() {
+        return this.chunked;
+    }
+
+    /**
+     * @return true if the request has no body
+     */
+    public boolean isEmpty() {
+        return this.length == 0;
+    }
+
+    /**
+     * Returns the body as a stream. The stream is not buffered, so the body is never held in memory.
+     * If the body was already read completely, a stream over the kept bytes is returned.
+     *
+     * @return the stream
+     */
+    public InputStream stream() {
+        if (this.bytes != null) {
+            return new ByteArrayInputStream(this.bytes);
+        }
+        return this.inputStream;
+    }
+
+    /**
+     * Returns a reader which decodes the body as UTF-8. The same reader is returned on every call.
+     *
+     * @return the reader
+     */
+    public BufferedReader reader() {
+        if (this.reader == null) {
+            this.reader = new BufferedReader(new InputStreamReader(this.stream(), StandardCharsets.UTF_8));
+        }
+        return this.reader;
+    }
+
+    /**
+     * Reads the (remaining) body completely into memory.
+     *
+     * @return the bytes of the body
+     * @throws UncheckedIOException if reading the body fails
+     */
+    public byte[] bytes() {
+        if (this.bytes == null) {
+            if (this.length > Integer.MAX_VALUE - 8) {
+                throw new RequestException("Request body too large");
+            }
+            try {
+                this.bytes = this.inputStream.readAllBytes();
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+        return this.bytes;
+    }
+
+    /**
+     * Reads the body completely and decodes it as UTF-8.
+     *
+     * @return the body as text
+     * @throws UncheckedIOException if reading the body fails
+     */
+    public String text() {
+        return new String(this.bytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Binds a JSON body to an object, using the default pson instance of the framework.
+     *
+     * @param clazz the class of the object
+     * @param <T>   the type of the object
+     * @return the object
+     * @throws RequestException if the body is not valid JSON for the given class
+     */
+    public <T> T as(final Class<T> clazz) {
+        return this.as(ResponseBuilder.PSON, clazz);
+    }
+
+    /**
+     * Binds a JSON body to an object.
+     *
+     * @param pson  the pson instance to use
+     * @param clazz the class of the object
+     * @param <T>   the type of the object
+     * @return the object
+     * @throws RequestException if the body is not valid JSON for the given class
+     */
+    public <T> T as(final Pson pson, final Class<T> clazz) {
+        final String json = this.text();
+        try {
+            return pson.unmarshalObject(json, clazz);
+        } catch (final RuntimeException exception) {
+            throw new RequestException("Invalid request body: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Reads the body into a buffer from the {@link BufferPool#DEFAULT default pool} and passes it to the function.
+     * The buffer is returned to the pool afterward, so the function must not keep a reference to it.
+     * Bodies larger than the pooled buffers are read into a temporary buffer, which grows as the body arrives, so
+     * the announced length of a body which is never sent does not allocate any memory.
+     *
+     * @param function the function to apply to the buffer, which is in read mode
+     * @param <T>      the type of the result
+     * @return the result of the function
+     * @throws UncheckedIOException if reading the body fails
+     */
+    public <T> T withBuffer(final Function<ByteBuffer, T> function) {
+        return this.withBuffer(BufferPool.DEFAULT, function);
+    }
+
+    /**
+     * Reads the body into a pooled buffer and passes it to the function.
+     * The buffer is returned to the pool afterward, so the function must not keep a reference to it.
+     *
+     * @param pool     the pool to take the buffer from
+     * @param function the function to apply to the buffer, which is in read mode
+     * @param <T>      the type of the result
+     * @return the result of the function
+     * @throws UncheckedIOException if reading the body fails
+     */
+    public <T> T withBuffer(final BufferPool pool, final Function<ByteBuffer, T> function) {
+        if (this.bytes != null) {
+            return function.apply(ByteBuffer.wrap(this.bytes).asReadOnlyBuffer());
+        }
+        if (this.length > Integer.MAX_VALUE - 8) {
+            throw new RequestException("Request body too large");
+        }
+        final long maxCapacity = this.length >= 0 ? this.length : Integer.MAX_VALUE - 8;
+        ByteBuffer buffer = pool.acquire();
+        try {
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    if (buffer.position() == this.length) {
+                        break;
+                    }
+                    if (buffer.capacity() >= maxCapacity) {
+                        throw new RequestException("Request body too large");
+                    }
+                    final ByteBuffer grown = ByteBuffer.allocate((int) Math.min(buffer.capacity() * 2L, maxCapacity));
+                    grown.put(buffer.flip());
+                    pool.release(buffer);
+                    buffer = grown;
+                }
+                final int read = this.inputStream.read(buffer.array(), buffer.position(), buffer.remaining());
+                if (read == -1) {
+                    break;
+                }
+                buffer.position(buffer.position() + read);
+            }
+            return function.apply(buffer.flip());
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Reads and discards the rest of the body.
+     *
+     * @throws IOException if reading the body fails
+     */
+    public void discard() throws IOException {
+        if (this.bytes == null) {
+            this.inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+}
@@ -0,0 +1,272 @@
+package com.github.pokee.pswf.request;
+
+import com.github.pokee.pswf.exception.RequestParseException;
+import com.github.pokee.pswf.headers.HeaderNames;
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.headers.ImmutableHeaders;
+import com.github.pokee.pswf.util.UrlSearchParams;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The head of an HTTP request (request line and headers) as produced by the
+ * {@link com.github.pokee.pswf.request.parsers.RequestHeadParser}. The head keeps the raw bytes it was parsed
+ * from and only remembers where each component starts and ends; strings are decoded lazily on first access.
+ * Header lookups by name compare the raw bytes and don't allocate.
+ */
+public final class RequestHead {
+
+    private final byte[] bytes;
+    private final Method method;
+    private final Version version;
+
+    private final int targetStart;
+    private final int targetEnd;
+
+    // nameStart, nameEnd, valueStart, valueEnd for each header
+    private final int[] headerOffsets;
+    private final int headerCount;
+
+    // lazily decoded
+    private String path = null;
+    private String query = null;
+    private ImmutableHeaders headers = null;
+
+    /**
+     * Constructs a new request head. The offsets refer to positions within {@code bytes}.
+     *
+     * @param bytes         the raw bytes of the head, not copied
+     * @param method        the request method
+     * @param version       the HTTP version
+     * @param targetStart   the start of the request target (inclusive)
+     * @param targetEnd     the end of the request target (exclusive)
+     * @param headerOffsets four offsets per header: name start, name end, value start, value end
+     * @param headerCount   the number of headers
+     */
+    public RequestHead(final byte[] bytes,
+                       final Method method,
+                       final Version version,
+                       final int targetStart,
+                       final int targetEnd,
+                       final int[] headerOffsets,
+                       final int headerCount) {
+        this.bytes = bytes;
+        this.method = method;
+        this.version = version;
+        this.targetStart = targetStart;
+        this.targetEnd = targetEnd;
+        this.headerOffsets = headerOffsets;
+        this.headerCount = headerCount;
+    }
+
+    public Method method() {
+        return this.method;
+    }
+
+    public Version version() {
+        return this.version;
+    }
+
+    /**
+     * @return the raw (still escaped) request target, e.g. {@code /pokemon?lang=de}
+     */
+    public String target() {
+        return this.decode(this.targetStart, this.targetEnd);
+    }
+
+    /**
+     * @return the index of the '?' in the request target, or the end of the target if there is no query
+     */
+    private int queryIndex() {
+        for (int i = this.targetStart; i < this.targetEnd; i++) {
+            if (this.bytes[i] == '?') {
+                return i;
+            }
+        }
+        return this.targetEnd;
+    }
+
+    /**
+     * @return the unescaped path of the request target, without the query
+     */
+    public String path() {
+        if (this.path == null) {
+            this.path = UrlSearchParams.unescape(this.decode(this.targetStart, this.queryIndex()));
+        }
+        return this.path;
+    }
+
+    /**
+     * The query is not unescaped here, as an escaped '&amp;' or '=' within a value would then be mistaken for a
+     * separator. {@link UrlSearchParams} unescapes keys and values separately.
+     *
+     * @return the raw (still escaped) query of the request target without the leading '?', or an empty string
+     */
+    public String query() {
+        if (this.query == null) {
+            final int queryIndex = this.queryIndex();
+            this.query = queryIndex < this.targetEnd ? this.decode(queryIndex + 1, this.targetEnd) : "";
+        }
+        return this.query;
+    }
+
+    public int headerCount() {
+        return this.headerCount;
+    }
+
+    /**
+     * @param index the index of the header, in the order they were sent
+     * @return the name of the header as it was sent
+     */
+    public String headerName(final int index) {
+        final int start = this.headerOffsets[index * 4];
+        final int end = this.headerOffsets[index * 4 + 1];
+        final String wellKnown = HeaderNames.wellKnown(this.bytes, start, end);
+        return wellKnown != null ? wellKnown : this.decode(start, end);
+    }
+
+    /**
+     * @param index the index of the header, in the order they were sent
+     * @return the value of the header without surrounding whitespace
+     */
+    public String headerValue(final int index) {
+        return this.decode(this.headerOffsets[index * 4 + 2], this.headerOffsets[index * 4 + 3]);
+    }
+
+    /**
+     * Finds the first header with the given name, ignoring case. Only ASCII header names are supported.
+     *
+     * @param name the header name
+     * @return the index of the header, or -1 if there is no such header
+     */
+    public int indexOf(final String name) {
+        return this.indexOf(name, 0);
+    }
+
+    /**
+     * Finds the next header with the given name, ignoring case.
+     *
+     * @param name the header name
+     * @param from the index of the first header to check
+     * @return the index of the header, or -1 if there is no such header at or after {@code from}
+     */
+    private int indexOf(final String name, final int from) {
+        for (int i = from; i < this.headerCount; i++) {
+            final int start = this.headerOffsets[i * 4];
+            final int end = this.headerOffsets[i * 4 + 1];
+            if (end - start == name.length() && this.equalsIgnoreCase(start, name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean hasHeader(final String name) {
+        return this.indexOf(name) != -1;
+    }
+
+    /**
+     * @param name the header name
+     * @return the value of the first header with the given name, or null if there is no such header
+     */
+    public String header(final String name) {
+        final int index = this.indexOf(name);
+        return index == -1 ? null : this.headerValue(index);
+    }
+
+    /**
+     * Parses the {@code Content-Length} header without decoding it to a string.
+     * Requests with more than one {@code Content-Length} header are rejected, as a proxy in front of the server
+     * might have picked a different one to determine where the body ends.
+     *
+     * @return the announced length of the body, or -1 if the header is not present
+     * @throws RequestParseException if the header is not a valid number or is sent more than once
+     */
+    public long contentLength() throws RequestParseException {
+        final int index = this.indexOf("Content-Length");
+        if (index == -1) {
+            return -1;
+        }
+        if (this.indexOf("Content-Length", index + 1) != -1) {
+            throw new RequestParseException("Multiple Content-Length headers");
+        }
+        final int start = this.headerOffsets[index * 4 + 2];
+        final int end = this.headerOffsets[index * 4 + 3];
+        if (start == end || end - start > 18) {
+            throw new RequestParseException("Invalid Content-Length");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            final byte b = this.bytes[i];
+            if (b < '0' || b > '9') {
+                throw new RequestParseException("Invalid Content-Length");
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Checks if the body is sent with {@code Transfer-Encoding: chunked}.
+     *
+     * @return true if the body is chunked, false if there is no {@code Transfer-Encoding} header
+     * @throws RequestParseException if a transfer coding other than chunked is used, or if the request also
+     *                               announces a {@code Content-Length} (which could be used to smuggle requests)
+     */
+    public boolean isChunked() throws RequestParseException {
+        final String transferEncoding = this.header("Transfer-Encoding");
+        if (transferEncoding == null) {
+            return false;
+        }
+        if (this.hasHeader("Content-Length")) {
+            throw new RequestParseException("Both Transfer-Encoding and Content-Length are set");
+        }
+        final int lastComma = transferEncoding.lastIndexOf(',');
+        final String lastCoding = transferEncoding.substring(lastComma + 1).trim();
+        if (lastComma != -1 || !lastCoding.equalsIgnoreCase("chunked")) {
+            throw new RequestParseException("Unsupported Transfer-Encoding: " + transferEncoding);
+        }
+        return true;
+    }
+
+    /**
+     * Decodes all headers into an {@link ImmutableHeaders} instance. The result is cached.
+     *
+     * @return the headers
+     */
+    public ImmutableHeaders headers() {
+        if (this.headers == null) {
+            final Headers headers = new Headers();
+            for (int i = 0; i < this.headerCount; i++) {
+                headers.add(this.headerName(i), this.headerValue(i));
+            }
+            this.headers = headers.toImmutable();
+        }
+        return this.headers;
+    }
+
+    private String decode(final int start, final int end) {
+        return new String(this.bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private boolean equalsIgnoreCase(final int start, final String name) {
+        for (int i = 0; i < name.length(); i++) {
+            final int a = this.bytes[start + i];
+            final int b = name.charAt(i);
+            if (a != b && RequestHead.toLowerAscii(a) != RequestHead.toLowerAscii(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int toLowerAscii(final int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    @Override
+    public String toString() {
+        return this.method + " " + this.target() + " " + this.version;
+    }
+
+}
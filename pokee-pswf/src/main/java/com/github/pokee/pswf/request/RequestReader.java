@@ -0,0 +1,374 @@
+package com.github.pokee.pswf.request;
+
+import com.github.pokee.pswf.connection.Timeouts;
+import com.github.pokee.pswf.exception.RequestBodyTooLargeException;
+import com.github.pokee.pswf.exception.RequestParseException;
+import com.github.pokee.pswf.exception.RequestTimeoutException;
+import com.github.pokee.pswf.request.parsers.RequestHeadParser;
+
+import java.io.*;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads consecutive requests from the input stream of a single connection. The reader owns one reusable
+ * {@link ByteBuffer} which the {@link RequestHeadParser} scans in place, so request heads are never decoded
+ * line by line. Bytes following a head stay in the buffer and are served as the request body (or as the
+ * next pipelined request). Bodies are sent with {@code Content-Length} or {@code Transfer-Encoding: chunked},
+ * in both cases the end of the body is known, so the connection can be reused afterward.
+ * <p>
+ * If a {@link ReadTimeout} is set with {@link #setTimeouts(ReadTimeout, int, int, int)}, the reader adjusts the
+ * read timeout of the socket before each blocking read: waiting for a new request is limited by the idle timeout
+ * (and for the first request, or without idle timeout, by the header timeout, see
+ * {@link Timeouts#requestWaitMillis(int, int, boolean)}), while receiving a request head or body has to be completed
+ * by a fixed deadline. A client trickling in one byte at a time therefore can't keep the connection busy for longer
+ * than that.
+ * <p>
+ * Bodies larger than {@link #setMaxBodySize(long)} are rejected with a {@link RequestBodyTooLargeException}: bodies
+ * with {@code Content-Length} before they are read, chunked bodies once their raw size (including the chunk framing)
+ * exceeds the limit.
+ */
+public class RequestReader {
+
+    public static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private static final String BODY_TIMEOUT_MESSAGE = "Timed out reading the request body";
+
+    private final InputStream inputStream;
+    private final RequestHeadParser parser;
+
+    // always in read mode: [position, limit) contains the received, unconsumed bytes
+    private ByteBuffer buffer;
+
+    private RequestBody body = null;
+
+    private ReadTimeout readTimeout = null;
+    private int idleTimeoutMillis = 0;
+    private int headerTimeoutMillis = 0;
+    private int bodyTimeoutMillis = 0;
+    private int currentTimeoutMillis = -1;
+    private long bodyDeadline = 0;
+    private boolean aborted = false;
+    private long maxBodySize = Long.MAX_VALUE;
+
+    private long bytesRead = 0;
+    private long headNanos = 0;
+    private long requests = 0;
+
+    /**
+     * Constructs a new RequestReader with the default parser limits.
+     *
+     * @param inputStream the input stream of the connection
+     */
+    public RequestReader(final InputStream inputStream) {
+        this(inputStream, new RequestHeadParser());
+    }
+
+    /**
+     * Constructs a new RequestReader.
+     *
+     * @param inputStream the input stream of the connection
+     * @param parser      the parser for request heads
+     */
+    public RequestReader(final InputStream inputStream, final RequestHeadParser parser) {
+        this.inputStream = inputStream;
+        this.parser = parser;
+        this.buffer = ByteBuffer.allocate(Math.min(INITIAL_BUFFER_SIZE, parser.getMaxHeadSize()));
+        this.buffer.flip();
+    }
+
+    /**
+     * Enables the read timeouts of this reader.
+     *
+     * @param readTimeout         sets the read timeout of the connection, e.g. {@link java.net.Socket#setSoTimeout(int)}
+     * @param idleTimeoutMillis   how long to wait for the first byte of the next request, 0 for no limit
+     * @param headerTimeoutMillis how long receiving the rest of a request head may take, 0 for no limit
+     * @param bodyTimeoutMillis   how long receiving a request body may take after its head, 0 for no limit
+     */
+    public void setTimeouts(final ReadTimeout readTimeout,
+                            final int idleTimeoutMillis,
+                            final int headerTimeoutMillis,
+                            final int bodyTimeoutMillis) {
+        this.readTimeout = readTimeout;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.headerTimeoutMillis = headerTimeoutMillis;
+        this.bodyTimeoutMillis = bodyTimeoutMillis;
+    }
+
+    /**
+     * Limits the size of request bodies.
+     *
+     * @param maxBodySize the maximum size of a body in bytes, for chunked bodies including the chunk framing
+     */
+    public void setMaxBodySize(final long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Reads the next request. Any part of the previous request's body which was not consumed is skipped first.
+     *
+     * @return the request
+     * @throws EOFException                 if the connection was closed before the next request
+     * @throws SocketTimeoutException       if no request arrived in time,
+     *                                      see {@link Timeouts#requestWaitMillis(int, int, boolean)}
+     * @throws RequestTimeoutException      if the head (or the rest of the previous body) was not received in time
+     * @throws RequestBodyTooLargeException if the {@code Content-Length} exceeds the maximum body size
+     * @throws RequestParseException        if the request is malformed
+     * @throws IOException                  if an I/O error occurs
+     */
+    public Request read() throws IOException {
+        if (this.body != null) {
+            this.body.discard();
+            this.body = null;
+        }
+
+        final int waitMillis = Timeouts.requestWaitMillis(
+                this.idleTimeoutMillis,
+                this.headerTimeoutMillis,
+                this.requests == 0
+        );
+        RequestHead head;
+        long headDeadline = 0;
+        long headStarted = this.buffer.hasRemaining() ? System.nanoTime() : 0;
+        while ((head = this.parser.parse(this.buffer)) == null) {
+            // the head deadline starts once the first bytes of the request were received
+            if (headDeadline == 0 && (this.buffer.hasRemaining() || this.parser.isPartial())) {
+                headDeadline = Timeouts.deadline(this.headerTimeoutMillis);
+            }
+            if (!this.fill(headDeadline, waitMillis, "Timed out reading the request head")) {
+                throw new EOFException(this.parser.isPartial()
+                        ? "Connection closed in the middle of a request"
+                        : "Connection closed before request line");
+            }
+            if (headStarted == 0 && this.buffer.hasRemaining()) {
+                headStarted = System.nanoTime();
+            }
+        }
+        this.headNanos = System.nanoTime() - headStarted;
+        this.requests++;
+        this.bodyDeadline = Timeouts.deadline(this.bodyTimeoutMillis);
+        if (!head.isChunked() && head.contentLength() > this.maxBodySize) {
+            this.aborted = true;
+            throw new RequestBodyTooLargeException("Request body exceeds " + this.maxBodySize + " bytes");
+        }
+
+        // a chunked body has no known length, its decoder stops reading at the last chunk
+        final long contentLength = head.isChunked() ? -1 : head.contentLength();
+        this.body = RequestBody.forHead(head, new BodyInputStream(contentLength));
+        return Request.readRequest(head, this.body);
+    }
+
+    /**
+     * Checks if more data is available without blocking, e.g. a pipelined request.
+     *
+     * @return true if there are buffered bytes or the stream has bytes available
+     * @throws IOException if an I/O error occurs
+     */
+    public boolean hasAvailableData() throws IOException {
+        return this.buffer.hasRemaining() || this.inputStream.available() > 0;
+    }
+
+    /**
+     * Checks if reading a request was aborted, as its head or body timed out or its body was too large.
+     * The connection should be closed in that case, as the rest of the request may still arrive.
+     *
+     * @return true if a {@link RequestTimeoutException} or {@link RequestBodyTooLargeException} was thrown by this
+     * reader
+     */
+    public boolean isAborted() {
+        return this.aborted;
+    }
+
+    /**
+     * Returns the number of bytes read from the input stream so far, including bytes which are still buffered.
+     *
+     * @return the number of bytes
+     */
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    /**
+     * Returns how long receiving and parsing the head of the last request took, starting when its first byte
+     * was received rather than when waiting for it began.
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getHeadNanos() {
+        return this.headNanos;
+    }
+
+    /**
+     * Reads more data into the buffer like {@link #fill()}, limited by a deadline.
+     *
+     * @param deadline    the deadline in terms of {@link System#nanoTime()}, or 0 to wait for {@code waitMillis}
+     * @param waitMillis  the read timeout without deadline, 0 for no limit
+     * @param message     the message of the exception thrown if the deadline passes
+     * @return false if the end of the stream was reached
+     * @throws RequestTimeoutException if the deadline passes
+     * @throws IOException             if an I/O error occurs
+     */
+    private boolean fill(final long deadline, final int waitMillis, final String message) throws IOException {
+        this.applyTimeout(deadline, waitMillis, message);
+        try {
+            return this.fill();
+        } catch (final SocketTimeoutException exception) {
+            throw this.timeout(deadline, message, exception);
+        }
+    }
+
+    /**
+     * Sets the read timeout of the connection to the time left until the deadline.
+     *
+     * @param deadline   the deadline in terms of {@link System#nanoTime()}, or 0 to use {@code waitMillis}
+     * @param waitMillis the read timeout without deadline, 0 for no limit
+     * @param message    the message of the exception thrown if the deadline has already passed
+     * @throws RequestTimeoutException if the deadline has already passed
+     * @throws IOException             if the read timeout can't be set
+     */
+    private void applyTimeout(final long deadline, final int waitMillis, final String message) throws IOException {
+        if (this.readTimeout == null) {
+            return;
+        }
+        final int timeoutMillis;
+        if (deadline == 0) {
+            timeoutMillis = waitMillis;
+        } else {
+            final long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                this.aborted = true;
+                throw new RequestTimeoutException(message);
+            }
+            timeoutMillis = (int) Math.min(remainingMillis, Integer.MAX_VALUE);
+        }
+        if (timeoutMillis != this.currentTimeoutMillis) {
+            this.readTimeout.set(timeoutMillis);
+            this.currentTimeoutMillis = timeoutMillis;
+        }
+    }
+
+    /**
+     * Converts a timeout of the socket into a {@link RequestTimeoutException} if a deadline was set.
+     *
+     * @return the exception to throw
+     */
+    private IOException timeout(final long deadline, final String message, final SocketTimeoutException exception) {
+        if (deadline == 0) {
+            return exception;
+        }
+        this.aborted = true;
+        return new RequestTimeoutException(message);
+    }
+
+    /**
+     * Reads more data from the stream into the buffer, growing the buffer if it is full.
+     *
+     * @return false if the end of the stream was reached
+     * @throws IOException if an I/O error occurs
+     */
+    private boolean fill() throws IOException {
+        this.buffer.compact();
+        if (!this.buffer.hasRemaining()) {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(this.buffer.capacity() * 2, INITIAL_BUFFER_SIZE));
+            this.buffer.flip();
+            grown.put(this.buffer);
+            this.buffer = grown;
+        }
+        final int read = this.inputStream.read(this.buffer.array(), this.buffer.position(), this.buffer.remaining());
+        if (read > 0) {
+            this.buffer.position(this.buffer.position() + read);
+            this.bytesRead += read;
+        }
+        this.buffer.flip();
+        return read != -1;
+    }
+
+    /**
+     * An input stream over the raw body of the current request, limited to its announced length (if any).
+     * It consumes the bytes which are already buffered first and reads from the connection afterward.
+     * Without a known length, more data is read into the shared buffer instead, so the bytes following
+     * the body are kept for the next request.
+     */
+    private class BodyInputStream extends InputStream {
+
+        private long remaining;
+        private long received = 0;
+
+        private final boolean bounded;
+
+        private BodyInputStream(final long length) {
+            this.bounded = length >= 0;
+            this.remaining = this.bounded ? length : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return this.read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (this.remaining <= 0) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            final int max = (int) Math.min(length, this.remaining);
+            final int read;
+            final long deadline = RequestReader.this.bodyDeadline;
+            final int waitMillis = RequestReader.this.idleTimeoutMillis;
+            if (!RequestReader.this.buffer.hasRemaining() && this.bounded) {
+                RequestReader.this.applyTimeout(deadline, waitMillis, BODY_TIMEOUT_MESSAGE);
+                try {
+                    read = RequestReader.this.inputStream.read(bytes, offset, max);
+                } catch (final SocketTimeoutException exception) {
+                    throw RequestReader.this.timeout(deadline, BODY_TIMEOUT_MESSAGE, exception);
+                }
+                if (read == -1) {
+                    throw new EOFException("Connection closed in the middle of a request body");
+                }
+                RequestReader.this.bytesRead += read;
+            } else {
+                if (!RequestReader.this.buffer.hasRemaining()
+                        && !RequestReader.this.fill(deadline, waitMillis, BODY_TIMEOUT_MESSAGE)) {
+                    throw new EOFException("Connection closed in the middle of a request body");
+                }
+                read = Math.min(max, RequestReader.this.buffer.remaining());
+                RequestReader.this.buffer.get(bytes, offset, read);
+            }
+            this.remaining -= read;
+            // bodies with a known length were checked before, chunked ones are limited by their raw size
+            this.received += read;
+            if (this.received > RequestReader.this.maxBodySize) {
+                RequestReader.this.aborted = true;
+                throw new RequestBodyTooLargeException("Request body exceeds "
+                        + RequestReader.this.maxBodySize + " bytes");
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            final int buffered = RequestReader.this.buffer.remaining();
+            return (int) Math.min(this.remaining, buffered > 0 ? buffered : RequestReader.this.inputStream.available());
+        }
+
+    }
+
+    /**
+     * Sets the read timeout of the underlying connection.
+     */
+    @FunctionalInterface
+    public interface ReadTimeout {
+
+        /**
+         * @param timeoutMillis the read timeout in milliseconds, 0 for no timeout
+         * @throws IOException if the timeout can't be set
+         */
+        void set(int timeoutMillis) throws IOException;
+
+    }
+
+}
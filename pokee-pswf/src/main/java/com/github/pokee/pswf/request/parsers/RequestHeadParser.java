@@ -0,0 +1,306 @@
+package com.github.pokee.pswf.request.parsers;
+
+import com.github.pokee.pswf.exception.RequestHeaderFieldsTooLargeException;
+import com.github.pokee.pswf.exception.RequestParseException;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.RequestHead;
+import com.github.pokee.pswf.request.Version;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An incremental, byte-oriented parser for the head (request line and headers) of an HTTP request.
+ * <p>
+ * The parser works directly on the bytes of a {@link ByteBuffer} in read mode. Each call to {@link #parse(ByteBuffer)}
+ * continues scanning where the previous call stopped, so the caller may read more data into the buffer (and even
+ * {@link ByteBuffer#compact()} it) between calls, as long as the unparsed head stays at the buffer's position.
+ * Once the head is complete, the parser copies the head's bytes once into a {@link RequestHead}, which decodes
+ * its components lazily, and advances the buffer's position to the first byte after the head (i.e. the body).
+ * <p>
+ * Lines and the whole head are limited in size, so a client cannot make the server buffer arbitrary amounts of data.
+ * Instances are not thread-safe, but can be reused for consecutive requests on the same connection.
+ */
+public class RequestHeadParser {
+
+    public static final int DEFAULT_MAX_LINE_LENGTH = 8 * 1024;
+    public static final int DEFAULT_MAX_HEAD_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_HEADER_COUNT = 100;
+
+    private static final Method[] METHODS = Method.values();
+    private static final byte[][] METHOD_NAMES = new byte[METHODS.length][];
+    private static final Version[] VERSIONS = Version.values();
+    private static final byte[][] VERSION_NAMES = new byte[VERSIONS.length][];
+
+    static {
+        for (int i = 0; i < METHODS.length; i++) {
+            METHOD_NAMES[i] = METHODS[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        for (int i = 0; i < VERSIONS.length; i++) {
+            VERSION_NAMES[i] = VERSIONS[i].toString().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final int maxLineLength;
+    private final int maxHeadSize;
+    private final int maxHeaderCount;
+
+    // state of the head currently being parsed, all offsets are relative to the start of the head
+    private int scanned = 0;
+    private int lineStart = 0;
+    private boolean requestLineParsed = false;
+    private Method method;
+    private Version version;
+    private int targetStart;
+    private int targetEnd;
+    private int[] headerOffsets = new int[16 * 4];
+    private int headerCount = 0;
+
+    /**
+     * Constructs a parser with the default limits.
+     */
+    public RequestHeadParser() {
+        this(DEFAULT_MAX_LINE_LENGTH, DEFAULT_MAX_HEAD_SIZE, DEFAULT_MAX_HEADER_COUNT);
+    }
+
+    /**
+     * Constructs a parser with custom limits.
+     *
+     * @param maxLineLength  the maximum length of the request line and of each header line, in bytes
+     * @param maxHeadSize    the maximum size of the whole head, in bytes
+     * @param maxHeaderCount the maximum number of headers
+     */
+    public RequestHeadParser(final int maxLineLength, final int maxHeadSize, final int maxHeaderCount) {
+        this.maxLineLength = maxLineLength;
+        this.maxHeadSize = maxHeadSize;
+        this.maxHeaderCount = maxHeaderCount;
+    }
+
+    /**
+     * @return the maximum size of a request head accepted by this parser
+     */
+    public int getMaxHeadSize() {
+        return this.maxHeadSize;
+    }
+
+    /**
+     * Continues parsing the head starting at the buffer's position.
+     *
+     * @param buffer the buffer in read mode, the head must start at its position
+     * @return the complete head, or null if more data is needed
+     * @throws RequestParseException if the head is malformed or exceeds a limit, a
+     *                               {@link RequestHeaderFieldsTooLargeException} if the headers exceed a limit
+     */
+    public RequestHead parse(final ByteBuffer buffer) throws RequestParseException {
+        final int start = buffer.position();
+        final int available = buffer.limit() - start;
+
+        for (int i = this.scanned; i < available; i++) {
+            if (buffer.get(start + i) != '\n') {
+                continue;
+            }
+            int lineEnd = i;
+            if (lineEnd > this.lineStart && buffer.get(start + lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd - this.lineStart > this.maxLineLength) {
+                throw this.lineTooLong();
+            }
+
+            if (lineEnd == this.lineStart) {
+                if (this.requestLineParsed) {
+                    // empty line after the headers: the head is complete
+                    final RequestHead head = this.complete(buffer, start, i + 1);
+                    buffer.position(start + i + 1);
+                    return head;
+                }
+                // ignore empty lines in front of the request line
+            } else if (!this.requestLineParsed) {
+                this.parseRequestLine(buffer, start, this.lineStart, lineEnd);
+                this.requestLineParsed = true;
+            } else {
+                this.parseHeaderLine(buffer, start, this.lineStart, lineEnd);
+            }
+            this.lineStart = i + 1;
+        }
+
+        this.scanned = available;
+        if (available - this.lineStart > this.maxLineLength) {
+            throw this.lineTooLong();
+        }
+        if (available > this.maxHeadSize) {
+            throw new RequestHeaderFieldsTooLargeException("Request head too large");
+        }
+        return null;
+    }
+
+    /**
+     * Creates the exception for a line exceeding the maximum line length. Only a header line being too long
+     * is reported as {@link RequestHeaderFieldsTooLargeException}.
+     *
+     * @return the exception to throw
+     */
+    private RequestParseException lineTooLong() {
+        return this.requestLineParsed
+                ? new RequestHeaderFieldsTooLargeException("Header line too long")
+                : new RequestParseException("Request line too long");
+    }
+
+    /**
+     * Checks if the parser has seen any part of a head which is not complete yet.
+     *
+     * @return true if a head is partially parsed, otherwise false
+     */
+    public boolean isPartial() {
+        return this.scanned > 0;
+    }
+
+    /**
+     * Discards the state of a partially parsed head.
+     */
+    public void reset() {
+        this.scanned = 0;
+        this.lineStart = 0;
+        this.requestLineParsed = false;
+        this.method = null;
+        this.version = null;
+        this.headerCount = 0;
+    }
+
+    /**
+     * Copies the head out of the buffer and resets the parser for the next head.
+     */
+    private RequestHead complete(final ByteBuffer buffer, final int start, final int length) {
+        final byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+
+        final RequestHead head = new RequestHead(
+                bytes,
+                this.method,
+                this.version,
+                this.targetStart,
+                this.targetEnd,
+                Arrays.copyOf(this.headerOffsets, this.headerCount * 4),
+                this.headerCount
+        );
+        this.reset();
+        return head;
+    }
+
+    /**
+     * Parses {@code METHOD SP request-target SP HTTP-version}.
+     */
+    private void parseRequestLine(final ByteBuffer buffer,
+                                  final int base,
+                                  final int start,
+                                  final int end) throws RequestParseException {
+        final int firstSpace = RequestHeadParser.indexOf(buffer, base, start, end, (byte) ' ');
+        final int secondSpace = firstSpace == -1
+                ? -1
+                : RequestHeadParser.indexOf(buffer, base, firstSpace + 1, end, (byte) ' ');
+        if (firstSpace == -1 || secondSpace == -1 || secondSpace == firstSpace + 1
+                || RequestHeadParser.indexOf(buffer, base, secondSpace + 1, end, (byte) ' ') != -1) {
+            throw new RequestParseException("Invalid request line");
+        }
+
+        final int methodIndex = RequestHeadParser.match(buffer, base, start, firstSpace, METHOD_NAMES);
+        if (methodIndex == -1) {
+            throw new RequestParseException("Invalid method");
+        }
+        final int versionIndex = RequestHeadParser.match(buffer, base, secondSpace + 1, end, VERSION_NAMES);
+        if (versionIndex == -1) {
+            throw new RequestParseException("Invalid version");
+        }
+
+        this.method = METHODS[methodIndex];
+        this.version = VERSIONS[versionIndex];
+        this.targetStart = firstSpace + 1;
+        this.targetEnd = secondSpace;
+    }
+
+    /**
+     * Parses {@code field-name ":" OWS field-value OWS}.
+     */
+    private void parseHeaderLine(final ByteBuffer buffer,
+                                 final int base,
+                                 final int start,
+                                 final int end) throws RequestParseException {
+        final int colon = RequestHeadParser.indexOf(buffer, base, start, end, (byte) ':');
+        if (colon <= start) {
+            throw new RequestParseException("Malformed header line");
+        }
+        if (this.headerCount == this.maxHeaderCount) {
+            throw new RequestHeaderFieldsTooLargeException("Too many headers");
+        }
+
+        // RFC 7230 section 3.2.4: whitespace between the name and the colon must be rejected, as other servers
+        // might treat "Transfer-Encoding : chunked" differently, which can be used to smuggle requests
+        if (RequestHeadParser.isWhitespace(buffer.get(base + colon - 1))) {
+            throw new RequestParseException("Whitespace before colon in header line");
+        }
+        final int nameEnd = colon;
+        int valueStart = colon + 1;
+        while (valueStart < end && RequestHeadParser.isWhitespace(buffer.get(base + valueStart))) {
+            valueStart++;
+        }
+        int valueEnd = end;
+        while (valueEnd > valueStart && RequestHeadParser.isWhitespace(buffer.get(base + valueEnd - 1))) {
+            valueEnd--;
+        }
+
+        if (this.headerOffsets.length < (this.headerCount + 1) * 4) {
+            this.headerOffsets = Arrays.copyOf(this.headerOffsets, this.headerOffsets.length * 2);
+        }
+        final int offset = this.headerCount * 4;
+        this.headerOffsets[offset] = start;
+        this.headerOffsets[offset + 1] = nameEnd;
+        this.headerOffsets[offset + 2] = valueStart;
+        this.headerOffsets[offset + 3] = valueEnd;
+        this.headerCount++;
+    }
+
+    private static int toLowerAscii(final byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static int indexOf(final ByteBuffer buffer, final int base, final int start, final int end, final byte b) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(base + i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the candidate equal to the given range, ignoring ASCII case.
+     *
+     * @return the index of the matching candidate, or -1
+     */
+    private static int match(final ByteBuffer buffer,
+                             final int base,
+                             final int start,
+                             final int end,
+                             final byte[][] candidates) {
+        outer:
+        for (int c = 0; c < candidates.length; c++) {
+            final byte[] candidate = candidates[c];
+            if (candidate.length != end - start) {
+                continue;
+            }
+            for (int i = 0; i < candidate.length; i++) {
+                if (RequestHeadParser.toLowerAscii(buffer.get(base + start + i)) != RequestHeadParser.toLowerAscii(candidate[i])) {
+                    continue outer;
+                }
+            }
+            return c;
+        }
+        return -1;
+    }
+
+}
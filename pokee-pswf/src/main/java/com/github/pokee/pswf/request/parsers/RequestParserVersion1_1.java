@@ -1,9 +1,10 @@
 package com.github.pokee.pswf.request.parsers;
 
+import com.github.pokee.pswf.exception.RequestParseException;
 import com.github.pokee.pswf.request.Request;
-import com.github.pokee.pswf.request.RequestHeader;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.RequestHead;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 
 /**
@@ -16,19 +17,18 @@ public class RequestParserVersion1_1 extends RequestParserVersion1_0 {
      * Parses an HTTP/1.1 request, ensuring that the 'Host' header is included as per HTTP/1.1 specification.
      * If the 'Host' header is missing, an exception is thrown.
      *
-     * @param header The {@link RequestHeader} object containing the initial request line information.
-     * @param reader A {@link BufferedReader} from which the request headers and body are read.
+     * @param head   The {@link RequestHead} containing the request line and headers.
+     * @param body   The body of the request.
      * @return A {@link Request} object populated with parsed values from the HTTP request.
-     * @throws IOException              If an I/O error occurs during reading from the reader.
-     * @throws IllegalArgumentException If the 'Host' header is missing in the HTTP/1.1 request.
+     * @throws RequestParseException If the 'Host' header is missing in the HTTP/1.1 request.
+     * @throws IOException           If the request is not a valid HTTP/1.0 request.
      */
     @Override
-    public Request parse(final RequestHeader header, final BufferedReader reader) throws IOException {
-        final Request request = super.parse(header, reader);
-        if (!request.headers().has("Host")) {
-            throw new IllegalArgumentException("Host header is missing");
+    public Request parse(final RequestHead head, final RequestBody body) throws IOException {
+        if (!head.hasHeader("Host")) {
+            throw new RequestParseException("Host header is missing");
         }
-        return request;
+        return super.parse(head, body);
     }
 
 }
@@ -0,0 +1,65 @@
+package com.github.pokee.pswf.response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Produces the body of a streaming response. The body writer is called after the status line and the headers
+ * were sent, so it can generate the body piece by piece without holding it in memory.
+ * <p>
+ * The given stream must not be closed by the body writer. Exceptions thrown by the body writer can't be turned
+ * into an error response anymore, instead the connection is closed.
+ */
+@FunctionalInterface
+public interface BodyWriter {
+
+    /**
+     * Creates a body writer which copies an input stream and closes it afterward.
+     *
+     * @param inputStream the stream to copy
+     * @return the body writer
+     */
+    static BodyWriter of(final InputStream inputStream) {
+        return outputStream -> {
+            try (inputStream) {
+                inputStream.transferTo(outputStream);
+            }
+        };
+    }
+
+    /**
+     * Creates a body writer which copies a channel and closes it afterward.
+     *
+     * @param channel the channel to copy
+     * @return the body writer
+     */
+    static BodyWriter of(final ReadableByteChannel channel) {
+        return outputStream -> {
+            try (channel) {
+                final WritableByteChannel target = Channels.newChannel(outputStream);
+                final ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes the body.
+     *
+     * @param outputStream the stream to write the body to
+     * @throws IOException if writing fails
+     */
+    void writeTo(final OutputStream outputStream) throws IOException;
+
+}
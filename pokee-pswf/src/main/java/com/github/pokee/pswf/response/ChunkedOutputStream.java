@@ -0,0 +1,103 @@
+package com.github.pokee.pswf.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes a response body with {@code Transfer-Encoding: chunked}. Written data is collected into chunks of up to
+ * {@link #DEFAULT_CHUNK_SIZE} bytes, so many small writes don't result in many tiny chunks. Closing the stream
+ * writes the last chunk but does not close the underlying stream.
+ */
+public class ChunkedOutputStream extends OutputStream {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = {'0', '\r', '\n', '\r', '\n'};
+
+    private final OutputStream outputStream;
+    private final byte[] chunk;
+    private int count = 0;
+    private boolean closed = false;
+
+    /**
+     * Constructs a new ChunkedOutputStream with the default chunk size.
+     *
+     * @param outputStream the stream to write the encoded body to
+     */
+    public ChunkedOutputStream(final OutputStream outputStream) {
+        this(outputStream, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a new ChunkedOutputStream.
+     *
+     * @param outputStream the stream to write the encoded body to
+     * @param chunkSize    the maximum size of a chunk
+     */
+    public ChunkedOutputStream(final OutputStream outputStream, final int chunkSize) {
+        this.outputStream = outputStream;
+        this.chunk = new byte[chunkSize];
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        if (this.count == this.chunk.length) {
+            this.writeChunk();
+        }
+        this.chunk[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(final byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (this.count == this.chunk.length) {
+                this.writeChunk();
+            }
+            final int copied = Math.min(length, this.chunk.length - this.count);
+            System.arraycopy(bytes, offset, this.chunk, this.count, copied);
+            this.count += copied;
+            offset += copied;
+            length -= copied;
+        }
+    }
+
+    /**
+     * Writes the buffered data as a chunk and flushes the underlying stream.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        this.writeChunk();
+        this.outputStream.flush();
+    }
+
+    /**
+     * Writes the buffered data and the last chunk. The underlying stream is neither flushed nor closed.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.writeChunk();
+        this.outputStream.write(LAST_CHUNK);
+    }
+
+    private void writeChunk() throws IOException {
+        if (this.count == 0) {
+            return;
+        }
+        this.outputStream.write(Integer.toHexString(this.count).getBytes(StandardCharsets.US_ASCII));
+        this.outputStream.write(CRLF);
+        this.outputStream.write(this.chunk, 0, this.count);
+        this.outputStream.write(CRLF);
+        this.count = 0;
+    }
+
+}
@@ -0,0 +1,421 @@
+package com.github.pokee.pswf.response;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Request;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Compresses response bodies with the {@code gzip} or {@code deflate} content coding, negotiated with the
+ * {@code Accept-Encoding} header of the request.
+ * <p>
+ * Only textual content types (text, JSON, XML, JavaScript, SVG) are compressed. Fixed bodies are compressed if they
+ * are at least {@code minSize} bytes long, streaming bodies are always compressed while they are written.
+ * {@link FileBody File bodies} are never compressed: compressing them would mean reading the file through the JVM
+ * and sending it chunked, losing the zero-copy transfer and the known length. Large text files therefore trade a
+ * smaller transfer for less CPU and memory traffic on the server; files small enough for the cache of
+ * {@link com.github.pokee.pswf.files.StaticFiles} have a fixed body and are compressed as usual.
+ * Each thread keeps its {@link Deflater}s and resets them after use, so compressing a response does not allocate
+ * native compression state.
+ *
+ * @param minSize the minimum size of a fixed body to compress it, in bytes, or -1 to disable compression
+ * @param level   the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+ */
+public record Compression(int minSize, int level) {
+
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+    public static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+    public static final String VARY_HEADER = "Vary";
+
+    /**
+     * Compress bodies of at least 1 KiB with level 6, which trades little compression for a lot of speed
+     * compared to the best compression.
+     */
+    public static final Compression DEFAULT = new Compression(1024, 6);
+
+    /**
+     * Never compress responses.
+     */
+    public static final Compression DISABLED = new Compression(-1, Deflater.NO_COMPRESSION);
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    // one idle deflater per thread and format, taken while in use so nested compressions get their own
+    private static final ThreadLocal<Deflater> ZLIB_DEFLATERS = new ThreadLocal<>();
+    private static final ThreadLocal<Deflater> RAW_DEFLATERS = new ThreadLocal<>();
+
+    public Compression {
+        if (minSize < -1) {
+            throw new IllegalArgumentException("Invalid minimum size: " + minSize);
+        }
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+    }
+
+    /**
+     * @return true if responses are compressed at all
+     */
+    public boolean isEnabled() {
+        return this.minSize >= 0;
+    }
+
+    /**
+     * Compresses a response if the client accepts a supported content coding and the response is worth compressing.
+     * Responses which could be compressed get a {@code Vary: Accept-Encoding} header, even if the client did not
+     * accept a compressed response, so caches don't serve the wrong variant.
+     *
+     * @param request  the request
+     * @param response the response to the request
+     * @return the compressed response, or the given response if it is not compressed
+     */
+    public Response apply(final Request request, final Response response) {
+        if (!this.isCompressible(response)) {
+            return response;
+        }
+        final Encoding encoding = Encoding.negotiate(request.headers().get(ACCEPT_ENCODING_HEADER));
+        if (encoding == null) {
+            return Compression.withVary(response);
+        }
+        return this.encode(response, encoding);
+    }
+
+    /**
+     * Determines the content coding {@link #apply(Request, Response)} would compress a response with, without
+     * compressing it.
+     *
+     * @param request  the request
+     * @param response the response to the request
+     * @return the content coding, or null if the response would be sent uncompressed
+     */
+    public Encoding negotiate(final Request request, final Response response) {
+        if (!this.isCompressible(response)) {
+            return null;
+        }
+        return Encoding.negotiate(request.headers().get(ACCEPT_ENCODING_HEADER));
+    }
+
+    /**
+     * Returns the headers {@link #apply(Request, Response)} would send a response with, without compressing it,
+     * e.g. for a {@code 304 Not Modified} response to a conditional request.
+     *
+     * @param response the response
+     * @param encoding the negotiated content coding, see {@link #negotiate(Request, Response)}
+     * @return a copy of the headers of the response, changed like the headers of the compressed response
+     */
+    public Headers headersOf(final Response response, final Encoding encoding) {
+        final Headers headers = response.headers().copy();
+        if (encoding != null) {
+            headers.set(CONTENT_ENCODING_HEADER, encoding.token());
+            final String etag = headers.get(ETags.ETAG_HEADER);
+            if (etag != null) {
+                headers.set(ETags.ETAG_HEADER, Compression.variantTag(etag, encoding));
+            }
+        }
+        if (this.isCompressible(response)) {
+            Compression.addVary(headers);
+        }
+        return headers;
+    }
+
+    /**
+     * Derives the entity tag of a compressed representation from the tag of the uncompressed one, by suffixing it
+     * with the name of the content coding.
+     *
+     * @param etag     the entity tag of the uncompressed response
+     * @param encoding the content coding
+     * @return the entity tag of the compressed response, or the given tag if it is not quoted
+     */
+    public static String variantTag(final String etag, final Encoding encoding) {
+        if (!etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + encoding.token() + "\"";
+    }
+
+    /**
+     * Checks if a response should be compressed for clients accepting a compressed response.
+     *
+     * @param response the response
+     * @return true if the response has a textual content type, is neither encoded nor partial nor a file body and
+     * is large enough
+     */
+    public boolean isCompressible(final Response response) {
+        if (!this.isEnabled() || response.headers().has(CONTENT_ENCODING_HEADER)) {
+            return false;
+        }
+        // file bodies are transferred to the socket without copying, which compressing them would prevent
+        if (response.bodyWriter() instanceof FileBody) {
+            return false;
+        }
+        // a part of a representation can't be compressed on its own
+        if (response.statusCode() == StatusCode.PARTIAL_CONTENT.code()) {
+            return false;
+        }
+        if (!response.isStreaming() && response.body().length < Math.max(this.minSize, 1)) {
+            return false;
+        }
+        return Compression.isCompressibleType(response.headers().get(ResponseBuilder.CONTENT_TYPE_HEADER));
+    }
+
+    /**
+     * Compresses a response with the given content coding. The entity tag of the response, if any, is suffixed with
+     * the name of the coding, as the compressed body is a different representation.
+     *
+     * @param response the response, see {@link #isCompressible(Response)}
+     * @param encoding the content coding
+     * @return the compressed response
+     */
+    public Response encode(final Response response, final Encoding encoding) {
+        final Headers headers = response.headers().copy();
+        headers.set(CONTENT_ENCODING_HEADER, encoding.token());
+        Compression.addVary(headers);
+        final String etag = headers.get(ETags.ETAG_HEADER);
+        if (etag != null) {
+            headers.set(ETags.ETAG_HEADER, Compression.variantTag(etag, encoding));
+        }
+
+        if (response.isStreaming()) {
+            headers.remove(ResponseBuilder.CONTENT_LENGTH_HEADER); // the compressed length is not known in advance
+            final BodyWriter bodyWriter = response.bodyWriter();
+            return new Response(response.statusCode(), response.statusMessage(), headers, outputStream -> {
+                final EncodingOutputStream encoded = new EncodingOutputStream(outputStream, encoding, this.level);
+                try {
+                    bodyWriter.writeTo(encoded);
+                    encoded.finish();
+                } finally {
+                    encoded.release();
+                }
+            });
+        }
+
+        final byte[] body = this.compress(response.body(), encoding);
+        headers.set(ResponseBuilder.CONTENT_LENGTH_HEADER, String.valueOf(body.length));
+        return new Response(response.statusCode(), response.statusMessage(), headers, body);
+    }
+
+    private byte[] compress(final byte[] body, final Encoding encoding) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(body.length / 4 + 64);
+        try {
+            final EncodingOutputStream encoded = new EncodingOutputStream(outputStream, encoding, this.level);
+            try {
+                encoded.write(body);
+                encoded.finish();
+            } finally {
+                encoded.release();
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);  // not thrown by a ByteArrayOutputStream
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static Response withVary(final Response response) {
+        final Headers headers = response.headers().copy();
+        Compression.addVary(headers);
+        return new Response(response.statusCode(), response.statusMessage(), headers, response.body(), response.bodyWriter());
+    }
+
+    static void addVary(final Headers headers) {
+        final String vary = headers.get(VARY_HEADER);
+        if (vary == null) {
+            headers.set(VARY_HEADER, ACCEPT_ENCODING_HEADER);
+        } else if (!vary.toLowerCase().contains("accept-encoding")) {
+            headers.set(VARY_HEADER, vary + ", " + ACCEPT_ENCODING_HEADER);
+        }
+    }
+
+    private static boolean isCompressibleType(final String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        final int parameters = contentType.indexOf(';');
+        final String type = (parameters == -1 ? contentType : contentType.substring(0, parameters)).trim().toLowerCase();
+        return type.startsWith("text/")
+                || type.equals("application/json")
+                || type.equals("application/xml")
+                || type.equals("application/javascript")
+                || type.equals("image/svg+xml")
+                || type.endsWith("+json")
+                || type.endsWith("+xml");
+    }
+
+    /**
+     * The supported content codings, in order of preference.
+     */
+    public enum Encoding {
+        GZIP("gzip"),
+        DEFLATE("deflate");
+
+        private final String token;
+
+        Encoding(final String token) {
+            this.token = token;
+        }
+
+        /**
+         * @return the name of the coding used in {@code Accept-Encoding} and {@code Content-Encoding}
+         */
+        public String token() {
+            return this.token;
+        }
+
+        /**
+         * Selects the content coding for an {@code Accept-Encoding} header. Codings with a higher quality value
+         * are preferred, {@code *} applies to all codings which are not listed, and a quality of 0 excludes a coding.
+         *
+         * @param acceptEncoding the value of the header, may be null
+         * @return the coding to use, or null if the body should not be compressed
+         */
+        public static Encoding negotiate(final String acceptEncoding) {
+            if (acceptEncoding == null || acceptEncoding.isBlank()) {
+                return null;
+            }
+            final double[] quality = {-1, -1};  // indexed by ordinal, -1 if not listed
+            double wildcard = -1;
+            for (final String part : acceptEncoding.split(",")) {
+                final int parameters = part.indexOf(';');
+                final String coding = (parameters == -1 ? part : part.substring(0, parameters)).trim();
+                final double q = parameters == -1 ? 1 : Encoding.parseQuality(part.substring(parameters + 1));
+                if (coding.equals("*")) {
+                    wildcard = q;
+                    continue;
+                }
+                for (final Encoding encoding : Encoding.values()) {
+                    // x-gzip is an alias of gzip
+                    if (coding.equalsIgnoreCase(encoding.token) || coding.equalsIgnoreCase("x-" + encoding.token)) {
+                        quality[encoding.ordinal()] = q;
+                    }
+                }
+            }
+
+            Encoding selected = null;
+            double selectedQuality = 0;
+            for (final Encoding encoding : Encoding.values()) {
+                final double q = quality[encoding.ordinal()] >= 0 ? quality[encoding.ordinal()] : wildcard;
+                if (q > selectedQuality) {
+                    selected = encoding;
+                    selectedQuality = q;
+                }
+            }
+            return selected;
+        }
+
+        private static double parseQuality(final String parameters) {
+            for (final String parameter : parameters.split(";")) {
+                final String trimmed = parameter.trim();
+                if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+                    try {
+                        return Double.parseDouble(trimmed.substring(2));
+                    } catch (final NumberFormatException exception) {
+                        return 0;
+                    }
+                }
+            }
+            return 1;
+        }
+    }
+
+    /**
+     * Compresses data written to it using a deflater of the current thread. The underlying stream is not closed,
+     * {@link #finish()} completes the compressed data and {@link #release()} hands the deflater back to the thread.
+     */
+    private static final class EncodingOutputStream extends DeflaterOutputStream {
+
+        private static final byte[] GZIP_HEADER = {
+                0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+        };
+
+        private final ThreadLocal<Deflater> pool;
+        private final CRC32 crc;  // null for deflate
+        private boolean finished = false;
+
+        EncodingOutputStream(final OutputStream outputStream,
+                             final Encoding encoding,
+                             final int level) throws IOException {
+            this(outputStream, encoding == Encoding.GZIP ? RAW_DEFLATERS : ZLIB_DEFLATERS, encoding, level);
+        }
+
+        private EncodingOutputStream(final OutputStream outputStream,
+                                     final ThreadLocal<Deflater> pool,
+                                     final Encoding encoding,
+                                     final int level) throws IOException {
+            // gzip wraps raw deflate data itself, deflate is the zlib format
+            super(outputStream, EncodingOutputStream.acquire(pool, encoding == Encoding.GZIP, level), BUFFER_SIZE);
+            this.pool = pool;
+            if (encoding == Encoding.GZIP) {
+                this.crc = new CRC32();
+                outputStream.write(GZIP_HEADER);
+            } else {
+                this.crc = null;
+            }
+        }
+
+        private static Deflater acquire(final ThreadLocal<Deflater> pool, final boolean raw, final int level) {
+            Deflater deflater = pool.get();
+            if (deflater == null) {
+                deflater = new Deflater(level, raw);
+            } else {
+                pool.remove();
+                deflater.setLevel(level);
+            }
+            return deflater;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            super.write(bytes, offset, length);
+            if (this.crc != null) {
+                this.crc.update(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (this.finished) {
+                return;
+            }
+            this.finished = true;
+            super.finish();
+            if (this.crc != null) {
+                // CRC-32 and size of the uncompressed data, modulo 2^32
+                final byte[] trailer = new byte[8];
+                EncodingOutputStream.putIntLE(trailer, 0, (int) this.crc.getValue());
+                EncodingOutputStream.putIntLE(trailer, 4, (int) this.def.getBytesRead());
+                this.out.write(trailer);
+            }
+        }
+
+        private static void putIntLE(final byte[] bytes, final int offset, final int value) {
+            bytes[offset] = (byte) value;
+            bytes[offset + 1] = (byte) (value >>> 8);
+            bytes[offset + 2] = (byte) (value >>> 16);
+            bytes[offset + 3] = (byte) (value >>> 24);
+        }
+
+        /**
+         * Resets the deflater and keeps it for the next response compressed by this thread.
+         */
+        void release() {
+            this.def.reset();
+            if (this.pool.get() == null) {
+                this.pool.set(this.def);
+            } else {
+                this.def.end();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.finish();
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.github.pokee.pswf.response;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Computes entity tags of responses and answers conditional GET requests ({@code If-None-Match})
+ * with {@code 304 Not Modified}.
+ */
+public final class ETags {
+
+    public static final String ETAG_HEADER = "ETag";
+    public static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
+    // headers which are sent with a 304 response, as they would be sent with the full response
+    private static final String[] NOT_MODIFIED_HEADERS = {
+            ETAG_HEADER, "Cache-Control", "Expires", "Vary", "Last-Modified"
+    };
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final int HASH_LENGTH = 16;
+
+    private ETags() {
+    }
+
+    /**
+     * Creates a strong entity tag from a version supplied by a handler, e.g. a revision number.
+     *
+     * @param version the version, must not contain double quotes
+     * @return the quoted entity tag
+     */
+    public static String strong(final String version) {
+        if (version.indexOf('"') != -1) {
+            throw new IllegalArgumentException("An entity tag must not contain double quotes: " + version);
+        }
+        return '"' + version + '"';
+    }
+
+    /**
+     * Computes a strong entity tag from the body of a response.
+     *
+     * @param body the body
+     * @return the quoted entity tag
+     */
+    public static String compute(final byte[] body) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+        final byte[] hash = digest.digest(body);
+        final byte[] truncated = new byte[HASH_LENGTH];
+        System.arraycopy(hash, 0, truncated, 0, HASH_LENGTH);
+        return '"' + ENCODER.encodeToString(truncated) + '"';
+    }
+
+    /**
+     * Checks if an {@code If-None-Match} header matches an entity tag, using the weak comparison required for
+     * {@code If-None-Match}, i.e. {@code W/"a"} matches {@code "a"}.
+     *
+     * @param ifNoneMatch the value of the {@code If-None-Match} header, a list of entity tags or {@code *}
+     * @param etag        the entity tag of the current response
+     * @return true if one of the listed tags matches
+     */
+    public static boolean matches(final String ifNoneMatch, final String etag) {
+        final String opaqueTag = ETags.opaqueTag(etag);
+        int start = 0;
+        while (start < ifNoneMatch.length()) {
+            int end = ifNoneMatch.indexOf(',', start);
+            if (end == -1) {
+                end = ifNoneMatch.length();
+            }
+            final String candidate = ifNoneMatch.substring(start, end).trim();
+            if (candidate.equals("*") || ETags.opaqueTag(candidate).equals(opaqueTag)) {
+                return true;
+            }
+            start = end + 1;
+        }
+        return false;
+    }
+
+    private static String opaqueTag(final String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Applies conditional request handling and compression to the response of a GET request:
+     * <ul>
+     *     <li>if {@code compute} is true, a successful response with a fixed body and no {@code ETag} header
+     *     is given an entity tag computed from its uncompressed body</li>
+     *     <li>if the entity tag of the representation the client would receive (suffixed with the content coding
+     *     if the response is compressed, see {@link Compression#variantTag(String, Compression.Encoding)}) matches
+     *     the {@code If-None-Match} header of the request, a {@code 304 Not Modified} response without body is
+     *     returned, without compressing the body</li>
+     *     <li>otherwise the response is compressed, see {@link Compression#apply(Request, Response)}</li>
+     * </ul>
+     * Responses to other requests are only compressed.
+     *
+     * @param request     the request
+     * @param response    the response generated for the request
+     * @param compute     whether to compute missing entity tags
+     * @param compression the compression of response bodies
+     * @return the response to send
+     */
+    public static Response apply(final Request request,
+                                 final Response response,
+                                 final boolean compute,
+                                 final Compression compression) {
+        if (request.method() != Method.GET || response.statusCode() != StatusCode.OK.code()) {
+            return compression.apply(request, response);
+        }
+
+        String etag = response.headers().get(ETAG_HEADER);
+        Response result = response;
+        if (etag == null && compute && !response.isStreaming()) {
+            etag = ETags.compute(response.body());
+            result = response.withHeader(ETAG_HEADER, etag);
+        }
+
+        final String ifNoneMatch = request.headers().get(IF_NONE_MATCH_HEADER);
+        if (etag != null && ifNoneMatch != null) {
+            final Compression.Encoding encoding = compression.negotiate(request, result);
+            final String sentTag = encoding != null ? Compression.variantTag(etag, encoding) : etag;
+            if (ETags.matches(ifNoneMatch, sentTag)) {
+                return ETags.notModified(compression.headersOf(result, encoding));
+            }
+        }
+        return compression.apply(request, result);
+    }
+
+    /**
+     * Creates the {@code 304 Not Modified} response for a response.
+     *
+     * @param response the full response
+     * @return the response without body
+     */
+    public static Response notModified(final Response response) {
+        return ETags.notModified(response.headers());
+    }
+
+    /**
+     * Creates the {@code 304 Not Modified} response for a response with the given headers.
+     *
+     * @param responseHeaders the headers of the full response
+     * @return the response without body
+     */
+    public static Response notModified(final Headers responseHeaders) {
+        final Headers headers = new Headers();
+        for (final String header : NOT_MODIFIED_HEADERS) {
+            final String value = responseHeaders.get(header);
+            if (value != null) {
+                headers.set(header, value);
+            }
+        }
+        return new Response(StatusCode.NOT_MODIFIED.code(), StatusCode.NOT_MODIFIED.description(), headers, new byte[0]);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.github.pokee.pswf.response;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The body of a streaming response which is a region of a file. Unlike other body writers, the connections know
+ * this body: if the response has a {@code Content-Length} header, the file is transferred straight to the socket
+ * with {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which lets the kernel send it without
+ * copying it through the JVM (e.g. with {@code sendfile} on Linux). Otherwise, the file is copied to the stream
+ * like any other streaming body.
+ * <p>
+ * The file is only opened when the body is written.
+ *
+ * @param path     the file
+ * @param position the position of the first byte of the region
+ * @param length   the number of bytes of the region
+ */
+public record FileBody(Path path, long position, long length) implements BodyWriter {
+
+    public FileBody {
+        if (position < 0 || length < 0) {
+            throw new IllegalArgumentException("Invalid file region: " + position + "+" + length);
+        }
+    }
+
+    /**
+     * Creates a body containing a whole file.
+     *
+     * @param path the file
+     * @return the body
+     * @throws IOException if the size of the file can't be read
+     */
+    public static FileBody of(final Path path) throws IOException {
+        return new FileBody(path, 0, Files.size(path));
+    }
+
+    /**
+     * Opens the file for reading.
+     *
+     * @return the channel, to be closed by the caller
+     * @throws IOException if the file can't be opened
+     */
+    public FileChannel open() throws IOException {
+        return FileChannel.open(this.path, StandardOpenOption.READ);
+    }
+
+    /**
+     * Transfers a part of the region to a channel. Non-blocking channels may accept fewer bytes than requested.
+     *
+     * @param file     the file, see {@link #open()}
+     * @param offset   the offset within the region to continue at
+     * @param maxBytes the maximum number of bytes to transfer
+     * @param target   the channel to transfer to
+     * @return the number of bytes transferred
+     * @throws EOFException if the file was truncated since the region was created
+     * @throws IOException  if reading the file or writing to the channel fails
+     */
+    public long transferTo(final FileChannel file,
+                           final long offset,
+                           final long maxBytes,
+                           final WritableByteChannel target) throws IOException {
+        final long count = Math.min(this.length - offset, maxBytes);
+        final long transferred = file.transferTo(this.position + offset, count, target);
+        if (transferred == 0 && count > 0 && this.position + offset >= file.size()) {
+            throw new EOFException("File was truncated while sending it: " + this.path);
+        }
+        return transferred;
+    }
+
+    @Override
+    public void writeTo(final OutputStream outputStream) throws IOException {
+        try (final FileChannel file = this.open()) {
+            final WritableByteChannel target = Channels.newChannel(outputStream);
+            long offset = 0;
+            while (offset < this.length) {
+                offset += this.transferTo(file, offset, this.length - offset, target);
+            }
+        }
+    }
+
+}
@@ -6,11 +6,70 @@ import com.github.pokee.pswf.headers.Headers;
  * Represents an immutable HTTP response. This record encapsulates all the necessary components of an HTTP response,
  * including the status code, status message, headers, and the body of the response.
  * It implements the {@link ResponseLike} interface allowing it to be returned directly from methods expecting a response-like type.
+ * <p>
+ * The body is either a byte array, or, for streaming responses, a {@link BodyWriter} which generates the body while
+ * it is sent. Streaming responses have an empty {@code body} array.
  */
 public record Response(int statusCode,  // The HTTP status code.
                        String statusMessage,  // The descriptive message associated with the status code.
                        Headers headers,  // The HTTP headers for the response.
-                       byte[] body) implements ResponseLike {
+                       byte[] body,  // The body, empty for streaming responses.
+                       BodyWriter bodyWriter  // The writer of a streaming body, or null.
+) implements ResponseLike {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    /**
+     * Creates a response with a fixed body.
+     *
+     * @param statusCode    The HTTP status code.
+     * @param statusMessage The descriptive message associated with the status code.
+     * @param headers       The HTTP headers for the response.
+     * @param body          The body of the response.
+     */
+    public Response(final int statusCode, final String statusMessage, final Headers headers, final byte[] body) {
+        this(statusCode, statusMessage, headers, body, null);
+    }
+
+    /**
+     * Creates a streaming response.
+     *
+     * @param statusCode    The HTTP status code.
+     * @param statusMessage The descriptive message associated with the status code.
+     * @param headers       The HTTP headers for the response.
+     * @param bodyWriter    The writer generating the body.
+     */
+    public Response(final int statusCode, final String statusMessage, final Headers headers, final BodyWriter bodyWriter) {
+        this(statusCode, statusMessage, headers, EMPTY_BODY, bodyWriter);
+    }
+
+    /**
+     * @return true if the body is generated while the response is sent
+     */
+    public boolean isStreaming() {
+        return this.bodyWriter != null;
+    }
+
+    /**
+     * @return true if the length of the body is known before it is sent: fixed bodies, and streaming bodies with a
+     * {@code Content-Length} header, e.g. a {@link FileBody}
+     */
+    public boolean hasKnownLength() {
+        return this.bodyWriter == null || this.headers.has(ResponseBuilder.CONTENT_LENGTH_HEADER);
+    }
+
+    /**
+     * Creates a copy of this response with the given header set, leaving this response untouched.
+     *
+     * @param key   the header name
+     * @param value the header value
+     * @return the new response
+     */
+    public Response withHeader(final String key, final String value) {
+        final Headers copy = this.headers.copy();
+        copy.set(key, value);
+        return new Response(this.statusCode, this.statusMessage, copy, this.body, this.bodyWriter);
+    }
 
     @Override
     public Response extractResponse() {
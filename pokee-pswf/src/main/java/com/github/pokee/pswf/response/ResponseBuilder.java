@@ -2,9 +2,13 @@ package com.github.pokee.pswf.response;
 
 import com.github.pokee.pson.Pson;
 import com.github.pokee.pson.mapper.mappers.UUIDMapper;
+import com.github.pokee.pson.output.JsonOutput;
 import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.util.BufferPool;
 import com.github.pokee.pswf.util.ContentTypes;
 
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -29,6 +33,7 @@ public class ResponseBuilder implements ResponseLike {
     private int statusCode;
     private String statusMessage;
     private byte[] body;
+    private BodyWriter bodyWriter;
 
     /**
      * Constructs a new ResponseBuilder, defaulting the status code to 200 OK.
@@ -120,9 +125,51 @@ public class ResponseBuilder implements ResponseLike {
      */
     public ResponseBuilder body(final byte[] body) {
         this.body = body;
+        this.bodyWriter = null;
         return this.set(CONTENT_LENGTH_HEADER, String.valueOf(body.length));
     }
 
+    /**
+     * Sets a streaming body, which is generated while the response is sent. The length of the body is not known
+     * in advance, so HTTP/1.1 responses are sent with {@code Transfer-Encoding: chunked}, and HTTP/1.0 connections
+     * are closed after the body.
+     *
+     * @param bodyWriter the writer generating the body
+     * @return this builder instance for chaining
+     */
+    public ResponseBuilder stream(final BodyWriter bodyWriter) {
+        this.body = null;
+        this.bodyWriter = bodyWriter;
+        this.headers.remove(CONTENT_LENGTH_HEADER);
+        return this;
+    }
+
+    /**
+     * Sets a strong entity tag derived from a version supplied by the handler, e.g. a revision number.
+     * Requests with a matching {@code If-None-Match} header are answered with {@code 304 Not Modified}.
+     *
+     * @param version the version of the response body
+     * @return this builder instance for chaining
+     */
+    public ResponseBuilder etag(final String version) {
+        return this.set(ETags.ETAG_HEADER, ETags.strong(version));
+    }
+
+    /**
+     * Sets a strong entity tag computed from the current body. Fixed bodies of GET responses are tagged
+     * automatically when they are sent, so this is only needed to tag the body before that,
+     * e.g. to store the tag alongside the response.
+     *
+     * @return this builder instance for chaining
+     * @throws IllegalStateException if the body is streaming
+     */
+    public ResponseBuilder etag() {
+        if (this.bodyWriter != null) {
+            throw new IllegalStateException("Cannot compute the entity tag of a streaming body");
+        }
+        return this.set(ETags.ETAG_HEADER, ETags.compute(this.body != null ? this.body : new byte[0]));
+    }
+
     /**
      * Set the body of the response to the given plain text string.
      *
@@ -160,7 +207,49 @@ public class ResponseBuilder implements ResponseLike {
      * @return the response builder
      */
     public ResponseBuilder json(final Object object) {
-        return this.json(ResponseBuilder.PSON.marshal(object));
+        return this.contentType(ContentTypes.JSON).body(ResponseBuilder.PSON.marshalToBytes(object));
+    }
+
+    /**
+     * Set a streaming body containing the given elements as a JSON array. The elements are encoded as UTF-8
+     * straight into a pooled buffer, which is sent whenever it is full, so the whole array is never held in memory.
+     *
+     * @param elements the elements of the array
+     * @return the response builder
+     */
+    public ResponseBuilder jsonStream(final Iterable<?> elements) {
+        return this.jsonStream(ResponseBuilder.PSON, elements);
+    }
+
+    /**
+     * Set a streaming body containing the given elements as a JSON array, serialized using the given pson instance.
+     *
+     * @param pson     the pson instance to serialize the elements with
+     * @param elements the elements of the array
+     * @return the response builder
+     */
+    public ResponseBuilder jsonStream(final Pson pson, final Iterable<?> elements) {
+        return this.contentType(ContentTypes.JSON).stream(outputStream -> {
+            final ByteBuffer buffer = BufferPool.DEFAULT.acquire();
+            try {
+                final JsonOutput output = JsonOutput.of(outputStream, buffer);
+                output.append('[');
+                boolean first = true;
+                for (final Object element : elements) {
+                    if (!first) {
+                        output.append(',');
+                    }
+                    first = false;
+                    pson.marshal(output, element);
+                }
+                output.append(']');
+                output.flush();
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                BufferPool.DEFAULT.release(buffer);
+            }
+        });
     }
 
     /**
@@ -200,6 +289,9 @@ public class ResponseBuilder implements ResponseLike {
      * @return the constructed {@link Response}
      */
     public Response build() {
+        if (this.bodyWriter != null) {
+            return new Response(this.statusCode, this.statusMessage, this.headers, this.bodyWriter);
+        }
         return new Response(this.statusCode, this.statusMessage, this.headers, this.body);
     }
 
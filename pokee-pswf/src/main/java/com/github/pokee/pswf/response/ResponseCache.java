@@ -0,0 +1,280 @@
+package com.github.pokee.pswf.response;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.router.Context;
+import com.github.pokee.pswf.router.handler.Handler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches the responses of idempotent GET handlers, so a handler serializing the same data over and over only runs
+ * once per time-to-live.
+ * <p>
+ * Responses are keyed by the request path (which includes the values of path parameters) and the values of the
+ * query parameters the cache varies by. Only successful ({@code 200 OK}) responses are cached; streaming responses
+ * are written into memory once and cached with their complete body. Cached responses are tagged with an
+ * {@link ETags entity tag} when they are stored, so conditional requests for a cached response are answered with
+ * {@code 304 Not Modified} without running the handler. Compressed variants of a cached response are created
+ * on first use and cached alongside it, using the {@link Context#getCompression() compression} of the client handler
+ * serving the request, so the compression settings of the server apply to cached responses as well.
+ * The cache holds at most {@code maxEntries} responses and evicts the least recently used one when it is full.
+ * <p>
+ * A cache is used either by wrapping a handler with {@link #wrap(Handler)} or by annotating a handler method with
+ * {@link com.github.pokee.pswf.annotation.generator.Cached @Cached}.
+ */
+public class ResponseCache {
+
+    /**
+     * Responses with larger bodies are not cached.
+     */
+    public static final int MAX_BODY_SIZE = 8 * 1024 * 1024;
+
+    private final long ttlNanos;
+    private final String[] varyBy;
+    private final int maxEntries;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a new ResponseCache.
+     *
+     * @param ttl        How long a cached response is served.
+     * @param unit       The unit of the ttl.
+     * @param maxEntries The maximum number of cached responses.
+     * @param varyBy     The query parameters which are part of the cache key.
+     */
+    public ResponseCache(final long ttl, final TimeUnit unit, final int maxEntries, final String... varyBy) {
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxEntries = maxEntries;
+        this.varyBy = varyBy.clone();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                if (this.size() > ResponseCache.this.maxEntries) {
+                    ResponseCache.this.evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Wraps a handler so its responses are served from this cache.
+     * Requests with methods other than GET are passed to the handler without caching.
+     *
+     * @param handler The handler to wrap.
+     * @return The caching handler.
+     */
+    public Handler wrap(final Handler handler) {
+        return context -> {
+            final Request request = context.getRequest();
+            if (request.method() != Method.GET) {
+                handler.handle(context);
+                return;
+            }
+
+            final String key = this.key(context);
+            final Entry cached = this.get(key);
+            if (cached != null) {
+                this.hits.increment();
+                context.response = this.select(cached, request, context.getCompression());
+                return;
+            }
+
+            this.misses.increment();
+            handler.handle(context);
+            if (context.response != null && context.response.statusCode() == StatusCode.OK.code()) {
+                final Compression compression = context.getCompression();
+                final Entry entry = new Entry(this.materialize(context.response, compression), System.nanoTime());
+                if (entry.response.body().length <= MAX_BODY_SIZE) {
+                    this.put(key, entry);
+                }
+                context.response = this.select(entry, request, compression);
+            }
+        };
+    }
+
+    /**
+     * Builds the cache key of a request: the path, followed by the values of the query parameters to vary by.
+     * Decoded paths and values may contain any character, so each component is prefixed with its length
+     * (and a missing value is marked with '-') instead of being joined with a separator.
+     */
+    private String key(final Context context) {
+        final String path = context.getRequest().path();
+        if (this.varyBy.length == 0) {
+            return path;
+        }
+        final StringBuilder bob = new StringBuilder();
+        bob.append(path.length()).append(':').append(path);
+        for (final String name : this.varyBy) {
+            final String value = context.query(name);
+            if (value == null) {
+                bob.append('-');
+            } else {
+                bob.append(value.length()).append(':').append(value);
+            }
+        }
+        return bob.toString();
+    }
+
+    /**
+     * Selects the variant of a cached response matching the {@code Accept-Encoding} header of the request,
+     * compressing the response if the variant was not requested before with the same compression settings.
+     */
+    private Response select(final Entry entry, final Request request, final Compression compression) {
+        if (!compression.isCompressible(entry.response)) {
+            return entry.response;
+        }
+        final Compression.Encoding encoding = Compression.Encoding.negotiate(
+                request.headers().get(Compression.ACCEPT_ENCODING_HEADER)
+        );
+        if (encoding == null) {
+            return entry.response;
+        }
+        // concurrent requests may compress the same variant, the last one wins
+        Variant variant = entry.variants[encoding.ordinal()];
+        if (variant == null || !variant.compression.equals(compression)) {
+            variant = new Variant(compression, compression.encode(entry.response, encoding));
+            entry.variants[encoding.ordinal()] = variant;
+        }
+        return variant.response;
+    }
+
+    private Entry get(final String key) {
+        synchronized (this.entries) {
+            final Entry entry = this.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.createdAt >= this.ttlNanos) {
+                this.entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void put(final String key, final Entry entry) {
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Turns a streaming response into a response with a fixed body, tags it with an entity tag and protects
+     * the headers of the response from modifications, so the response can be served multiple times.
+     */
+    private Response materialize(final Response response, final Compression compression) {
+        final Headers headers = response.headers().copy();
+        final byte[] body;
+        if (response.isStreaming()) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            try {
+                response.bodyWriter().writeTo(outputStream);
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            body = outputStream.toByteArray();
+            headers.set(ResponseBuilder.CONTENT_LENGTH_HEADER, String.valueOf(body.length));
+        } else {
+            body = response.body();
+        }
+        if (!headers.has(ETags.ETAG_HEADER)) {
+            headers.set(ETags.ETAG_HEADER, ETags.compute(body));
+        }
+        final Response materialized = new Response(response.statusCode(), response.statusMessage(), headers, body);
+        if (compression.isCompressible(materialized)) {
+            Compression.addVary(headers);
+        }
+        return new Response(response.statusCode(), response.statusMessage(), headers.toImmutable(), body);
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * @return the number of cached responses, including expired responses which were not removed yet
+     */
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * @return the number of requests answered from the cache
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return the number of requests passed to the handler
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return the number of responses evicted because the cache was full
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{ttl=" + TimeUnit.NANOSECONDS.toMillis(this.ttlNanos) + "ms"
+                + ", varyBy=" + Arrays.toString(this.varyBy)
+                + ", maxEntries=" + this.maxEntries
+                + ", hits=" + this.getHits()
+                + ", misses=" + this.getMisses()
+                + "}";
+    }
+
+    private static final class Entry {
+
+        private final Response response;
+        private final long createdAt;
+        private final Variant[] variants = new Variant[Compression.Encoding.values().length];
+
+        private Entry(final Response response, final long createdAt) {
+            this.response = response;
+            this.createdAt = createdAt;
+        }
+
+    }
+
+    /**
+     * A compressed variant of a cached response, with the compression it was created with.
+     */
+    private record Variant(Compression compression, Response response) {
+    }
+
+}
@@ -1,9 +1,12 @@
 package com.github.pokee.pswf.response.writers;
 
 import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.util.BufferPool;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * A response writer for HTTP responses. This class handles the formatting
@@ -20,4 +23,25 @@ public interface ResponseWriter {
      */
     void write(final Response response, final BufferedOutputStream boss) throws IOException;
 
+    /**
+     * Encodes the status line and the headers of a response (including the empty line which terminates them)
+     * into a buffer taken from the given pool. The caller should release the buffer to the same pool once it
+     * was written.
+     *
+     * @param response The HTTP response whose head is encoded.
+     * @param pool     The pool to take the buffer from.
+     * @return The encoded head, in read mode.
+     */
+    ByteBuffer encodeHead(final Response response, final BufferPool pool);
+
+    /**
+     * Writes the body of a response, encoded as announced in its head. Streaming bodies are generated
+     * by the response's {@link com.github.pokee.pswf.response.BodyWriter} while they are written.
+     *
+     * @param response     The HTTP response whose body is written.
+     * @param outputStream The stream to which the body is written. It is not closed.
+     * @throws IOException If an I/O error occurs during writing.
+     */
+    void writeBody(final Response response, final OutputStream outputStream) throws IOException;
+
 }
@@ -2,18 +2,30 @@ package com.github.pokee.pswf.response.writers;
 
 import com.github.pokee.pswf.request.Version;
 import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.util.BufferPool;
+
+import com.github.pokee.pswf.response.ChunkedOutputStream;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
 /**
  * A response writer for HTTP/1.0 responses. This class handles the formatting
  * and output of HTTP responses according to the HTTP/1.0 specification.
+ * <p>
+ * The status line and headers are encoded directly into a pooled buffer, the body is written
+ * as is without copying it next to the head. HTTP/1.0 has no chunked encoding, so streaming bodies
+ * are written as they are generated and the end of the body is marked by closing the connection.
  */
 public class ResponseWriterVersion1_0 implements ResponseWriter {
 
+    public static final String TRANSFER_ENCODING_HEADER = "Transfer-Encoding";
+
     /**
      * Returns the delimiter used to separate headers and lines in the HTTP response.
      *
@@ -38,37 +50,145 @@ public class ResponseWriterVersion1_0 implements ResponseWriter {
      */
     @Override
     public void write(final Response response, final BufferedOutputStream boss) throws IOException {
-        final StringBuilder bob = new StringBuilder();
+        final ByteBuffer head = this.encodeHead(response, BufferPool.DEFAULT);
+        try {
+            boss.write(head.array(), head.arrayOffset() + head.position(), head.remaining());
+        } finally {
+            BufferPool.DEFAULT.release(head);
+        }
+
+        this.writeBody(response, boss);
+    }
+
+    /**
+     * Checks if the body of a response is sent with {@code Transfer-Encoding: chunked}.
+     *
+     * @param response The HTTP response.
+     * @return true if the body is chunked, otherwise false.
+     */
+    protected boolean isChunked(final Response response) {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeBody(final Response response, final OutputStream outputStream) throws IOException {
+        if (!response.isStreaming()) {
+            if (response.body().length > 0) {
+                outputStream.write(response.body());
+            }
+            return;
+        }
+        if (this.isChunked(response)) {
+            final ChunkedOutputStream chunked = new ChunkedOutputStream(outputStream);
+            response.bodyWriter().writeTo(chunked);
+            chunked.close();
+        } else {
+            response.bodyWriter().writeTo(new NonClosingOutputStream(outputStream));
+        }
+    }
 
-        // write header
-        bob.append(this.getVersion()).append(" ").append(response.statusCode());
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ByteBuffer encodeHead(final Response response, final BufferPool pool) {
+        ByteBuffer buffer = pool.acquire();
+        while (true) {
+            try {
+                this.encodeHead(response, buffer);
+                return buffer.flip();
+            } catch (final BufferOverflowException exception) {
+                // very large headers, retry with a larger (non-pooled) buffer
+                final int capacity = buffer.capacity() * 2;
+                pool.release(buffer);
+                buffer = ByteBuffer.allocate(capacity);
+            }
+        }
+    }
+
+    /**
+     * Encodes the status line and headers into the buffer.
+     *
+     * @param response The HTTP response whose head is encoded.
+     * @param buffer   The buffer in write mode.
+     * @throws BufferOverflowException If the head does not fit into the buffer.
+     */
+    protected void encodeHead(final Response response, final ByteBuffer buffer) {
+        // write status line
+        ResponseWriterVersion1_0.putAscii(buffer, this.getVersion().toString());
+        buffer.put((byte) ' ');
+        ResponseWriterVersion1_0.putAscii(buffer, Integer.toString(response.statusCode()));
         if (response.statusMessage() != null && !response.statusMessage().isBlank()) {
-            bob.append(" ").append(response.statusMessage());
+            buffer.put((byte) ' ');
+            ResponseWriterVersion1_0.putAscii(buffer, response.statusMessage());
         }
-        bob.append(this.getDelimiter());
+        ResponseWriterVersion1_0.putAscii(buffer, this.getDelimiter());
 
         // write response headers
         for (final Map.Entry<String, List<String>> entry : response.headers().entries()) {
             for (final String value : entry.getValue()) {
-                bob.append(entry.getKey()).append(": ").append(value).append(this.getDelimiter());
+                ResponseWriterVersion1_0.putAscii(buffer, entry.getKey());
+                buffer.put((byte) ':').put((byte) ' ');
+                ResponseWriterVersion1_0.putAscii(buffer, value);
+                ResponseWriterVersion1_0.putAscii(buffer, this.getDelimiter());
             }
         }
+        if (this.isChunked(response) && !response.headers().has(TRANSFER_ENCODING_HEADER)) {
+            ResponseWriterVersion1_0.putAscii(buffer, TRANSFER_ENCODING_HEADER + ": chunked");
+            ResponseWriterVersion1_0.putAscii(buffer, this.getDelimiter());
+        }
+        ResponseWriterVersion1_0.putAscii(buffer, this.getDelimiter());
+    }
 
-        // write body
-        bob.append(this.getDelimiter());
-        final byte[] headerBytes = bob.toString().getBytes();
+    /**
+     * Puts a string into the buffer as ISO-8859-1, which is the charset of HTTP header fields.
+     * Characters outside this charset are replaced by '?'.
+     *
+     * @param buffer The buffer in write mode.
+     * @param value  The string to put.
+     */
+    private static void putAscii(final ByteBuffer buffer, final String value) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            buffer.put(c <= 0xFF ? (byte) c : (byte) '?');
+        }
+    }
 
-        final byte[] totalBytes;
-        if (response.body().length > 0) {
-            final int totalContentLength = headerBytes.length + response.body().length;
-            totalBytes = new byte[totalContentLength];
-            System.arraycopy(headerBytes, 0, totalBytes, 0, headerBytes.length);
-            System.arraycopy(response.body(), 0, totalBytes, headerBytes.length, response.body().length);
-        } else {
-            totalBytes = headerBytes;
+    /**
+     * Passes all writes to the connection's stream, but keeps body writers from closing it.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+
+        private final OutputStream outputStream;
+
+        private NonClosingOutputStream(final OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            this.outputStream.write(b);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            this.outputStream.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.outputStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.outputStream.flush();
         }
 
-        boss.write(totalBytes);
     }
 
 }
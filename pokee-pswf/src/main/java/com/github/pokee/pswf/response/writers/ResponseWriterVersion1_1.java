@@ -1,10 +1,13 @@
 package com.github.pokee.pswf.response.writers;
 
 import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.response.Response;
 
 /**
  * A response writer for HTTP/1.1 responses. It uses the HTTP/1.0 specification to format and output HTTP responses
  * but changes the version to 1.1. They are nearly the same anyway :)
+ * Streaming bodies are sent with {@code Transfer-Encoding: chunked}, so the connection can be kept open, unless their
+ * length was announced with a {@code Content-Length} header.
  */
 public class ResponseWriterVersion1_1 extends ResponseWriterVersion1_0 {
 
@@ -16,4 +19,12 @@ public class ResponseWriterVersion1_1 extends ResponseWriterVersion1_0 {
         return Version.VERSION_1_1;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isChunked(final Response response) {
+        return !response.hasKnownLength();
+    }
+
 }
@@ -1,7 +1,10 @@
 package com.github.pokee.pswf.router;
 
+import com.github.pokee.pswf.exception.request.HandlerTimeoutException;
 import com.github.pokee.pswf.exception.request.RequestException;
 import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.response.Compression;
 import com.github.pokee.pswf.response.Response;
 import com.github.pokee.pswf.router.handler.Handler;
 import com.github.pokee.pswf.util.UrlSearchParams;
@@ -18,9 +21,9 @@ import java.util.Map;
 public class Context {
 
     private final Request request;
-    private final Map<String, Object> locals;
-    private final Map<String, String> parameters;
+    private final PathParameters parameters;
     private final List<Handler> handlers;
+    private final String route;
 
     /**
      * The response object to send back to the client.
@@ -34,6 +37,21 @@ public class Context {
      */
     private UrlSearchParams query = null;
 
+    /**
+     * values shared between the middleware and handlers of this request, created on first use
+     */
+    private Map<String, Object> locals = null;
+
+    /**
+     * the time the handlers have to finish by, in terms of {@link System#nanoTime()}, 0 if there is no deadline
+     */
+    private long deadline = 0;
+
+    /**
+     * the compression the client handler applies to the response
+     */
+    private Compression compression = Compression.DISABLED;
+
     /**
      * Constructs a new Context with specified request details, handlers, and parameters.
      *
@@ -44,10 +62,38 @@ public class Context {
     public Context(final Request request,
                    final List<Handler> handlers,
                    final Map<String, String> parameters) {
+        this(request, handlers, PathParameters.of(parameters));
+    }
+
+    /**
+     * Constructs a new Context with specified request details, handlers, and parameters.
+     *
+     * @param request    The HTTP request associated with this context.
+     * @param handlers   The list of handlers responsible for processing the request.
+     * @param parameters The route parameters extracted from the URL.
+     */
+    public Context(final Request request,
+                   final List<Handler> handlers,
+                   final PathParameters parameters) {
+        this(request, handlers, parameters, request.path());
+    }
+
+    /**
+     * Constructs a new Context with specified request details, handlers, parameters and the matched route.
+     *
+     * @param request    The HTTP request associated with this context.
+     * @param handlers   The list of handlers responsible for processing the request.
+     * @param parameters The route parameters extracted from the URL.
+     * @param route      The route which matched the request as it was registered, e.g. {@code /hello/:name}.
+     */
+    public Context(final Request request,
+                   final List<Handler> handlers,
+                   final PathParameters parameters,
+                   final String route) {
         this.request = request;
-        this.locals = new HashMap<>();
         this.handlers = handlers;
         this.parameters = parameters;
+        this.route = route;
     }
 
     /**
@@ -68,8 +114,158 @@ public class Context {
         return this.response;
     }
 
+    /**
+     * Returns the route which matched the request as it was registered, e.g. {@code /hello/:name}
+     * for a request to {@code /hello/world}.
+     *
+     * @return The route
+     */
+    public String getRoute() {
+        return this.route;
+    }
+
+    /**
+     * Returns the request associated with this context.
+     *
+     * @return The request
+     */
+    public Request getRequest() {
+        return this.request;
+    }
+
+    /**
+     * Stores a value for the rest of this request, e.g. the user a middleware authenticated.
+     *
+     * @param key   The key of the value.
+     * @param value The value.
+     */
+    public void setLocal(final String key, final Object value) {
+        if (this.locals == null) {
+            this.locals = new HashMap<>();
+        }
+        this.locals.put(key, value);
+    }
+
+    /**
+     * Returns a value stored by {@link #setLocal(String, Object)}.
+     *
+     * @param key The key of the value.
+     * @param <T> The type of the value.
+     * @return The value, or null if no value is stored for the key.
+     * @throws ClassCastException If the value is not of the expected type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getLocal(final String key) {
+        return this.locals == null ? null : (T) this.locals.get(key);
+    }
+
+    /**
+     * Checks if a value is stored for the given key.
+     *
+     * @param key The key of the value.
+     * @return true if a value is stored, otherwise false.
+     */
+    public boolean hasLocal(final String key) {
+        return this.locals != null && this.locals.containsKey(key);
+    }
+
+    /**
+     * Sets the time the handlers of this request have to finish by. This is done by the client handler according
+     * to the configured {@link com.github.pokee.pswf.connection.Timeouts}.
+     *
+     * @param deadline The deadline in terms of {@link System#nanoTime()}, or 0 for no deadline.
+     */
+    public void setDeadline(final long deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Sets the compression the client handler applies to the response of this request. This is done by the client
+     * handler according to the configured compression, so handlers which compress responses ahead of time (like the
+     * {@link com.github.pokee.pswf.response.ResponseCache}) use the same settings.
+     *
+     * @param compression The compression of the response.
+     */
+    public void setCompression(final Compression compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Returns the compression the client handler applies to the response of this request.
+     *
+     * @return The compression, {@link Compression#DISABLED} if the client handler does not compress responses.
+     */
+    public Compression getCompression() {
+        return this.compression;
+    }
+
+    /**
+     * Returns how much time the handlers have left, e.g. to limit a call to another service.
+     *
+     * @return The remaining time in milliseconds (0 if the deadline has passed),
+     * or {@link Long#MAX_VALUE} if there is no deadline.
+     */
+    public long remainingMillis() {
+        if (this.deadline == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (this.deadline - System.nanoTime()) / 1_000_000);
+    }
+
+    /**
+     * Checks if the deadline of this request has passed.
+     *
+     * @return true if the deadline has passed, false if there is time left or no deadline.
+     */
+    public boolean isExpired() {
+        return this.deadline != 0 && System.nanoTime() - this.deadline >= 0;
+    }
+
+    /**
+     * Aborts the request if its deadline has passed. Long-running handlers should call this between steps,
+     * the client handler calls it after each handler. The client receives {@code 503 Service Unavailable}
+     * unless a custom error handler decides otherwise.
+     *
+     * @throws HandlerTimeoutException If the deadline has passed.
+     */
+    public void checkDeadline() {
+        if (this.isExpired()) {
+            throw new HandlerTimeoutException();
+        }
+    }
+
     ///
 
+    /**
+     * Returns the body of the request. The body is read lazily, see {@link RequestBody}.
+     *
+     * @return The request body.
+     */
+    public RequestBody body() {
+        return this.request.body();
+    }
+
+    /**
+     * Binds the JSON body of the request to an object.
+     *
+     * @param clazz The class of the object.
+     * @param <T>   The type of the object.
+     * @return The object read from the request body.
+     * @throws RequestException If the body is not valid JSON for the given class.
+     */
+    public <T> T body(final Class<T> clazz) {
+        return this.request.body().as(clazz);
+    }
+
+    /**
+     * Returns the route parameters extracted from the URL.
+     *
+     * @return The route parameters.
+     */
+    public PathParameters getParameters() {
+        return this.parameters;
+    }
+
     /**
      * Retrieves a parameter by key from the route parameters.
      *
@@ -139,7 +335,7 @@ public class Context {
      * @return true if the parameter exists, false otherwise.
      */
     public boolean hasParam(final String key) {
-        return this.parameters.containsKey(key);
+        return this.parameters.has(key);
     }
 
     /**
@@ -172,10 +368,18 @@ public class Context {
      * @return The query parameter value or the default value if not found.
      */
     public String query(final String key, final String defaultValue) {
-        if (!this.getQuery().has(key)) {
-            return defaultValue;
-        }
-        return this.getQuery().get(key);
+        final String value = this.getQuery().get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Retrieves all values of a query parameter, e.g. for {@code ?type=fire&type=water}.
+     *
+     * @param key The key for the query parameter.
+     * @return The values of the query parameter in the order they were sent, or an empty list if not found.
+     */
+    public List<String> queryAll(final String key) {
+        return this.getQuery().getAll(key);
     }
 
     /**
@@ -186,7 +390,11 @@ public class Context {
      * @throws RequestException If the query parameter is not an integer.
      */
     public int queryInt(final String key) {
-        return this.anyInt(this.getQuery().get(key));
+        try {
+            return this.getQuery().getInt(key);
+        } catch (final NumberFormatException numberFormatException) {
+            throw new RequestException("Parameter is not an integer");
+        }
     }
 
     /**
@@ -197,7 +405,7 @@ public class Context {
      * @return The integer value of the query parameter.
      */
     public int queryInt(final String key, final int defaultValue) {
-        return this.anyInt(this.getQuery().get(key), defaultValue);
+        return this.getQuery().getInt(key, defaultValue);
     }
 
     /**
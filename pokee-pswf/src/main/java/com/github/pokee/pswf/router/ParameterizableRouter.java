@@ -5,19 +5,30 @@ import com.github.pokee.pswf.request.Method;
 import com.github.pokee.pswf.request.Request;
 import com.github.pokee.pswf.router.handler.Handler;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A router that can handle parameterized routes.
+ * <p>
+ * Routes are compiled into a tree of {@link RouteNode}s when they are registered. A route consists of static
+ * segments ({@code /pokemon}), parameters matching a single segment ({@code /:id}) and an optional trailing
+ * wildcard matching the rest of the path ({@code /*} or {@code /*file}). When matching, static segments are
+ * preferred over parameters, and parameters over wildcards; if a preferred branch does not lead to a route,
+ * the next one is tried.
+ * <p>
+ * Matching scans the request path in place: segments are neither split nor copied, and parameter values are
+ * only recorded as offsets until a handler accesses them. Matching is not free of allocations though: if any route
+ * has parameters, each request gets an array for these offsets, which is kept by its {@link PathParameters}, and
+ * every request gets its own {@link Context}.
  */
 public class ParameterizableRouter implements Router {
 
     private final RouteNode root;
+    private int maxParameters = 0;
 
     public ParameterizableRouter() {
-        this.root = new RouteNode("", false);
+        this.root = new RouteNode("", RouteNode.Kind.STATIC);
     }
 
     /**
@@ -26,19 +37,32 @@ public class ParameterizableRouter implements Router {
      * @param method  The method to register the route for.
      * @param route   The route to register.
      * @param handler The handlers to call when the route is matched.
+     * @throws IllegalArgumentException If a wildcard is not the last segment of the route.
      */
     @Override
     public void registerRoute(final Method method, final String route, final Handler handler) {
         final String[] parts = route.split("/");
+        final List<String> parameterNames = new ArrayList<>();
 
         RouteNode current = this.root;
         for (final String part : parts) {
             if (part.isBlank()) {
                 continue;
             }
+            if (current.isWildcard()) {
+                throw new IllegalArgumentException("Wildcard must be the last segment of the route: " + route);
+            }
             current = current.addChild(part);
+            if (current.isParameter()) {
+                parameterNames.add(part.substring(1));
+            } else if (current.isWildcard()) {
+                parameterNames.add(part.length() > 1 ? part.substring(1) : "*");
+            }
         }
+        current.setParameterNames(parameterNames.toArray(new String[0]));
+        current.setRoute(route);
         current.addHandler(method, handler);
+        this.maxParameters = Math.max(this.maxParameters, parameterNames.size());
     }
 
     /**
@@ -49,41 +73,93 @@ public class ParameterizableRouter implements Router {
      */
     @Override
     public Context createContext(final Request request) {
-        final Map<String, String> parameters = new HashMap<>();
+        final String path = request.path();
+        final int[] offsets = this.maxParameters > 0 ? new int[this.maxParameters * 2] : null;
 
-        RouteNode current = this.root;
+        final RouteNode node = ParameterizableRouter.match(this.root, request.method(), path, 0, offsets, 0);
+        if (node == null) {
+            throw NoRouteMatchedException.of(request);
+        }
 
-        final String[] parts = request.path().split("/");
-        for (final String part : parts) {
-            if (part.isBlank()) {
-                continue;
+        final String[] parameterNames = node.getParameterNames();
+        final PathParameters parameters = parameterNames.length == 0
+                ? PathParameters.EMPTY
+                : new PathParameters(path, parameterNames, offsets);
+        return new Context(request, node.getHandlers(request.method()), parameters, node.getRoute());
+    }
+
+    /**
+     * Finds the node of the route matching the rest of the path, starting at {@code start}.
+     *
+     * @param node      The node matching the path up to {@code start}.
+     * @param method    The method of the request, only nodes with handlers for this method match.
+     * @param path      The request path.
+     * @param start     The position in the path to continue matching at.
+     * @param offsets   The offsets of the parameter values captured so far.
+     * @param captured  The number of parameter values captured so far.
+     * @return The matching node, or null if no route matches.
+     */
+    private static RouteNode match(final RouteNode node,
+                                   final Method method,
+                                   final String path,
+                                   final int start,
+                                   final int[] offsets,
+                                   final int captured) {
+        final int length = path.length();
+        int segmentStart = start;
+        while (segmentStart < length && path.charAt(segmentStart) == '/') {
+            segmentStart++;
+        }
+
+        if (segmentStart == length) {
+            if (ParameterizableRouter.hasHandlers(node, method)) {
+                return node;
             }
-            RouteNode next = current.getChild(part);
-            if (next == null) {
-                for (final RouteNode possibleChild : current.getChildren().values()) {
-                    if (possibleChild.isParameter()) {
-                        parameters.put(possibleChild.getPart(), part);
-                        next = possibleChild;
-                        break;
-                    }
-                }
+            // a wildcard also matches an empty rest
+            final RouteNode wildcard = node.getWildcardChild();
+            if (wildcard != null && ParameterizableRouter.hasHandlers(wildcard, method)) {
+                offsets[captured * 2] = length;
+                offsets[captured * 2 + 1] = length;
+                return wildcard;
+            }
+            return null;
+        }
+
+        int segmentEnd = path.indexOf('/', segmentStart);
+        if (segmentEnd == -1) {
+            segmentEnd = length;
+        }
+
+        final RouteNode staticChild = node.getStaticChild(path, segmentStart, segmentEnd);
+        if (staticChild != null) {
+            final RouteNode result = ParameterizableRouter.match(staticChild, method, path, segmentEnd, offsets, captured);
+            if (result != null) {
+                return result;
             }
-            if (next == null) {
-                throw new NoRouteMatchedException(request.path(), part);
+        }
+
+        final RouteNode parameterChild = node.getParameterChild();
+        if (parameterChild != null) {
+            final RouteNode result = ParameterizableRouter.match(parameterChild, method, path, segmentEnd, offsets, captured + 1);
+            if (result != null) {
+                offsets[captured * 2] = segmentStart;
+                offsets[captured * 2 + 1] = segmentEnd;
+                return result;
             }
-            current = next;
         }
 
-        final List<Handler> handlerList = current.getHandlers(request.method());
-        if (handlerList == null || handlerList.isEmpty()) {
-            throw NoRouteMatchedException.of(request);
+        final RouteNode wildcard = node.getWildcardChild();
+        if (wildcard != null && ParameterizableRouter.hasHandlers(wildcard, method)) {
+            offsets[captured * 2] = segmentStart;
+            offsets[captured * 2 + 1] = length;
+            return wildcard;
         }
+        return null;
+    }
 
-        return new Context(
-                request,
-                handlerList,
-                parameters
-        );
+    private static boolean hasHandlers(final RouteNode node, final Method method) {
+        final List<Handler> handlers = node.getHandlers(method);
+        return handlers != null && !handlers.isEmpty();
     }
 
 }
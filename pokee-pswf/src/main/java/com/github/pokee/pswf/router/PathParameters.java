@@ -0,0 +1,134 @@
+package com.github.pokee.pswf.router;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The parameters extracted from the path of a request by a router. Values are kept as offsets into the path
+ * and only turned into strings when they are accessed.
+ */
+public final class PathParameters {
+
+    /**
+     * Parameters of a route without any parameters.
+     */
+    public static final PathParameters EMPTY = new PathParameters("", new String[0], new int[0]);
+
+    private final String path;
+    private final String[] names;
+    private final int[] offsets;  // start and end of each value in the path
+    private final String[] values;
+
+    /**
+     * Constructs new PathParameters.
+     *
+     * @param path    The path the values are taken from.
+     * @param names   The names of the parameters.
+     * @param offsets Two offsets per parameter: the start (inclusive) and the end (exclusive) of its value.
+     */
+    public PathParameters(final String path, final String[] names, final int[] offsets) {
+        this.path = path;
+        this.names = names;
+        this.offsets = offsets;
+        this.values = new String[names.length];
+    }
+
+    private PathParameters(final String[] names, final String[] values) {
+        this.path = null;
+        this.names = names;
+        this.offsets = null;
+        this.values = values;
+    }
+
+    /**
+     * Creates parameters from a map of already extracted values.
+     *
+     * @param parameters The parameters.
+     * @return The path parameters.
+     */
+    public static PathParameters of(final Map<String, String> parameters) {
+        if (parameters.isEmpty()) {
+            return PathParameters.EMPTY;
+        }
+        final String[] names = new String[parameters.size()];
+        final String[] values = new String[parameters.size()];
+        int index = 0;
+        for (final Map.Entry<String, String> entry : parameters.entrySet()) {
+            names[index] = entry.getKey();
+            values[index++] = entry.getValue();
+        }
+        return new PathParameters(names, values);
+    }
+
+    /**
+     * @return The number of parameters.
+     */
+    public int size() {
+        return this.names.length;
+    }
+
+    /**
+     * Checks if a parameter is present.
+     *
+     * @param name The name of the parameter.
+     * @return true if the parameter exists, false otherwise.
+     */
+    public boolean has(final String name) {
+        return this.indexOf(name) != -1;
+    }
+
+    /**
+     * Retrieves the value of a parameter.
+     *
+     * @param name The name of the parameter.
+     * @return The value of the parameter, or null if not found.
+     */
+    public String get(final String name) {
+        final int index = this.indexOf(name);
+        if (index == -1) {
+            return null;
+        }
+        if (this.values[index] == null) {
+            this.values[index] = this.path.substring(this.offsets[index * 2], this.offsets[index * 2 + 1]);
+        }
+        return this.values[index];
+    }
+
+    /**
+     * Retrieves the value of a parameter, returning a default value if the parameter is not found.
+     *
+     * @param name         The name of the parameter.
+     * @param defaultValue The default value.
+     * @return The value of the parameter, or the default value if not found.
+     */
+    public String getOrDefault(final String name, final String defaultValue) {
+        final String value = this.get(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @return All parameters as a map, in path order.
+     */
+    public Map<String, String> toMap() {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (final String name : this.names) {
+            map.put(name, this.get(name));
+        }
+        return map;
+    }
+
+    private int indexOf(final String name) {
+        for (int i = 0; i < this.names.length; i++) {
+            if (this.names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return this.toMap().toString();
+    }
+
+}
@@ -4,67 +4,128 @@ import com.github.pokee.pswf.request.Method;
 import com.github.pokee.pswf.router.handler.Handler;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
- * Represents a node in a routing tree, storing mappings from URL parts to child nodes
- * and HTTP methods to handlers.
+ * Represents a node in a routing tree. Each node corresponds to one path segment and has three kinds of children:
+ * <ul>
+ *     <li>static children, kept in an open-addressing table so a segment can be looked up directly
+ *     from the request path without creating a substring</li>
+ *     <li>at most one parameter child ({@code :name}), matching any single segment</li>
+ *     <li>at most one wildcard child ({@code *} or {@code *name}), matching the rest of the path</li>
+ * </ul>
+ * The names of parameters are not stored in the parameter nodes but in the node a route ends at,
+ * so different routes may use different names for a parameter at the same position.
  */
 public class RouteNode {
 
-    private final Map<String, RouteNode> children;
-    private final Map<Method, List<Handler>> handlers;
+    private static final Method[] METHODS = Method.values();
 
     private final String part;
-    private final boolean isParameter;
+    private final Kind kind;
+
+    // open-addressing hash table of static children, the capacity is always a power of two
+    private String[] staticParts = new String[4];
+    private RouteNode[] staticChildren = new RouteNode[4];
+    private int staticCount = 0;
+
+    private RouteNode parameterChild = null;
+    private RouteNode wildcardChild = null;
+
+    // indexed by Method#ordinal()
+    private final List<Handler>[] handlers = RouteNode.newHandlerTable();
+    private String[] parameterNames = null;
+    private String route = null;
 
     /**
-     * Constructs a new RouteNode with the specified URL part and a flag indicating whether
-     * it represents a parameterized segment.
+     * Constructs a new RouteNode for the given path segment.
      *
-     * @param part        The part of the route associated with this node.
-     * @param isParameter Indicates whether the part is a parameter.
+     * @param part The part of the route associated with this node, without ':' or '*' prefix.
+     * @param kind The kind of segment this node matches.
      */
-    public RouteNode(final String part, final boolean isParameter) {
-        this.children = new HashMap<>();
-        this.handlers = new HashMap<>();
-
+    public RouteNode(final String part, final Kind kind) {
         this.part = part;
-        this.isParameter = isParameter;
+        this.kind = kind;
     }
 
     /**
      * Adds or retrieves a child node for a given part of the URL. If the part already exists,
-     * the existing node is returned.
+     * the existing node is returned. Parts starting with ':' create a parameter child,
+     * parts starting with '*' create a wildcard child.
      *
      * @param part The part of the URL to add as a child.
      * @return The child node corresponding to the part.
      */
     public RouteNode addChild(final String part) {
-        if (this.children.containsKey(part)) {
-            return this.children.get(part);
+        if (part.startsWith(":")) {
+            if (this.parameterChild == null) {
+                this.parameterChild = new RouteNode(part.substring(1), Kind.PARAMETER);
+            }
+            return this.parameterChild;
+        }
+        if (part.startsWith("*")) {
+            if (this.wildcardChild == null) {
+                this.wildcardChild = new RouteNode(part.substring(1), Kind.WILDCARD);
+            }
+            return this.wildcardChild;
         }
 
-        final boolean isParameter = part.startsWith(":");
-        final String actualPart = isParameter ? part.substring(1) : part;
-
-        final RouteNode node = new RouteNode(actualPart, isParameter);
-        this.children.put(part, node);
-
+        final RouteNode existing = this.getChild(part);
+        if (existing != null) {
+            return existing;
+        }
+        if ((this.staticCount + 1) * 2 > this.staticParts.length) {
+            this.resizeStaticChildren(this.staticParts.length * 2);
+        }
+        final RouteNode node = new RouteNode(part, Kind.STATIC);
+        this.putStatic(part, node);
+        this.staticCount++;
         return node;
     }
 
     /**
-     * Retrieves the child node corresponding to a given part of the URL.
+     * Retrieves the static child node corresponding to a given part of the URL.
      *
      * @param part The part to get the child node for.
      * @return The child node, or null if no such node exists.
      */
     public RouteNode getChild(final String part) {
-        return this.children.get(part);
+        return this.getStaticChild(part, 0, part.length());
+    }
+
+    /**
+     * Retrieves the static child node matching a segment of a path, without creating a substring.
+     *
+     * @param path  The path containing the segment.
+     * @param start The start of the segment (inclusive).
+     * @param end   The end of the segment (exclusive).
+     * @return The child node, or null if no such node exists.
+     */
+    RouteNode getStaticChild(final String path, final int start, final int end) {
+        if (this.staticCount == 0) {
+            return null;
+        }
+        final int length = end - start;
+        final int mask = this.staticParts.length - 1;
+        for (int index = RouteNode.spread(RouteNode.hash(path, start, end)) & mask; ; index = (index + 1) & mask) {
+            final String candidate = this.staticParts[index];
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.length() == length && path.regionMatches(start, candidate, 0, length)) {
+                return this.staticChildren[index];
+            }
+        }
+    }
+
+    RouteNode getParameterChild() {
+        return this.parameterChild;
+    }
+
+    RouteNode getWildcardChild() {
+        return this.wildcardChild;
     }
+
     /**
      * Adds a handler for a specific HTTP method to this node.
      *
@@ -72,8 +133,12 @@ public class RouteNode {
      * @param handler The handler to process requests for the given method.
      */
     public void addHandler(final Method method, final Handler handler) {
-        this.handlers.computeIfAbsent(method, k -> new ArrayList<>()).add(handler);
+        if (this.handlers[method.ordinal()] == null) {
+            this.handlers[method.ordinal()] = new ArrayList<>();
+        }
+        this.handlers[method.ordinal()].add(handler);
     }
+
     /**
      * Retrieves the list of handlers associated with a given HTTP method at this node.
      *
@@ -81,16 +146,66 @@ public class RouteNode {
      * @return A list of handlers, or null if no handlers are available for the method.
      */
     public List<Handler> getHandlers(final Method method) {
-        return this.handlers.get(method);
+        return this.handlers[method.ordinal()];
+    }
+
+    /**
+     * Checks if any handlers are registered at this node, for any method.
+     *
+     * @return true if a route ends at this node, otherwise false.
+     */
+    public boolean hasHandlers() {
+        for (final List<Handler> list : this.handlers) {
+            if (list != null && !list.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the names of the parameters captured on the way to this node, in path order.
+     *
+     * @param parameterNames The names of the parameters.
+     * @throws IllegalArgumentException If a route to this node was already registered with different names.
+     */
+    void setParameterNames(final String[] parameterNames) {
+        if (this.parameterNames != null && !List.of(this.parameterNames).equals(List.of(parameterNames))) {
+            throw new IllegalArgumentException("Conflicting parameter names for the same route: "
+                    + List.of(this.parameterNames) + " and " + List.of(parameterNames));
+        }
+        this.parameterNames = parameterNames;
     }
 
     /**
-     * Returns a map of all children nodes.
+     * Returns the names of the parameters captured on the way to this node, in path order.
      *
-     * @return A map where each key is a part of the URL and each value is the corresponding RouteNode.
+     * @return The parameter names, or null if no route ends at this node.
      */
-    Map<String, RouteNode> getChildren() {
-        return this.children;
+    String[] getParameterNames() {
+        return this.parameterNames;
+    }
+
+    /**
+     * Sets the route ending at this node as it was registered, e.g. {@code /hello/:name}.
+     * Routes with the same segments but different spelling (like a trailing slash) end at the same node,
+     * the first one registered is kept.
+     *
+     * @param route The route.
+     */
+    void setRoute(final String route) {
+        if (this.route == null) {
+            this.route = route;
+        }
+    }
+
+    /**
+     * Returns the route ending at this node as it was registered.
+     *
+     * @return The route, or null if no route ends at this node.
+     */
+    String getRoute() {
+        return this.route;
     }
 
     /**
@@ -99,7 +214,16 @@ public class RouteNode {
      * @return true if this node is parameterized, otherwise false.
      */
     public boolean isParameter() {
-        return this.isParameter;
+        return this.kind == Kind.PARAMETER;
+    }
+
+    /**
+     * Checks if this node matches the rest of the path.
+     *
+     * @return true if this node is a wildcard, otherwise false.
+     */
+    public boolean isWildcard() {
+        return this.kind == Kind.WILDCARD;
     }
 
     /**
@@ -111,4 +235,56 @@ public class RouteNode {
         return this.part;
     }
 
+    @SuppressWarnings("unchecked")
+    private static List<Handler>[] newHandlerTable() {
+        // generic arrays can't be created directly, the table never holds anything but handler lists
+        return (List<Handler>[]) new List<?>[METHODS.length];
+    }
+
+    private void putStatic(final String part, final RouteNode node) {
+        final int mask = this.staticParts.length - 1;
+        int index = RouteNode.spread(part.hashCode()) & mask;
+        while (this.staticParts[index] != null) {
+            index = (index + 1) & mask;
+        }
+        this.staticParts[index] = part;
+        this.staticChildren[index] = node;
+    }
+
+    private void resizeStaticChildren(final int capacity) {
+        final String[] parts = this.staticParts;
+        final RouteNode[] children = this.staticChildren;
+        this.staticParts = new String[capacity];
+        this.staticChildren = new RouteNode[capacity];
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i] != null) {
+                this.putStatic(parts[i], children[i]);
+            }
+        }
+    }
+
+    /**
+     * Computes the same hash as {@link String#hashCode()} for a region of a string.
+     */
+    private static int hash(final String path, final int start, final int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + path.charAt(i);
+        }
+        return hash;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * The kinds of path segments a node can match.
+     */
+    public enum Kind {
+        STATIC,
+        PARAMETER,
+        WILDCARD
+    }
+
 }
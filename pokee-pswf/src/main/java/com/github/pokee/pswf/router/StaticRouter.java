@@ -47,7 +47,7 @@ public class StaticRouter implements Router {
         if (handlersByPath == null || !handlersByPath.containsKey(request.path())) {
             throw NoRouteMatchedException.of(request);
         }
-        return new Context(request, List.copyOf(handlersByPath.get(request.path())), new HashMap<>());
+        return new Context(request, List.copyOf(handlersByPath.get(request.path())), PathParameters.EMPTY);
     }
 
 }
@@ -0,0 +1,76 @@
+package com.github.pokee.pswf.router.middleware;
+
+import com.github.pokee.pswf.router.Context;
+import com.github.pokee.pswf.router.handler.Handler;
+
+/**
+ * Intercepts requests before they reach the handlers of their route. A middleware decides whether the request
+ * continues by calling {@link Next#proceed()}: code before that call runs before the handlers, code after it runs
+ * once the handlers (and all following middleware) are done and can inspect or replace {@link Context#response}.
+ * A middleware which does not proceed short-circuits the request, e.g. after setting a response itself.
+ * <pre>{@code
+ * (context, next) -> {
+ *     final long started = System.nanoTime();
+ *     next.proceed();
+ *     final double millis = (System.nanoTime() - started) / 1e6;
+ *     context.response = context.response.withHeader("Server-Timing", "app;dur=" + millis);
+ * }
+ * }</pre>
+ * Middleware only runs for requests which matched a route. Exceptions are passed to the error handler.
+ */
+@FunctionalInterface
+public interface Middleware {
+
+    /**
+     * Creates a middleware which runs a handler before the request continues. If the handler sets a response,
+     * the request is not passed on, so e.g. an authentication check can answer with {@code 401} right away.
+     *
+     * @param handler The handler to run first.
+     * @return The middleware.
+     */
+    static Middleware before(final Handler handler) {
+        return (context, next) -> {
+            handler.handle(context);
+            if (context.response == null) {
+                next.proceed();
+            }
+        };
+    }
+
+    /**
+     * Creates a middleware which runs a handler after the request was handled, e.g. to add headers to the response.
+     *
+     * @param handler The handler to run last, {@link Context#response} contains the response so far.
+     * @return The middleware.
+     */
+    static Middleware after(final Handler handler) {
+        return (context, next) -> {
+            next.proceed();
+            handler.handle(context);
+        };
+    }
+
+    /**
+     * Handles a request.
+     *
+     * @param context The context of the request.
+     * @param next    Continues with the next middleware, or the handlers of the route after the last one.
+     */
+    void handle(final Context context, final Next next);
+
+    /**
+     * The rest of the middleware chain.
+     */
+    @FunctionalInterface
+    interface Next {
+
+        /**
+         * Runs the following middleware and the handlers of the route. Returns once they are done.
+         *
+         * @throws IllegalStateException If the handlers of the route already ran.
+         */
+        void proceed();
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.github.pokee.pswf.router.middleware;
+
+import com.github.pokee.pswf.router.Context;
+import com.github.pokee.pswf.router.handler.Handler;
+
+import java.util.Arrays;
+
+/**
+ * The middleware of a server in the order it was registered. Each middleware either applies to all requests or
+ * only to those whose path starts with a prefix. A prefix matches whole segments: {@code /api} matches
+ * {@code /api} and {@code /api/pokemon}, but not {@code /apiary}.
+ * <p>
+ * Middleware is registered while the server is built and only read while requests are handled.
+ */
+public final class MiddlewareStack {
+
+    private Entry[] entries = new Entry[0];
+
+    /**
+     * Adds a middleware for all requests.
+     *
+     * @param middleware The middleware.
+     */
+    public void add(final Middleware middleware) {
+        this.add("/", middleware);
+    }
+
+    /**
+     * Adds a middleware for requests whose path starts with a prefix.
+     *
+     * @param prefix     The prefix, e.g. {@code /api}; {@code /} for all requests.
+     * @param middleware The middleware.
+     */
+    public void add(final String prefix, final Middleware middleware) {
+        String normalized = prefix;
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        this.entries = Arrays.copyOf(this.entries, this.entries.length + 1);
+        this.entries[this.entries.length - 1] = new Entry(normalized, middleware);
+    }
+
+    /**
+     * @return true if no middleware was added
+     */
+    public boolean isEmpty() {
+        return this.entries.length == 0;
+    }
+
+    /**
+     * Runs the middleware matching the path of the request and, unless one of them short-circuits,
+     * the handlers of the route.
+     *
+     * @param context  The context of the request.
+     * @param handlers Runs the handlers of the route.
+     */
+    public void run(final Context context, final Handler handlers) {
+        new Invocation(this.entries, context, handlers).proceed();
+    }
+
+    /**
+     * A middleware and the prefix it applies to, without trailing slash (empty for all requests).
+     */
+    private record Entry(String prefix, Middleware middleware) {
+
+        boolean matches(final String path) {
+            return this.prefix.isEmpty()
+                    || path.startsWith(this.prefix)
+                    && (path.length() == this.prefix.length() || path.charAt(this.prefix.length()) == '/');
+        }
+
+    }
+
+    /**
+     * The progress of a single request through the stack.
+     */
+    private static final class Invocation implements Middleware.Next {
+
+        private final Entry[] entries;
+        private final Context context;
+        private final Handler handlers;
+        private int index = 0;
+        private boolean handled = false;
+
+        private Invocation(final Entry[] entries, final Context context, final Handler handlers) {
+            this.entries = entries;
+            this.context = context;
+            this.handlers = handlers;
+        }
+
+        @Override
+        public void proceed() {
+            final String path = this.context.getRequest().path();
+            while (this.index < this.entries.length) {
+                final Entry entry = this.entries[this.index++];
+                if (entry.matches(path)) {
+                    entry.middleware().handle(this.context, this);
+                    return;
+                }
+            }
+            if (this.handled) {
+                throw new IllegalStateException("The request was already passed on, call proceed() only once");
+            }
+            this.handled = true;
+            this.handlers.handle(this.context);
+        }
+
+    }
+
+}
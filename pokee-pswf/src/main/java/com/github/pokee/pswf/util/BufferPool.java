@@ -0,0 +1,88 @@
+package com.github.pokee.pswf.util;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe pool of equally sized heap {@link ByteBuffer}s, used to avoid allocating a new buffer for
+ * every request. Buffers which are larger than the pooled size can be acquired as well, but are allocated
+ * on demand and simply dropped when released.
+ */
+public class BufferPool {
+
+    /**
+     * The pool shared by the request and response handling of all connections.
+     */
+    public static final BufferPool DEFAULT = new BufferPool(16 * 1024, 256);
+
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    /**
+     * Constructs a new pool.
+     *
+     * @param bufferSize       the capacity of the pooled buffers
+     * @param maxPooledBuffers the maximum number of idle buffers kept in the pool
+     */
+    public BufferPool(final int bufferSize, final int maxPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * @return the capacity of the pooled buffers
+     */
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Takes a cleared buffer of the pooled size from the pool, or allocates a new one if the pool is empty.
+     *
+     * @return the buffer
+     */
+    public ByteBuffer acquire() {
+        final ByteBuffer buffer = this.buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocate(this.bufferSize);
+        }
+        this.pooledBuffers.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Takes a cleared buffer with at least the given capacity.
+     *
+     * @param minCapacity the required capacity
+     * @return the buffer, pooled if {@code minCapacity} does not exceed the pooled size
+     */
+    public ByteBuffer acquire(final int minCapacity) {
+        if (minCapacity > this.bufferSize) {
+            return ByteBuffer.allocate(minCapacity);
+        }
+        return this.acquire();
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used by the caller afterward.
+     * Buffers of a different size and buffers exceeding the pool's limit are dropped.
+     *
+     * @param buffer the buffer, may be null
+     */
+    public void release(final ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != this.bufferSize || buffer.isReadOnly() || buffer.isDirect()) {
+            return;
+        }
+        if (this.pooledBuffers.incrementAndGet() > this.maxPooledBuffers) {
+            this.pooledBuffers.decrementAndGet();
+            return;
+        }
+        this.buffers.offer(buffer);
+    }
+
+}
@@ -1,7 +1,12 @@
 package com.github.pokee.pswf.util;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
- * Provides constants for various MIME types used to specify the content type of files and data in HTTP headers.
+ * Provides constants for various MIME types used to specify the content type of files and data in HTTP headers,
+ * and detects the type of files by their extension, see {@link #forFileName(String)}.
  */
 @SuppressWarnings("unused") // this is a util class...
 public class ContentTypes {
@@ -61,4 +66,81 @@ public class ContentTypes {
      */
     public static final String JAVASCRIPT = "application/javascript";
 
+    /**
+     * MIME type for WebP images.
+     */
+    public static final String WEBP = "image/webp";
+
+    /**
+     * MIME type for icons, e.g. favicons.
+     */
+    public static final String ICO = "image/x-icon";
+
+    /**
+     * MIME type for WOFF2 fonts.
+     */
+    public static final String WOFF2 = "font/woff2";
+
+    /**
+     * MIME type for WebAssembly modules.
+     */
+    public static final String WASM = "application/wasm";
+
+    /**
+     * MIME type for arbitrary binary data, used for files of unknown type.
+     */
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    private static final Map<String, String> BY_EXTENSION = new HashMap<>();
+
+    static {
+        BY_EXTENSION.put("html", HTML);
+        BY_EXTENSION.put("htm", HTML);
+        BY_EXTENSION.put("css", CSS);
+        BY_EXTENSION.put("json", JSON);
+        BY_EXTENSION.put("map", JSON);
+        BY_EXTENSION.put("xml", XML);
+        BY_EXTENSION.put("txt", TEXT);
+        BY_EXTENSION.put("md", "text/markdown");
+        BY_EXTENSION.put("csv", "text/csv");
+        BY_EXTENSION.put("js", JAVASCRIPT);
+        BY_EXTENSION.put("mjs", JAVASCRIPT);
+        BY_EXTENSION.put("jpg", JPEG);
+        BY_EXTENSION.put("jpeg", JPEG);
+        BY_EXTENSION.put("png", PNG);
+        BY_EXTENSION.put("gif", GIF);
+        BY_EXTENSION.put("svg", SVG);
+        BY_EXTENSION.put("webp", WEBP);
+        BY_EXTENSION.put("avif", "image/avif");
+        BY_EXTENSION.put("ico", ICO);
+        BY_EXTENSION.put("pdf", PDF);
+        BY_EXTENSION.put("woff", "font/woff");
+        BY_EXTENSION.put("woff2", WOFF2);
+        BY_EXTENSION.put("ttf", "font/ttf");
+        BY_EXTENSION.put("otf", "font/otf");
+        BY_EXTENSION.put("wasm", WASM);
+        BY_EXTENSION.put("mp3", "audio/mpeg");
+        BY_EXTENSION.put("ogg", "audio/ogg");
+        BY_EXTENSION.put("wav", "audio/wav");
+        BY_EXTENSION.put("mp4", "video/mp4");
+        BY_EXTENSION.put("webm", "video/webm");
+        BY_EXTENSION.put("zip", "application/zip");
+        BY_EXTENSION.put("gz", "application/gzip");
+    }
+
+    /**
+     * Detects the MIME type of a file by its extension, ignoring case.
+     *
+     * @param fileName the name of the file, e.g. {@code index.html}
+     * @return the MIME type, {@link #OCTET_STREAM} if the extension is unknown
+     */
+    public static String forFileName(final String fileName) {
+        final int dot = fileName.lastIndexOf('.');
+        if (dot == -1 || dot == fileName.length() - 1) {
+            return OCTET_STREAM;
+        }
+        final String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return BY_EXTENSION.getOrDefault(extension, OCTET_STREAM);
+    }
+
 }
\ No newline at end of file
@@ -3,54 +3,118 @@ package com.github.pokee.pswf.util;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * A utility class to parse URL query strings into a map of parameters and their values.
+ * A utility class to parse URL query strings into parameters and their values.
+ * <p>
+ * The query is scanned once when the instance is created, which only records where each key and value starts and
+ * ends. Keys and values are decoded when they are accessed and then cached, so does the parsing of integer values.
+ * Parameters keep the order they were sent in, and a key may occur more than once.
  */
 public class UrlSearchParams {
 
-    private final Map<String, String> params;
+    private static final int[] NO_OFFSETS = new int[0];
+
+    private static final byte KEY_ESCAPED = 1;
+    private static final byte VALUE_ESCAPED = 2;
+
+    private static final byte INT_UNKNOWN = 0;
+    private static final byte INT_VALID = 1;
+    private static final byte INT_INVALID = 2;
+
+    private final String query;
+
+    private int size = 0;
+    // keyStart, keyEnd, valueStart, valueEnd for each parameter, pointing into the query
+    private int[] offsets = NO_OFFSETS;
+    // KEY_ESCAPED and VALUE_ESCAPED flags for each parameter
+    private byte[] escaped = null;
+
+    // lazily decoded, parameters set later only exist here
+    private String[] keys = null;
+    private String[] values = null;
+    private int[] ints = null;
+    private byte[] intStates = null;
 
     /**
      * Constructs an instance of {@code UrlSearchParams} initialized with parsed parameters from the provided query string.
      *
-     * @param query the URL query string to parse
+     * @param query the URL query string to parse, still escaped and without the leading '?'
      */
     public UrlSearchParams(final String query) {
-        this.params = parse(query);
+        this.query = query == null ? "" : query;
+        this.scan();
     }
 
     /**
-     * Parses the provided URL query string into a map of parameter keys and values.
+     * Finds the keys and values in the query.
      * <p>
      * Parameters and values are separated by '=', and each pair is separated by '&'.
-     * Empty values result in the key being stored with an empty string as its value.
-     *
-     * @param query the URL query string to parse
-     * @return a map containing the parameters and their respective values
+     * Empty values result in the key being stored with an empty string as its value, empty pairs are skipped.
      */
-    private static Map<String, String> parse(final String query) {
-        final Map<String, String> result = new HashMap<>();
-        if (query == null || query.isEmpty()) {
-            return result;
+    private void scan() {
+        final String query = this.query;
+        final int length = query.length();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            int separator = -1;
+            byte flags = 0;
+            for (char c; end < length && (c = query.charAt(end)) != '&'; end++) {
+                if (c == '=' && separator == -1) {
+                    separator = end;
+                } else if (c == '%' || c == '+') {
+                    flags |= separator == -1 ? KEY_ESCAPED : VALUE_ESCAPED;
+                }
+            }
+            if (end > start) {
+                if (separator == -1) {
+                    // ?abc&def=ghi
+                    this.addOffsets(start, end, end, end, flags);
+                } else {
+                    // ?abc=def&ghi=jkl
+                    this.addOffsets(start, separator, separator + 1, end, flags);
+                }
+            }
+            start = end + 1;
         }
+    }
 
-        for (String pair : query.split("&")) {
-            int idx = pair.indexOf('=');
-            if (idx != -1) {
-                // ?abc=def&ghi=jkl
-                final String key = pair.substring(0, idx);
-                final String value = (idx < pair.length() - 1) ? pair.substring(idx + 1) : "";
-                result.put(key, value);
-            } else {
-                // ?abc&def=ghi
-                result.put(pair, "");
+    private void addOffsets(final int keyStart, final int keyEnd, final int valueStart, final int valueEnd,
+                            final byte flags) {
+        final int index = this.grow();
+        this.offsets[index * 4] = keyStart;
+        this.offsets[index * 4 + 1] = keyEnd;
+        this.offsets[index * 4 + 2] = valueStart;
+        this.offsets[index * 4 + 3] = valueEnd;
+        this.escaped[index] = flags;
+    }
+
+    /**
+     * Makes room for one more parameter.
+     *
+     * @return the index of the new parameter
+     */
+    private int grow() {
+        if (this.size * 4 == this.offsets.length) {
+            final int capacity = Math.max(4, this.size * 2);
+            this.offsets = Arrays.copyOf(this.offsets, capacity * 4);
+            this.escaped = this.escaped == null ? new byte[capacity] : Arrays.copyOf(this.escaped, capacity);
+            if (this.keys != null) {
+                this.keys = Arrays.copyOf(this.keys, capacity);
+            }
+            if (this.values != null) {
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+            if (this.ints != null) {
+                this.ints = Arrays.copyOf(this.ints, capacity);
+                this.intStates = Arrays.copyOf(this.intStates, capacity);
             }
         }
-
-        return result;
+        return this.size++;
     }
 
     /**
@@ -74,41 +138,265 @@ public class UrlSearchParams {
     }
 
     /**
-     * Retrieves the value associated with the given parameter key.
+     * Unescapes a part of a query: '+' becomes a space and {@code %XX} sequences are decoded as UTF-8.
+     * Unlike {@link #unescape(String)}, malformed escape sequences are kept as they are instead of failing.
+     *
+     * @param value the string containing the escaped part
+     * @param start the start of the part (inclusive)
+     * @param end   the end of the part (exclusive)
+     * @return the unescaped part
+     */
+    public static String unescape(final String value, final int start, final int end) {
+        final byte[] bytes = new byte[(end - start) * 3];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c == '+') {
+                bytes[length++] = ' ';
+            } else if (c == '%' && i + 2 < end
+                    && Character.digit(value.charAt(i + 1), 16) != -1
+                    && Character.digit(value.charAt(i + 2), 16) != -1) {
+                bytes[length++] = (byte) (Character.digit(value.charAt(i + 1), 16) << 4
+                        | Character.digit(value.charAt(i + 2), 16));
+                i += 2;
+            } else if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else {
+                // characters which should have been escaped, encode the whole run so surrogate pairs stay intact
+                int runEnd = i + 1;
+                while (runEnd < end && value.charAt(runEnd) >= 0x80) {
+                    runEnd++;
+                }
+                final byte[] encoded = value.substring(i, runEnd).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(encoded, 0, bytes, length, encoded.length);
+                length += encoded.length;
+                i = runEnd - 1;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private String decode(final int start, final int end, final boolean escaped) {
+        if (start == end) {
+            return "";
+        }
+        return escaped ? UrlSearchParams.unescape(this.query, start, end) : this.query.substring(start, end);
+    }
+
+    private String key(final int index) {
+        if (this.keys == null) {
+            this.keys = new String[this.escaped.length];
+        }
+        String key = this.keys[index];
+        if (key == null) {
+            key = this.decode(this.offsets[index * 4], this.offsets[index * 4 + 1],
+                    (this.escaped[index] & KEY_ESCAPED) != 0);
+            this.keys[index] = key;
+        }
+        return key;
+    }
+
+    private String value(final int index) {
+        if (this.values == null) {
+            this.values = new String[this.escaped.length];
+        }
+        String value = this.values[index];
+        if (value == null) {
+            value = this.decode(this.offsets[index * 4 + 2], this.offsets[index * 4 + 3],
+                    (this.escaped[index] & VALUE_ESCAPED) != 0);
+            this.values[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Finds a parameter, comparing unescaped keys directly with the query so they don't have to be decoded.
+     *
+     * @param key  the parameter key
+     * @param from the index to start searching at
+     * @return the index of the first parameter with that key at or after {@code from}, or -1
+     */
+    private int indexOf(final String key, final int from) {
+        for (int i = from; i < this.size; i++) {
+            if ((this.keys != null && this.keys[i] != null) || (this.escaped[i] & KEY_ESCAPED) != 0) {
+                if (this.key(i).equals(key)) {
+                    return i;
+                }
+                continue;
+            }
+            final int start = this.offsets[i * 4];
+            final int length = this.offsets[i * 4 + 1] - start;
+            if (length == key.length() && this.query.regionMatches(start, key, 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the first value associated with the given parameter key.
      *
      * @param key the parameter key to look up
      * @return the value associated with the key, or {@code null} if the key does not exist
      */
     public String get(String key) {
-        return params.get(key);
+        final int index = this.indexOf(key, 0);
+        return index == -1 ? null : this.value(index);
+    }
+
+    /**
+     * Retrieves all values associated with the given parameter key, e.g. {@code [1, 2]} for {@code ?id=1&id=2}.
+     *
+     * @param key the parameter key to look up
+     * @return the values in the order they were sent, or an empty list if the key does not exist
+     */
+    public List<String> getAll(final String key) {
+        int index = this.indexOf(key, 0);
+        if (index == -1) {
+            return List.of();
+        }
+        final List<String> result = new ArrayList<>(1);
+        do {
+            result.add(this.value(index));
+            index = this.indexOf(key, index + 1);
+        } while (index != -1);
+        return result;
+    }
+
+    /**
+     * Retrieves the first value associated with the given parameter key as an integer.
+     * The parsed value is cached, so repeated lookups don't parse it again.
+     *
+     * @param key the parameter key to look up
+     * @return the integer value
+     * @throws NumberFormatException if the key does not exist or its value is not an integer
+     */
+    public int getInt(final String key) {
+        final int index = this.indexOf(key, 0);
+        if (index == -1) {
+            throw new NumberFormatException("Missing parameter: " + key);
+        }
+        if (!this.parseInt(index)) {
+            throw new NumberFormatException("Not an integer: " + key);
+        }
+        return this.ints[index];
+    }
+
+    /**
+     * Retrieves the first value associated with the given parameter key as an integer.
+     * The parsed value is cached, so repeated lookups don't parse it again.
+     *
+     * @param key          the parameter key to look up
+     * @param defaultValue the value to return if the key does not exist or its value is not an integer
+     * @return the integer value, or the default value
+     */
+    public int getInt(final String key, final int defaultValue) {
+        final int index = this.indexOf(key, 0);
+        return index != -1 && this.parseInt(index) ? this.ints[index] : defaultValue;
+    }
+
+    /**
+     * Parses the value of a parameter as an integer and caches the result.
+     *
+     * @return true if the value is an integer, which is then stored in {@link #ints}
+     */
+    private boolean parseInt(final int index) {
+        if (this.ints == null) {
+            this.ints = new int[this.escaped.length];
+            this.intStates = new byte[this.escaped.length];
+        }
+        if (this.intStates[index] == INT_UNKNOWN) {
+            try {
+                this.ints[index] = Integer.parseInt(this.value(index));
+                this.intStates[index] = INT_VALID;
+            } catch (final NumberFormatException numberFormatException) {
+                this.intStates[index] = INT_INVALID;
+            }
+        }
+        return this.intStates[index] == INT_VALID;
     }
 
     /**
      * Sets or updates the value associated with the given parameter key.
+     * Other values of the same key are removed.
      *
      * @param key   the parameter key to set or update
      * @param value the value to associate with the key
      */
     public void set(String key, String value) {
-        params.put(key, value);
+        final int index = this.indexOf(key, 0);
+        if (index == -1) {
+            this.append(key, value);
+            return;
+        }
+        this.put(index, key, value);
+        for (int other = this.indexOf(key, index + 1); other != -1; other = this.indexOf(key, other)) {
+            this.removeAt(other);
+        }
     }
 
     /**
-     * Removes the parameter associated with the given key.
+     * Adds a value to the given parameter key, keeping existing values.
+     *
+     * @param key   the parameter key
+     * @param value the value to add
+     */
+    public void append(final String key, final String value) {
+        this.put(this.grow(), key, value);
+    }
+
+    private void put(final int index, final String key, final String value) {
+        if (this.keys == null) {
+            this.keys = new String[this.escaped.length];
+        }
+        if (this.values == null) {
+            this.values = new String[this.escaped.length];
+        }
+        this.keys[index] = key;
+        this.values[index] = value;
+        if (this.intStates != null) {
+            this.intStates[index] = INT_UNKNOWN;
+        }
+    }
+
+    /**
+     * Removes all parameters associated with the given key.
      *
      * @param key the parameter key to remove
      */
     public void remove(String key) {
-        params.remove(key);
+        for (int index = this.indexOf(key, 0); index != -1; index = this.indexOf(key, index)) {
+            this.removeAt(index);
+        }
+    }
+
+    private void removeAt(final int index) {
+        final int moved = this.size - index - 1;
+        System.arraycopy(this.offsets, (index + 1) * 4, this.offsets, index * 4, moved * 4);
+        System.arraycopy(this.escaped, index + 1, this.escaped, index, moved);
+        if (this.keys != null) {
+            System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+            this.keys[this.size - 1] = null;
+        }
+        if (this.values != null) {
+            System.arraycopy(this.values, index + 1, this.values, index, moved);
+            this.values[this.size - 1] = null;
+        }
+        if (this.ints != null) {
+            System.arraycopy(this.ints, index + 1, this.ints, index, moved);
+            System.arraycopy(this.intStates, index + 1, this.intStates, index, moved);
+            this.intStates[this.size - 1] = INT_UNKNOWN;
+        }
+        this.size--;
     }
 
     /**
-     * Returns the number of parameters stored.
+     * Returns the number of parameters stored, counting each value of a repeated key.
      *
      * @return the number of parameters
      */
     public int size() {
-        return params.size();
+        return this.size;
     }
 
     /**
@@ -118,7 +406,7 @@ public class UrlSearchParams {
      * @return {@code true} if the key exists, {@code false} otherwise
      */
     public boolean has(String key) {
-        return params.containsKey(key);
+        return this.indexOf(key, 0) != -1;
     }
 
     /**
@@ -129,13 +417,13 @@ public class UrlSearchParams {
     @Override
     public String toString() {
         final StringBuilder result = new StringBuilder();
-        for (Map.Entry<String, String> entry : params.entrySet()) {
+        for (int i = 0; i < this.size; i++) {
             if (!result.isEmpty()) {
                 result.append("&");
             }
-            result.append(UrlSearchParams.escape(entry.getKey()))
+            result.append(UrlSearchParams.escape(this.key(i)))
                     .append("=")
-                    .append(UrlSearchParams.escape(entry.getValue()));
+                    .append(UrlSearchParams.escape(this.value(i)));
         }
         return result.toString();
     }
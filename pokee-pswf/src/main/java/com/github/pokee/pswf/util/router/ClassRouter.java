@@ -5,11 +5,15 @@ import com.github.pokee.pswf.annotation.method.GET;
 import com.github.pokee.pswf.annotation.method.POST;
 import com.github.pokee.pswf.request.Method;
 import com.github.pokee.pswf.router.Router;
+import com.github.pokee.pswf.router.handler.Handler;
 
 import java.lang.reflect.InvocationTargetException;
 
 /**
  * A router that dynamically registers HTTP route handlers based on method annotations within a specified class.
+ * <p>
+ * If the handler class was compiled with the {@code pokee-pswf-processor} annotation processor, the generated
+ * {@link RouteRegistrar} is used instead, which registers the routes without reflection.
  */
 public class ClassRouter {
 
@@ -19,6 +23,14 @@ public class ClassRouter {
      * @param handlerInstance The instance of the class that contains annotated methods to be registered as routes.
      */
     public static void registerRoutes(final Router router, final Object handlerInstance) {
+        final RouteRegistrar registrar = ClassRouter.findRegistrar(handlerInstance.getClass());
+        if (registrar != null) {
+            System.out.println("Registering routes of " + handlerInstance.getClass().getName()
+                    + " with generated registrar: " + registrar.getClass().getName());
+            registrar.registerRoutes(router, handlerInstance);
+            return;
+        }
+
         final RoutePrefix routePrefixAnnotation = handlerInstance.getClass().getAnnotation(RoutePrefix.class);
         final String prefix = routePrefixAnnotation != null ? routePrefixAnnotation.value() : "";
 
@@ -27,6 +39,34 @@ public class ClassRouter {
         }
     }
 
+    /**
+     * Looks up the registrar generated for a handler class.
+     *
+     * @param handlerClass The class of the handler.
+     * @return The registrar, or null if none was generated.
+     */
+    private static RouteRegistrar findRegistrar(final Class<?> handlerClass) {
+        final String packageName = handlerClass.getPackageName();
+        final String simpleName = handlerClass.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+        final String registrarName = (packageName.isEmpty() ? "" : packageName + ".")
+                + simpleName.replace('$', '_') + RouteRegistrar.SUFFIX;
+
+        final Class<?> registrarClass;
+        try {
+            registrarClass = Class.forName(registrarName, true, handlerClass.getClassLoader());
+        } catch (final ClassNotFoundException exception) {
+            return null;
+        }
+        if (!RouteRegistrar.class.isAssignableFrom(registrarClass)) {
+            return null;
+        }
+        try {
+            return (RouteRegistrar) registrarClass.getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException exception) {
+            throw new IllegalStateException("Cannot create generated registrar " + registrarName, exception);
+        }
+    }
+
     /**
      * Registers a single method as a route, if applicable, based on its annotations.
      *
@@ -45,13 +85,16 @@ public class ClassRouter {
         final MethodTransformer transformer = MethodTransformer.fromMethod(method);
 
         System.out.println("Registering route: " + requestMethod + " " + path + " with transformer: " + transformer);
-        router.registerRoute(requestMethod, path, context -> {
+        final Handler handler = context -> {
             try {
                 context.response = transformer.run(handlerInstance, context);
-            } catch (InvocationTargetException | IllegalAccessException e) {
-                throw new RuntimeException(e);
+            } catch (final InvocationTargetException e) {
+                throw new RuntimeException(e.getCause());
             }
-        });
+        };
+        router.registerRoute(requestMethod, path, transformer.cache() != null
+                ? transformer.cache().wrap(handler)
+                : handler);
     }
 
     /**
@@ -1,14 +1,23 @@
 package com.github.pokee.pswf.util.router;
 
+import com.github.pokee.pswf.annotation.data.Body;
 import com.github.pokee.pswf.annotation.data.Param;
 import com.github.pokee.pswf.annotation.data.Query;
+import com.github.pokee.pswf.annotation.generator.Cached;
 import com.github.pokee.pswf.annotation.generator.ContentType;
+import com.github.pokee.pswf.request.RequestBody;
 import com.github.pokee.pswf.response.Response;
 import com.github.pokee.pswf.response.ResponseBuilder;
+import com.github.pokee.pswf.response.ResponseCache;
 import com.github.pokee.pswf.response.ResponseLike;
 import com.github.pokee.pswf.router.Context;
 
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,17 +25,87 @@ import java.util.function.Consumer;
 
 /**
  * Helper class to transform HTTP context into method calls and build responses.
+ * <p>
+ * Everything about the method is resolved once when the transformer is created: the annotations of the parameters
+ * are turned into {@link ContextTransformer}s, and the method is bound to a {@link MethodHandle}, so a request
+ * is handled without reflection.
  */
 public record MethodTransformer(
         java.lang.reflect.Method method,
         List<ContextTransformer> parameterTransformers,
-        List<Consumer<ResponseBuilder>> steps
+        List<Consumer<ResponseBuilder>> steps,
+        ResponseCache cache,  // null if the responses are not cached
+        Invoker invoker
 ) {
 
     public static MethodTransformer fromMethod(final java.lang.reflect.Method method) {
         final List<Consumer<ResponseBuilder>> steps = extractResponseSteps(method);
         final List<ContextTransformer> parameterTransformers = extractParameterTransformers(method);
-        return new MethodTransformer(method, parameterTransformers, steps);
+        final Invoker invoker = createInvoker(method, parameterTransformers);
+        return new MethodTransformer(method, parameterTransformers, steps, extractCache(method), invoker);
+    }
+
+    /**
+     * Binds the method to a method handle which takes the instance and the arguments as objects.
+     * Methods with up to three parameters are invoked with the extracted arguments directly,
+     * methods with more parameters receive them in an array.
+     *
+     * @param method       The method to bind.
+     * @param transformers The transformers extracting the arguments of the method from the context.
+     * @return The invoker calling the method.
+     * @throws IllegalArgumentException If the method is not accessible.
+     */
+    private static Invoker createInvoker(final java.lang.reflect.Method method,
+                                         final List<ContextTransformer> transformers) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (final IllegalAccessException exception) {
+            throw new IllegalArgumentException("Handler method is not accessible: " + method, exception);
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+
+        final int count = transformers.size();
+        final MethodHandle generic = handle.asType(MethodType.genericMethodType(count + 1));
+        final ContextTransformer[] extractors = transformers.toArray(new ContextTransformer[0]);
+        return switch (count) {
+            case 0 -> (instance, context) -> generic.invokeExact(instance);
+            case 1 -> (instance, context) -> generic.invokeExact(instance,
+                    extractors[0].transform(context));
+            case 2 -> (instance, context) -> generic.invokeExact(instance,
+                    extractors[0].transform(context),
+                    extractors[1].transform(context));
+            case 3 -> (instance, context) -> generic.invokeExact(instance,
+                    extractors[0].transform(context),
+                    extractors[1].transform(context),
+                    extractors[2].transform(context));
+            default -> {
+                final MethodHandle spreader = generic.asSpreader(Object[].class, count);
+                yield (instance, context) -> {
+                    final Object[] arguments = new Object[count];
+                    for (int i = 0; i < count; i++) {
+                        arguments[i] = extractors[i].transform(context);
+                    }
+                    return spreader.invokeExact(instance, arguments);
+                };
+            }
+        };
+    }
+
+    /**
+     * Creates the response cache for methods annotated with {@link Cached}.
+     *
+     * @param method The method to inspect.
+     * @return The response cache, or null if the method is not cached.
+     */
+    private static ResponseCache extractCache(final java.lang.reflect.Method method) {
+        final Cached cached = method.getAnnotation(Cached.class);
+        if (cached == null) {
+            return null;
+        }
+        return new ResponseCache(cached.ttl(), cached.unit(), cached.maxEntries(), cached.varyBy());
     }
 
     /**
@@ -73,30 +152,47 @@ public record MethodTransformer(
         }
 
         if (parameter.isAnnotationPresent(Param.class)) {
+            final String name = parameter.getAnnotation(Param.class).value();
             if (String.class.equals(parameterType)) {
-                return context -> context.param(parameter.getAnnotation(Param.class).value());
+                return context -> context.param(name);
             }
             if (isInteger) {
-                return context -> context.paramInt(parameter.getAnnotation(Param.class).value(), 0);
+                return context -> context.paramInt(name, 0);
             }
             throw new IllegalArgumentException("Unsupported parameter type: " + parameterType);
         }
         if (parameter.isAnnotationPresent(Query.class)) {
             final Query query = parameter.getAnnotation(Query.class);
+            final String name = query.value();
+            final String fallback = query.fallback();
+            final boolean hasFallback = fallback != null && !fallback.isEmpty();
             if (String.class.equals(parameterType)) {
-                if (query.fallback() != null && !query.fallback().isEmpty()) {
-                    return context -> context.query(query.value(), query.fallback());
+                if (hasFallback) {
+                    return context -> context.query(name, fallback);
                 }
-                return context -> context.query(query.value());
+                return context -> context.query(name);
             }
             if (isInteger) {
-                if (query.fallback() != null && !query.fallback().isEmpty()) {
-                    return context -> context.queryInt(query.value(), Integer.parseInt(query.fallback()));
-                }
-                return context -> context.queryInt(query.value(), 0);
+                final int intFallback = hasFallback ? Integer.parseInt(fallback) : 0;
+                return context -> context.queryInt(name, intFallback);
             }
             throw new IllegalArgumentException("Unsupported query type: " + parameterType);
         }
+        if (parameter.isAnnotationPresent(Body.class)) {
+            if (RequestBody.class.equals(parameterType)) {
+                return Context::body;
+            }
+            if (InputStream.class.equals(parameterType)) {
+                return context -> context.body().stream();
+            }
+            if (String.class.equals(parameterType)) {
+                return context -> context.body().text();
+            }
+            if (byte[].class.equals(parameterType)) {
+                return context -> context.body().bytes();
+            }
+            return context -> context.body(parameterType);
+        }
         throw new IllegalArgumentException("Unsupported parameter type: " + parameter.getType());
     }
 
@@ -106,16 +202,18 @@ public record MethodTransformer(
      * @param instance The class instance on which to invoke the method.
      * @param context  The current request context.
      * @return A Response generated by the method invocation.
-     * @throws InvocationTargetException If the method throws an exception.
-     * @throws IllegalAccessException    If the method access is illegal or inappropriate.
+     * @throws InvocationTargetException If the method throws a checked exception. Unchecked exceptions
+     *                                   are passed on as they are.
      */
-    public Response run(final Object instance, final Context context) throws InvocationTargetException, IllegalAccessException {
-        final List<Object> parameters = new ArrayList<>();
-        for (final ContextTransformer transformer : this.parameterTransformers) {
-            parameters.add(transformer.transform(context));
+    public Response run(final Object instance, final Context context) throws InvocationTargetException {
+        final Object methodReturnValue;
+        try {
+            methodReturnValue = this.invoker.invoke(instance, context);
+        } catch (final RuntimeException | Error exception) {
+            throw exception;
+        } catch (final Throwable throwable) {
+            throw new InvocationTargetException(throwable);
         }
-
-        final Object methodReturnValue = this.method.invoke(instance, parameters.toArray());
         if (methodReturnValue instanceof final ResponseLike responseLike) {
             return responseLike.extractResponse();
         }
@@ -143,4 +241,15 @@ public record MethodTransformer(
         }
         return null;
     }
+
+    /**
+     * Calls the handler method with the arguments extracted from a context.
+     */
+    @FunctionalInterface
+    public interface Invoker {
+
+        Object invoke(final Object instance, final Context context) throws Throwable;
+
+    }
+
 }
@@ -0,0 +1,26 @@
+package com.github.pokee.pswf.util.router;
+
+import com.github.pokee.pswf.router.Router;
+
+/**
+ * Registers the routes of a handler class without reflection. Implementations are generated at compile time by the
+ * {@code pokee-pswf-processor} annotation processor, one per handler class, and picked up by
+ * {@link ClassRouter#registerRoutes(Router, Object)}.
+ * <p>
+ * A generated registrar is named after its handler class with a {@value #SUFFIX} suffix and lives in the same
+ * package, e.g. {@code PokemonHandler_Routes} for {@code PokemonHandler}. Nested classes are named after all
+ * enclosing classes, joined by underscores.
+ */
+public interface RouteRegistrar {
+
+    String SUFFIX = "_Routes";
+
+    /**
+     * Registers all routes of the handler.
+     *
+     * @param router  The router to register the routes with.
+     * @param handler The handler instance, which is of the class the registrar was generated for.
+     */
+    void registerRoutes(final Router router, final Object handler);
+
+}
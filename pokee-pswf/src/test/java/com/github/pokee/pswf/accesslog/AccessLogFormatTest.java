@@ -0,0 +1,95 @@
+package com.github.pokee.pswf.accesslog;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Version;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogFormatTest {
+
+    private static final long TIME_MILLIS = 1_700_000_000_000L;  // 2023-11-14T22:13:20Z
+
+    private static AccessLogEntry entry(final String path, final String query, final Headers headers)
+            throws UnknownHostException {
+        return new AccessLogEntry(TIME_MILLIS, InetAddress.getByName("127.0.0.1"), Method.GET, path, query,
+                Version.VERSION_1_1, headers, 200, 11, 1_234_567);
+    }
+
+    private static String format(final AccessLogFormat format, final AccessLogEntry entry) {
+        final StringBuilder builder = new StringBuilder();
+        format.format(entry, builder);
+        return builder.toString();
+    }
+
+    @Test
+    void testCommon() throws UnknownHostException {
+        final String line = format(AccessLogFormat.COMMON, entry("/hello", "name=world", new Headers()));
+        // the time is formatted in the default time zone
+        assertTrue(line.matches("127\\.0\\.0\\.1 - - \\[\\d\\d/Nov/2023:\\d\\d:\\d\\d:20 [+-]\\d{4}] "
+                + "\"GET /hello\\?name=world HTTP/1\\.1\" 200 11"), line);
+    }
+
+    @Test
+    void testCombined() throws UnknownHostException {
+        final Headers headers = new Headers();
+        headers.set("User-Agent", "curl/8.0");
+        final String line = format(AccessLogFormat.COMBINED, entry("/hello", null, headers));
+        assertTrue(line.endsWith("\"GET /hello HTTP/1.1\" 200 11 \"-\" \"curl/8.0\""), line);
+    }
+
+    @Test
+    void testPattern() throws UnknownHostException {
+        final Headers headers = new Headers();
+        headers.set("X-Trainer", "Ash");
+        final AccessLogEntry entry = entry("/pokemon", "id=25", headers);
+        assertEquals("GET /pokemon ?id=25 HTTP/1.1 200 1234 0 100% Ash -",
+                format(AccessLogFormat.pattern("%m %U %q %H %s %D %T 100%% %{X-Trainer}i %{X-Missing}i"), entry));
+
+        // %b logs "-" for an empty or streamed body, %B logs 0
+        final AccessLogEntry streamed = new AccessLogEntry(TIME_MILLIS, null, Method.GET, "/", null,
+                Version.VERSION_1_1, new Headers(), 200, -1, 0);
+        assertEquals("- - 0", format(AccessLogFormat.pattern("%h %b %B"), streamed));
+        assertEquals("", format(AccessLogFormat.pattern(""), streamed));
+    }
+
+    @Test
+    void testInvalidPattern() {
+        assertThrows(IllegalArgumentException.class, () -> AccessLogFormat.pattern("%z"));
+        assertThrows(IllegalArgumentException.class, () -> AccessLogFormat.pattern("%h %"));
+        assertThrows(IllegalArgumentException.class, () -> AccessLogFormat.pattern("%{User-Agent}"));
+        assertThrows(IllegalArgumentException.class, () -> AccessLogFormat.pattern("%{User-Agent"));
+    }
+
+    @Test
+    void testEscape() throws UnknownHostException {
+        // values sent by the client can't forge another line or field
+        final Headers headers = new Headers();
+        headers.set("User-Agent", "evil\" \\\n127.0.0.1");
+        final AccessLogEntry entry = entry("/a\"b", "c\rd", headers);
+        assertEquals("GET /a\\\"b?c\\x0dd HTTP/1.1 evil\\\" \\\\\\x0a127.0.0.1",
+                format(AccessLogFormat.pattern("%r %{User-Agent}i"), entry));
+    }
+
+    @Test
+    void testJson() throws UnknownHostException {
+        final Headers headers = new Headers();
+        headers.set("User-Agent", "say \"hi\"\n\u0001");
+        assertEquals("{\"time\":\"2023-11-14T22:13:20Z\",\"remote\":\"127.0.0.1\",\"method\":\"GET\","
+                        + "\"path\":\"/hello\",\"query\":\"name=world\",\"version\":\"HTTP/1.1\",\"status\":200,"
+                        + "\"bytes\":11,\"duration_us\":1234,\"user_agent\":\"say \\\"hi\\\"\\n\\u0001\"}",
+                format(AccessLogFormat.JSON, entry("/hello", "name=world", headers)));
+
+        final AccessLogEntry anonymous = new AccessLogEntry(TIME_MILLIS, null, Method.POST, "/", "",
+                Version.VERSION_1_0, new Headers(), 500, -1, 0);
+        assertEquals("{\"time\":\"2023-11-14T22:13:20Z\",\"remote\":null,\"method\":\"POST\",\"path\":\"/\","
+                        + "\"query\":null,\"version\":\"HTTP/1.0\",\"status\":500,\"bytes\":-1,\"duration_us\":0,"
+                        + "\"user_agent\":null}",
+                format(AccessLogFormat.JSON, anonymous));
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.github.pokee.pswf.accesslog;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Version;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogRingTest {
+
+    /**
+     * An entry which carries its producer in the path and its sequence in the status
+     */
+    private static AccessLogEntry entry(final int producer, final int sequence) {
+        return new AccessLogEntry(0, null, Method.GET, "/" + producer, null, Version.VERSION_1_1,
+                new Headers(), sequence, 0, 0);
+    }
+
+    @Test
+    void testOrderAndCapacity() {
+        // the capacity is rounded up to a power of two
+        final AccessLogRing ring = new AccessLogRing(3);
+        assertTrue(ring.isEmpty());
+        assertNull(ring.poll());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(entry(0, i)));
+        }
+        assertFalse(ring.offer(entry(0, 4)));
+        assertFalse(ring.isEmpty());
+
+        // taking an entry frees its slot, entries are taken in the order they were added
+        assertEquals(0, ring.poll().status());
+        assertTrue(ring.offer(entry(0, 4)));
+        assertFalse(ring.offer(entry(0, 5)));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ring.poll().status());
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void testWrapsAround() {
+        final AccessLogRing ring = new AccessLogRing(4);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(ring.offer(entry(0, 2 * i)));
+            assertTrue(ring.offer(entry(0, 2 * i + 1)));
+            assertEquals(2 * i, ring.poll().status());
+            assertEquals(2 * i + 1, ring.poll().status());
+        }
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void testConcurrentProducers() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 10_000;
+        final AccessLogRing ring = new AccessLogRing(64);
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException exception) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    // the buffer is small, so producers regularly find it full and retry
+                    while (!ring.offer(entry(producer, i))) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        // every entry is taken exactly once, and the entries of each producer in the order they were added
+        final int[] next = new int[producers];
+        int taken = 0;
+        while (taken < producers * perProducer) {
+            final AccessLogEntry entry = ring.poll();
+            if (entry == null) {
+                Thread.yield();
+                continue;
+            }
+            final int producer = Integer.parseInt(entry.path().substring(1));
+            assertEquals(next[producer]++, entry.status(), "producer " + producer);
+            taken++;
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(ring.poll());
+        assertTrue(ring.isEmpty());
+    }
+
+}
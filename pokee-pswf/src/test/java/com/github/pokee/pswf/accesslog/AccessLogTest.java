@@ -0,0 +1,179 @@
+package com.github.pokee.pswf.accesslog;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.response.Response;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static Request request(final String path) {
+        return new Request(Method.GET, path, null, Version.VERSION_1_1, new Headers(), RequestBody.empty());
+    }
+
+    private static Response response(final int status) {
+        return new Response(status, "Status", new Headers(), "Pikachu".getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write a line of exactly 10 bytes with the given number
+     */
+    private static void writeLine(final RotatingFileOutputStream out, final int number) throws IOException {
+        out.write(String.format("line %04d\n", number).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLogsToFile() throws IOException {
+        final Path file = this.directory.resolve("logs/access.log");
+        final AccessLog log = AccessLog.create().file(file).pattern("%m %U %s %b").build();
+        assertTrue(log.isEnabled());
+        for (int i = 0; i < 100; i++) {
+            log.log(null, request("/pokemon/" + i), response(200), 0);
+        }
+        log.close();
+        // closing again does nothing, and entries logged after closing are discarded
+        log.close();
+        log.log(null, request("/late"), response(200), 0);
+
+        final List<String> lines = Files.readAllLines(file);
+        assertEquals(100, lines.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("GET /pokemon/" + i + " 200 7", lines.get(i));
+        }
+        assertEquals(0, log.getDropped());
+    }
+
+    @Test
+    void testDisabled() {
+        assertFalse(AccessLog.DISABLED.isEnabled());
+        AccessLog.DISABLED.log(null, request("/"), response(200), 0);
+        AccessLog.DISABLED.close();
+        assertEquals(0, AccessLog.DISABLED.getDropped());
+    }
+
+    @Test
+    void testRotation() throws IOException {
+        final Path file = this.directory.resolve("access.log");
+        final RotatingFileOutputStream out = new RotatingFileOutputStream(file, 25, 2);
+        for (int i = 1; i <= 9; i++) {
+            writeLine(out, i);
+        }
+        out.close();
+
+        // two lines fit into a file, the third one rotates it; only the two newest rotated files are kept
+        assertEquals(List.of("line 0009"), Files.readAllLines(file));
+        assertEquals(List.of("line 0007", "line 0008"), Files.readAllLines(file.resolveSibling("access.log.1")));
+        assertEquals(List.of("line 0005", "line 0006"), Files.readAllLines(file.resolveSibling("access.log.2")));
+        assertFalse(Files.exists(file.resolveSibling("access.log.3")));
+
+        // an existing file is appended to, and its size counts towards the limit
+        final RotatingFileOutputStream reopened = new RotatingFileOutputStream(file, 25, 2);
+        writeLine(reopened, 10);
+        writeLine(reopened, 11);
+        reopened.close();
+        assertEquals(List.of("line 0011"), Files.readAllLines(file));
+        assertEquals(List.of("line 0009", "line 0010"), Files.readAllLines(file.resolveSibling("access.log.1")));
+        assertEquals(List.of("line 0007", "line 0008"), Files.readAllLines(file.resolveSibling("access.log.2")));
+    }
+
+    @Test
+    void testRotationWithoutRotatedFiles() throws IOException {
+        final Path file = this.directory.resolve("access.log");
+        final RotatingFileOutputStream out = new RotatingFileOutputStream(file, 25, 0);
+        for (int i = 1; i <= 5; i++) {
+            writeLine(out, i);
+        }
+        out.close();
+        assertEquals(List.of("line 0005"), Files.readAllLines(file));
+        assertFalse(Files.exists(file.resolveSibling("access.log.1")));
+    }
+
+    @Test
+    void testLineLongerThanLimit() throws IOException {
+        // a line is never split, even if it alone exceeds the limit
+        final Path file = this.directory.resolve("access.log");
+        final RotatingFileOutputStream out = new RotatingFileOutputStream(file, 5, 1);
+        writeLine(out, 1);
+        writeLine(out, 2);
+        out.close();
+        assertEquals(List.of("line 0002"), Files.readAllLines(file));
+        assertEquals(List.of("line 0001"), Files.readAllLines(file.resolveSibling("access.log.1")));
+    }
+
+    @Test
+    void testRotatesLog() throws IOException {
+        final Path file = this.directory.resolve("access.log");
+        final AccessLog log = AccessLog.create().file(file, 1024, 3).pattern("%U").build();
+        for (int i = 0; i < 1000; i++) {
+            log.log(null, request(String.format("/pokemon/%04d", i)), response(200), 0);
+        }
+        log.close();
+
+        // each line is 14 bytes, so a file holds 73 lines; the newest lines are in the current file
+        final List<String> current = Files.readAllLines(file);
+        assertFalse(current.isEmpty());
+        assertEquals("/pokemon/0999", current.get(current.size() - 1));
+        int lines = current.size();
+        for (int i = 1; i <= 3; i++) {
+            final Path rotated = file.resolveSibling("access.log." + i);
+            assertTrue(Files.size(rotated) <= 1024);
+            lines += Files.readAllLines(rotated).size();
+        }
+        assertFalse(Files.exists(file.resolveSibling("access.log.4")));
+        assertEquals(3 * 73 + current.size(), lines);
+    }
+
+    @Test
+    void testSampling() throws IOException {
+        final Path file = this.directory.resolve("access.log");
+        final AccessLog log = AccessLog.create().file(file).sampleRate(0).pattern("%s").build();
+        for (int i = 0; i < 100; i++) {
+            log.log(null, request("/"), response(200), 0);
+            log.log(null, request("/"), response(404), 0);
+        }
+        // server errors are always logged
+        for (int i = 0; i < 10; i++) {
+            log.log(null, request("/"), response(503), 0);
+        }
+        log.close();
+        assertEquals(10, Files.readAllLines(file).size());
+        assertTrue(Files.readAllLines(file).stream().allMatch("503"::equals));
+
+        final Path sampled = this.directory.resolve("sampled.log");
+        final AccessLog half = AccessLog.create().file(sampled).sampleRate(0.5).pattern("%s").build();
+        for (int i = 0; i < 4000; i++) {
+            half.log(null, request("/"), response(200), 0);
+        }
+        half.close();
+        final int lines = Files.readAllLines(sampled).size();
+        assertTrue(lines > 1600 && lines < 2400, "lines: " + lines);
+    }
+
+    @Test
+    void testValidation() {
+        final Path file = this.directory.resolve("access.log");
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.create().file(file, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.create().file(file, 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.create().sampleRate(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.create().sampleRate(1.1));
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.create().capacity(0));
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.create().capacity((1 << 24) + 1));
+        assertThrows(IllegalArgumentException.class, () -> AccessLog.create().pattern("%z"));
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.github.pokee.pswf.connection;
+
+import com.github.pokee.pswf.response.ResponseBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.*;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class AdmissionTest {
+
+    private static final String GET = "GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private TestServer start(final UnaryOperator<WebServerBuilder.WebServerBuilderWithRouter> configure)
+            throws IOException, InterruptedException {
+        return TestServer.start(false, builder -> configure.apply(builder
+                .get("/", context -> new ResponseBuilder().text("hi").build())
+                .get("/block", context -> {
+                    this.entered.countDown();
+                    try {
+                        this.release.await();
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new ResponseBuilder().text("done").build();
+                })));
+    }
+
+    /**
+     * Opens a connection whose request blocks its handler until {@link #release} is counted down.
+     * The connection which checked that the server was started may still be handled for a moment, so the request
+     * is retried if it was rejected.
+     */
+    private Socket occupy(final TestServer server) throws IOException, InterruptedException {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            final Socket socket = server.connect();
+            TestServer.send(socket, "GET /block HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+            if (this.entered.await(250, TimeUnit.MILLISECONDS)) {
+                return socket;
+            }
+            assertEquals(503, TestServer.read(socket.getInputStream()).status());
+            socket.close();
+        }
+        throw new AssertionError("The handler was never entered");
+    }
+
+    /**
+     * Sends requests until one is admitted, as a permit is released shortly after its connection was closed.
+     */
+    private static void assertAdmitted(final TestServer server) throws IOException, InterruptedException {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            if (server.request(GET).status() == 200) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("No connection was admitted");
+    }
+
+    private void assertRejected(final TestServer server) throws IOException, InterruptedException {
+        try (Socket blocked = this.occupy(server)) {
+            final TestServer.Response response = server.request(GET);
+            assertEquals(503, response.status());
+            assertEquals("close", response.header("Connection"));
+
+            this.release.countDown();
+            assertEquals("done", TestServer.read(blocked.getInputStream()).text());
+        } finally {
+            this.release.countDown();
+        }
+        assertAdmitted(server);
+    }
+
+    @Test
+    void testMaxConnections() throws IOException, InterruptedException {
+        try (TestServer server = this.start(builder -> builder.maxConnections(1))) {
+            this.assertRejected(server);
+        }
+    }
+
+    @Test
+    void testExecutorRejection() throws IOException, InterruptedException {
+        try (TestServer server = this.start(builder -> builder.executor(ConnectionExecutors.bounded(1, 0)))) {
+            this.assertRejected(server);
+        }
+    }
+
+    @Test
+    void testBoundedQueue() throws IOException, InterruptedException {
+        try (TestServer server = this.start(builder -> builder.executor(ConnectionExecutors.bounded(1, 1)));
+             Socket blocked = this.occupy(server);
+             Socket queued = server.connect()) {
+            // the second connection waits for the thread, the third one is rejected
+            TestServer.send(queued, GET);
+            Thread.sleep(100);
+            assertEquals(503, server.request(GET).status());
+
+            this.release.countDown();
+            assertEquals("done", TestServer.read(blocked.getInputStream()).text());
+            assertEquals("hi", TestServer.read(queued.getInputStream()).text());
+        } finally {
+            this.release.countDown();
+        }
+    }
+
+    @Test
+    void testVirtualThreads() throws IOException, InterruptedException {
+        assumeTrue(ConnectionExecutors.supportsVirtualThreads());
+        try (TestServer server = this.start(builder -> builder.executor(ConnectionExecutors.virtualThreads()))) {
+            assertEquals("hi", server.request(GET).text());
+        }
+    }
+
+    @Test
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> ConnectionExecutors.bounded(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> ConnectionExecutors.bounded(1, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WebServer(0, socket -> {
+                }, ConnectionExecutors.platform(), -1));
+    }
+
+}
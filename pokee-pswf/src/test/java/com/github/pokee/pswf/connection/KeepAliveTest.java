@@ -0,0 +1,134 @@
+package com.github.pokee.pswf.connection;
+
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.response.ResponseBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeepAliveTest {
+
+    private static final String GET = "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private static Request request(final Version version, final String connection) {
+        final Headers headers = new Headers();
+        if (connection != null) {
+            headers.set(KeepAlive.CONNECTION_HEADER, connection);
+        }
+        return new Request(Method.GET, "/", null, version, headers, RequestBody.empty());
+    }
+
+    private static TestServer start(final boolean selector, final KeepAlive keepAlive)
+            throws IOException, InterruptedException {
+        return TestServer.start(selector, builder -> builder
+                .keepAlive(keepAlive.idleTimeoutMillis(), keepAlive.maxRequests())
+                .get("/", context -> new ResponseBuilder().text("hi").build())
+                .get("/echo", context -> {
+                    // earlier requests take longer, so they would finish last if handled out of order
+                    final int n = context.queryInt("n", 0);
+                    try {
+                        Thread.sleep((3 - n) * 50L);
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new ResponseBuilder().text("echo " + n).build();
+                }));
+    }
+
+    @Test
+    void testShouldKeepAlive() {
+        final Response response = new ResponseBuilder().text("hi").build();
+        final KeepAlive keepAlive = new KeepAlive(5_000, 3);
+        assertTrue(keepAlive.shouldKeepAlive(request(Version.VERSION_1_1, null), response, 1));
+        assertTrue(keepAlive.shouldKeepAlive(request(Version.VERSION_1_1, "keep-alive"), response, 2));
+        assertFalse(keepAlive.shouldKeepAlive(request(Version.VERSION_1_1, null), response, 3));
+        assertFalse(keepAlive.shouldKeepAlive(request(Version.VERSION_1_1, "Upgrade, Close"), response, 1));
+        assertFalse(keepAlive.shouldKeepAlive(request(Version.VERSION_1_0, null), response, 1));
+        assertTrue(keepAlive.shouldKeepAlive(request(Version.VERSION_1_0, "Keep-Alive"), response, 1));
+        assertFalse(keepAlive.shouldKeepAlive(request(Version.VERSION_1_1, null),
+                response.withHeader(KeepAlive.CONNECTION_HEADER, "close"), 1));
+        assertFalse(KeepAlive.DISABLED.shouldKeepAlive(request(Version.VERSION_1_1, null), response, 1));
+        assertThrows(IllegalArgumentException.class, () -> new KeepAlive(5_000, 0));
+    }
+
+    @Test
+    void testPersistentConnection() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = start(selector, KeepAlive.DEFAULT); Socket socket = server.connect()) {
+                for (int i = 0; i < 3; i++) {
+                    TestServer.send(socket, GET);
+                    final TestServer.Response response = TestServer.read(socket.getInputStream());
+                    assertEquals("hi", response.text());
+                    assertEquals("keep-alive", response.header("Connection"), "selector: " + selector);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPipelining() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = start(selector, KeepAlive.DEFAULT); Socket socket = server.connect()) {
+                final StringBuilder requests = new StringBuilder();
+                for (int n = 0; n < 3; n++) {
+                    requests.append("GET /echo?n=").append(n).append(" HTTP/1.1\r\nHost: localhost\r\n\r\n");
+                }
+                TestServer.send(socket, requests.toString());
+
+                final InputStream inputStream = socket.getInputStream();
+                for (int n = 0; n < 3; n++) {
+                    assertEquals("echo " + n, TestServer.read(inputStream).text(), "selector: " + selector);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testConnectionClose() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = start(selector, KeepAlive.DEFAULT); Socket socket = server.connect()) {
+                TestServer.send(socket, "GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+                final TestServer.Response response = TestServer.read(socket.getInputStream());
+                assertEquals("hi", response.text());
+                assertEquals("close", response.header("Connection"));
+                assertEquals(-1, socket.getInputStream().read(), "selector: " + selector);
+            }
+        }
+    }
+
+    @Test
+    void testHttp10() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = start(selector, KeepAlive.DEFAULT); Socket socket = server.connect()) {
+                TestServer.send(socket, "GET / HTTP/1.0\r\nConnection: keep-alive\r\n\r\n");
+                assertEquals("keep-alive", TestServer.read(socket.getInputStream()).header("Connection"));
+                TestServer.send(socket, "GET / HTTP/1.0\r\n\r\n");
+                assertEquals("close", TestServer.read(socket.getInputStream()).header("Connection"));
+                assertEquals(-1, socket.getInputStream().read(), "selector: " + selector);
+            }
+        }
+    }
+
+    @Test
+    void testMaxRequests() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = start(selector, new KeepAlive(5_000, 2)); Socket socket = server.connect()) {
+                TestServer.send(socket, GET + GET);
+                final InputStream inputStream = socket.getInputStream();
+                assertEquals("keep-alive", TestServer.read(inputStream).header("Connection"));
+                assertEquals("close", TestServer.read(inputStream).header("Connection"));
+                assertEquals(-1, inputStream.read(), "selector: " + selector);
+            }
+        }
+    }
+
+}
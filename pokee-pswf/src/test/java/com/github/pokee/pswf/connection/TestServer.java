@@ -0,0 +1,178 @@
+package com.github.pokee.pswf.connection;
+
+import com.github.pokee.pswf.request.ChunkedInputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs a server on a free port for a test, and reads raw HTTP responses from sockets connected to it.
+ */
+public final class TestServer implements AutoCloseable {
+
+    private final WebServer server;
+
+    private TestServer(final WebServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Builds a server for a free port and starts it in the background
+     *
+     * @param factory builds the server for the given port
+     * @return the started server, which accepts connections
+     */
+    public static TestServer start(final IntFunction<WebServer> factory) throws IOException, InterruptedException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final WebServer server = factory.apply(port);
+        final Thread thread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (final IOException ignored) {
+                // the server was stopped
+            }
+        }, "test-server-" + port);
+        thread.setDaemon(true);
+        thread.start();
+
+        // the server accepts connections once its socket is bound
+        final long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            try (Socket ignored = new Socket("localhost", port)) {
+                return new TestServer(server);
+            } catch (final ConnectException exception) {
+                if (System.nanoTime() > deadline) {
+                    throw exception;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    /**
+     * Starts a server with a router for simple paths, in thread-per-connection mode or in selector mode with a single
+     * event loop and four workers
+     *
+     * @param selector  whether to use selector mode
+     * @param configure configures the server, e.g. adds its routes
+     * @return the started server
+     */
+    public static TestServer start(final boolean selector,
+                                   final UnaryOperator<WebServerBuilder.WebServerBuilderWithRouter> configure)
+            throws IOException, InterruptedException {
+        return TestServer.start(port -> {
+            final WebServerBuilder.WebServerBuilderWithRouter builder = configure.apply(
+                    new WebServerBuilder(port).simple());
+            return (selector ? builder.selector(1, 4, 16) : builder).build();
+        });
+    }
+
+    /**
+     * @return a new connection to the server, reads time out after 10 seconds
+     */
+    public Socket connect() throws IOException {
+        final Socket socket = new Socket("localhost", this.server.getPort());
+        socket.setSoTimeout(10_000);
+        return socket;
+    }
+
+    /**
+     * Sends a request and reads its response over a new connection
+     */
+    public Response request(final String request) throws IOException {
+        try (Socket socket = this.connect()) {
+            send(socket, request);
+            return read(socket.getInputStream());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.server.stop();
+    }
+
+    public static void send(final Socket socket, final String text) throws IOException {
+        socket.getOutputStream().write(text.getBytes(StandardCharsets.ISO_8859_1));
+        socket.getOutputStream().flush();
+    }
+
+    /**
+     * Reads a response, consuming nothing after its body
+     *
+     * @param inputStream the stream of the connection
+     * @return the response
+     * @throws EOFException if the connection was closed before a response
+     */
+    public static Response read(final InputStream inputStream) throws IOException {
+        final String statusLine = readLine(inputStream);
+        if (statusLine == null) {
+            throw new EOFException("Connection closed before response");
+        }
+        final int status = Integer.parseInt(statusLine.split(" ")[1]);
+        final Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine(inputStream)) != null && !line.isEmpty()) {
+            final int colon = line.indexOf(':');
+            headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+        }
+
+        final byte[] body;
+        if (status == 204 || status == 304) {
+            body = new byte[0];
+        } else if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+            body = new ChunkedInputStream(inputStream).readAllBytes();
+        } else if (headers.containsKey("content-length")) {
+            body = inputStream.readNBytes(Integer.parseInt(headers.get("content-length")));
+        } else {
+            body = inputStream.readAllBytes();
+        }
+        return new Response(status, headers, body);
+    }
+
+    private static String readLine(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = inputStream.read()) != '\n') {
+            if (b == -1) {
+                return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * A response as it was received
+     *
+     * @param status  the status code
+     * @param headers the headers by their lowercase names
+     * @param body    the body, after removing the chunked transfer coding
+     */
+    public record Response(int status, Map<String, String> headers, byte[] body) {
+
+        public String header(final String name) {
+            return this.headers.get(name.toLowerCase());
+        }
+
+        public String text() {
+            return new String(this.body, StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
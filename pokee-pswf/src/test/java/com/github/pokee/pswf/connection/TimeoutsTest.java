@@ -0,0 +1,91 @@
+package com.github.pokee.pswf.connection;
+
+import com.github.pokee.pswf.response.ResponseBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeoutsTest {
+
+    private static final Timeouts SHORT = new Timeouts(300, 1_000, 1_000, 1_000);
+
+    private static WebServerBuilder.WebServerBuilderWithRouter builder(final int port) {
+        return new WebServerBuilder(port)
+                .simple()
+                .timeouts(SHORT)
+                .get("/", context -> new ResponseBuilder().text("hi").build());
+    }
+
+    /**
+     * Waits for the server to close a connection without receiving a response
+     */
+    private static void assertClosed(final Socket socket) {
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            try {
+                assertEquals(-1, socket.getInputStream().read());
+            } catch (final SocketException ignored) {
+                // reset by the server
+            }
+        });
+    }
+
+    @Test
+    void testRequestWaitMillis() {
+        // waiting for the next request is limited by the idle timeout
+        assertEquals(5_000, Timeouts.requestWaitMillis(5_000, 10_000, false));
+        assertEquals(5_000, Timeouts.requestWaitMillis(5_000, 0, true));
+        // a new connection waits no longer than the header timeout
+        assertEquals(5_000, Timeouts.requestWaitMillis(5_000, 10_000, true));
+        assertEquals(1_000, Timeouts.requestWaitMillis(5_000, 1_000, true));
+        // without idle timeout, the header timeout still applies
+        assertEquals(10_000, Timeouts.requestWaitMillis(0, 10_000, true));
+        assertEquals(10_000, Timeouts.requestWaitMillis(0, 10_000, false));
+        assertEquals(0, Timeouts.requestWaitMillis(0, 0, true));
+    }
+
+    @Test
+    void testSilentClientWithoutKeepAlive() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = TestServer.start(port -> {
+                final WebServerBuilder.WebServerBuilderWithRouter builder = builder(port).noKeepAlive();
+                return (selector ? builder.selector(1, 1, 16) : builder).build();
+            }); Socket socket = server.connect()) {
+                assertClosed(socket);
+            }
+        }
+    }
+
+    @Test
+    void testSilentClientWithoutIdleTimeout() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = TestServer.start(port -> {
+                final WebServerBuilder.WebServerBuilderWithRouter builder = builder(port).keepAlive(0, 100);
+                return (selector ? builder.selector(1, 1, 16) : builder).build();
+            }); Socket socket = server.connect()) {
+                // the wait for the second request is limited as well
+                TestServer.send(socket, "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n");
+                assertEquals("hi", TestServer.read(socket.getInputStream()).text());
+                assertClosed(socket);
+            }
+        }
+    }
+
+    @Test
+    void testSlowHead() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = TestServer.start(port -> {
+                final WebServerBuilder.WebServerBuilderWithRouter builder = builder(port);
+                return (selector ? builder.selector(1, 1, 16) : builder).build();
+            }); Socket socket = server.connect()) {
+                TestServer.send(socket, "GET / HTTP/1.1\r\n");
+                assertEquals(408, TestServer.read(socket.getInputStream()).status(), "selector: " + selector);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.github.pokee.pswf.connection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebServerBuilderTest {
+
+    @Test
+    void testSelectorValidation() {
+        final WebServerBuilder.WebServerBuilderWithRouter builder = new WebServerBuilder(0).simple();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.selector(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> builder.selector(1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> builder.selector(1, 1, -1));
+        assertDoesNotThrow(() -> builder.selector(1, 1, 0));
+    }
+
+    @Test
+    void testLimitValidation() {
+        final WebServerBuilder.WebServerBuilderWithRouter builder = new WebServerBuilder(0).simple();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.maxConnections(-1));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxBodySize(-1));
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.github.pokee.pswf.connection.selector;
+
+import com.github.pokee.pswf.connection.TestServer;
+import com.github.pokee.pswf.connection.WebServerBuilder;
+import com.github.pokee.pswf.response.ResponseBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SelectorWebServerTest {
+
+    private static final byte[] LARGE = new byte[4 * 1024 * 1024];
+
+    static {
+        for (int i = 0; i < LARGE.length; i++) {
+            LARGE[i] = (byte) i;
+        }
+    }
+
+    private static TestServer start(final int ioLoops, final int workerThreads, final int maxQueuedRequests)
+            throws IOException, InterruptedException {
+        return TestServer.start(port -> new WebServerBuilder(port)
+                .simple()
+                .selector(ioLoops, workerThreads, maxQueuedRequests)
+                .maxBodySize(64 * 1024)
+                .get("/", context -> new ResponseBuilder().text("hi").build())
+                .get("/large", context -> new ResponseBuilder().body(LARGE).build())
+                .post("/echo", context -> new ResponseBuilder().text(context.body().text()).build())
+                .build());
+    }
+
+    @Test
+    void testRequestBodies() throws IOException, InterruptedException {
+        try (TestServer server = start(2, 2, 16); Socket socket = server.connect()) {
+            final InputStream inputStream = socket.getInputStream();
+            TestServer.send(socket, "POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Length: 5\r\n\r\nhello");
+            assertEquals("hello", TestServer.read(inputStream).text());
+
+            TestServer.send(socket, "POST /echo HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+                    + "3\r\nhel\r\n2\r\nlo\r\n0\r\n\r\n");
+            assertEquals("hello", TestServer.read(inputStream).text());
+
+            // the head and the body arrive in several reads
+            TestServer.send(socket, "POST /echo HTTP/1.1\r\nHost: loc");
+            Thread.sleep(50);
+            TestServer.send(socket, "alhost\r\nContent-Length: 11\r\n\r\nhello");
+            Thread.sleep(50);
+            TestServer.send(socket, " world");
+            assertEquals("hello world", TestServer.read(inputStream).text());
+        }
+    }
+
+    @Test
+    void testLargeResponse() throws IOException, InterruptedException {
+        try (TestServer server = start(1, 1, 16); Socket socket = server.connect()) {
+            TestServer.send(socket, "GET /large HTTP/1.1\r\nHost: localhost\r\nAccept-Encoding: identity\r\n\r\n");
+            assertArrayEquals(LARGE, TestServer.read(socket.getInputStream()).body());
+            // the connection is still usable afterward
+            TestServer.send(socket, "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            assertEquals("hi", TestServer.read(socket.getInputStream()).text());
+        }
+    }
+
+    @Test
+    void testConcurrentConnections() throws Exception {
+        final ExecutorService clients = Executors.newFixedThreadPool(32);
+        try (TestServer server = start(2, 4, 256)) {
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(clients.submit(() -> {
+                    int answered = 0;
+                    try (Socket socket = server.connect()) {
+                        for (int j = 0; j < 5; j++) {
+                            TestServer.send(socket, "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n");
+                            if ("hi".equals(TestServer.read(socket.getInputStream()).text())) {
+                                answered++;
+                            }
+                        }
+                    }
+                    return answered;
+                }));
+            }
+            for (final Future<Integer> result : results) {
+                assertEquals(5, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSaturatedWorkers() throws IOException, InterruptedException {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try (TestServer server = TestServer.start(port -> new WebServerBuilder(port)
+                .simple()
+                .selector(1, 1, 0)
+                .get("/", context -> new ResponseBuilder().text("hi").build())
+                .get("/block", context -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new ResponseBuilder().text("done").build();
+                })
+                .build()); Socket blocked = server.connect(); Socket rejected = server.connect()) {
+            TestServer.send(blocked, "GET /block HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // the only worker is busy and no request may wait for it
+            TestServer.send(rejected, "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            final TestServer.Response response = TestServer.read(rejected.getInputStream());
+            assertEquals(503, response.status());
+            assertEquals("close", response.header("Connection"));
+
+            release.countDown();
+            assertEquals("done", TestServer.read(blocked.getInputStream()).text());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testMaxBodySize() throws IOException, InterruptedException {
+        try (TestServer server = start(1, 1, 16); Socket socket = server.connect()) {
+            TestServer.send(socket, "POST /echo HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + (64 * 1024 + 1)
+                    + "\r\n\r\n");
+            final TestServer.Response response = TestServer.read(socket.getInputStream());
+            assertEquals(413, response.status());
+            assertEquals("close", response.header("Connection"));
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.github.pokee.pswf.files;
+
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.RequestHead;
+import com.github.pokee.pswf.request.parsers.RequestHeadParser;
+import com.github.pokee.pswf.response.Response;
+import com.github.pokee.pswf.router.Context;
+import com.github.pokee.pswf.router.ParameterizableRouter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class StaticFilesTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Serve the files at /static, like WebServerBuilder#files
+     */
+    private ParameterizableRouter router(final StaticFiles files) {
+        final ParameterizableRouter router = new ParameterizableRouter();
+        router.registerRoute(Method.GET, "/static/*" + StaticFiles.PATH_PARAMETER, files);
+        return router;
+    }
+
+    /**
+     * Request a target as it is sent on the wire, so the path is decoded like any other request path
+     */
+    private static Response get(final ParameterizableRouter router, final String target) throws IOException {
+        final String text = "GET " + target + " HTTP/1.1\r\nHost: localhost\r\n\r\n";
+        final RequestHead head = new RequestHeadParser().parse(
+                ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII))
+        );
+        final Request request = Request.readRequest(head, RequestBody.empty());
+        final Context context = router.createContext(request);
+        context.getHandlers().get(0).handle(context);
+        return context.response;
+    }
+
+    private Path root() throws IOException {
+        final Path root = Files.createDirectories(this.directory.resolve("public"));
+        Files.writeString(this.directory.resolve("secret.txt"), "secret");
+        return root;
+    }
+
+    @Test
+    void testPercentInFileName() throws IOException {
+        final Path root = this.root();
+        Files.writeString(root.resolve("100%.txt"), "hundred");
+        Files.writeString(root.resolve("a%41"), "escaped");
+        Files.writeString(root.resolve("aA"), "decoded twice");
+
+        for (final StaticFiles files : new StaticFiles[]{
+                StaticFiles.create(root).build(),
+                StaticFiles.create(root).noCache().build()
+        }) {
+            final ParameterizableRouter router = this.router(files);
+            final Response hundred = get(router, "/static/100%25.txt");
+            assertEquals(200, hundred.statusCode());
+            assertEquals("hundred", body(hundred));
+            assertEquals("escaped", body(get(router, "/static/a%2541")));
+            assertEquals("decoded twice", body(get(router, "/static/a%41")));
+        }
+    }
+
+    @Test
+    void testTraversal() throws IOException {
+        final Path root = this.root();
+        Files.writeString(root.resolve("inside.txt"), "inside");
+        final ParameterizableRouter router = this.router(StaticFiles.create(root).build());
+
+        assertEquals(200, get(router, "/static/inside.txt").statusCode());
+        for (final String target : new String[]{
+                "/static/../secret.txt",
+                "/static/%2e%2e/secret.txt",
+                "/static/..%2fsecret.txt",
+                "/static/..%5csecret.txt",
+                "/static/sub/../../secret.txt",
+                "/static/%2fetc%2fpasswd"
+        }) {
+            assertEquals(404, get(router, target).statusCode(), target);
+        }
+    }
+
+    @Test
+    void testSymbolicLinkLeavingRoot() throws IOException {
+        final Path root = this.root();
+        Files.createDirectories(this.directory.resolve("outside"));
+        Files.writeString(this.directory.resolve("outside").resolve("file.txt"), "outside");
+        try {
+            Files.createSymbolicLink(root.resolve("link.txt"), this.directory.resolve("secret.txt"));
+            Files.createSymbolicLink(root.resolve("dir"), this.directory.resolve("outside"));
+            Files.createSymbolicLink(root.resolve("inside.txt"), root.resolve("target.txt"));
+        } catch (final UnsupportedOperationException | IOException exception) {
+            assumeTrue(false, "symbolic links are not supported: " + exception);
+        }
+        Files.writeString(root.resolve("target.txt"), "target");
+
+        for (final StaticFiles files : new StaticFiles[]{
+                StaticFiles.create(root).build(),
+                StaticFiles.create(root).noCache().build()
+        }) {
+            final ParameterizableRouter router = this.router(files);
+            assertEquals(404, get(router, "/static/link.txt").statusCode());
+            assertEquals(404, get(router, "/static/dir/file.txt").statusCode());
+            // links staying inside the directory are followed
+            assertEquals("target", body(get(router, "/static/inside.txt")));
+        }
+    }
+
+    private static String body(final Response response) throws IOException {
+        if (!response.isStreaming()) {
+            return new String(response.body(), StandardCharsets.UTF_8);
+        }
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.bodyWriter().writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+}
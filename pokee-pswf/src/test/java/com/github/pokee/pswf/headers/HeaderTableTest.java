@@ -0,0 +1,96 @@
+package com.github.pokee.pswf.headers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeaderTableTest {
+
+    // a new table has 16 slots
+    private static final int MASK = 15;
+
+    /**
+     * Find names whose probe sequences start at the given slot of a new table
+     */
+    private static List<String> namesWithHome(final int home, final int count) {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; names.size() < count; i++) {
+            final String name = "X-Header-" + i;
+            if ((HeaderNames.hash(name) & MASK) == home) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    @Test
+    void testGetIgnoresCase() {
+        final HeaderTable table = new HeaderTable();
+        table.getOrCreate("Content-Type").values.add("text/plain");
+
+        assertSame(table.get("Content-Type"), table.get("content-type"));
+        assertSame(table.get("Content-Type"), table.getOrCreate("CONTENT-TYPE"));
+        assertEquals(List.of("text/plain"), table.get("content-TYPE").values);
+        assertNull(table.get("Content-Length"));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testRemoveFromCollidingChain() {
+        // three names share their home slot, and the probe sequence of the last one wraps around
+        final List<String> colliding = namesWithHome(MASK, 3);
+        final String following = namesWithHome(0, 1).get(0);
+
+        final HeaderTable table = new HeaderTable();
+        for (final String name : colliding) {
+            table.getOrCreate(name);
+        }
+        table.getOrCreate(following);
+
+        assertTrue(table.remove(colliding.get(0)));
+        assertFalse(table.remove(colliding.get(0)));
+        assertNull(table.get(colliding.get(0)));
+        // the fields behind the removed one are still found, even though they were displaced
+        assertNotNull(table.get(colliding.get(1)));
+        assertNotNull(table.get(colliding.get(2)));
+        assertNotNull(table.get(following));
+        assertEquals(List.of(colliding.get(1), colliding.get(2), following), names(table));
+
+        assertTrue(table.remove(colliding.get(2)));
+        assertNotNull(table.get(colliding.get(1)));
+        assertNotNull(table.get(following));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testGrowAndCopy() {
+        final HeaderTable table = new HeaderTable();
+        for (int i = 0; i < 100; i++) {
+            table.getOrCreate("X-Header-" + i).values.add(String.valueOf(i));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertTrue(table.remove("x-header-" + i));
+        }
+
+        final HeaderTable copy = table.copy();
+        copy.get("X-Header-1").values.add("changed");
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 1, table.get("X-Header-" + i) != null, "X-Header-" + i);
+            assertEquals(i % 2 == 1, copy.get("X-Header-" + i) != null, "X-Header-" + i);
+        }
+        assertEquals(List.of("1"), table.get("X-Header-1").values);
+        assertEquals(names(table), names(copy));
+    }
+
+    private static List<String> names(final HeaderTable table) {
+        final List<String> names = new ArrayList<>();
+        for (final HeaderTable.Field field : table.fields()) {
+            names.add(field.name);
+        }
+        return names;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.github.pokee.pswf.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistogramTest {
+
+    @Test
+    void testBuckets() {
+        assertEquals(592, Histogram.BUCKETS);
+        // small values have a bucket each
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, Histogram.indexOf(value));
+            assertEquals(value, Histogram.highestValueOf(value));
+        }
+        // each power of two is split into 16 buckets
+        assertEquals(16, Histogram.indexOf(16));
+        assertEquals(31, Histogram.indexOf(31));
+        assertEquals(32, Histogram.indexOf(32));
+        assertEquals(32, Histogram.indexOf(33));
+        assertEquals(33, Histogram.indexOf(34));
+        assertEquals(33, Histogram.highestValueOf(32));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.indexOf(1L << 40));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.indexOf(Long.MAX_VALUE));
+        assertEquals((1L << 40) - 1, Histogram.highestValueOf(Histogram.BUCKETS - 1));
+
+        // the buckets are contiguous
+        for (int index = 0; index < Histogram.BUCKETS - 1; index++) {
+            assertEquals(index, Histogram.indexOf(Histogram.highestValueOf(index)));
+            assertEquals(index + 1, Histogram.indexOf(Histogram.highestValueOf(index) + 1));
+        }
+    }
+
+    @Test
+    void testPrecision() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final long value = random.nextLong() >>> (24 + random.nextInt(40));
+            final long highest = Histogram.highestValueOf(Histogram.indexOf(value));
+            assertTrue(highest >= value, value + " above its bucket");
+            assertTrue(highest - value <= value / 16, value + " imprecise: " + highest);
+        }
+    }
+
+    @Test
+    void testSnapshot() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0, histogram.snapshot().percentile(50));
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value * 1_000L);
+        }
+        histogram.record(-5);
+
+        final Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(101, snapshot.count());
+        assertEquals(5_050_000, snapshot.sum());
+        assertEquals(0, snapshot.countAtOrBelow(-1));
+        assertEquals(1, snapshot.countAtOrBelow(0));
+        assertEquals(50, snapshot.countAtOrBelow(49_151));
+        // 51000 is in the same bucket as 50000
+        assertEquals(52, snapshot.countAtOrBelow(50_000));
+        assertEquals(101, snapshot.countAtOrBelow(Long.MAX_VALUE));
+
+        final long median = snapshot.percentile(50);
+        assertTrue(median >= 50_000 && median <= 50_000 + 50_000 / 16, String.valueOf(median));
+        final long p99 = snapshot.percentile(99);
+        assertTrue(p99 >= 99_000 && p99 <= 99_000 + 99_000 / 16, String.valueOf(p99));
+        assertEquals(0, snapshot.percentile(0));
+        assertEquals(Histogram.highestValueOf(Histogram.indexOf(100_000)), snapshot.percentile(100));
+    }
+
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        final Histogram histogram = new Histogram();
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int value = 0; value < 10_000; value++) {
+                    histogram.record(value);
+                }
+            });
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.snapshot().count());
+        assertEquals(4L * (9_999L * 10_000 / 2), histogram.snapshot().sum());
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.github.pokee.pswf.metrics;
+
+import com.github.pokee.pswf.connection.TestServer;
+import com.github.pokee.pswf.connection.WebServerBuilder;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.response.ResponseBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrometheusFormatTest {
+
+    private static List<String> lines(final Metrics metrics) {
+        return PrometheusFormat.format(metrics).lines().toList();
+    }
+
+    @Test
+    void testRouteMetrics() {
+        final Metrics metrics = new Metrics();
+        final RouteMetrics route = metrics.route(Method.GET, "/pokemon/:id");
+        route.record(200, 50_000);         // 50µs
+        route.record(200, 2_000_000);      // 2ms
+        route.record(404, 3_000_000_000L); // 3s
+        route.record(42, 1);               // not a status code, only the latency counts
+        metrics.route(Method.POST, null).record(503, 0);
+        assertSame(route, metrics.route(Method.GET, "/pokemon/:id"));
+
+        final List<String> lines = lines(metrics);
+        assertTrue(lines.contains("# TYPE pswf_requests_total counter"));
+        assertTrue(lines.contains("pswf_requests_total{method=\"GET\",route=\"/pokemon/:id\",status=\"200\"} 2"));
+        assertTrue(lines.contains("pswf_requests_total{method=\"GET\",route=\"/pokemon/:id\",status=\"404\"} 1"));
+        assertTrue(lines.contains("pswf_requests_total{method=\"POST\",route=\"unmatched\",status=\"503\"} 1"));
+        assertFalse(lines.stream().anyMatch(line -> line.contains("status=\"42\"")));
+
+        // buckets are cumulative
+        final String bucket = "pswf_handler_duration_seconds_bucket{method=\"GET\",route=\"/pokemon/:id\",le=";
+        assertTrue(lines.contains(bucket + "\"0.0001\"} 2"));
+        assertTrue(lines.contains(bucket + "\"0.001\"} 2"));
+        assertTrue(lines.contains(bucket + "\"0.0025\"} 3"));
+        assertTrue(lines.contains(bucket + "\"2.5\"} 3"));
+        assertTrue(lines.contains(bucket + "\"5\"} 4"));
+        assertTrue(lines.contains(bucket + "\"+Inf\"} 4"));
+        assertTrue(lines.contains("pswf_handler_duration_seconds_count{method=\"GET\",route=\"/pokemon/:id\"} 4"));
+        assertTrue(lines.contains(
+                "pswf_handler_duration_seconds_sum{method=\"GET\",route=\"/pokemon/:id\"} 3.002050001"));
+    }
+
+    @Test
+    void testServerMetrics() {
+        final Metrics metrics = new Metrics();
+        metrics.connectionOpened();
+        metrics.connectionOpened();
+        metrics.connectionClosed();
+        metrics.addBytesReceived(100);
+        metrics.addBytesSent(250);
+        metrics.recordParse(10_000);
+
+        final List<String> lines = lines(metrics);
+        assertTrue(lines.contains("pswf_connections_total 2"));
+        assertTrue(lines.contains("pswf_active_connections 1"));
+        assertTrue(lines.contains("pswf_received_bytes_total 100"));
+        assertTrue(lines.contains("pswf_sent_bytes_total 250"));
+        assertTrue(lines.contains("pswf_parse_duration_seconds_bucket{le=\"0.0001\"} 1"));
+        assertTrue(lines.contains("pswf_parse_duration_seconds_count 1"));
+        assertTrue(lines.contains("pswf_write_duration_seconds_count 0"));
+        // every metric is described, and every line is either a comment or a sample
+        for (final String line : lines) {
+            assertTrue(line.startsWith("# HELP ") || line.startsWith("# TYPE ") || line.matches("pswf_\\S+ \\S+"),
+                    line);
+        }
+    }
+
+    @Test
+    void testEscape() {
+        assertEquals("/pokemon", PrometheusFormat.escape("/pokemon"));
+        assertEquals("a\\\"b\\\\c\\nd", PrometheusFormat.escape("a\"b\\c\nd"));
+    }
+
+    @Test
+    void testEndpoint() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = TestServer.start(port -> {
+                final WebServerBuilder.WebServerBuilderWithRouter builder = new WebServerBuilder(port)
+                        .parameterized()
+                        .metrics()
+                        .get("/pokemon/:id", context -> new ResponseBuilder().text(context.param("id")).build());
+                return (selector ? builder.selector(1, 1, 16) : builder).build();
+            })) {
+                for (final String id : new String[]{"1", "2", "3"}) {
+                    server.request("GET /pokemon/" + id + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+                }
+                server.request("GET /missing HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+
+                final TestServer.Response response = server.request(
+                        "GET /metrics HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+                assertEquals(200, response.status());
+                assertEquals(PrometheusFormat.CONTENT_TYPE, response.header("Content-Type"));
+                final List<String> lines = response.text().lines().toList();
+                // requests are recorded by their route, not their path
+                assertTrue(lines.contains(
+                        "pswf_requests_total{method=\"GET\",route=\"/pokemon/:id\",status=\"200\"} 3"
+                ), "selector: " + selector);
+                // requests no route matched are answered by the error handler
+                assertTrue(lines.stream().anyMatch(line -> line.matches(
+                        "pswf_requests_total\\{method=\"GET\",route=\"unmatched\",status=\"\\d+\"} 1")));
+                assertTrue(lines.stream().anyMatch(line -> line.startsWith("pswf_connections_total ")));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.github.pokee.pswf.request;
+
+import com.github.pokee.pswf.exception.RequestParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedInputStreamTest {
+
+    private static final String BODY = "5;name=value\r\nhello\r\n7 ; ext\r\n, world\r\n"
+            + "0\r\nExpires: never\r\nX: y\r\n\r\n";
+    private static final String NEXT = "GET / HTTP/1.1\r\n\r\n";
+
+    private static InputStream stream(final String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void testExtensionsAndTrailers() throws IOException {
+        final InputStream inputStream = stream(BODY + NEXT);
+        final ChunkedInputStream chunked = new ChunkedInputStream(inputStream);
+
+        assertEquals("hello, world", new String(chunked.readAllBytes(), StandardCharsets.US_ASCII));
+        assertEquals(-1, chunked.read());
+        // nothing after the trailer section is consumed
+        assertEquals(NEXT, new String(inputStream.readAllBytes(), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void testMalformed() {
+        for (final String text : new String[]{
+                "x\r\nhello\r\n0\r\n\r\n",
+                "\r\n",
+                "5\r\nhelloX\r\n0\r\n\r\n",
+                "1000000000000000\r\n"
+        }) {
+            assertThrows(RequestParseException.class, () -> new ChunkedInputStream(stream(text)).readAllBytes(), text);
+        }
+        assertThrows(EOFException.class, () -> new ChunkedInputStream(stream("5\r\nhel")).readAllBytes());
+        assertThrows(
+                RequestParseException.class,
+                () -> new ChunkedInputStream(stream("0\r\n" + "X: y\r\n".repeat(200) + "\r\n")).readAllBytes()
+        );
+    }
+
+    @Test
+    void testEncodedLength() throws RequestParseException {
+        final byte[] bytes = (BODY + NEXT).getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(BODY.length(), ChunkedInputStream.encodedLength(ByteBuffer.wrap(bytes)));
+        for (int length = 0; length < BODY.length(); length++) {
+            assertEquals(-1, ChunkedInputStream.encodedLength(ByteBuffer.wrap(bytes, 0, length)), "length " + length);
+        }
+    }
+
+    @Test
+    void testScannerIncremental() throws RequestParseException {
+        final byte[] bytes = (NEXT + BODY + NEXT).getBytes(StandardCharsets.ISO_8859_1);
+        final ChunkedBodyScanner scanner = new ChunkedBodyScanner();
+
+        // the body starts after the head, and arrives byte by byte
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).position(NEXT.length());
+        int length = -1;
+        for (int limit = NEXT.length(); length == -1; limit++) {
+            buffer.limit(limit);
+            length = scanner.scan(buffer);
+        }
+        assertEquals(BODY.length(), length);
+
+        // the scanner is reset for the next body
+        buffer.limit(bytes.length);
+        assertEquals(BODY.length(), scanner.scan(buffer.duplicate().position(NEXT.length())));
+    }
+
+    @Test
+    void testScannerMalformed() {
+        final byte[] missingLineBreak = "5\r\nhelloX\r\n".getBytes(StandardCharsets.US_ASCII);
+        assertThrows(
+                RequestParseException.class,
+                () -> new ChunkedBodyScanner().scan(ByteBuffer.wrap(missingLineBreak))
+        );
+        final byte[] longLine = "1".repeat(ChunkedInputStream.MAX_LINE_LENGTH + 1).getBytes(StandardCharsets.US_ASCII);
+        assertThrows(RequestParseException.class, () -> new ChunkedBodyScanner().scan(ByteBuffer.wrap(longLine)));
+    }
+
+}
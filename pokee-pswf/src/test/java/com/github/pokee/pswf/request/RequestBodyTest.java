@@ -0,0 +1,74 @@
+package com.github.pokee.pswf.request;
+
+import com.github.pokee.pswf.connection.TestServer;
+import com.github.pokee.pswf.connection.WebServerBuilder;
+import com.github.pokee.pswf.response.ResponseBuilder;
+import com.github.pokee.pswf.util.BufferPool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestBodyTest {
+
+    @Test
+    void testWithBufferGrowsWithData() {
+        final byte[] data = "Bulbasaur".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        // a client announcing almost 2 GiB must not make the server allocate them
+        final RequestBody body = new RequestBody(new ByteArrayInputStream(data), Integer.MAX_VALUE - 16, false);
+        final int read = body.withBuffer(new BufferPool(1024, 4), buffer -> {
+            assertTrue(buffer.capacity() < 2 * data.length);
+            return buffer.remaining();
+        });
+        assertEquals(data.length, read);
+    }
+
+    @Test
+    void testWithBufferKnownLength() {
+        final byte[] data = "Charmander".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        final RequestBody body = new RequestBody(new ByteArrayInputStream(data), data.length, false);
+        final String text = body.withBuffer(new BufferPool(1024, 4),
+                buffer -> StandardCharsets.UTF_8.decode(buffer).toString());
+        assertEquals("Charmander".repeat(1000), text);
+    }
+
+    @Test
+    void testMaxBodySize() throws IOException, InterruptedException {
+        try (TestServer server = TestServer.start(port -> new WebServerBuilder(port)
+                .simple()
+                .maxBodySize(1000)
+                .post("/", context -> new ResponseBuilder().text(context.body().bytes().length + "").build())
+                .build()); Socket socket = server.connect()) {
+            TestServer.send(socket, "POST / HTTP/1.1\r\nHost: localhost\r\nContent-Length: 1000\r\n\r\n"
+                    + "a".repeat(1000));
+            assertEquals("1000", TestServer.read(socket.getInputStream()).text());
+
+            // rejected before the body is sent
+            TestServer.send(socket, "POST / HTTP/1.1\r\nHost: localhost\r\nContent-Length: 1001\r\n\r\n");
+            final TestServer.Response response = TestServer.read(socket.getInputStream());
+            assertEquals(413, response.status());
+            assertEquals("close", response.header("Connection"));
+        }
+    }
+
+    @Test
+    void testMaxBodySizeChunked() throws IOException, InterruptedException {
+        try (TestServer server = TestServer.start(port -> new WebServerBuilder(port)
+                .simple()
+                .maxBodySize(1000)
+                .post("/", context -> new ResponseBuilder().text(context.body().bytes().length + "").build())
+                .build()); Socket socket = server.connect()) {
+            TestServer.send(socket, "POST / HTTP/1.1\r\nHost: localhost\r\nTransfer-Encoding: chunked\r\n\r\n"
+                    + "400\r\n" + "a".repeat(1024) + "\r\n0\r\n\r\n");
+            final TestServer.Response response = TestServer.read(socket.getInputStream());
+            assertEquals(413, response.status());
+            assertEquals("close", response.header("Connection"));
+            assertEquals(-1, socket.getInputStream().read());
+        }
+    }
+
+}
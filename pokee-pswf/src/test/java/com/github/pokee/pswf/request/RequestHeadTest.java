@@ -0,0 +1,60 @@
+package com.github.pokee.pswf.request;
+
+import com.github.pokee.pswf.exception.RequestParseException;
+import com.github.pokee.pswf.request.parsers.RequestHeadParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestHeadTest {
+
+    private static RequestHead parse(final String headers) throws RequestParseException {
+        final String text = "POST / HTTP/1.1\r\n" + headers + "\r\n";
+        return new RequestHeadParser().parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    @Test
+    void testContentLength() throws RequestParseException {
+        assertEquals(-1, parse("").contentLength());
+        assertEquals(0, parse("Content-Length: 0\r\n").contentLength());
+        assertEquals(1234, parse("content-length:1234\r\n").contentLength());
+
+        for (final String value : new String[]{"", "-1", "+1", "1 2", "0x10", "1234567890123456789"}) {
+            assertThrows(
+                    RequestParseException.class,
+                    () -> parse("Content-Length: " + value + "\r\n").contentLength(),
+                    value
+            );
+        }
+    }
+
+    @Test
+    void testDuplicateContentLength() {
+        assertThrows(
+                RequestParseException.class,
+                () -> parse("Content-Length: 5\r\nHost: x\r\nCONTENT-LENGTH: 5\r\n").contentLength()
+        );
+        assertThrows(
+                RequestParseException.class,
+                () -> parse("Content-Length: 5\r\nContent-Length: 6\r\n").contentLength()
+        );
+    }
+
+    @Test
+    void testChunked() throws RequestParseException {
+        assertFalse(parse("").isChunked());
+        assertTrue(parse("Transfer-Encoding: chunked\r\n").isChunked());
+        assertTrue(parse("transfer-encoding: Chunked\r\n").isChunked());
+
+        assertThrows(RequestParseException.class, () -> parse("Transfer-Encoding: gzip\r\n").isChunked());
+        assertThrows(RequestParseException.class, () -> parse("Transfer-Encoding: gzip, chunked\r\n").isChunked());
+        assertThrows(
+                RequestParseException.class,
+                () -> parse("Transfer-Encoding: chunked\r\nContent-Length: 3\r\n").isChunked()
+        );
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.github.pokee.pswf.request.parsers;
+
+import com.github.pokee.pswf.exception.RequestHeaderFieldsTooLargeException;
+import com.github.pokee.pswf.exception.RequestParseException;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.RequestHead;
+import com.github.pokee.pswf.request.Version;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestHeadParserTest {
+
+    private static ByteBuffer buffer(final String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void testParse() throws RequestParseException {
+        final ByteBuffer buffer = buffer("GET /pokemon/1?lang=de HTTP/1.1\r\nHost: localhost\r\n"
+                + "Accept:  text/plain \r\n\r\nbody");
+        final RequestHead head = new RequestHeadParser().parse(buffer);
+
+        assertNotNull(head);
+        assertEquals(Method.GET, head.method());
+        assertEquals(Version.VERSION_1_1, head.version());
+        assertEquals("/pokemon/1", head.path());
+        assertEquals("lang=de", head.query());
+        assertEquals(2, head.headerCount());
+        assertEquals("localhost", head.header("host"));
+        assertEquals("text/plain", head.header("Accept"));
+        // the buffer is positioned at the body
+        assertEquals('b', buffer.get());
+    }
+
+    @Test
+    void testIncremental() throws RequestParseException {
+        final String text = "\r\nPOST / HTTP/1.0\nContent-Length: 3\n\n";
+        final RequestHeadParser parser = new RequestHeadParser();
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        RequestHead head = null;
+        for (int i = 0; i < text.length(); i++) {
+            assertNull(head, "complete before byte " + i);
+            buffer.put((byte) text.charAt(i)).flip();
+            head = parser.parse(buffer);
+            assertEquals(head == null, parser.isPartial());
+            buffer.compact();
+        }
+
+        assertNotNull(head);
+        assertEquals(Method.POST, head.method());
+        assertEquals(Version.VERSION_1_0, head.version());
+        assertEquals("3", head.header("Content-Length"));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testMalformed() {
+        final RequestHeadParser parser = new RequestHeadParser();
+        for (final String text : new String[]{
+                "GET /\r\n\r\n",
+                "GET  HTTP/1.1\r\n\r\n",
+                "GET / HTTP/1.1 extra\r\n\r\n",
+                "FETCH / HTTP/1.1\r\n\r\n",
+                "GET / HTTP/4.2\r\n\r\n",
+                "GET / HTTP/1.1\r\nno colon\r\n\r\n",
+                "GET / HTTP/1.1\r\n: value\r\n\r\n",
+                "GET / HTTP/1.1\r\nTransfer-Encoding : chunked\r\n\r\n",
+                "GET / HTTP/1.1\r\nTransfer-Encoding\t: chunked\r\n\r\n"
+        }) {
+            parser.reset();
+            final RequestParseException exception = assertThrows(
+                    RequestParseException.class,
+                    () -> parser.parse(buffer(text)),
+                    text
+            );
+            assertFalse(exception instanceof RequestHeaderFieldsTooLargeException, text);
+        }
+    }
+
+    @Test
+    void testLimits() {
+        final RequestHeadParser parser = new RequestHeadParser(32, 128, 2);
+
+        // a request line which is too long is a bad request, even before its end was received
+        assertThrows(RequestParseException.class, () -> parser.parse(buffer("GET /" + "a".repeat(40))));
+        parser.reset();
+        final RequestParseException requestLine = assertThrows(
+                RequestParseException.class,
+                () -> parser.parse(buffer("GET /" + "a".repeat(40) + " HTTP/1.1\r\n\r\n"))
+        );
+        assertFalse(requestLine instanceof RequestHeaderFieldsTooLargeException);
+
+        parser.reset();
+        assertThrows(
+                RequestHeaderFieldsTooLargeException.class,
+                () -> parser.parse(buffer("GET / HTTP/1.1\r\nX: " + "a".repeat(40) + "\r\n\r\n"))
+        );
+        parser.reset();
+        assertThrows(
+                RequestHeaderFieldsTooLargeException.class,
+                () -> parser.parse(buffer("GET / HTTP/1.1\r\nA: 1\r\nB: 2\r\nC: 3\r\n\r\n"))
+        );
+        parser.reset();
+        assertThrows(
+                RequestHeaderFieldsTooLargeException.class,
+                () -> parser.parse(buffer("GET / HTTP/1.1\r\n" + "X: 1\r\n".repeat(30)))
+        );
+    }
+
+    @Test
+    void testReuse() throws RequestParseException {
+        final RequestHeadParser parser = new RequestHeadParser();
+        final ByteBuffer buffer = buffer("GET /a HTTP/1.1\r\nA: 1\r\n\r\nGET /b HTTP/1.1\r\n\r\n");
+
+        final RequestHead first = parser.parse(buffer);
+        final RequestHead second = parser.parse(buffer);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals("/a", first.path());
+        assertEquals(1, first.headerCount());
+        assertEquals("/b", second.path());
+        assertEquals(0, second.headerCount());
+        assertFalse(buffer.hasRemaining());
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.github.pokee.pswf.response;
+
+import com.github.pokee.pswf.connection.TestServer;
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionTest {
+
+    private static final String TEXT = "Snorlax is sleeping. ".repeat(200);
+
+    private static Request request(final String acceptEncoding) {
+        final Headers headers = new Headers();
+        if (acceptEncoding != null) {
+            headers.set(Compression.ACCEPT_ENCODING_HEADER, acceptEncoding);
+        }
+        return new Request(Method.GET, "/", null, Version.VERSION_1_1, headers, RequestBody.empty());
+    }
+
+    private static String decode(final byte[] body, final Compression.Encoding encoding) throws IOException {
+        final ByteArrayInputStream compressed = new ByteArrayInputStream(body);
+        try (InputStream inputStream = encoding == Compression.Encoding.GZIP
+                ? new GZIPInputStream(compressed)
+                : new InflaterInputStream(compressed)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testNegotiate() {
+        assertNull(Compression.Encoding.negotiate(null));
+        assertNull(Compression.Encoding.negotiate(" "));
+        assertNull(Compression.Encoding.negotiate("identity"));
+        assertNull(Compression.Encoding.negotiate("br"));
+        assertEquals(Compression.Encoding.GZIP, Compression.Encoding.negotiate("gzip"));
+        assertEquals(Compression.Encoding.GZIP, Compression.Encoding.negotiate("X-GZIP"));
+        assertEquals(Compression.Encoding.DEFLATE, Compression.Encoding.negotiate("deflate"));
+        // gzip is preferred if both are accepted equally
+        assertEquals(Compression.Encoding.GZIP, Compression.Encoding.negotiate("deflate, gzip"));
+        assertEquals(Compression.Encoding.DEFLATE, Compression.Encoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(Compression.Encoding.DEFLATE, Compression.Encoding.negotiate("br, deflate;q=0.2"));
+        assertNull(Compression.Encoding.negotiate("gzip;q=0, deflate;q=0"));
+        assertNull(Compression.Encoding.negotiate("gzip;q=invalid"));
+        // the wildcard applies to the codings which are not listed
+        assertEquals(Compression.Encoding.GZIP, Compression.Encoding.negotiate("*"));
+        assertEquals(Compression.Encoding.DEFLATE, Compression.Encoding.negotiate("gzip;q=0, *"));
+        assertNull(Compression.Encoding.negotiate("*;q=0"));
+    }
+
+    @Test
+    void testApply() throws IOException {
+        final Response response = new ResponseBuilder().text(TEXT).build();
+        for (final Compression.Encoding encoding : Compression.Encoding.values()) {
+            // the deflaters of this thread are reused for each response
+            for (int i = 0; i < 3; i++) {
+                final Response compressed = Compression.DEFAULT.apply(request(encoding.token()), response);
+                assertEquals(encoding.token(), compressed.headers().get(Compression.CONTENT_ENCODING_HEADER));
+                assertEquals(Compression.ACCEPT_ENCODING_HEADER, compressed.headers().get(Compression.VARY_HEADER));
+                assertEquals(String.valueOf(compressed.body().length),
+                        compressed.headers().get(ResponseBuilder.CONTENT_LENGTH_HEADER));
+                assertTrue(compressed.body().length < TEXT.length() / 10);
+                assertEquals(TEXT, decode(compressed.body(), encoding));
+            }
+        }
+
+        // clients not accepting a compressed response still learn that the response varies
+        final Response identity = Compression.DEFAULT.apply(request(null), response);
+        assertNull(identity.headers().get(Compression.CONTENT_ENCODING_HEADER));
+        assertEquals(Compression.ACCEPT_ENCODING_HEADER, identity.headers().get(Compression.VARY_HEADER));
+        assertSame(response.body(), identity.body());
+
+        final Response varying = Compression.DEFAULT.apply(request("gzip"),
+                response.withHeader(Compression.VARY_HEADER, "Origin"));
+        assertEquals("Origin, Accept-Encoding", varying.headers().get(Compression.VARY_HEADER));
+    }
+
+    @Test
+    void testEntityTag() {
+        final Response response = new ResponseBuilder().text(TEXT).etag("v1").build();
+        final Response compressed = Compression.DEFAULT.apply(request("deflate"), response);
+        assertEquals("\"v1-deflate\"", compressed.headers().get(ETags.ETAG_HEADER));
+        assertEquals("\"v1\"", response.headers().get(ETags.ETAG_HEADER));
+    }
+
+    @Test
+    void testStreamingBody() throws IOException {
+        final Headers headers = new Headers();
+        headers.set(ResponseBuilder.CONTENT_TYPE_HEADER, "application/json");
+        headers.set(ResponseBuilder.CONTENT_LENGTH_HEADER, String.valueOf(TEXT.length()));
+        final Response response = new Response(200, "OK", headers, outputStream -> {
+            for (final String part : TEXT.split("(?<=\\. )")) {
+                outputStream.write(part.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        final Response compressed = Compression.DEFAULT.apply(request("gzip"), response);
+        assertTrue(compressed.isStreaming());
+        assertNull(compressed.headers().get(ResponseBuilder.CONTENT_LENGTH_HEADER));
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        compressed.bodyWriter().writeTo(body);
+        assertEquals(TEXT, decode(body.toByteArray(), Compression.Encoding.GZIP));
+    }
+
+    @Test
+    void testIsCompressible() {
+        final Compression compression = Compression.DEFAULT;
+        assertTrue(compression.isCompressible(new ResponseBuilder().text(TEXT).build()));
+        assertTrue(compression.isCompressible(new ResponseBuilder()
+                .body(TEXT.getBytes())
+                .contentType("application/problem+json; charset=utf-8")
+                .build()));
+        // too small, not textual, already encoded, partial or disabled
+        assertFalse(compression.isCompressible(new ResponseBuilder().text("Pikachu").build()));
+        assertFalse(compression.isCompressible(new ResponseBuilder()
+                .body(TEXT.getBytes())
+                .contentType("image/png")
+                .build()));
+        assertFalse(compression.isCompressible(new ResponseBuilder()
+                .text(TEXT)
+                .set(Compression.CONTENT_ENCODING_HEADER, "br")
+                .build()));
+        assertFalse(compression.isCompressible(new ResponseBuilder().status(StatusCode.PARTIAL_CONTENT).text(TEXT)
+                .build()));
+        assertFalse(Compression.DISABLED.isCompressible(new ResponseBuilder().text(TEXT).build()));
+        assertTrue(new Compression(0, 1).isCompressible(new ResponseBuilder().text("Pikachu").build()));
+
+        assertThrows(IllegalArgumentException.class, () -> new Compression(-2, 6));
+        assertThrows(IllegalArgumentException.class, () -> new Compression(0, 10));
+    }
+
+    @Test
+    void testNegotiatedOverConnection() throws IOException, InterruptedException {
+        for (final boolean selector : new boolean[]{false, true}) {
+            try (TestServer server = TestServer.start(selector, builder -> builder
+                    .get("/", context -> new ResponseBuilder().text(TEXT).build()))) {
+                for (final Compression.Encoding encoding : Compression.Encoding.values()) {
+                    final TestServer.Response response = server.request("GET / HTTP/1.1\r\nHost: localhost\r\n"
+                            + "Accept-Encoding: br, " + encoding.token() + "\r\nConnection: close\r\n\r\n");
+                    assertEquals(encoding.token(), response.header(Compression.CONTENT_ENCODING_HEADER));
+                    assertEquals(TEXT, decode(response.body(), encoding), "selector: " + selector);
+                }
+                final TestServer.Response identity = server.request(
+                        "GET / HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+                assertNull(identity.header(Compression.CONTENT_ENCODING_HEADER));
+                assertEquals(TEXT, identity.text());
+            }
+        }
+    }
+
+}
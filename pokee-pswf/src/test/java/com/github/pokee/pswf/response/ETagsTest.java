@@ -0,0 +1,164 @@
+package com.github.pokee.pswf.response;
+
+import com.github.pokee.pswf.connection.handler.BasicRouterClientHandler;
+import com.github.pokee.pswf.connection.handler.ClientHandlerSettings;
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.router.ParameterizableRouter;
+import com.github.pokee.pswf.router.handler.Handler;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ETagsTest {
+
+    private static final String TEXT = "Jigglypuff ".repeat(512);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private BasicRouterClientHandler clientHandler(final boolean computeETags, final Compression compression) {
+        final ParameterizableRouter router = new ParameterizableRouter();
+        final Handler text = Handler.wrap(context -> {
+            this.calls.incrementAndGet();
+            return new ResponseBuilder().set("Cache-Control", "max-age=60").text(TEXT).build();
+        });
+        router.registerRoute(Method.GET, "/text", text);
+        router.registerRoute(Method.POST, "/text", text);
+        router.registerRoute(Method.GET, "/cached", new ResponseCache(1, TimeUnit.MINUTES, 16).wrap(text));
+        router.registerRoute(Method.GET, "/versioned", Handler.wrap(context -> new ResponseBuilder()
+                .etag("v1")
+                .text(TEXT)
+                .build()));
+
+        final ClientHandlerSettings defaults = ClientHandlerSettings.defaults();
+        return new BasicRouterClientHandler(
+                router,
+                (request, throwable) -> {
+                    throw new AssertionError(throwable);
+                },
+                new ClientHandlerSettings(
+                        defaults.keepAlive(),
+                        computeETags,
+                        compression,
+                        defaults.timeouts(),
+                        defaults.maxBodySize(),
+                        null,
+                        defaults.accessLog(),
+                        defaults.middleware()
+                )
+        );
+    }
+
+    private static Request request(final Method method,
+                                   final String path,
+                                   final String ifNoneMatch,
+                                   final String acceptEncoding) {
+        final Headers headers = new Headers();
+        if (ifNoneMatch != null) {
+            headers.set(ETags.IF_NONE_MATCH_HEADER, ifNoneMatch);
+        }
+        if (acceptEncoding != null) {
+            headers.set(Compression.ACCEPT_ENCODING_HEADER, acceptEncoding);
+        }
+        return new Request(method, path, null, Version.VERSION_1_1, headers, RequestBody.empty());
+    }
+
+    private static Request get(final String path, final String ifNoneMatch) {
+        return request(Method.GET, path, ifNoneMatch, null);
+    }
+
+    @Test
+    void testMatches() {
+        assertTrue(ETags.matches("\"a\"", "\"a\""));
+        assertTrue(ETags.matches("\"b\", \"a\"", "\"a\""));
+        assertTrue(ETags.matches("W/\"a\"", "\"a\""));
+        assertTrue(ETags.matches("\"a\"", "W/\"a\""));
+        assertTrue(ETags.matches("*", "\"a\""));
+        assertFalse(ETags.matches("\"ab\"", "\"a\""));
+        assertFalse(ETags.matches("\"b\",\"c\"", "\"a\""));
+        assertFalse(ETags.matches("", "\"a\""));
+
+        assertEquals("\"v1\"", ETags.strong("v1"));
+        assertThrows(IllegalArgumentException.class, () -> ETags.strong("v\"1"));
+        assertEquals(ETags.compute(TEXT.getBytes()), ETags.compute(TEXT.getBytes()));
+        assertNotEquals(ETags.compute(TEXT.getBytes()), ETags.compute("Pikachu".getBytes()));
+    }
+
+    @Test
+    void testNotModified() {
+        final BasicRouterClientHandler clientHandler = this.clientHandler(true, Compression.DISABLED);
+        final Response full = clientHandler.respond(get("/text", null));
+        final String etag = full.headers().get(ETags.ETAG_HEADER);
+        assertEquals(ETags.compute(TEXT.getBytes()), etag);
+
+        for (final String ifNoneMatch : new String[]{etag, "W/" + etag, "\"other\", " + etag, "*"}) {
+            final Response response = clientHandler.respond(get("/text", ifNoneMatch));
+            assertEquals(304, response.statusCode(), ifNoneMatch);
+            assertEquals(0, response.body().length);
+            assertEquals(etag, response.headers().get(ETags.ETAG_HEADER));
+            assertEquals("max-age=60", response.headers().get("Cache-Control"));
+            assertNull(response.headers().get("Content-Type"));
+        }
+
+        final Response modified = clientHandler.respond(get("/text", "\"other\""));
+        assertEquals(200, modified.statusCode());
+        assertArrayEquals(TEXT.getBytes(), modified.body());
+    }
+
+    @Test
+    void testHandlerVersion() {
+        final BasicRouterClientHandler clientHandler = this.clientHandler(true, Compression.DISABLED);
+        assertEquals("\"v1\"", clientHandler.respond(get("/versioned", null)).headers().get(ETags.ETAG_HEADER));
+        assertEquals(304, clientHandler.respond(get("/versioned", "\"v1\"")).statusCode());
+        assertEquals(200, clientHandler.respond(get("/versioned", ETags.compute(TEXT.getBytes()))).statusCode());
+    }
+
+    @Test
+    void testOnlyGetRequestsAreConditional() {
+        final BasicRouterClientHandler clientHandler = this.clientHandler(true, Compression.DISABLED);
+        final Response response = clientHandler.respond(request(Method.POST, "/text", "*", null));
+        assertEquals(200, response.statusCode());
+        assertNull(response.headers().get(ETags.ETAG_HEADER));
+    }
+
+    @Test
+    void testComputeDisabled() {
+        final BasicRouterClientHandler clientHandler = this.clientHandler(false, Compression.DISABLED);
+        assertNull(clientHandler.respond(get("/text", null)).headers().get(ETags.ETAG_HEADER));
+        assertEquals(200, clientHandler.respond(get("/text", "*")).statusCode());
+        // tags supplied by the handler are still honored
+        assertEquals(304, clientHandler.respond(get("/versioned", "\"v1\"")).statusCode());
+    }
+
+    @Test
+    void testCompressedRepresentation() {
+        final BasicRouterClientHandler clientHandler = this.clientHandler(true, Compression.DEFAULT);
+        final String identityTag = ETags.compute(TEXT.getBytes());
+        final Response gzip = clientHandler.respond(request(Method.GET, "/text", null, "gzip"));
+        final String gzipTag = gzip.headers().get(ETags.ETAG_HEADER);
+        assertEquals(Compression.variantTag(identityTag, Compression.Encoding.GZIP), gzipTag);
+
+        final Response notModified = clientHandler.respond(request(Method.GET, "/text", gzipTag, "gzip"));
+        assertEquals(304, notModified.statusCode());
+        assertEquals(gzipTag, notModified.headers().get(ETags.ETAG_HEADER));
+        // the uncompressed representation is a different one
+        assertEquals(200, clientHandler.respond(request(Method.GET, "/text", identityTag, "gzip")).statusCode());
+        assertEquals(304, clientHandler.respond(request(Method.GET, "/text", identityTag, null)).statusCode());
+    }
+
+    @Test
+    void testCachedResponseSkipsHandler() {
+        final BasicRouterClientHandler clientHandler = this.clientHandler(false, Compression.DISABLED);
+        final String etag = clientHandler.respond(get("/cached", null)).headers().get(ETags.ETAG_HEADER);
+        assertNotNull(etag);
+        assertEquals(304, clientHandler.respond(get("/cached", etag)).statusCode());
+        assertEquals(1, this.calls.get());
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.github.pokee.pswf.response;
+
+import com.github.pokee.pswf.annotation.generator.Cached;
+import com.github.pokee.pswf.annotation.method.GET;
+import com.github.pokee.pswf.connection.handler.BasicRouterClientHandler;
+import com.github.pokee.pswf.connection.handler.ClientHandlerSettings;
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import com.github.pokee.pswf.router.ParameterizableRouter;
+import com.github.pokee.pswf.router.handler.Handler;
+import com.github.pokee.pswf.util.router.ClassRouter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+
+    private static final String TEXT = "Pikachu ".repeat(512);
+
+    public static class CachedHandlers {
+
+        private int calls = 0;
+
+        @GET("/text")
+        @Cached
+        public Response text() {
+            this.calls++;
+            return new ResponseBuilder().text(TEXT).build();
+        }
+
+    }
+
+    private static BasicRouterClientHandler clientHandler(final Object handlers, final Compression compression) {
+        final ParameterizableRouter router = new ParameterizableRouter();
+        ClassRouter.registerRoutes(router, handlers);
+        return clientHandler(router, compression);
+    }
+
+    private static BasicRouterClientHandler clientHandler(final ParameterizableRouter router,
+                                                          final Compression compression) {
+        final ClientHandlerSettings defaults = ClientHandlerSettings.defaults();
+        return new BasicRouterClientHandler(
+                router,
+                (request, throwable) -> {
+                    throw new AssertionError(throwable);
+                },
+                new ClientHandlerSettings(
+                        defaults.keepAlive(),
+                        defaults.computeETags(),
+                        compression,
+                        defaults.timeouts(),
+                        defaults.maxBodySize(),
+                        null,
+                        defaults.accessLog(),
+                        defaults.middleware()
+                )
+        );
+    }
+
+    /**
+     * Routes {@code /pokemon/:id} through a cache, answering with the number of handler calls so far,
+     * and {@code /missing} with {@code 404 Not Found}.
+     */
+    private static BasicRouterClientHandler cachedRoutes(final ResponseCache cache, final AtomicInteger calls) {
+        final ParameterizableRouter router = new ParameterizableRouter();
+        router.registerRoute(Method.GET, "/pokemon/:id", cache.wrap(Handler.wrap(context ->
+                new ResponseBuilder().text(context.param("id") + " " + calls.incrementAndGet()).build())));
+        router.registerRoute(Method.POST, "/pokemon/:id", cache.wrap(Handler.wrap(context ->
+                new ResponseBuilder().text("created " + calls.incrementAndGet()).build())));
+        router.registerRoute(Method.GET, "/missing", cache.wrap(Handler.wrap(context -> new ResponseBuilder()
+                .status(StatusCode.NOT_FOUND)
+                .text("missing " + calls.incrementAndGet())
+                .build())));
+        return clientHandler(router, Compression.DISABLED);
+    }
+
+    private static String text(final BasicRouterClientHandler clientHandler, final String path, final String query) {
+        final Request request = new Request(Method.GET, path, query, Version.VERSION_1_1, new Headers(),
+                RequestBody.empty());
+        return new String(clientHandler.respond(request).body());
+    }
+
+    private static Request get(final String path, final String acceptEncoding) {
+        final Headers headers = new Headers();
+        if (acceptEncoding != null) {
+            headers.set(Compression.ACCEPT_ENCODING_HEADER, acceptEncoding);
+        }
+        return new Request(Method.GET, path, null, Version.VERSION_1_1, headers, RequestBody.empty());
+    }
+
+    @Test
+    void testCachedRouteWithCompressionDisabled() {
+        final CachedHandlers handlers = new CachedHandlers();
+        final BasicRouterClientHandler clientHandler = clientHandler(handlers, Compression.DISABLED);
+
+        for (int i = 0; i < 3; i++) {
+            final Response response = clientHandler.respond(get("/text", "gzip, deflate"));
+            assertEquals(200, response.statusCode());
+            assertNull(response.headers().get(Compression.CONTENT_ENCODING_HEADER), "request " + i);
+            assertArrayEquals(TEXT.getBytes(), response.body());
+        }
+        assertEquals(1, handlers.calls);
+    }
+
+    @Test
+    void testCachedRouteUsesServerCompression() {
+        final CachedHandlers handlers = new CachedHandlers();
+        final BasicRouterClientHandler clientHandler = clientHandler(handlers, Compression.DEFAULT);
+        final Response gzip = clientHandler.respond(get("/text", "gzip"));
+        assertEquals("gzip", gzip.headers().get(Compression.CONTENT_ENCODING_HEADER));
+        assertTrue(gzip.body().length < TEXT.length());
+        assertSame(gzip.body(), clientHandler.respond(get("/text", "gzip")).body());
+
+        // a minimum size above the size of the body keeps it uncompressed
+        final BasicRouterClientHandler large = clientHandler(new CachedHandlers(), new Compression(64 * 1024, 1));
+        assertNull(large.respond(get("/text", "gzip")).headers().get(Compression.CONTENT_ENCODING_HEADER));
+        assertEquals(1, handlers.calls);
+    }
+
+    @Test
+    void testTimeToLive() throws InterruptedException {
+        final ResponseCache cache = new ResponseCache(100, TimeUnit.MILLISECONDS, 16);
+        final BasicRouterClientHandler clientHandler = cachedRoutes(cache, new AtomicInteger());
+        assertEquals("1 1", text(clientHandler, "/pokemon/1", null));
+        assertEquals("1 1", text(clientHandler, "/pokemon/1", null));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        Thread.sleep(150);
+        assertEquals("1 2", text(clientHandler, "/pokemon/1", null));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testVaryBy() {
+        final ResponseCache cache = new ResponseCache(1, TimeUnit.MINUTES, 16, "lang");
+        final BasicRouterClientHandler clientHandler = cachedRoutes(cache, new AtomicInteger());
+        assertEquals("1 1", text(clientHandler, "/pokemon/1", "lang=de"));
+        assertEquals("1 2", text(clientHandler, "/pokemon/1", "lang=en"));
+        assertEquals("2 3", text(clientHandler, "/pokemon/2", "lang=de"));
+        // other query parameters are not part of the key
+        assertEquals("1 1", text(clientHandler, "/pokemon/1", "page=2&lang=de"));
+        // a missing value differs from an empty one
+        assertEquals("1 4", text(clientHandler, "/pokemon/1", null));
+        assertEquals("1 5", text(clientHandler, "/pokemon/1", "lang="));
+        assertEquals("1 4", text(clientHandler, "/pokemon/1", "page=2"));
+        assertEquals(5, cache.size());
+    }
+
+    @Test
+    void testVaryByComponentsAreNotAmbiguous() {
+        final ResponseCache cache = new ResponseCache(1, TimeUnit.MINUTES, 16, "a", "b");
+        final BasicRouterClientHandler clientHandler = cachedRoutes(cache, new AtomicInteger());
+        assertEquals("1 1", text(clientHandler, "/pokemon/1", "a=x%3A1%3Ay&b=z"));
+        assertEquals("1 2", text(clientHandler, "/pokemon/1", "a=x&b=1%3Ay%3Az"));
+        assertEquals("1 3", text(clientHandler, "/pokemon/1", "a=x-&b=z"));
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        final ResponseCache cache = new ResponseCache(1, TimeUnit.MINUTES, 2);
+        final BasicRouterClientHandler clientHandler = cachedRoutes(cache, new AtomicInteger());
+        assertEquals("1 1", text(clientHandler, "/pokemon/1", null));
+        assertEquals("2 2", text(clientHandler, "/pokemon/2", null));
+        assertEquals("1 1", text(clientHandler, "/pokemon/1", null));
+        // evicts 2, which was used least recently
+        assertEquals("3 3", text(clientHandler, "/pokemon/3", null));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        assertEquals("1 1", text(clientHandler, "/pokemon/1", null));
+        assertEquals("2 4", text(clientHandler, "/pokemon/2", null));
+    }
+
+    @Test
+    void testOnlySuccessfulGetRequestsAreCached() {
+        final ResponseCache cache = new ResponseCache(1, TimeUnit.MINUTES, 16);
+        final AtomicInteger calls = new AtomicInteger();
+        final BasicRouterClientHandler clientHandler = cachedRoutes(cache, calls);
+        assertEquals("missing 1", text(clientHandler, "/missing", null));
+        assertEquals("missing 2", text(clientHandler, "/missing", null));
+
+        final Request post = new Request(Method.POST, "/pokemon/1", null, Version.VERSION_1_1, new Headers(),
+                RequestBody.empty());
+        assertEquals("created 3", new String(clientHandler.respond(post).body()));
+        assertEquals("created 4", new String(clientHandler.respond(post).body()));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache(0, TimeUnit.SECONDS, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache(1, TimeUnit.SECONDS, 0));
+    }
+
+}
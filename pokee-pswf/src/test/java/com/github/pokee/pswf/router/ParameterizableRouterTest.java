@@ -0,0 +1,108 @@
+package com.github.pokee.pswf.router;
+
+import com.github.pokee.pswf.exception.NoRouteMatchedException;
+import com.github.pokee.pswf.headers.Headers;
+import com.github.pokee.pswf.request.Method;
+import com.github.pokee.pswf.request.Request;
+import com.github.pokee.pswf.request.RequestBody;
+import com.github.pokee.pswf.request.Version;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterizableRouterTest {
+
+    private static ParameterizableRouter router(final String... routes) {
+        final ParameterizableRouter router = new ParameterizableRouter();
+        for (final String route : routes) {
+            router.registerRoute(Method.GET, route, context -> {
+            });
+        }
+        return router;
+    }
+
+    private static Context match(final ParameterizableRouter router, final Method method, final String path) {
+        final Request request = new Request(
+                method,
+                path,
+                null,
+                Version.VERSION_1_1,
+                new Headers(),
+                RequestBody.empty()
+        );
+        return router.createContext(request);
+    }
+
+    private static Context match(final ParameterizableRouter router, final String path) {
+        return match(router, Method.GET, path);
+    }
+
+    @Test
+    void testPrecedence() {
+        final ParameterizableRouter router = router("/pokemon/*rest", "/pokemon/:id", "/pokemon/list");
+
+        assertEquals("/pokemon/list", match(router, "/pokemon/list").getRoute());
+
+        final Context parameter = match(router, "/pokemon/25");
+        assertEquals("/pokemon/:id", parameter.getRoute());
+        assertEquals("25", parameter.param("id"));
+
+        final Context wildcard = match(router, "/pokemon/25/moves");
+        assertEquals("/pokemon/*rest", wildcard.getRoute());
+        assertEquals("25/moves", wildcard.param("rest"));
+    }
+
+    @Test
+    void testBacktracking() {
+        final ParameterizableRouter router = router("/a/b/c", "/a/:x/d", "/a/*");
+
+        // the static segment b leads to a dead end, so the parameter is tried next
+        final Context parameter = match(router, "/a/b/d");
+        assertEquals("/a/:x/d", parameter.getRoute());
+        assertEquals("b", parameter.param("x"));
+
+        // neither the static segment nor the parameter lead to a route
+        final Context wildcard = match(router, "/a/b/e");
+        assertEquals("/a/*", wildcard.getRoute());
+        assertEquals("b/e", wildcard.param("*"));
+
+        assertEquals("/a/b/c", match(router, "/a/b/c").getRoute());
+    }
+
+    @Test
+    void testParameters() {
+        final ParameterizableRouter router = router("/:type/:id/moves", "/:type/:id");
+
+        final Context context = match(router, "//pokemon//7/moves/");
+        assertEquals("/:type/:id/moves", context.getRoute());
+        assertEquals("pokemon", context.param("type"));
+        assertEquals("7", context.param("id"));
+        assertEquals(7, context.paramInt("id"));
+    }
+
+    @Test
+    void testWildcardMatchesEmptyRest() {
+        final ParameterizableRouter router = router("/files/*path");
+
+        final Context context = match(router, "/files");
+        assertEquals("/files/*path", context.getRoute());
+        assertEquals("", context.param("path"));
+    }
+
+    @Test
+    void testNoMatch() {
+        final ParameterizableRouter router = router("/pokemon/:id", "/");
+
+        assertEquals("/", match(router, "/").getRoute());
+        assertThrows(NoRouteMatchedException.class, () -> match(router, "/pokemon/1/moves"));
+        assertThrows(NoRouteMatchedException.class, () -> match(router, "/items"));
+        // routes only match requests of the methods they have handlers for
+        assertThrows(NoRouteMatchedException.class, () -> match(router, Method.POST, "/pokemon/1"));
+    }
+
+    @Test
+    void testWildcardMustBeLast() {
+        assertThrows(IllegalArgumentException.class, () -> router("/files/*/meta"));
+    }
+
+}